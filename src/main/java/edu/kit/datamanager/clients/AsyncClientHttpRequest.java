@@ -0,0 +1,340 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.clients;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+import org.apache.commons.io.IOUtils;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Request sent via the non-blocking HTTP client of an {@link HttpEngine}.
+ * Headers and body are written like for any other ClientHttpRequest, e.g. by
+ * the message converters of a RestTemplate, but the request is sent by
+ * {@link #executeAsync()} without blocking the calling thread. The returned
+ * future completes on an I/O thread of the engine as soon as the response
+ * has been received completely.
+ *
+ * The request applies the settings of the engine, which the blocking
+ * requests receive from the request factory of the engine: compression of
+ * request bodies, decompression of responses, retries and circuit breaking
+ * of the resilience policy (hedging is not supported) and metrics. Request
+ * bodies are buffered before sending, responses are buffered before the
+ * future completes.
+ *
+ * @author hartmann-v
+ */
+final class AsyncClientHttpRequest implements ClientHttpRequest {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(AsyncClientHttpRequest.class);
+
+  private final CloseableHttpAsyncClient client;
+  private final URI uri;
+  private final HttpMethod method;
+  private final String host;
+  private final ResiliencePolicy policy;
+  private final ClientMetrics metrics;
+  private final int compressionThreshold;
+  private final boolean responseCompression;
+  private final HttpHeaders headers = new HttpHeaders();
+  private final Map<String, Object> attributes = new HashMap<>();
+  private ByteArrayOutputStream bufferedBody = null;
+
+  /**
+   * Create a request.
+   *
+   * @param client Non-blocking HTTP client.
+   * @param uri Request URI.
+   * @param method HTTP method.
+   * @param policy Resilience policy or null.
+   * @param metrics Client metrics or null.
+   * @param compressionThreshold Min. size of request bodies compressed with
+   * gzip or -1 to disable request compression.
+   * @param responseCompression TRUE to accept compressed responses.
+   */
+  AsyncClientHttpRequest(CloseableHttpAsyncClient client, URI uri, HttpMethod method, ResiliencePolicy policy, ClientMetrics metrics, int compressionThreshold, boolean responseCompression) {
+    this.client = client;
+    this.uri = uri;
+    this.method = method;
+    this.host = uri.getHost() + ":" + uri.getPort();
+    this.policy = policy;
+    this.metrics = metrics;
+    this.compressionThreshold = compressionThreshold;
+    this.responseCompression = responseCompression;
+  }
+
+  @Override
+  public HttpMethod getMethod() {
+    return method;
+  }
+
+  @Override
+  public URI getURI() {
+    return uri;
+  }
+
+  @Override
+  public HttpHeaders getHeaders() {
+    return headers;
+  }
+
+  public Map<String, Object> getAttributes() {
+    return attributes;
+  }
+
+  @Override
+  public OutputStream getBody() {
+    if (bufferedBody == null) {
+      bufferedBody = new ByteArrayOutputStream();
+    }
+    return bufferedBody;
+  }
+
+  /**
+   * Send the request and wait for the response.
+   *
+   * @return Buffered response.
+   * @throws IOException If sending the request failed.
+   */
+  @Override
+  public ClientHttpResponse execute() throws IOException {
+    try {
+      return executeAsync().get();
+    } catch (ExecutionException ex) {
+      Throwable cause = ex.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IOException("Request to " + uri + " failed.", cause);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Request to " + uri + " was interrupted.");
+    }
+  }
+
+  /**
+   * Send the request without blocking. The future fails with an
+   * IOException, e.g. {@link CircuitOpenException}, if no response was
+   * received. Responses with error status complete the future normally.
+   *
+   * @return Future holding the buffered response.
+   */
+  CompletableFuture<ClientHttpResponse> executeAsync() {
+    CompletableFuture<ClientHttpResponse> result = new CompletableFuture<>();
+    SimpleHttpRequest request;
+    try {
+      request = createRequest();
+    } catch (IOException ex) {
+      result.completeExceptionally(ex);
+      return result;
+    }
+    boolean repeatable = policy != null && policy.isIdempotent(method.name());
+    int maxAttempts = repeatable ? policy.getMaxRetries() + 1 : 1;
+    send(request, 0, maxAttempts, result);
+    return result;
+  }
+
+  /**
+   * Transform headers and body into a request of the HTTP client. The body
+   * is compressed if it exceeds the compression threshold.
+   *
+   * @return Request.
+   * @throws IOException If compressing the body failed.
+   */
+  private SimpleHttpRequest createRequest() throws IOException {
+    SimpleHttpRequest request = new SimpleHttpRequest(method.name(), uri);
+    headers.forEach((name, values) -> {
+      // set by the HTTP client according to the body
+      if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name) && !HttpHeaders.TRANSFER_ENCODING.equalsIgnoreCase(name)) {
+        values.forEach(value -> request.addHeader(name, value));
+      }
+    });
+    if (responseCompression && !headers.containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+      request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+    }
+    if (bufferedBody != null) {
+      byte[] content = bufferedBody.toByteArray();
+      if (compressionThreshold >= 0 && content.length >= compressionThreshold && !headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+          gzip.write(content);
+        }
+        LOGGER.trace("Compressed request body for {} from {} to {} bytes.", uri, content.length, compressed.size());
+        content = compressed.toByteArray();
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, CompressingRequestFactory.GZIP);
+      }
+      String contentType = headers.getFirst(HttpHeaders.CONTENT_TYPE);
+      request.setBody(content, (contentType != null) ? ContentType.parseLenient(contentType) : ContentType.APPLICATION_OCTET_STREAM);
+    }
+    return request;
+  }
+
+  /**
+   * Send the request once if permitted by the circuit breaker. Failed
+   * attempts are repeated after the backoff of the resilience policy without
+   * occupying a thread while waiting.
+   *
+   * @param request Request.
+   * @param attempt Number of the attempt starting with 0.
+   * @param maxAttempts Max. number of attempts.
+   * @param result Future receiving the response.
+   */
+  private void send(SimpleHttpRequest request, int attempt, int maxAttempts, CompletableFuture<ClientHttpResponse> result) {
+    if (result.isDone()) {
+      return;
+    }
+    if (policy != null && !policy.tryAcquire(host)) {
+      result.completeExceptionally(new CircuitOpenException(host));
+      return;
+    }
+    String uriTag = (metrics != null) ? metrics.uriTag(uri) : null;
+    long requestBytes = (request.getBodyBytes() != null) ? request.getBodyBytes().length : 0;
+    long start = System.nanoTime();
+    Future<SimpleHttpResponse> pending = client.execute(request, new FutureCallback<SimpleHttpResponse>() {
+      @Override
+      public void completed(SimpleHttpResponse response) {
+        long nanos = System.nanoTime() - start;
+        int status = response.getCode();
+        byte[] content = response.getBodyBytes();
+        if (metrics != null) {
+          metrics.recordExchange(method.name(), uriTag, status, nanos, requestBytes, (content != null) ? content.length : 0);
+        }
+        if (policy != null) {
+          policy.recordLatency(host, nanos);
+          // report any outcome, otherwise a trial request keeps the circuit half open
+          if (status < 500) {
+            policy.onSuccess(host);
+          } else {
+            policy.onFailure(host);
+          }
+        }
+        if (attempt + 1 < maxAttempts && policy.isRetryableStatus(status)) {
+          LOGGER.debug("{} request to {} returned with status {}. Retrying.", method, uri, status);
+          retry(request, attempt, maxAttempts, result);
+          return;
+        }
+        try {
+          result.complete(toResponse(response));
+        } catch (IOException | RuntimeException ex) {
+          result.completeExceptionally(ex);
+        }
+      }
+
+      @Override
+      public void failed(Exception ex) {
+        if (metrics != null) {
+          metrics.recordExchange(method.name(), uriTag, -1, System.nanoTime() - start, requestBytes, 0);
+        }
+        if (policy != null) {
+          policy.onFailure(host);
+        }
+        if (ex instanceof IOException && attempt + 1 < maxAttempts) {
+          LOGGER.debug("{} request to {} failed with {}. Retrying.", method, uri, ex.getMessage());
+          retry(request, attempt, maxAttempts, result);
+          return;
+        }
+        result.completeExceptionally(ex);
+      }
+
+      @Override
+      public void cancelled() {
+        result.cancel(false);
+      }
+    });
+    result.whenComplete((response, error) -> {
+      if (result.isCancelled()) {
+        pending.cancel(true);
+      }
+    });
+  }
+
+  /**
+   * Schedule the next attempt after the backoff of the resilience policy.
+   *
+   * @param request Request.
+   * @param attempt Number of the failed attempt.
+   * @param maxAttempts Max. number of attempts.
+   * @param result Future receiving the response.
+   */
+  private void retry(SimpleHttpRequest request, int attempt, int maxAttempts, CompletableFuture<ClientHttpResponse> result) {
+    policy.retried();
+    CompletableFuture.delayedExecutor(policy.getBackoffMillis(attempt), TimeUnit.MILLISECONDS).
+            execute(() -> send(request, attempt + 1, maxAttempts, result));
+  }
+
+  /**
+   * Transform the response of the HTTP client into a buffered response. A
+   * body still encoded with gzip or deflate is decompressed.
+   *
+   * @param response Response of the HTTP client.
+   * @return Buffered response.
+   * @throws IOException If decompressing the body failed.
+   */
+  private static BufferedClientHttpResponse toResponse(SimpleHttpResponse response) throws IOException {
+    HttpHeaders responseHeaders = new HttpHeaders();
+    for (Header header : response.getHeaders()) {
+      responseHeaders.add(header.getName(), header.getValue());
+    }
+    byte[] content = response.getBodyBytes();
+    String contentEncoding = responseHeaders.getFirst(HttpHeaders.CONTENT_ENCODING);
+    if (content != null && contentEncoding != null) {
+      InputStream decoded = null;
+      if ("gzip".equalsIgnoreCase(contentEncoding) || "x-gzip".equalsIgnoreCase(contentEncoding)) {
+        decoded = new GZIPInputStream(new ByteArrayInputStream(content));
+      } else if ("deflate".equalsIgnoreCase(contentEncoding)) {
+        decoded = new InflaterInputStream(new ByteArrayInputStream(content));
+      }
+      if (decoded != null) {
+        try (InputStream in = decoded) {
+          content = IOUtils.toByteArray(in);
+        }
+        // the headers describe the decoded body, as for the blocking client
+        responseHeaders.remove(HttpHeaders.CONTENT_ENCODING);
+        responseHeaders.remove(HttpHeaders.CONTENT_LENGTH);
+      }
+    }
+    return new BufferedClientHttpResponse(HttpStatusCode.valueOf(response.getCode()), responseHeaders, content);
+  }
+}
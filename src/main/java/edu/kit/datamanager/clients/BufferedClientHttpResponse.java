@@ -0,0 +1,77 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.clients;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Fully received response, which can be read multiple times, e.g. from a
+ * response cache.
+ *
+ * @author hartmann-v
+ */
+final class BufferedClientHttpResponse implements ClientHttpResponse {
+
+  private final HttpStatusCode statusCode;
+  private final HttpHeaders headers;
+  private final byte[] body;
+
+  BufferedClientHttpResponse(HttpStatusCode statusCode, HttpHeaders headers, byte[] body) {
+    this.statusCode = statusCode;
+    this.headers = headers;
+    this.body = (body != null) ? body : new byte[0];
+  }
+
+  @Override
+  public HttpStatusCode getStatusCode() {
+    return statusCode;
+  }
+
+  @Override
+  public String getStatusText() {
+    HttpStatus status = HttpStatus.resolve(statusCode.value());
+    return (status != null) ? status.getReasonPhrase() : "";
+  }
+
+  @Override
+  public InputStream getBody() {
+    return new ByteArrayInputStream(body);
+  }
+
+  @Override
+  public HttpHeaders getHeaders() {
+    return headers;
+  }
+
+  /**
+   * Get the length of the body.
+   *
+   * @return Length in bytes.
+   */
+  int getBodyLength() {
+    return body.length;
+  }
+
+  @Override
+  public void close() {
+    // nothing to release, body is already buffered
+  }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.clients;
+
+import java.io.IOException;
+
+/**
+ * Signals that a request was not sent because the circuit breaker of the
+ * target host is open.
+ *
+ * @author hartmann-v
+ */
+public class CircuitOpenException extends IOException {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Create exception.
+   *
+   * @param host Host and port of the rejected request.
+   */
+  public CircuitOpenException(String host) {
+    super("Circuit breaker for host " + host + " is open. Request was not sent.");
+  }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.clients;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.net.URI;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Micrometer instrumentation of an {@link HttpEngine}. The following meters
+ * are recorded for all blocking requests of the engine:
+ * <ul>
+ * <li>{@value #REQUESTS}: Timer per method, URI template, status and
+ * outcome measuring the whole exchange until the response is closed. The
+ * count of the timer provides the number of requests per status.</li>
+ * <li>{@value #REQUEST_SIZE} and {@value #RESPONSE_SIZE}: Transferred body
+ * bytes per method and URI template.</li>
+ * <li>{@value #CONNECTION_ACQUIRE}: Time for obtaining a connection from the
+ * pool including the connect time of new connections.</li>
+ * <li>{@value #REDIRECTS}: Number of followed redirects per method.</li>
+ * <li>{@value #POOL}: Gauges for leased, pending, available and max.
+ * connections of the pool, distinguished by the tags 'engine' and
+ * 'state'.</li>
+ * </ul>
+ * To keep the cardinality of the 'uri' tag bounded, identifiers in the path
+ * are replaced by '{id}', the relative path of data is replaced by '{path}'
+ * and all templates exceeding the max. number of URI tags are reported as
+ * 'OTHER'.
+ *
+ * @author hartmann-v
+ */
+public final class ClientMetrics {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ClientMetrics.class);
+  /**
+   * Name of the request timer.
+   */
+  public static final String REQUESTS = "kitdm.client.requests";
+  /**
+   * Name of the summary of request body sizes.
+   */
+  public static final String REQUEST_SIZE = "kitdm.client.request.size";
+  /**
+   * Name of the summary of response body sizes.
+   */
+  public static final String RESPONSE_SIZE = "kitdm.client.response.size";
+  /**
+   * Name of the connection acquisition timer.
+   */
+  public static final String CONNECTION_ACQUIRE = "kitdm.client.connection.acquire";
+  /**
+   * Name of the redirect counter.
+   */
+  public static final String REDIRECTS = "kitdm.client.redirects";
+  /**
+   * Name of the connection pool gauges.
+   */
+  public static final String POOL = "kitdm.client.pool.connections";
+  /**
+   * Default max. number of distinct URI tags.
+   */
+  public static final int DEFAULT_MAX_URI_TAGS = 100;
+  /**
+   * URI tag used if the max. number of URI tags is exceeded.
+   */
+  static final String OTHER_URI = "OTHER";
+  private static final Pattern VERSION_SEGMENT = Pattern.compile("v\\d+");
+  private static final Pattern LITERAL_SEGMENT = Pattern.compile("[A-Za-z_-]{1,32}");
+  private static final AtomicInteger ENGINE_COUNTER = new AtomicInteger();
+
+  private final MeterRegistry registry;
+  private final int maxUriTags;
+  private final Set<String> uriTags = ConcurrentHashMap.newKeySet();
+
+  ClientMetrics(MeterRegistry registry, int maxUriTags) {
+    this.registry = registry;
+    this.maxUriTags = maxUriTags;
+  }
+
+  /**
+   * Derive the URI template from the path of a request URI. Segments which
+   * are not purely literal (e.g. UUIDs or names with digits) are replaced by
+   * '{id}', everything after a segment 'data' is replaced by '{path}'.
+   *
+   * @param uri Request URI.
+   * @return URI template, e.g. '/api/v1/dataresources/{id}/data/{path}'.
+   */
+  static String toUriTemplate(URI uri) {
+    String path = uri.getRawPath();
+    if (path == null || path.isEmpty() || "/".equals(path)) {
+      return "/";
+    }
+    StringBuilder template = new StringBuilder();
+    for (String segment : path.substring(1).split("/", -1)) {
+      template.append('/');
+      if (segment.isEmpty()) {
+        continue;
+      }
+      if (LITERAL_SEGMENT.matcher(segment).matches() || VERSION_SEGMENT.matcher(segment).matches()) {
+        template.append(segment);
+        if ("data".equals(segment)) {
+          template.append("/{path}");
+          break;
+        }
+      } else {
+        template.append("{id}");
+      }
+    }
+    return template.toString();
+  }
+
+  /**
+   * Get the value of the 'uri' tag for a request URI.
+   *
+   * @param uri Request URI.
+   * @return URI template or {@link #OTHER_URI}.
+   */
+  String uriTag(URI uri) {
+    String template = toUriTemplate(uri);
+    if (uriTags.contains(template)) {
+      return template;
+    }
+    if (uriTags.size() >= maxUriTags) {
+      return OTHER_URI;
+    }
+    if (uriTags.add(template) && uriTags.size() == maxUriTags) {
+      LOGGER.warn("Reached max. number of {} URI tags for client metrics. Further URIs are reported as '{}'.", maxUriTags, OTHER_URI);
+    }
+    return template;
+  }
+
+  /**
+   * Record a finished exchange.
+   *
+   * @param method HTTP method.
+   * @param uri URI tag.
+   * @param status HTTP status or -1 if no response was received.
+   * @param nanos Duration of the exchange.
+   * @param requestBytes Number of request body bytes.
+   * @param responseBytes Number of response body bytes.
+   */
+  void recordExchange(String method, String uri, int status, long nanos, long requestBytes, long responseBytes) {
+    Timer.builder(REQUESTS).
+            description("Requests sent by SimpleServiceClient").
+            tags(Tags.of("method", method, "uri", uri, "status", (status < 0) ? "IO_ERROR" : Integer.toString(status), "outcome", outcome(status))).
+            register(registry).
+            record(nanos, TimeUnit.NANOSECONDS);
+    Tags tags = Tags.of("method", method, "uri", uri);
+    if (requestBytes > 0) {
+      DistributionSummary.builder(REQUEST_SIZE).baseUnit("bytes").tags(tags).register(registry).record(requestBytes);
+    }
+    DistributionSummary.builder(RESPONSE_SIZE).baseUnit("bytes").tags(tags).register(registry).record(responseBytes);
+  }
+
+  /**
+   * Record the time for obtaining a connection.
+   *
+   * @param nanos Duration in nanoseconds.
+   */
+  void recordConnectionAcquire(long nanos) {
+    Timer.builder(CONNECTION_ACQUIRE).
+            description("Time for obtaining a pooled or new connection").
+            register(registry).
+            record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Count a followed redirect.
+   *
+   * @param method HTTP method.
+   */
+  void recordRedirect(String method) {
+    Counter.builder(REDIRECTS).tags("method", method.toUpperCase(Locale.ROOT)).register(registry).increment();
+  }
+
+  /**
+   * Register gauges for the statistics of the connection pool.
+   *
+   * @param connectionManager Connection pool.
+   */
+  void bindConnectionPool(PoolingHttpClientConnectionManager connectionManager) {
+    String engine = "engine-" + ENGINE_COUNTER.incrementAndGet();
+    Gauge.builder(POOL, connectionManager, manager -> manager.getTotalStats().getLeased()).tags("engine", engine, "state", "leased").register(registry);
+    Gauge.builder(POOL, connectionManager, manager -> manager.getTotalStats().getPending()).tags("engine", engine, "state", "pending").register(registry);
+    Gauge.builder(POOL, connectionManager, manager -> manager.getTotalStats().getAvailable()).tags("engine", engine, "state", "available").register(registry);
+    Gauge.builder(POOL, connectionManager, manager -> manager.getTotalStats().getMax()).tags("engine", engine, "state", "max").register(registry);
+  }
+
+  /**
+   * Get the registry the meters are registered at.
+   *
+   * @return Meter registry.
+   */
+  public MeterRegistry getRegistry() {
+    return registry;
+  }
+
+  private static String outcome(int status) {
+    if (status < 100) {
+      return "UNKNOWN";
+    }
+    switch (status / 100) {
+      case 1:
+        return "INFORMATIONAL";
+      case 2:
+        return "SUCCESS";
+      case 3:
+        return "REDIRECTION";
+      case 4:
+        return "CLIENT_ERROR";
+      case 5:
+        return "SERVER_ERROR";
+      default:
+        return "UNKNOWN";
+    }
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.clients;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Request factory compressing request bodies of the wrapped factory with
+ * gzip. Only bodies of at least the configured size are compressed, smaller
+ * bodies and bodies which are already encoded are sent unchanged. Streamed
+ * bodies which cannot be written twice, e.g. multipart uploads, are passed
+ * through without buffering and are not compressed.
+ *
+ * @author hartmann-v
+ */
+final class CompressingRequestFactory implements ClientHttpRequestFactory {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(CompressingRequestFactory.class);
+  /**
+   * Content encoding of compressed request bodies.
+   */
+  static final String GZIP = "gzip";
+
+  private final ClientHttpRequestFactory delegate;
+  private final int minSize;
+
+  CompressingRequestFactory(ClientHttpRequestFactory delegate, int minSize) {
+    this.delegate = delegate;
+    this.minSize = minSize;
+  }
+
+  @Override
+  public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+    return new CompressingRequest(delegate.createRequest(uri, httpMethod));
+  }
+
+  /**
+   * Request buffering its body until execution to decide about compression.
+   */
+  private final class CompressingRequest implements ClientHttpRequest, StreamingHttpOutputMessage {
+
+    private final ClientHttpRequest request;
+    private final Map<String, Object> attributes = new HashMap<>();
+    private ByteArrayOutputStream bufferedBody = null;
+    private boolean streamed = false;
+
+    CompressingRequest(ClientHttpRequest request) {
+      this.request = request;
+    }
+
+    @Override
+    public HttpMethod getMethod() {
+      return request.getMethod();
+    }
+
+    @Override
+    public URI getURI() {
+      return request.getURI();
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+      return request.getHeaders();
+    }
+
+    public Map<String, Object> getAttributes() {
+      return attributes;
+    }
+
+    @Override
+    public OutputStream getBody() {
+      if (bufferedBody == null) {
+        bufferedBody = new ByteArrayOutputStream();
+      }
+      return bufferedBody;
+    }
+
+    @Override
+    public void setBody(Body body) {
+      if (body.repeatable()) {
+        try {
+          body.writeTo(getBody());
+          return;
+        } catch (IOException ex) {
+          throw new IllegalStateException("Failed to buffer request body.", ex);
+        }
+      }
+      streamed = true;
+      if (request instanceof StreamingHttpOutputMessage) {
+        ((StreamingHttpOutputMessage) request).setBody(body);
+      } else {
+        try {
+          body.writeTo(request.getBody());
+        } catch (IOException ex) {
+          throw new IllegalStateException("Failed to write request body.", ex);
+        }
+      }
+    }
+
+    @Override
+    public ClientHttpResponse execute() throws IOException {
+      if (!streamed && bufferedBody != null) {
+        byte[] content = bufferedBody.toByteArray();
+        if (content.length >= minSize && !request.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+          ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 4 + 64);
+          try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(content);
+          }
+          LOGGER.trace("Compressed request body for {} from {} to {} bytes.", request.getURI(), content.length, compressed.size());
+          content = compressed.toByteArray();
+          request.getHeaders().set(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        request.getHeaders().setContentLength(content.length);
+        write(content);
+      }
+      return request.execute();
+    }
+
+    private void write(byte[] content) throws IOException {
+      if (request instanceof StreamingHttpOutputMessage) {
+        ((StreamingHttpOutputMessage) request).setBody(new Body() {
+          @Override
+          public void writeTo(OutputStream outputStream) throws IOException {
+            outputStream.write(content);
+          }
+
+          @Override
+          public boolean repeatable() {
+            return true;
+          }
+        });
+      } else {
+        request.getBody().write(content);
+      }
+    }
+  }
+}
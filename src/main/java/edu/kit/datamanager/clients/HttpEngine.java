@@ -0,0 +1,562 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.clients;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.ChainElement;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Shared HTTP engine backed by Apache HttpClient with a pool of persistent
+ * connections per route. Reusing connections avoids TCP and TLS handshakes
+ * for each request, which dominate the costs of small metadata calls. Idle
+ * and expired connections are evicted by a background thread.
+ *
+ * All instances of {@link SimpleServiceClient} use the default engine unless
+ * another engine or RestTemplate is set. The default engine can be replaced
+ * via {@link #setDefault(HttpEngine)}, e.g. by an engine configured with
+ * other pool sizes or timeouts.
+ *
+ * Responses are requested with 'Accept-Encoding: gzip, deflate' and
+ * decompressed transparently while being read. Request bodies can optionally
+ * be compressed with gzip if they exceed a size threshold.
+ *
+ * Requests are instrumented with Micrometer, see {@link ClientMetrics}.
+ *
+ * Non-blocking requests of {@link SimpleServiceClient} are sent via a
+ * non-blocking Apache HttpClient, which keeps many requests in flight on a
+ * few I/O threads. Its connection pool is separate, but has the same limits
+ * and timeouts as the pool of the blocking client. Compression, retries and
+ * circuit breaking of the resilience policy and metrics are applied as well,
+ * hedging is applied to blocking requests only.
+ *
+ * @author hartmann-v
+ */
+public final class HttpEngine implements Closeable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(HttpEngine.class);
+
+  private static final String CONNECT_START_ATTRIBUTE = HttpEngine.class.getName() + ".connectStart";
+  private static final String REDIRECT_ATTRIBUTE = HttpEngine.class.getName() + ".redirect";
+
+  private static volatile HttpEngine defaultEngine = null;
+
+  private final PoolingHttpClientConnectionManager connectionManager;
+  private final CloseableHttpClient httpClient;
+  private final PoolingAsyncClientConnectionManager asyncConnectionManager;
+  private final CloseableHttpAsyncClient asyncHttpClient;
+  private final RestTemplate restTemplate;
+  private final ResponseCache responseCache;
+  private final RequestCoalescer requestCoalescer;
+  private final ResilientRequestFactory resilientRequestFactory;
+  private final ClientHttpRequestFactory clientRequestFactory;
+  private final ClientMetrics clientMetrics;
+  private final ResiliencePolicy resiliencePolicy;
+  private final int requestCompressionThreshold;
+  private final boolean responseCompression;
+
+  private HttpEngine(Builder builder) {
+    responseCache = builder.responseCache;
+    requestCoalescer = builder.requestCoalescer;
+    resiliencePolicy = builder.resiliencePolicy;
+    requestCompressionThreshold = builder.requestCompressionThreshold;
+    responseCompression = builder.responseCompression;
+    ConnectionConfig connectionConfig = ConnectionConfig.custom().
+            setConnectTimeout(Timeout.of(builder.connectTimeout)).
+            setSocketTimeout(Timeout.of(builder.socketTimeout)).
+            setTimeToLive(TimeValue.of(builder.timeToLive)).
+            setValidateAfterInactivity(TimeValue.of(builder.validateAfterInactivity)).
+            build();
+    connectionManager = PoolingHttpClientConnectionManagerBuilder.create().
+            setMaxConnTotal(builder.maxConnectionsTotal).
+            setMaxConnPerRoute(builder.maxConnectionsPerRoute).
+            setDefaultConnectionConfig(connectionConfig).
+            build();
+    RequestConfig requestConfig = RequestConfig.custom().
+            setConnectionRequestTimeout(Timeout.of(builder.connectionRequestTimeout)).
+            setResponseTimeout(Timeout.of(builder.socketTimeout)).
+            build();
+    HttpClientBuilder httpClientBuilder = HttpClients.custom().
+            setConnectionManager(connectionManager).
+            setDefaultRequestConfig(requestConfig).
+            evictExpiredConnections().
+            evictIdleConnections(TimeValue.of(builder.maxIdleTime));
+    if (!builder.responseCompression) {
+      httpClientBuilder.disableContentCompression();
+    }
+    clientMetrics = (builder.meterRegistry != null) ? new ClientMetrics(builder.meterRegistry, builder.maxUriTags) : null;
+    if (clientMetrics != null) {
+      addMetricsInterceptors(httpClientBuilder, clientMetrics);
+      clientMetrics.bindConnectionPool(connectionManager);
+    }
+    httpClient = httpClientBuilder.build();
+    HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+    ClientHttpRequestFactory factory = requestFactory;
+    if (builder.requestCompressionThreshold >= 0) {
+      factory = new CompressingRequestFactory(factory, builder.requestCompressionThreshold);
+    }
+    resilientRequestFactory = (builder.resiliencePolicy != null) ? new ResilientRequestFactory(factory, builder.resiliencePolicy) : null;
+    if (resilientRequestFactory != null) {
+      factory = resilientRequestFactory;
+    }
+    clientRequestFactory = (clientMetrics != null) ? new MeteredRequestFactory(factory, clientMetrics) : factory;
+    restTemplate = new RestTemplate(clientRequestFactory);
+    asyncConnectionManager = PoolingAsyncClientConnectionManagerBuilder.create().
+            setMaxConnTotal(builder.maxConnectionsTotal).
+            setMaxConnPerRoute(builder.maxConnectionsPerRoute).
+            setDefaultConnectionConfig(connectionConfig).
+            build();
+    asyncHttpClient = HttpAsyncClients.custom().
+            setConnectionManager(asyncConnectionManager).
+            setDefaultRequestConfig(requestConfig).
+            evictExpiredConnections().
+            evictIdleConnections(TimeValue.of(builder.maxIdleTime)).
+            build();
+    asyncHttpClient.start();
+    LOGGER.debug("Created HTTP engine with {} connections in total and {} connections per route.", builder.maxConnectionsTotal, builder.maxConnectionsPerRoute);
+  }
+
+  /**
+   * Add interceptors to the execution chain of the HTTP client measuring the
+   * time for obtaining a connection and counting followed redirects.
+   *
+   * @param httpClientBuilder Builder of the HTTP client.
+   * @param metrics Client metrics.
+   */
+  private static void addMetricsInterceptors(HttpClientBuilder httpClientBuilder, ClientMetrics metrics) {
+    httpClientBuilder.addExecInterceptorBefore(ChainElement.CONNECT.name(), "metrics-connect-start", (request, scope, chain) -> {
+      scope.clientContext.setAttribute(CONNECT_START_ATTRIBUTE, System.nanoTime());
+      return chain.proceed(request, scope);
+    });
+    httpClientBuilder.addExecInterceptorAfter(ChainElement.CONNECT.name(), "metrics-connect-end", (request, scope, chain) -> {
+      Object start = scope.clientContext.getAttribute(CONNECT_START_ATTRIBUTE);
+      if (start instanceof Long) {
+        metrics.recordConnectionAcquire(System.nanoTime() - (Long) start);
+      }
+      return chain.proceed(request, scope);
+    });
+    httpClientBuilder.addExecInterceptorAfter(ChainElement.REDIRECT.name(), "metrics-redirect", (request, scope, chain) -> {
+      // the handler is called once per hop of an exchange
+      if (scope.clientContext.getAttribute(REDIRECT_ATTRIBUTE) != null) {
+        metrics.recordRedirect(request.getMethod());
+      } else {
+        scope.clientContext.setAttribute(REDIRECT_ATTRIBUTE, Boolean.TRUE);
+      }
+      return chain.proceed(request, scope);
+    });
+  }
+
+  /**
+   * Get the shared default engine. The engine is created with default
+   * settings on first access.
+   *
+   * @return The default engine.
+   */
+  public static HttpEngine getDefault() {
+    HttpEngine engine = defaultEngine;
+    if (engine == null) {
+      synchronized (HttpEngine.class) {
+        engine = defaultEngine;
+        if (engine == null) {
+          engine = builder().build();
+          defaultEngine = engine;
+        }
+      }
+    }
+    return engine;
+  }
+
+  /**
+   * Replace the shared default engine. The previous default engine is not
+   * closed as it might still be used by existing clients.
+   *
+   * @param engine The new default engine.
+   */
+  public static void setDefault(HttpEngine engine) {
+    if (engine == null) {
+      throw new IllegalArgumentException("Argument engine must not be null.");
+    }
+    synchronized (HttpEngine.class) {
+      defaultEngine = engine;
+    }
+  }
+
+  /**
+   * Create a builder for configuring a new engine.
+   *
+   * @return The builder.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Get the RestTemplate using this engine. The template is thread-safe and
+   * shared by all clients using this engine.
+   *
+   * @return The RestTemplate.
+   */
+  public RestTemplate getRestTemplate() {
+    return restTemplate;
+  }
+
+  /**
+   * Get the request factory of this engine, e.g. for creating additional
+   * RestTemplates with other message converters sharing the same connection
+   * pool. The factory applies request compression, the resilience policy and
+   * metrics, if configured.
+   *
+   * @return The request factory.
+   */
+  public ClientHttpRequestFactory getRequestFactory() {
+    return clientRequestFactory;
+  }
+
+  /**
+   * Get the underlying HTTP client.
+   *
+   * @return The HTTP client.
+   */
+  public CloseableHttpClient getHttpClient() {
+    return httpClient;
+  }
+
+  /**
+   * Get the response cache shared by all clients using this engine.
+   *
+   * @return The response cache or null if responses are not cached.
+   */
+  public ResponseCache getResponseCache() {
+    return responseCache;
+  }
+
+  /**
+   * Get the coalescer sharing identical concurrent GET requests of all
+   * clients using this engine.
+   *
+   * @return The request coalescer or null if requests are not coalesced.
+   */
+  public RequestCoalescer getRequestCoalescer() {
+    return requestCoalescer;
+  }
+
+  /**
+   * Get the metrics recorded for requests of this engine.
+   *
+   * @return The client metrics or null if metrics are disabled.
+   */
+  public ClientMetrics getClientMetrics() {
+    return clientMetrics;
+  }
+
+  /**
+   * Get the underlying non-blocking HTTP client.
+   *
+   * @return The non-blocking HTTP client.
+   */
+  public CloseableHttpAsyncClient getAsyncHttpClient() {
+    return asyncHttpClient;
+  }
+
+  /**
+   * Create a request sent via the non-blocking HTTP client with the
+   * compression, resilience and metrics settings of this engine.
+   *
+   * @param uri Request URI.
+   * @param method HTTP method.
+   * @return The request.
+   */
+  AsyncClientHttpRequest createAsyncRequest(URI uri, HttpMethod method) {
+    return new AsyncClientHttpRequest(asyncHttpClient, uri, method, resiliencePolicy, clientMetrics, requestCompressionThreshold, responseCompression);
+  }
+
+  /**
+   * Get the current statistics of the connection pool, i.e., the number of
+   * leased, pending and available connections.
+   *
+   * @return The pool statistics.
+   */
+  public PoolStats getPoolStats() {
+    return connectionManager.getTotalStats();
+  }
+
+  /**
+   * Get the current statistics of the connection pool of the non-blocking
+   * client.
+   *
+   * @return The pool statistics.
+   */
+  public PoolStats getAsyncPoolStats() {
+    return asyncConnectionManager.getTotalStats();
+  }
+
+  /**
+   * Close all connections and stop the eviction threads. Pending
+   * non-blocking requests are cancelled.
+   *
+   * @throws IOException If closing the client fails.
+   */
+  @Override
+  public void close() throws IOException {
+    asyncHttpClient.close(CloseMode.IMMEDIATE);
+    if (resilientRequestFactory != null) {
+      resilientRequestFactory.close();
+    }
+    httpClient.close();
+  }
+
+  /**
+   * Builder for HTTP engines.
+   */
+  public static final class Builder {
+
+    private int maxConnectionsTotal = 200;
+    private int maxConnectionsPerRoute = 50;
+    private Duration connectTimeout = Duration.ofSeconds(10);
+    private Duration socketTimeout = Duration.ofMinutes(5);
+    private Duration connectionRequestTimeout = Duration.ofSeconds(30);
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+    private Duration timeToLive = Duration.ofMinutes(10);
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+    private ResponseCache responseCache = null;
+    private RequestCoalescer requestCoalescer = null;
+    private ResiliencePolicy resiliencePolicy = null;
+    private boolean responseCompression = true;
+    private int requestCompressionThreshold = -1;
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+    private int maxUriTags = ClientMetrics.DEFAULT_MAX_URI_TAGS;
+
+    private Builder() {
+    }
+
+    /**
+     * Set the max. number of pooled connections in total. Default: 200
+     *
+     * @param maxConnectionsTotal The max. number of connections.
+     * @return This builder.
+     */
+    public Builder withMaxConnectionsTotal(int maxConnectionsTotal) {
+      this.maxConnectionsTotal = maxConnectionsTotal;
+      return this;
+    }
+
+    /**
+     * Set the max. number of pooled connections per route, i.e., per target
+     * host. Default: 50
+     *
+     * @param maxConnectionsPerRoute The max. number of connections per route.
+     * @return This builder.
+     */
+    public Builder withMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+      this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+      return this;
+    }
+
+    /**
+     * Set the timeout for establishing a new connection. Default: 10 seconds
+     *
+     * @param connectTimeout The connect timeout.
+     * @return This builder.
+     */
+    public Builder withConnectTimeout(Duration connectTimeout) {
+      this.connectTimeout = connectTimeout;
+      return this;
+    }
+
+    /**
+     * Set the max. time of inactivity while waiting for data from the
+     * server. Default: 5 minutes
+     *
+     * @param socketTimeout The socket timeout.
+     * @return This builder.
+     */
+    public Builder withSocketTimeout(Duration socketTimeout) {
+      this.socketTimeout = socketTimeout;
+      return this;
+    }
+
+    /**
+     * Set the max. time to wait for a free connection of the pool. Default:
+     * 30 seconds
+     *
+     * @param connectionRequestTimeout The connection request timeout.
+     * @return This builder.
+     */
+    public Builder withConnectionRequestTimeout(Duration connectionRequestTimeout) {
+      this.connectionRequestTimeout = connectionRequestTimeout;
+      return this;
+    }
+
+    /**
+     * Set the time after which idle connections are evicted from the pool.
+     * Default: 30 seconds
+     *
+     * @param maxIdleTime The max. idle time.
+     * @return This builder.
+     */
+    public Builder withMaxIdleTime(Duration maxIdleTime) {
+      this.maxIdleTime = maxIdleTime;
+      return this;
+    }
+
+    /**
+     * Set the max. lifetime of a pooled connection. Default: 10 minutes
+     *
+     * @param timeToLive The time to live.
+     * @return This builder.
+     */
+    public Builder withTimeToLive(Duration timeToLive) {
+      this.timeToLive = timeToLive;
+      return this;
+    }
+
+    /**
+     * Set the period of inactivity after which a pooled connection is
+     * validated before it is reused. Default: 2 seconds
+     *
+     * @param validateAfterInactivity The period of inactivity.
+     * @return This builder.
+     */
+    public Builder withValidateAfterInactivity(Duration validateAfterInactivity) {
+      this.validateAfterInactivity = validateAfterInactivity;
+      return this;
+    }
+
+    /**
+     * Set the cache for responses with ETag shared by all clients using the
+     * engine. Default: no cache
+     *
+     * @param responseCache The response cache.
+     * @return This builder.
+     */
+    public Builder withResponseCache(ResponseCache responseCache) {
+      this.responseCache = responseCache;
+      return this;
+    }
+
+    /**
+     * Set the coalescer letting identical concurrent GET requests of all
+     * clients using the engine share a single request. Default: no
+     * coalescing
+     *
+     * @param requestCoalescer The request coalescer.
+     * @return This builder.
+     */
+    public Builder withRequestCoalescer(RequestCoalescer requestCoalescer) {
+      this.requestCoalescer = requestCoalescer;
+      return this;
+    }
+
+    /**
+     * Set the policy for retries, circuit breaking and hedging applied to
+     * all requests sent via the RestTemplate of the engine. Default: none
+     *
+     * @param resiliencePolicy The resilience policy.
+     * @return This builder.
+     */
+    public Builder withResiliencePolicy(ResiliencePolicy resiliencePolicy) {
+      this.resiliencePolicy = resiliencePolicy;
+      return this;
+    }
+
+    /**
+     * Enable or disable compressed responses. If enabled, gzip and deflate
+     * encoded responses are accepted and decompressed on the fly. Default:
+     * enabled
+     *
+     * @param responseCompression TRUE to accept compressed responses.
+     * @return This builder.
+     */
+    public Builder withResponseCompression(boolean responseCompression) {
+      this.responseCompression = responseCompression;
+      return this;
+    }
+
+    /**
+     * Compress request bodies of at least the given size with gzip. The
+     * server has to accept requests with 'Content-Encoding: gzip'. Default:
+     * disabled
+     *
+     * @param minSize The min. size of compressed bodies in bytes or -1 to
+     * disable request compression.
+     * @return This builder.
+     */
+    public Builder withRequestCompression(int minSize) {
+      this.requestCompressionThreshold = minSize;
+      return this;
+    }
+
+    /**
+     * Set the registry for recording {@link ClientMetrics}. Default: global
+     * registry of Micrometer, which is also used by Spring Boot Actuator
+     *
+     * @param meterRegistry The meter registry or null to disable metrics.
+     * @return This builder.
+     */
+    public Builder withMeterRegistry(MeterRegistry meterRegistry) {
+      this.meterRegistry = meterRegistry;
+      return this;
+    }
+
+    /**
+     * Set the max. number of distinct values of the 'uri' tag. Default: 100
+     *
+     * @param maxUriTags The max. number of URI tags.
+     * @return This builder.
+     */
+    public Builder withMaxUriTags(int maxUriTags) {
+      this.maxUriTags = maxUriTags;
+      return this;
+    }
+
+    /**
+     * Build a new engine.
+     *
+     * @return The engine.
+     */
+    public HttpEngine build() {
+      if (maxConnectionsTotal < 1 || maxConnectionsPerRoute < 1) {
+        throw new IllegalArgumentException("Max. number of connections must be at least 1.");
+      }
+      return new HttpEngine(this);
+    }
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.clients;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Incremental decoder for JSON arrays. The array is read token by token from
+ * the stream and each element is bound and handed to a consumer as soon as
+ * it is complete, so only a single element is held in memory at a time.
+ *
+ * @author hartmann-v
+ */
+final class JsonArrayReader {
+
+  private JsonArrayReader() {
+    //utility class
+  }
+
+  /**
+   * Read all elements of a JSON array from the provided stream. An empty
+   * stream or a JSON 'null' is treated as empty array. The stream is closed
+   * afterwards.
+   *
+   * @param <T> Type of the elements.
+   * @param stream Stream providing the JSON array.
+   * @param mapper Mapper used for binding the elements.
+   * @param elementType Class of a single element.
+   * @param consumer Consumer receiving all elements in order.
+   * @return Number of elements read.
+   * @throws IOException If the stream cannot be read or does not contain a
+   * JSON array of the given element type.
+   */
+  static <T> long read(InputStream stream, ObjectMapper mapper, Class<T> elementType, Consumer<? super T> consumer) throws IOException {
+    long elements = 0;
+    try (JsonParser parser = mapper.getFactory().createParser(stream)) {
+      JsonToken token = parser.nextToken();
+      if (token == null || token == JsonToken.VALUE_NULL) {
+        return elements;
+      }
+      if (token != JsonToken.START_ARRAY) {
+        throw new JsonParseException(parser, "Expected start of JSON array but found " + token + ".");
+      }
+      ObjectReader reader = mapper.readerFor(elementType);
+      while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+        if (token == null) {
+          throw new JsonParseException(parser, "Unexpected end of JSON array after " + elements + " element(s).");
+        }
+        T element = reader.readValue(parser);
+        consumer.accept(element);
+        elements++;
+      }
+    }
+    return elements;
+  }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.clients;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Request factory recording {@link ClientMetrics} for all requests of the
+ * wrapped factory. The exchange is timed until the response is closed, so
+ * the duration includes reading the response body.
+ *
+ * @author hartmann-v
+ */
+final class MeteredRequestFactory implements ClientHttpRequestFactory {
+
+  private final ClientHttpRequestFactory delegate;
+  private final ClientMetrics metrics;
+
+  MeteredRequestFactory(ClientHttpRequestFactory delegate, ClientMetrics metrics) {
+    this.delegate = delegate;
+    this.metrics = metrics;
+  }
+
+  @Override
+  public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+    return new MeteredRequest(delegate.createRequest(uri, httpMethod));
+  }
+
+  /**
+   * Request counting the bytes of its body.
+   */
+  private final class MeteredRequest implements ClientHttpRequest, StreamingHttpOutputMessage {
+
+    private final ClientHttpRequest request;
+    private final Map<String, Object> attributes = new HashMap<>();
+    private final long[] requestBytes = new long[1];
+    private OutputStream body = null;
+
+    MeteredRequest(ClientHttpRequest request) {
+      this.request = request;
+    }
+
+    @Override
+    public HttpMethod getMethod() {
+      return request.getMethod();
+    }
+
+    @Override
+    public URI getURI() {
+      return request.getURI();
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+      return request.getHeaders();
+    }
+
+    public Map<String, Object> getAttributes() {
+      return attributes;
+    }
+
+    @Override
+    public OutputStream getBody() throws IOException {
+      if (body == null) {
+        body = new CountingOutputStream(request.getBody(), requestBytes);
+      }
+      return body;
+    }
+
+    @Override
+    public void setBody(Body streamingBody) {
+      Body countingBody = new Body() {
+        @Override
+        public void writeTo(OutputStream outputStream) throws IOException {
+          // count the bytes of the last attempt only
+          requestBytes[0] = 0;
+          streamingBody.writeTo(new CountingOutputStream(outputStream, requestBytes));
+        }
+
+        @Override
+        public boolean repeatable() {
+          return streamingBody.repeatable();
+        }
+      };
+      if (request instanceof StreamingHttpOutputMessage) {
+        ((StreamingHttpOutputMessage) request).setBody(countingBody);
+      } else {
+        try {
+          countingBody.writeTo(request.getBody());
+        } catch (IOException ex) {
+          throw new IllegalStateException("Failed to write request body.", ex);
+        }
+      }
+    }
+
+    @Override
+    public ClientHttpResponse execute() throws IOException {
+      String method = request.getMethod().name();
+      String uri = metrics.uriTag(request.getURI());
+      long start = System.nanoTime();
+      try {
+        return new MeteredResponse(request.execute(), method, uri, start, requestBytes[0]);
+      } catch (IOException ex) {
+        metrics.recordExchange(method, uri, -1, System.nanoTime() - start, requestBytes[0], 0);
+        throw ex;
+      }
+    }
+  }
+
+  /**
+   * Response recording the exchange when it is closed.
+   */
+  private final class MeteredResponse implements ClientHttpResponse {
+
+    private final ClientHttpResponse response;
+    private final String method;
+    private final String uri;
+    private final long start;
+    private final long requestBytes;
+    private final long[] responseBytes = new long[1];
+    private InputStream body = null;
+    private boolean closed = false;
+
+    MeteredResponse(ClientHttpResponse response, String method, String uri, long start, long requestBytes) {
+      this.response = response;
+      this.method = method;
+      this.uri = uri;
+      this.start = start;
+      this.requestBytes = requestBytes;
+    }
+
+    @Override
+    public HttpStatusCode getStatusCode() throws IOException {
+      return response.getStatusCode();
+    }
+
+    @Override
+    public String getStatusText() throws IOException {
+      return response.getStatusText();
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+      return response.getHeaders();
+    }
+
+    @Override
+    public InputStream getBody() throws IOException {
+      if (body == null) {
+        body = new CountingInputStream(response.getBody(), responseBytes);
+      }
+      return body;
+    }
+
+    @Override
+    public void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      int status;
+      try {
+        status = response.getStatusCode().value();
+      } catch (IOException ex) {
+        status = -1;
+      }
+      response.close();
+      metrics.recordExchange(method, uri, status, System.nanoTime() - start, requestBytes, responseBytes[0]);
+    }
+  }
+
+  /**
+   * Output stream counting all written bytes.
+   */
+  private static final class CountingOutputStream extends FilterOutputStream {
+
+    private final long[] count;
+
+    CountingOutputStream(OutputStream out, long[] count) {
+      super(out);
+      this.count = count;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      out.write(b);
+      count[0]++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+      count[0] += len;
+    }
+  }
+
+  /**
+   * Input stream counting all read bytes.
+   */
+  private static final class CountingInputStream extends FilterInputStream {
+
+    private final long[] count;
+
+    CountingInputStream(InputStream in, long[] count) {
+      super(in);
+      this.count = count;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = in.read();
+      if (b >= 0) {
+        count[0]++;
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int read = in.read(b, off, len);
+      if (read > 0) {
+        count[0] += read;
+      }
+      return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      long skipped = in.skip(n);
+      count[0] += skipped;
+      return skipped;
+    }
+  }
+}
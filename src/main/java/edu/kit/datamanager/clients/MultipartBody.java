@@ -0,0 +1,236 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.clients;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import org.apache.commons.io.IOUtils;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.http.MediaType;
+
+/**
+ * Multipart form data body streaming the content of all parts. Content is
+ * read from the sources in chunks while writing, so uploads of arbitrary size
+ * require constant memory. If the length of all parts is known, the total
+ * content length is provided and the request can be sent with a
+ * 'Content-Length' header, otherwise chunked transfer encoding is used.
+ *
+ * Sources are opened when writing the body. Streams of sources providing a
+ * new stream per call can be written multiple times, others only once.
+ *
+ * @author hartmann-v
+ */
+public final class MultipartBody {
+
+  /**
+   * Default size of the buffer used for copying content.
+   */
+  public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+  private static final byte[] CRLF = "\r\n".getBytes(StandardCharsets.US_ASCII);
+
+  private final String boundary;
+  private final List<Part> parts = new ArrayList<>();
+
+  /**
+   * Create an empty body with a random boundary.
+   */
+  public MultipartBody() {
+    boundary = "----" + UUID.randomUUID().toString().replace("-", "");
+  }
+
+  /**
+   * Add a part.
+   *
+   * @param name Name of the form field.
+   * @param filename Filename of the part or null.
+   * @param contentType Content type of the part or null.
+   * @param source Source of the content.
+   * @param contentLength Length of the content in bytes or -1 if unknown.
+   * @return This body.
+   */
+  public MultipartBody addPart(String name, String filename, MediaType contentType, InputStreamSource source, long contentLength) {
+    if (name == null || source == null) {
+      throw new IllegalArgumentException("Part name and source must not be null.");
+    }
+    StringBuilder header = new StringBuilder();
+    header.append("--").append(boundary).append("\r\n");
+    header.append("Content-Disposition: form-data; name=\"").append(escape(name)).append('"');
+    if (filename != null) {
+      header.append("; filename=\"").append(escape(filename)).append('"');
+    }
+    header.append("\r\n");
+    if (contentType != null) {
+      header.append("Content-Type: ").append(contentType).append("\r\n");
+    }
+    if (contentLength >= 0) {
+      header.append("Content-Length: ").append(contentLength).append("\r\n");
+    }
+    header.append("\r\n");
+    parts.add(new Part(header.toString().getBytes(StandardCharsets.UTF_8), source, contentLength));
+    return this;
+  }
+
+  /**
+   * Get the content type including the boundary.
+   *
+   * @return Content type.
+   */
+  public MediaType getContentType() {
+    return new MediaType(MediaType.MULTIPART_FORM_DATA, Collections.singletonMap("boundary", boundary));
+  }
+
+  /**
+   * Get the total length of the body.
+   *
+   * @return Length in bytes or -1 if the length of at least one part is
+   * unknown.
+   */
+  public long getContentLength() {
+    long length = 0;
+    for (Part part : parts) {
+      if (part.contentLength < 0) {
+        return -1;
+      }
+      length += part.header.length + part.contentLength + CRLF.length;
+    }
+    return length + getEnd().length;
+  }
+
+  /**
+   * Open a stream providing the whole body. Sources are opened one after
+   * another while reading.
+   *
+   * @return Stream of the body.
+   */
+  public InputStream openStream() {
+    List<InputStream> streams = new ArrayList<>();
+    for (Part part : parts) {
+      streams.add(new ByteArrayInputStream(part.header));
+      streams.add(new PartInputStream(part.source, part.contentLength));
+      streams.add(new ByteArrayInputStream(CRLF));
+    }
+    streams.add(new ByteArrayInputStream(getEnd()));
+    return new SequenceInputStream(Collections.enumeration(streams));
+  }
+
+  /**
+   * Write the whole body to the provided stream in chunks of
+   * {@link #DEFAULT_BUFFER_SIZE} bytes.
+   *
+   * @param outputStream Stream to write to.
+   * @throws IOException If something goes wrong, in most cases if reading a
+   * source fails or provides less content than announced.
+   */
+  public void writeTo(OutputStream outputStream) throws IOException {
+    try (InputStream in = openStream()) {
+      IOUtils.copyLarge(in, outputStream, new byte[DEFAULT_BUFFER_SIZE]);
+    }
+    outputStream.flush();
+  }
+
+  private byte[] getEnd() {
+    return ("--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+  }
+
+  private static String escape(String value) {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\r", "").replace("\n", "");
+  }
+
+  /**
+   * Single part.
+   */
+  private static final class Part {
+
+    private final byte[] header;
+    private final InputStreamSource source;
+    private final long contentLength;
+
+    Part(byte[] header, InputStreamSource source, long contentLength) {
+      this.header = header;
+      this.source = source;
+      this.contentLength = contentLength;
+    }
+  }
+
+  /**
+   * Stream opening the source on first access. If the length is known,
+   * exactly this number of bytes is provided and a source providing less
+   * content causes an IOException, as the announced content length would be
+   * violated otherwise.
+   */
+  private static final class PartInputStream extends InputStream {
+
+    private final InputStreamSource source;
+    private final long contentLength;
+    private InputStream delegate = null;
+    private long bytesRead = 0;
+
+    PartInputStream(InputStreamSource source, long contentLength) {
+      this.source = source;
+      this.contentLength = contentLength;
+    }
+
+    @Override
+    public int read() throws IOException {
+      byte[] single = new byte[1];
+      int read = read(single, 0, 1);
+      return (read < 0) ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      if (delegate == null) {
+        delegate = source.getInputStream();
+      }
+      int maxLength = len;
+      if (contentLength >= 0) {
+        long remaining = contentLength - bytesRead;
+        if (remaining <= 0) {
+          return -1;
+        }
+        maxLength = (int) Math.min(len, remaining);
+      }
+      int read = delegate.read(b, off, maxLength);
+      if (read < 0) {
+        if (contentLength >= 0 && bytesRead < contentLength) {
+          throw new IOException("Source provided " + bytesRead + " bytes, but " + contentLength + " bytes were announced.");
+        }
+        return -1;
+      }
+      bytesRead += read;
+      return read;
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (delegate != null) {
+        delegate.close();
+      }
+    }
+  }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.clients;
+
+import edu.kit.datamanager.clients.SimpleServiceClient.ResultPage;
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Spliterator over all elements of a paged collection. The first page is
+ * fetched on first access and the total number of elements is taken from its
+ * content range. While the consumer processes the elements of the current
+ * page, up to 'prefetch' following pages are already requested, so iterating
+ * large collections is bound by throughput instead of round-trip latency.
+ *
+ * If the server provides no total number of elements, pages are requested
+ * one after another until an empty or incomplete page is returned.
+ *
+ * On {@link #close()}, which is also invoked when closing a stream obtained
+ * via {@link #stream(IntFunction, int)}, no further pages are requested and
+ * the futures of pending pages are cancelled. Cancelling a future does not
+ * abort a request already in flight, e.g. of
+ * {@link SimpleServiceClient#getResourcesAsync(Class)}, which completes and
+ * is discarded, but requests still queued are not sent at all.
+ *
+ * @param <T> Type of the elements.
+ * @author hartmann-v
+ */
+public final class PageSpliterator<T> implements Spliterator<T>, Closeable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PageSpliterator.class);
+
+  private final IntFunction<CompletableFuture<ResultPage<T>>> pageFetcher;
+  private final int prefetch;
+  private final Deque<CompletableFuture<ResultPage<T>>> pendingPages = new ArrayDeque<>();
+
+  private T[] currentPage = null;
+  private int currentIndex = 0;
+  private int nextPage = 0;
+  private int totalPages = -1;
+  private int pageSize = 0;
+  private long totalElements = -1;
+  private long consumedElements = 0;
+  private boolean exhausted = false;
+
+  /**
+   * Create spliterator.
+   *
+   * @param pageFetcher Function requesting the page with the provided number
+   * (starting at 0).
+   * @param prefetch Max. number of pages requested ahead of the consumer.
+   */
+  public PageSpliterator(IntFunction<CompletableFuture<ResultPage<T>>> pageFetcher, int prefetch) {
+    if (pageFetcher == null) {
+      throw new IllegalArgumentException("Argument pageFetcher must not be null.");
+    }
+    this.pageFetcher = pageFetcher;
+    this.prefetch = Math.max(1, prefetch);
+  }
+
+  /**
+   * Create a sequential stream over all elements. The stream should be
+   * closed, e.g. using try-with-resources, if it is not consumed completely.
+   *
+   * @param <T> Type of the elements.
+   * @param pageFetcher Function requesting the page with the provided number
+   * (starting at 0).
+   * @param prefetch Max. number of pages requested ahead of the consumer.
+   * @return Stream over all elements.
+   */
+  public static <T> Stream<T> stream(IntFunction<CompletableFuture<ResultPage<T>>> pageFetcher, int prefetch) {
+    PageSpliterator<T> spliterator = new PageSpliterator<>(pageFetcher, prefetch);
+    return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super T> action) {
+    while (currentPage == null || currentIndex >= currentPage.length) {
+      if (!loadNextPage()) {
+        return false;
+      }
+    }
+    consumedElements++;
+    action.accept(currentPage[currentIndex++]);
+    return true;
+  }
+
+  @Override
+  public Spliterator<T> trySplit() {
+    // pages are already fetched in parallel
+    return null;
+  }
+
+  @Override
+  public long estimateSize() {
+    if (exhausted) {
+      return 0;
+    }
+    return (totalElements < 0) ? Long.MAX_VALUE : Math.max(0, totalElements - consumedElements);
+  }
+
+  @Override
+  public int characteristics() {
+    return ORDERED | NONNULL;
+  }
+
+  /**
+   * Stop requesting pages and cancel the futures of all pending pages.
+   * Requests already in flight are not aborted but their results are
+   * discarded. Afterwards, no further elements are returned.
+   */
+  @Override
+  public void close() {
+    exhausted = true;
+    currentPage = null;
+    CompletableFuture<ResultPage<T>> pending;
+    while ((pending = pendingPages.poll()) != null) {
+      pending.cancel(true);
+    }
+  }
+
+  /**
+   * Wait for the next page and request further pages.
+   *
+   * @return FALSE if there are no more pages.
+   */
+  private boolean loadNextPage() {
+    if (exhausted) {
+      return false;
+    }
+    if (pendingPages.isEmpty()) {
+      if (totalPages >= 0 && nextPage >= totalPages) {
+        exhausted = true;
+        return false;
+      }
+      requestPage();
+    }
+    ResultPage<T> page;
+    try {
+      page = pendingPages.poll().join();
+    } catch (CompletionException ex) {
+      close();
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+      throw ex;
+    }
+    T[] resources = (page != null) ? page.getResources() : null;
+    if (resources == null || resources.length == 0) {
+      LOGGER.trace("Received empty page. Iteration finished.");
+      exhausted = true;
+      return false;
+    }
+    if (pageSize == 0) {
+      initTotals(page, resources.length);
+    }
+    currentPage = resources;
+    currentIndex = 0;
+    if (totalPages < 0 && resources.length < pageSize) {
+      // last page of a collection with unknown size
+      totalPages = nextPage;
+    }
+    fillPrefetchQueue();
+    return true;
+  }
+
+  /**
+   * Determine the number of pages from the first page.
+   *
+   * @param firstPage The first page.
+   * @param length The number of elements of the first page.
+   */
+  private void initTotals(ResultPage<T> firstPage, int length) {
+    pageSize = length;
+    long total = (firstPage.getContentRange() != null) ? firstPage.getContentRange().getTotalElements() : 0;
+    if (total >= length) {
+      totalElements = total;
+      totalPages = (int) ((total + pageSize - 1) / pageSize);
+      LOGGER.trace("Collection has {} elements in {} pages of size {}.", totalElements, totalPages, pageSize);
+    } else {
+      LOGGER.trace("No total number of elements provided. Requesting pages sequentially.");
+    }
+  }
+
+  /**
+   * Request pages ahead until the prefetch limit is reached. Without known
+   * number of pages only one page is requested ahead.
+   */
+  private void fillPrefetchQueue() {
+    int limit = (totalPages < 0) ? 1 : prefetch;
+    while (pendingPages.size() < limit && (totalPages < 0 || nextPage < totalPages)) {
+      requestPage();
+    }
+  }
+
+  private void requestPage() {
+    LOGGER.trace("Requesting page {}.", nextPage);
+    CompletableFuture<ResultPage<T>> future = pageFetcher.apply(nextPage++);
+    pendingPages.add((future != null) ? future : CompletableFuture.completedFuture(null));
+  }
+}
@@ -0,0 +1,487 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.clients;
+
+import edu.kit.datamanager.util.archive.DigestAlgorithm;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Download of a single resource into a file using multiple HTTP range
+ * requests in parallel. Each segment is written at its offset into the file.
+ * If a connection fails, the segment is resumed from the last byte written
+ * instead of starting again. If the server does not support range requests or
+ * provides no content length, the resource is downloaded with a single
+ * request. All range requests are conditional on the ETag or Last-Modified
+ * date obtained while probing the resource (If-Range). If the resource was
+ * modified in the meantime, the download is restarted instead of mixing
+ * both versions in the file.
+ *
+ * @author hartmann-v
+ */
+final class RangedDownload {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RangedDownload.class);
+  /**
+   * Min. size of a segment. Smaller resources are split into fewer segments.
+   */
+  static final long MIN_SEGMENT_SIZE = 4L * 1024 * 1024;
+  private static final int MAX_RETRIES = 5;
+  private static final int MAX_RESTARTS = 3;
+  private static final long RETRY_DELAY_MILLIS = 500;
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+  private final RestTemplate restTemplate;
+  private final String uri;
+  private final HttpHeaders requestHeaders;
+  private HttpHeaders responseHeaders = new HttpHeaders();
+  private String validator;
+
+  RangedDownload(RestTemplate restTemplate, String uri, HttpHeaders requestHeaders) {
+    this.restTemplate = restTemplate;
+    this.uri = uri;
+    this.requestHeaders = requestHeaders;
+  }
+
+  /**
+   * Get the headers of the response obtained while probing the resource.
+   *
+   * @return Response headers.
+   */
+  HttpHeaders getResponseHeaders() {
+    return responseHeaders;
+  }
+
+  /**
+   * Download the resource into the provided file. An existing file is
+   * overwritten. If the download fails, the file is removed.
+   *
+   * @param destination Destination file.
+   * @param maxSegments Max. number of segments downloaded in parallel.
+   * @param expectedHash Expected hash of the content, e.g. 'sha256:0a1b...',
+   * or null to skip the check.
+   * @return Number of bytes downloaded.
+   * @throws IOException If the download fails or the hash does not match.
+   */
+  long download(File destination, int maxSegments, String expectedHash) throws IOException {
+    int restarts = 0;
+    while (true) {
+      try {
+        return downloadVersion(destination, maxSegments, expectedHash);
+      } catch (ResourceChangedException ex) {
+        if (++restarts > MAX_RESTARTS) {
+          throw new IOException("Resource " + uri + " changed during download " + MAX_RESTARTS + " times.", ex);
+        }
+        LOGGER.warn("Resource {} changed during download. Restarting download (attempt {} of {}).", uri, restarts, MAX_RESTARTS);
+      }
+    }
+  }
+
+  /**
+   * Download the version of the resource found while probing it.
+   *
+   * @param destination Destination file.
+   * @param maxSegments Max. number of segments downloaded in parallel.
+   * @param expectedHash Expected hash of the content or null.
+   * @return Number of bytes downloaded.
+   * @throws IOException If the download fails, the hash does not match or
+   * the resource was modified (ResourceChangedException).
+   */
+  private long downloadVersion(File destination, int maxSegments, String expectedHash) throws IOException {
+    long contentLength = probe();
+    List<Segment> segments = split(contentLength, maxSegments);
+    LOGGER.debug("Downloading {} ({} bytes) in {} segment(s).", uri, contentLength, segments.size());
+    boolean success = false;
+    try {
+      try (FileChannel channel = FileChannel.open(destination.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+        try {
+          downloadSegments(channel, segments);
+        } catch (RangeIgnoredException ex) {
+          LOGGER.debug("Server ignored range request for {}. Downloading with single request.", uri);
+          channel.truncate(0);
+          contentLength = -1;
+          downloadSegments(channel, split(contentLength, 1));
+        }
+        channel.force(false);
+      }
+      long size = destination.length();
+      if (contentLength >= 0 && size != contentLength) {
+        throw new IOException("Downloaded " + size + " bytes, but " + contentLength + " bytes were expected.");
+      }
+      verify(destination, expectedHash);
+      success = true;
+      return size;
+    } finally {
+      if (!success) {
+        Files.deleteIfExists(destination.toPath());
+      }
+    }
+  }
+
+  /**
+   * Determine content length and range support via HEAD request.
+   *
+   * @return Content length or -1 if ranges are not supported.
+   */
+  private long probe() {
+    try {
+      HttpHeaders probeHeaders = new HttpHeaders();
+      probeHeaders.putAll(requestHeaders);
+      probeHeaders.set(HttpHeaders.ACCEPT_ENCODING, "identity");
+      ResponseEntity<Void> response = restTemplate.exchange(uri, HttpMethod.HEAD, new HttpEntity<>(probeHeaders), Void.class);
+      responseHeaders = response.getHeaders();
+      validator = validatorOf(responseHeaders);
+      String acceptRanges = responseHeaders.getFirst(HttpHeaders.ACCEPT_RANGES);
+      String contentEncoding = responseHeaders.getFirst(HttpHeaders.CONTENT_ENCODING);
+      boolean rangesSupported = acceptRanges != null && acceptRanges.contains("bytes");
+      boolean encoded = contentEncoding != null && !"identity".equalsIgnoreCase(contentEncoding);
+      if (rangesSupported && !encoded) {
+        if (validator == null) {
+          LOGGER.debug("Neither strong ETag nor Last-Modified provided for {}. Changes during the download cannot be detected.", uri);
+        }
+        return responseHeaders.getContentLength();
+      }
+      LOGGER.debug("Range requests not supported for {}. Downloading with single request.", uri);
+    } catch (HttpClientErrorException ex) {
+      if (ex.getStatusCode().value() != HttpStatus.METHOD_NOT_ALLOWED.value()) {
+        throw ex;
+      }
+      LOGGER.debug("HEAD request not supported for {}. Downloading with single request.", uri);
+    }
+    return -1;
+  }
+
+  /**
+   * Get the validator of the response used for If-Range, which is either a
+   * strong ETag or the Last-Modified date.
+   *
+   * @param headers Response headers.
+   * @return Validator or null if not available.
+   */
+  private static String validatorOf(HttpHeaders headers) {
+    String etag = headers.getETag();
+    if (etag != null && !etag.startsWith("W/")) {
+      // weak ETags must not be used with If-Range
+      return etag;
+    }
+    return headers.getFirst(HttpHeaders.LAST_MODIFIED);
+  }
+
+  /**
+   * Split the content into segments of at least {@link #MIN_SEGMENT_SIZE}
+   * bytes.
+   *
+   * @param contentLength Content length or -1 if unknown.
+   * @param maxSegments Max. number of segments.
+   * @return List of segments.
+   */
+  static List<Segment> split(long contentLength, int maxSegments) {
+    List<Segment> segments = new ArrayList<>();
+    if (contentLength < 0) {
+      segments.add(new Segment(0, -1));
+      return segments;
+    }
+    long count = Math.max(1, Math.min(maxSegments, contentLength / MIN_SEGMENT_SIZE));
+    long segmentSize = (contentLength + count - 1) / count;
+    for (long start = 0; start < contentLength; start += segmentSize) {
+      segments.add(new Segment(start, Math.min(contentLength, start + segmentSize) - 1));
+    }
+    if (segments.isEmpty()) {
+      // empty content
+      segments.add(new Segment(0, -1));
+    }
+    return segments;
+  }
+
+  private void downloadSegments(FileChannel channel, List<Segment> segments) throws IOException {
+    if (segments.size() == 1) {
+      downloadSegment(channel, segments.get(0));
+      return;
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(segments.size(), runnable -> {
+      Thread thread = new Thread(runnable, "ranged-download-" + THREAD_COUNTER.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      List<Future<Void>> futures = new ArrayList<>();
+      for (Segment segment : segments) {
+        futures.add(executor.submit(() -> {
+          downloadSegment(channel, segment);
+          return null;
+        }));
+      }
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Download of " + uri + " was interrupted.", ex);
+    } catch (ExecutionException ex) {
+      Throwable cause = ex.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IOException("Download of " + uri + " failed.", cause);
+    } finally {
+      // stop remaining segments without interrupting, as interrupts would close the channel
+      segments.forEach(Segment::cancel);
+      executor.shutdown();
+      awaitTermination(executor);
+    }
+  }
+
+  private static void awaitTermination(ExecutorService executor) {
+    boolean interrupted = false;
+    while (!executor.isTerminated()) {
+      try {
+        executor.awaitTermination(1, TimeUnit.SECONDS);
+      } catch (InterruptedException ex) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Download a segment and resume from the last byte written on failures.
+   *
+   * @param channel Channel of the destination file.
+   * @param segment Segment to download.
+   * @throws IOException If the segment fails more often than allowed.
+   */
+  private void downloadSegment(FileChannel channel, Segment segment) throws IOException {
+    int attempt = 0;
+    while (!segment.isComplete() && !segment.cancelled) {
+      long before = segment.position;
+      try {
+        fetch(channel, segment);
+        if (!segment.isComplete() && !segment.cancelled) {
+          throw new IOException("Connection closed at offset " + segment.position + " before end of segment.");
+        }
+      } catch (IOException | RestClientException ex) {
+        if (ex.getCause() instanceof RangeIgnoredException) {
+          throw (RangeIgnoredException) ex.getCause();
+        }
+        if (ex.getCause() instanceof ResourceChangedException) {
+          throw (ResourceChangedException) ex.getCause();
+        }
+        if (segment.cancelled) {
+          return;
+        }
+        if (ex instanceof HttpClientErrorException || Thread.currentThread().isInterrupted()) {
+          throw ex;
+        }
+        if (segment.position > before) {
+          // progress was made, so the failure counts as new incident
+          attempt = 0;
+        }
+        if (++attempt > MAX_RETRIES) {
+          throw new IOException("Download of " + uri + " failed at offset " + segment.position + " after " + MAX_RETRIES + " retries.", ex);
+        }
+        LOGGER.warn("Download of {} failed at offset {}. Resuming (attempt {} of {}).", uri, segment.position, attempt, MAX_RETRIES, ex);
+        if (!segment.isRanged()) {
+          // without range support the download has to start again
+          segment.position = 0;
+          channel.truncate(0);
+        }
+        sleep(RETRY_DELAY_MILLIS * attempt);
+      }
+    }
+  }
+
+  /**
+   * Request the remaining part of the segment and write it at its offset.
+   *
+   * @param channel Channel of the destination file.
+   * @param segment Segment to download.
+   */
+  private void fetch(FileChannel channel, Segment segment) {
+    long from = segment.position;
+    restTemplate.execute(uri, HttpMethod.GET, request -> {
+      request.getHeaders().putAll(requestHeaders);
+      if (segment.isRanged()) {
+        // ranges refer to the unencoded content
+        request.getHeaders().set(HttpHeaders.ACCEPT_ENCODING, "identity");
+        request.getHeaders().set(HttpHeaders.RANGE, "bytes=" + from + "-" + segment.end);
+        if (validator != null) {
+          request.getHeaders().set(HttpHeaders.IF_RANGE, validator);
+        }
+      }
+    }, response -> {
+      if (segment.isRanged() && response.getStatusCode().value() != HttpStatus.PARTIAL_CONTENT.value()) {
+        String current = validatorOf(response.getHeaders());
+        if (validator != null && current != null && !validator.equals(current)) {
+          throw new ResourceChangedException("Resource " + uri + " changed at offset " + from + ".");
+        }
+        throw new RangeIgnoredException("Server ignored range request for " + uri + " with status " + response.getStatusCode().value() + ".");
+      }
+      if (!segment.isRanged()) {
+        responseHeaders = response.getHeaders();
+      }
+      byte[] buffer = new byte[BUFFER_SIZE];
+      try (InputStream in = response.getBody()) {
+        int read;
+        while (!segment.isComplete() && !segment.cancelled && (read = in.read(buffer, 0, (int) Math.min(buffer.length, segment.remaining()))) > 0) {
+          ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+          long position = segment.position;
+          while (byteBuffer.hasRemaining()) {
+            position += channel.write(byteBuffer, position);
+          }
+          segment.position = position;
+        }
+        if (!segment.isRanged()) {
+          segment.complete = true;
+        }
+      }
+      return null;
+    });
+  }
+
+  /**
+   * Compare the hash of the downloaded file with the expected hash.
+   *
+   * @param file Downloaded file.
+   * @param expectedHash Expected hash or null.
+   * @throws IOException If the hashes do not match.
+   */
+  private void verify(File file, String expectedHash) throws IOException {
+    if (expectedHash == null || expectedHash.isEmpty()) {
+      return;
+    }
+    DigestAlgorithm algorithm = DigestAlgorithm.forHash(expectedHash);
+    if (algorithm == null) {
+      LOGGER.warn("Unsupported hash {}. Skipping verification of {}.", expectedHash, uri);
+      return;
+    }
+    String actualHash;
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ); InputStream in = Channels.newInputStream(channel)) {
+      actualHash = algorithm.digest(in);
+    }
+    String expected = (expectedHash.indexOf(':') > 0) ? expectedHash : algorithm.getLabel() + ":" + expectedHash;
+    if (!actualHash.equalsIgnoreCase(expected)) {
+      throw new IOException("Hash mismatch for " + uri + ". Expected " + expected + ", but got " + actualHash + ".");
+    }
+    LOGGER.trace("Hash of {} verified.", uri);
+  }
+
+  private static void sleep(long millis) throws IOException {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Download was interrupted.", ex);
+    }
+  }
+
+  /**
+   * Signals a server responding to a range request with the whole content.
+   */
+  private static final class RangeIgnoredException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    RangeIgnoredException(String message) {
+      super(message);
+    }
+  }
+
+  /**
+   * Signals a server responding to a conditional range request with the
+   * whole content, as the resource was modified since it was probed.
+   */
+  private static final class ResourceChangedException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    ResourceChangedException(String message) {
+      super(message);
+    }
+  }
+
+  /**
+   * Byte range of the content. An end of -1 denotes a download without range
+   * request.
+   */
+  static final class Segment {
+
+    private final long start;
+    private final long end;
+    private volatile long position;
+    private volatile boolean complete = false;
+    private volatile boolean cancelled = false;
+
+    Segment(long start, long end) {
+      this.start = start;
+      this.end = end;
+      this.position = start;
+    }
+
+    long getStart() {
+      return start;
+    }
+
+    long getEnd() {
+      return end;
+    }
+
+    boolean isRanged() {
+      return end >= 0;
+    }
+
+    long remaining() {
+      return isRanged() ? end + 1 - position : Long.MAX_VALUE;
+    }
+
+    void cancel() {
+      cancelled = true;
+    }
+
+    boolean isComplete() {
+      return complete || (isRanged() && position > end);
+    }
+  }
+}
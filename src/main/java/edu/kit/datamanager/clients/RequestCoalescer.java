@@ -0,0 +1,184 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.clients;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Single-flight coalescing of identical concurrent requests. While a request
+ * for a key is in flight, all other callers asking for the same key wait for
+ * this request and receive its result (or its exception) instead of sending
+ * their own request. As soon as the request has finished the key is released
+ * again, so nothing is cached beyond the lifetime of a single request.
+ *
+ * Coalesced callers share the same deserialized instance, so results must be
+ * treated as read-only or copied before being modified.
+ *
+ * The coalescer is thread-safe and can be shared by multiple clients, e.g. via
+ * {@link HttpEngine.Builder#withRequestCoalescer(RequestCoalescer)}.
+ *
+ * @author hartmann-v
+ */
+public final class RequestCoalescer {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RequestCoalescer.class);
+
+  private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+  private final AtomicLong requests = new AtomicLong();
+  private final AtomicLong coalesced = new AtomicLong();
+
+  /**
+   * Build the key of a request from its URI (including the query), all
+   * request headers (e.g. Accept and Authorization) and the response type.
+   *
+   * @param uri Request URI.
+   * @param headers Request headers.
+   * @param responseType Class of response.
+   * @return Key of the request.
+   */
+  static String key(String uri, Map<String, List<String>> headers, Class<?> responseType) {
+    Map<String, List<String>> sortedHeaders = new TreeMap<>();
+    headers.forEach((name, values) -> sortedHeaders.put(name.toLowerCase(Locale.ROOT), values));
+    return uri + "|" + responseType.getName() + "|" + sortedHeaders;
+  }
+
+  /**
+   * Execute the request or join an identical request already in flight.
+   *
+   * @param <T> Type of result.
+   * @param key Key of the request.
+   * @param request Request executed if no identical request is in flight.
+   * @return Result of the request.
+   */
+  @SuppressWarnings("unchecked")
+  <T> T execute(String key, Supplier<T> request) {
+    CompletableFuture<Object> call = new CompletableFuture<>();
+    CompletableFuture<Object> pending = inFlight.putIfAbsent(key, call);
+    if (pending != null) {
+      coalesced.incrementAndGet();
+      LOGGER.trace("Joining request in flight for key {}.", key);
+      return (T) join(pending);
+    }
+    requests.incrementAndGet();
+    try {
+      T result = request.get();
+      call.complete(result);
+      return result;
+    } catch (RuntimeException | Error ex) {
+      call.completeExceptionally(ex);
+      throw ex;
+    } finally {
+      inFlight.remove(key, call);
+    }
+  }
+
+  /**
+   * Send the request without blocking or join an identical request already
+   * in flight, which may also be a blocking request.
+   *
+   * @param <T> Type of result.
+   * @param key Key of the request.
+   * @param request Request sent if no identical request is in flight.
+   * @return Future holding the result of the request.
+   */
+  @SuppressWarnings("unchecked")
+  <T> CompletableFuture<T> executeAsync(String key, Supplier<CompletableFuture<T>> request) {
+    CompletableFuture<Object> call = new CompletableFuture<>();
+    CompletableFuture<Object> pending = inFlight.putIfAbsent(key, call);
+    if (pending != null) {
+      coalesced.incrementAndGet();
+      LOGGER.trace("Joining request in flight for key {}.", key);
+      return pending.thenApply(result -> (T) result);
+    }
+    requests.incrementAndGet();
+    CompletableFuture<T> result;
+    try {
+      result = request.get();
+    } catch (RuntimeException | Error ex) {
+      call.completeExceptionally(ex);
+      inFlight.remove(key, call);
+      throw ex;
+    }
+    result.whenComplete((value, error) -> {
+      if (error == null) {
+        call.complete(value);
+      } else {
+        // blocking callers rethrow the cause of the CompletionException
+        call.completeExceptionally((error instanceof CompletionException && error.getCause() != null) ? error.getCause() : error);
+      }
+      inFlight.remove(key, call);
+    });
+    return result;
+  }
+
+  /**
+   * Wait for a request in flight and rethrow its failure unchanged.
+   *
+   * @param pending Request in flight.
+   * @return Result of the request.
+   */
+  private static Object join(CompletableFuture<Object> pending) {
+    try {
+      return pending.join();
+    } catch (CompletionException ex) {
+      Throwable cause = ex.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw ex;
+    }
+  }
+
+  /**
+   * Get the number of requests currently in flight.
+   *
+   * @return Number of requests in flight.
+   */
+  public int getInFlightCount() {
+    return inFlight.size();
+  }
+
+  /**
+   * Get the number of requests actually sent.
+   *
+   * @return Number of requests sent.
+   */
+  public long getRequestCount() {
+    return requests.get();
+  }
+
+  /**
+   * Get the number of callers served by a request of another caller.
+   *
+   * @return Number of coalesced callers.
+   */
+  public long getCoalescedCount() {
+    return coalesced.get();
+  }
+}
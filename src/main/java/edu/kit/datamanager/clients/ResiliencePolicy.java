@@ -0,0 +1,447 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.clients;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Resilience settings and per-host state of an {@link HttpEngine}. The policy
+ * combines three mechanisms, which are applied to all requests sent via the
+ * RestTemplate of the engine:
+ * <ul>
+ * <li>Retries of idempotent requests (GET, HEAD, OPTIONS, PUT, DELETE) after
+ * I/O errors or responses with status 429, 502, 503 or 504, waiting for an
+ * exponentially growing, fully jittered backoff between the attempts.</li>
+ * <li>A circuit breaker per host (and port), which rejects requests for a
+ * while after a number of consecutive failures (I/O errors or status 5xx)
+ * and lets a single trial request pass afterwards.</li>
+ * <li>Optional hedging of GET and HEAD requests: if no response has been
+ * received after the configured percentile of the recent latencies of the
+ * host, a second request is sent and the first response is used.</li>
+ * </ul>
+ *
+ * Requests with a body that cannot be written again, e.g. streamed multipart
+ * uploads, are never repeated.
+ *
+ * @author hartmann-v
+ */
+public final class ResiliencePolicy {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ResiliencePolicy.class);
+  private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "HEAD", "OPTIONS", "PUT", "DELETE", "TRACE");
+  private static final Set<Integer> RETRYABLE_STATUS = Set.of(429, 502, 503, 504);
+  /**
+   * Number of latencies per host used for computing the hedging delay.
+   */
+  static final int LATENCY_WINDOW = 256;
+  /**
+   * Min. number of latencies per host before requests are hedged.
+   */
+  static final int MIN_LATENCY_SAMPLES = 20;
+
+  /**
+   * State of the circuit breaker of a host.
+   */
+  public enum CircuitState {
+    /**
+     * Requests pass.
+     */
+    CLOSED,
+    /**
+     * Requests are rejected.
+     */
+    OPEN,
+    /**
+     * A single trial request passes.
+     */
+    HALF_OPEN
+  }
+
+  private final int maxRetries;
+  private final Duration initialBackoff;
+  private final Duration maxBackoff;
+  private final int failureThreshold;
+  private final Duration openDuration;
+  private final double hedgingPercentile;
+  private final Duration minHedgingDelay;
+  private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+  private final Map<String, LatencyTracker> latencies = new ConcurrentHashMap<>();
+  private final AtomicLong retries = new AtomicLong();
+  private final AtomicLong hedgedRequests = new AtomicLong();
+  private final AtomicLong rejectedRequests = new AtomicLong();
+
+  private ResiliencePolicy(Builder builder) {
+    maxRetries = builder.maxRetries;
+    initialBackoff = builder.initialBackoff;
+    maxBackoff = builder.maxBackoff;
+    failureThreshold = builder.failureThreshold;
+    openDuration = builder.openDuration;
+    hedgingPercentile = builder.hedgingPercentile;
+    minHedgingDelay = builder.minHedgingDelay;
+  }
+
+  /**
+   * Create a builder for configuring a new policy.
+   *
+   * @return The builder.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Check if requests with the provided method may be repeated.
+   *
+   * @param method HTTP method.
+   * @return TRUE if the method is idempotent.
+   */
+  boolean isIdempotent(String method) {
+    return IDEMPOTENT_METHODS.contains(method);
+  }
+
+  /**
+   * Check if a request answered with the provided status may be repeated.
+   *
+   * @param status HTTP status.
+   * @return TRUE for status 429, 502, 503 and 504.
+   */
+  boolean isRetryableStatus(int status) {
+    return RETRYABLE_STATUS.contains(status);
+  }
+
+  /**
+   * Get the max. number of retries.
+   *
+   * @return Max. number of retries.
+   */
+  int getMaxRetries() {
+    return maxRetries;
+  }
+
+  /**
+   * Get the backoff before the next attempt. The delay is drawn uniformly
+   * from [0, min(maxBackoff, initialBackoff * 2^attempt)].
+   *
+   * @param attempt Number of the failed attempt starting with 0.
+   * @return Backoff in milliseconds.
+   */
+  long getBackoffMillis(int attempt) {
+    long ceiling = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempt, 30));
+    return ThreadLocalRandom.current().nextLong(ceiling + 1);
+  }
+
+  /**
+   * Count a retry.
+   */
+  void retried() {
+    retries.incrementAndGet();
+  }
+
+  /**
+   * Check if a request to the host may pass the circuit breaker. Rejected
+   * requests are counted.
+   *
+   * @param host Host and port.
+   * @return TRUE if the request may be sent.
+   */
+  boolean tryAcquire(String host) {
+    if (failureThreshold < 1) {
+      return true;
+    }
+    boolean permitted = getCircuitBreaker(host).tryAcquire();
+    if (!permitted) {
+      rejectedRequests.incrementAndGet();
+    }
+    return permitted;
+  }
+
+  /**
+   * Record a successful request to the host.
+   *
+   * @param host Host and port.
+   */
+  void onSuccess(String host) {
+    if (failureThreshold > 0) {
+      getCircuitBreaker(host).onSuccess();
+    }
+  }
+
+  /**
+   * Record a failed request to the host.
+   *
+   * @param host Host and port.
+   */
+  void onFailure(String host) {
+    if (failureThreshold > 0) {
+      getCircuitBreaker(host).onFailure();
+    }
+  }
+
+  /**
+   * Check if hedging is enabled.
+   *
+   * @return TRUE if GET and HEAD requests are hedged.
+   */
+  boolean isHedgingEnabled() {
+    return hedgingPercentile > 0;
+  }
+
+  /**
+   * Get the delay after which a second request is sent to the host.
+   *
+   * @param host Host and port.
+   * @return Delay in nanoseconds or -1 if not enough latencies are known.
+   */
+  long getHedgingDelayNanos(String host) {
+    LatencyTracker tracker = latencies.get(host);
+    long percentile = (tracker != null) ? tracker.getPercentile(hedgingPercentile) : -1;
+    return (percentile < 0) ? -1 : Math.max(percentile, minHedgingDelay.toNanos());
+  }
+
+  /**
+   * Record the latency of a request to the host.
+   *
+   * @param host Host and port.
+   * @param nanos Time until the response headers were received.
+   */
+  void recordLatency(String host, long nanos) {
+    if (isHedgingEnabled()) {
+      latencies.computeIfAbsent(host, key -> new LatencyTracker()).record(nanos);
+    }
+  }
+
+  /**
+   * Count a hedged request.
+   */
+  void hedged() {
+    hedgedRequests.incrementAndGet();
+  }
+
+  private CircuitBreaker getCircuitBreaker(String host) {
+    return circuitBreakers.computeIfAbsent(host, CircuitBreaker::new);
+  }
+
+  /**
+   * Get the state of the circuit breaker of a host.
+   *
+   * @param host Host and port, e.g. 'localhost:8080'.
+   * @return State of the circuit breaker.
+   */
+  public CircuitState getCircuitState(String host) {
+    CircuitBreaker breaker = circuitBreakers.get(host);
+    return (breaker != null) ? breaker.getState() : CircuitState.CLOSED;
+  }
+
+  /**
+   * Get the number of retried requests.
+   *
+   * @return Number of retries.
+   */
+  public long getRetryCount() {
+    return retries.get();
+  }
+
+  /**
+   * Get the number of additional requests sent due to hedging.
+   *
+   * @return Number of hedged requests.
+   */
+  public long getHedgedRequestCount() {
+    return hedgedRequests.get();
+  }
+
+  /**
+   * Get the number of requests rejected by an open circuit breaker.
+   *
+   * @return Number of rejected requests.
+   */
+  public long getRejectedRequestCount() {
+    return rejectedRequests.get();
+  }
+
+  /**
+   * Circuit breaker of a single host.
+   */
+  private final class CircuitBreaker {
+
+    private final String host;
+    private CircuitState state = CircuitState.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAt = 0;
+    private boolean trialInFlight = false;
+
+    CircuitBreaker(String host) {
+      this.host = host;
+    }
+
+    synchronized boolean tryAcquire() {
+      if (state == CircuitState.OPEN && System.nanoTime() - openedAt >= openDuration.toNanos()) {
+        state = CircuitState.HALF_OPEN;
+        trialInFlight = false;
+      }
+      if (state == CircuitState.HALF_OPEN) {
+        if (trialInFlight) {
+          return false;
+        }
+        trialInFlight = true;
+        return true;
+      }
+      return state == CircuitState.CLOSED;
+    }
+
+    synchronized void onSuccess() {
+      if (state != CircuitState.CLOSED) {
+        LOGGER.info("Circuit breaker for host {} closed.", host);
+      }
+      state = CircuitState.CLOSED;
+      consecutiveFailures = 0;
+    }
+
+    synchronized void onFailure() {
+      consecutiveFailures++;
+      if (state == CircuitState.HALF_OPEN || (state == CircuitState.CLOSED && consecutiveFailures >= failureThreshold)) {
+        LOGGER.warn("Circuit breaker for host {} opened after {} consecutive failure(s).", host, consecutiveFailures);
+        state = CircuitState.OPEN;
+        openedAt = System.nanoTime();
+      }
+    }
+
+    synchronized CircuitState getState() {
+      return state;
+    }
+  }
+
+  /**
+   * Sliding window of the latest latencies of a host.
+   */
+  private static final class LatencyTracker {
+
+    private final long[] window = new long[LATENCY_WINDOW];
+    private int next = 0;
+    private int size = 0;
+
+    synchronized void record(long nanos) {
+      window[next] = nanos;
+      next = (next + 1) % window.length;
+      size = Math.min(size + 1, window.length);
+    }
+
+    synchronized long getPercentile(double percentile) {
+      if (size < MIN_LATENCY_SAMPLES) {
+        return -1;
+      }
+      long[] sorted = Arrays.copyOf(window, size);
+      Arrays.sort(sorted);
+      return sorted[(int) Math.min(size - 1, Math.ceil(percentile * size) - 1)];
+    }
+  }
+
+  /**
+   * Builder for resilience policies.
+   */
+  public static final class Builder {
+
+    private int maxRetries = 2;
+    private Duration initialBackoff = Duration.ofMillis(100);
+    private Duration maxBackoff = Duration.ofSeconds(5);
+    private int failureThreshold = 5;
+    private Duration openDuration = Duration.ofSeconds(30);
+    private double hedgingPercentile = 0;
+    private Duration minHedgingDelay = Duration.ofMillis(10);
+
+    private Builder() {
+    }
+
+    /**
+     * Set the max. number of retries of idempotent requests. Default: 2
+     *
+     * @param maxRetries The max. number of retries, 0 disables retries.
+     * @return This builder.
+     */
+    public Builder withMaxRetries(int maxRetries) {
+      this.maxRetries = maxRetries;
+      return this;
+    }
+
+    /**
+     * Set the backoff between retries. The backoff doubles with each attempt
+     * up to the max. backoff and is randomized. Default: 100 ms, 5 s
+     *
+     * @param initialBackoff The backoff after the first attempt.
+     * @param maxBackoff The max. backoff.
+     * @return This builder.
+     */
+    public Builder withBackoff(Duration initialBackoff, Duration maxBackoff) {
+      this.initialBackoff = initialBackoff;
+      this.maxBackoff = maxBackoff;
+      return this;
+    }
+
+    /**
+     * Set the circuit breaker settings. Default: 5 failures, 30 s
+     *
+     * @param failureThreshold The number of consecutive failures opening the
+     * circuit, 0 disables the circuit breaker.
+     * @param openDuration The time requests are rejected before a trial
+     * request is sent.
+     * @return This builder.
+     */
+    public Builder withCircuitBreaker(int failureThreshold, Duration openDuration) {
+      this.failureThreshold = failureThreshold;
+      this.openDuration = openDuration;
+      return this;
+    }
+
+    /**
+     * Enable hedging of GET and HEAD requests. A second request is sent if no
+     * response was received within the given percentile of the recent
+     * latencies of the host, but not before the min. delay. Default:
+     * disabled
+     *
+     * @param percentile The latency percentile, e.g. 0.95.
+     * @param minDelay The min. delay before a second request is sent.
+     * @return This builder.
+     */
+    public Builder withHedging(double percentile, Duration minDelay) {
+      this.hedgingPercentile = percentile;
+      this.minHedgingDelay = minDelay;
+      return this;
+    }
+
+    /**
+     * Build a new policy.
+     *
+     * @return The policy.
+     */
+    public ResiliencePolicy build() {
+      if (maxRetries < 0 || failureThreshold < 0) {
+        throw new IllegalArgumentException("Max. number of retries and failure threshold must not be negative.");
+      }
+      if (hedgingPercentile < 0 || hedgingPercentile >= 1) {
+        throw new IllegalArgumentException("Hedging percentile must be in range [0, 1).");
+      }
+      return new ResiliencePolicy(this);
+    }
+  }
+}
@@ -0,0 +1,316 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.clients;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Request factory applying a {@link ResiliencePolicy} to all requests of the
+ * wrapped factory. In contrast to a RestTemplate interceptor, streamed
+ * request bodies are passed through without buffering. Requests are only
+ * repeated if their body was written via {@link ClientHttpRequest#getBody()}
+ * or is a repeatable streamed body, e.g. of the message converters.
+ *
+ * @author hartmann-v
+ */
+final class ResilientRequestFactory implements ClientHttpRequestFactory {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ResilientRequestFactory.class);
+  private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+  private final ClientHttpRequestFactory delegate;
+  private final ResiliencePolicy policy;
+  private final ExecutorService hedgingExecutor = Executors.newCachedThreadPool(runnable -> {
+    Thread thread = new Thread(runnable, "http-hedging-" + THREAD_COUNTER.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  ResilientRequestFactory(ClientHttpRequestFactory delegate, ResiliencePolicy policy) {
+    this.delegate = delegate;
+    this.policy = policy;
+  }
+
+  @Override
+  public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+    return new ResilientRequest(uri, httpMethod);
+  }
+
+  /**
+   * Stop the threads used for hedged requests.
+   */
+  void close() {
+    hedgingExecutor.shutdownNow();
+  }
+
+  /**
+   * Request collecting headers and body, which are sent via one or more
+   * requests of the wrapped factory on execution.
+   */
+  private final class ResilientRequest implements ClientHttpRequest, StreamingHttpOutputMessage {
+
+    private final URI uri;
+    private final HttpMethod method;
+    private final String host;
+    private final HttpHeaders headers = new HttpHeaders();
+    private final Map<String, Object> attributes = new HashMap<>();
+    private ByteArrayOutputStream bufferedBody = null;
+    private Body streamingBody = null;
+
+    ResilientRequest(URI uri, HttpMethod method) {
+      this.uri = uri;
+      this.method = method;
+      this.host = uri.getHost() + ":" + uri.getPort();
+    }
+
+    @Override
+    public HttpMethod getMethod() {
+      return method;
+    }
+
+    @Override
+    public URI getURI() {
+      return uri;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+      return headers;
+    }
+
+    public Map<String, Object> getAttributes() {
+      return attributes;
+    }
+
+    @Override
+    public OutputStream getBody() {
+      if (bufferedBody == null) {
+        bufferedBody = new ByteArrayOutputStream();
+      }
+      return bufferedBody;
+    }
+
+    @Override
+    public void setBody(Body body) {
+      this.streamingBody = body;
+    }
+
+    @Override
+    public ClientHttpResponse execute() throws IOException {
+      boolean repeatable = (streamingBody == null || streamingBody.repeatable()) && policy.isIdempotent(method.name());
+      int maxAttempts = repeatable ? policy.getMaxRetries() + 1 : 1;
+      boolean hedged = repeatable && policy.isHedgingEnabled() && bufferedBody == null && streamingBody == null
+              && (HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method));
+      for (int attempt = 0;; attempt++) {
+        ClientHttpResponse response;
+        try {
+          response = hedged ? executeHedged() : send(false);
+        } catch (CircuitOpenException ex) {
+          throw ex;
+        } catch (IOException ex) {
+          if (attempt + 1 >= maxAttempts) {
+            throw ex;
+          }
+          LOGGER.debug("{} request to {} failed with {}. Retrying.", method, uri, ex.getMessage());
+          backoff(attempt);
+          continue;
+        }
+        int status = response.getStatusCode().value();
+        if (attempt + 1 < maxAttempts && policy.isRetryableStatus(status)) {
+          LOGGER.debug("{} request to {} returned with status {}. Retrying.", method, uri, status);
+          response.close();
+          backoff(attempt);
+          continue;
+        }
+        return response;
+      }
+    }
+
+    /**
+     * Send the request once if permitted by the circuit breaker and report
+     * the outcome to the circuit breaker.
+     *
+     * @param hedge TRUE if the request is the second request of a hedged
+     * pair.
+     * @return Response.
+     * @throws CircuitOpenException If the circuit of the host is open.
+     * @throws IOException If sending the request failed.
+     */
+    private ClientHttpResponse send(boolean hedge) throws IOException {
+      if (!policy.tryAcquire(host)) {
+        throw new CircuitOpenException(host);
+      }
+      if (hedge) {
+        policy.hedged();
+      }
+      ClientHttpResponse response = null;
+      int status = -1;
+      try {
+        response = executeOnce();
+        status = response.getStatusCode().value();
+        return response;
+      } catch (IOException | RuntimeException ex) {
+        if (response != null) {
+          response.close();
+        }
+        throw ex;
+      } finally {
+        // report any outcome, otherwise a trial request keeps the circuit half open
+        if (status >= 0 && status < 500) {
+          policy.onSuccess(host);
+        } else {
+          policy.onFailure(host);
+        }
+      }
+    }
+
+    /**
+     * Send the request once via the wrapped factory.
+     *
+     * @return Response.
+     * @throws IOException If sending the request failed.
+     */
+    private ClientHttpResponse executeOnce() throws IOException {
+      ClientHttpRequest request = delegate.createRequest(uri, method);
+      request.getHeaders().putAll(headers);
+      if (streamingBody != null) {
+        if (request instanceof StreamingHttpOutputMessage) {
+          ((StreamingHttpOutputMessage) request).setBody(streamingBody);
+        } else {
+          streamingBody.writeTo(request.getBody());
+        }
+      } else if (bufferedBody != null) {
+        bufferedBody.writeTo(request.getBody());
+      }
+      long start = System.nanoTime();
+      ClientHttpResponse response = request.execute();
+      policy.recordLatency(host, System.nanoTime() - start);
+      return response;
+    }
+
+    /**
+     * Send the request and a second one if no response was received within
+     * the hedging delay of the host. The first successful response is
+     * returned, the other one is closed.
+     *
+     * @return Response.
+     * @throws IOException If both requests failed.
+     */
+    private ClientHttpResponse executeHedged() throws IOException {
+      long delay = policy.getHedgingDelayNanos(host);
+      if (delay < 0) {
+        return send(false);
+      }
+      CompletableFuture<ClientHttpResponse> primary = submit(false);
+      try {
+        return primary.get(delay, TimeUnit.NANOSECONDS);
+      } catch (TimeoutException ex) {
+        LOGGER.trace("No response from {} after {} ms. Sending hedged request.", uri, TimeUnit.NANOSECONDS.toMillis(delay));
+      } catch (ExecutionException ex) {
+        throw unwrap(ex);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        primary.thenAccept(this::closeQuietly);
+        throw new InterruptedIOException("Request to " + uri + " was interrupted.");
+      }
+      CompletableFuture<ClientHttpResponse> first = new CompletableFuture<>();
+      AtomicInteger failures = new AtomicInteger();
+      BiConsumer<ClientHttpResponse, Throwable> handler = (response, error) -> {
+        if (error == null) {
+          if (!first.complete(response)) {
+            closeQuietly(response);
+          }
+        } else if (failures.incrementAndGet() == 2) {
+          first.completeExceptionally(error);
+        }
+      };
+      primary.whenComplete(handler);
+      // the hedged request fails with CircuitOpenException if not permitted
+      submit(true).whenComplete(handler);
+      try {
+        return first.get();
+      } catch (ExecutionException ex) {
+        throw unwrap(ex);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        first.thenAccept(this::closeQuietly);
+        throw new InterruptedIOException("Request to " + uri + " was interrupted.");
+      }
+    }
+
+    private CompletableFuture<ClientHttpResponse> submit(boolean hedge) {
+      return CompletableFuture.supplyAsync(() -> {
+        try {
+          return send(hedge);
+        } catch (IOException ex) {
+          throw new UncheckedIOException(ex);
+        }
+      }, hedgingExecutor);
+    }
+
+    private IOException unwrap(ExecutionException ex) {
+      Throwable cause = ex.getCause();
+      if (cause instanceof UncheckedIOException) {
+        return ((UncheckedIOException) cause).getCause();
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      return new IOException("Request to " + uri + " failed.", cause);
+    }
+
+    private void closeQuietly(ClientHttpResponse response) {
+      try {
+        response.close();
+      } catch (RuntimeException ex) {
+        LOGGER.trace("Failed to close response of hedged request.", ex);
+      }
+    }
+
+    private void backoff(int attempt) throws IOException {
+      policy.retried();
+      try {
+        Thread.sleep(policy.getBackoffMillis(attempt));
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Retry of request to " + uri + " was interrupted.");
+      }
+    }
+  }
+}
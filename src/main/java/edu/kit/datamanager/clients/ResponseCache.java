@@ -0,0 +1,283 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.clients;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Bounded client-side cache of responses with ETag. Entries are keyed by URI
+ * and Accept header and evicted in least recently used order. Cached
+ * responses are revalidated with 'If-None-Match', so a '304 Not Modified'
+ * is answered from the cache without transferring the body again. The
+ * cached ETag is also used as 'If-Match' for updates and deletions, which
+ * saves the additional GET request for obtaining the current ETag.
+ *
+ * The cache is thread-safe and can be shared by multiple clients, e.g. via
+ * {@link HttpEngine.Builder#withResponseCache(ResponseCache)}.
+ *
+ * @author hartmann-v
+ */
+public final class ResponseCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ResponseCache.class);
+  /**
+   * Default max. number of entries.
+   */
+  public static final int DEFAULT_MAX_ENTRIES = 1000;
+  /**
+   * Default max. size of a single response body.
+   */
+  public static final int DEFAULT_MAX_BODY_SIZE = 1024 * 1024;
+
+  private final int maxEntries;
+  private final int maxBodySize;
+  private final Map<String, BufferedClientHttpResponse> entries;
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  /**
+   * Create cache with default limits.
+   */
+  public ResponseCache() {
+    this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_BODY_SIZE);
+  }
+
+  /**
+   * Create cache.
+   *
+   * @param maxEntries Max. number of cached responses.
+   * @param maxBodySize Max. size of a cached response body in bytes. Larger
+   * responses are not cached.
+   */
+  public ResponseCache(int maxEntries, int maxBodySize) {
+    if (maxEntries < 1) {
+      throw new IllegalArgumentException("Max. number of entries must be at least 1.");
+    }
+    this.maxEntries = maxEntries;
+    this.maxBodySize = maxBodySize;
+    entries = new LinkedHashMap<>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, BufferedClientHttpResponse> eldest) {
+        return size() > ResponseCache.this.maxEntries;
+      }
+    };
+  }
+
+  /**
+   * Create the key of a request.
+   *
+   * @param uri URI of the request.
+   * @param accept Accepted media types.
+   * @return Key.
+   */
+  static String key(String uri, List<MediaType> accept) {
+    return uri + "\n" + MediaType.toString(accept);
+  }
+
+  /**
+   * Get cached response.
+   *
+   * @param key Key of the request.
+   * @return Cached response or null.
+   */
+  BufferedClientHttpResponse get(String key) {
+    synchronized (entries) {
+      return entries.get(key);
+    }
+  }
+
+  /**
+   * Get the ETag of a cached response.
+   *
+   * @param key Key of the request.
+   * @return ETag or null if no response is cached.
+   */
+  String getETag(String key) {
+    BufferedClientHttpResponse response = get(key);
+    return (response != null) ? response.getHeaders().getETag() : null;
+  }
+
+  /**
+   * Cache response if it has an ETag and the body is not too large.
+   *
+   * @param key Key of the request.
+   * @param response Response to cache.
+   */
+  void put(String key, BufferedClientHttpResponse response) {
+    if (response.getHeaders().getETag() == null || response.getBodyLength() > maxBodySize) {
+      return;
+    }
+    synchronized (entries) {
+      entries.put(key, response);
+    }
+  }
+
+  /**
+   * Cache a successful response if it has an ETag and the body is not too
+   * large. Only up to 'maxBodySize' bytes of the body are buffered, larger
+   * bodies are passed through without caching them.
+   *
+   * @param key Key of the request.
+   * @param response Received response.
+   * @return Response to read the body from, which is either the cached
+   * response or a response streaming the body.
+   * @throws IOException If reading the body fails.
+   */
+  ClientHttpResponse cache(String key, ClientHttpResponse response) throws IOException {
+    HttpHeaders headers = new HttpHeaders();
+    headers.putAll(response.getHeaders());
+    if (headers.getETag() == null || headers.getContentLength() > maxBodySize) {
+      return response;
+    }
+    InputStream body = response.getBody();
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    if (IOUtils.copyLarge(body, buffer, 0, (long) maxBodySize + 1) > maxBodySize) {
+      LOGGER.trace("Response body exceeds {} bytes. Response is not cached.", maxBodySize);
+      return new StreamingClientHttpResponse(response, new SequenceInputStream(new ByteArrayInputStream(buffer.toByteArray()), body));
+    }
+    BufferedClientHttpResponse buffered = new BufferedClientHttpResponse(response.getStatusCode(), headers, buffer.toByteArray());
+    put(key, buffered);
+    return buffered;
+  }
+
+  /**
+   * Count a response answered from the cache.
+   */
+  void hit() {
+    hits.incrementAndGet();
+  }
+
+  /**
+   * Count a response which had to be transferred.
+   */
+  void miss() {
+    misses.incrementAndGet();
+  }
+
+  /**
+   * Remove all cached responses of the provided URI.
+   *
+   * @param uri URI of the resource.
+   */
+  public void invalidate(String uri) {
+    String prefix = uri + "\n";
+    synchronized (entries) {
+      Iterator<String> keys = entries.keySet().iterator();
+      while (keys.hasNext()) {
+        if (keys.next().startsWith(prefix)) {
+          keys.remove();
+        }
+      }
+    }
+    LOGGER.trace("Invalidated cached responses of {}.", uri);
+  }
+
+  /**
+   * Remove all cached responses.
+   */
+  public void clear() {
+    synchronized (entries) {
+      entries.clear();
+    }
+  }
+
+  /**
+   * Get the number of cached responses.
+   *
+   * @return Number of cached responses.
+   */
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  /**
+   * Get the number of requests answered with '304 Not Modified' from the
+   * cache.
+   *
+   * @return Number of cache hits.
+   */
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  /**
+   * Get the number of requests whose response had to be transferred.
+   *
+   * @return Number of cache misses.
+   */
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  /**
+   * Response whose body was partially read while checking its size.
+   */
+  private static final class StreamingClientHttpResponse implements ClientHttpResponse {
+
+    private final ClientHttpResponse response;
+    private final InputStream body;
+
+    StreamingClientHttpResponse(ClientHttpResponse response, InputStream body) {
+      this.response = response;
+      this.body = body;
+    }
+
+    @Override
+    public HttpStatusCode getStatusCode() throws IOException {
+      return response.getStatusCode();
+    }
+
+    @Override
+    public String getStatusText() throws IOException {
+      return response.getStatusText();
+    }
+
+    @Override
+    public InputStream getBody() {
+      return body;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+      return response.getHeaders();
+    }
+
+    @Override
+    public void close() {
+      response.close();
+    }
+  }
+}
@@ -24,30 +24,49 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 import lombok.Data;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CloseShieldInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
 import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpMessageConverterExtractor;
 import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseErrorHandler;
 import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -64,7 +83,10 @@ public class SimpleServiceClient {
   private static final String OBTAINING_RESOURCE = "Obtaining resource from resource URI {}.";
   private static final String RETURN_STATUS = "Request returned with status {}. Returning response body.";
 
-  private RestTemplate restTemplate = new RestTemplate();
+  private HttpEngine httpEngine = HttpEngine.getDefault();
+  private RestTemplate restTemplate = httpEngine.getRestTemplate();
+  private ResponseCache responseCache = httpEngine.getResponseCache();
+  private RequestCoalescer requestCoalescer = httpEngine.getRequestCoalescer();
 
   private final String resourceBaseUrl;
   private String resourcePath = null;
@@ -89,6 +111,49 @@ public class SimpleServiceClient {
 
   }
 
+  /**
+   * Use the provided HTTP engine instead of the shared default engine.
+   *
+   * @param engine HTTP engine providing pooled connections.
+   * @return Service client.
+   */
+  public SimpleServiceClient withHttpEngine(HttpEngine engine) {
+    this.httpEngine = engine;
+    this.restTemplate = engine.getRestTemplate();
+    this.responseCache = engine.getResponseCache();
+    this.requestCoalescer = engine.getRequestCoalescer();
+    return this;
+  }
+
+  /**
+   * Use the provided cache for responses with ETag. Cached responses are
+   * revalidated via 'If-None-Match' and the cached ETag is used for updates
+   * and deletions. By default, the cache of the HTTP engine is used, if
+   * configured.
+   *
+   * @param cache Response cache or null to disable caching.
+   * @return Service client.
+   */
+  public SimpleServiceClient withResponseCache(ResponseCache cache) {
+    this.responseCache = cache;
+    return this;
+  }
+
+  /**
+   * Use the provided coalescer for GET requests. Concurrent calls of
+   * {@link #getResource(Class)} with identical URI, headers and response type
+   * share one request in flight and receive the same instance. Calls
+   * collecting response headers are never coalesced. By default, the
+   * coalescer of the HTTP engine is used, if configured.
+   *
+   * @param coalescer Request coalescer or null to disable coalescing.
+   * @return Service client.
+   */
+  public SimpleServiceClient withRequestCoalescer(RequestCoalescer coalescer) {
+    this.requestCoalescer = coalescer;
+    return this;
+  }
+
   /**
    * Create service client.
    *
@@ -185,13 +250,7 @@ public class SimpleServiceClient {
     if (object instanceof File) {
       body.add(name, new FileSystemResource((File) object));
     } else if (object instanceof InputStream) {
-      body.add(name, new ByteArrayResource(IOUtils.toByteArray((InputStream) object)) {
-        //overwriting filename required by spring (see https://medium.com/@voziv/posting-a-byte-array-instead-of-a-file-using-spring-s-resttemplate-56268b45140b)
-        @Override
-        public String getFilename() {
-          return "stream#" + UUID.randomUUID().toString();
-        }
-      });
+      return withFormParam(name, (InputStream) object, -1);
     } else {
       String metadataString = new ObjectMapper().writeValueAsString(object);
       LOGGER.trace("Adding argument from JSON document {}.", metadataString);
@@ -206,6 +265,25 @@ public class SimpleServiceClient {
     return this;
   }
 
+  /**
+   * Add form parameter streamed from the provided stream. The content is not
+   * buffered but copied in chunks while sending the request. If the length is
+   * known, the request is sent with a 'Content-Length' header, otherwise
+   * chunked transfer encoding is used. The stream is not closed.
+   *
+   * @param name Name of the parameter.
+   * @param stream Stream providing the content.
+   * @param contentLength Length of the content in bytes or -1 if unknown.
+   * @return Service client.
+   */
+  public SimpleServiceClient withFormParam(String name, InputStream stream, long contentLength) {
+    if (name == null || stream == null) {
+      throw new IllegalArgumentException("Form element key and value must not be null.");
+    }
+    body.add(name, new StreamingResource(stream, contentLength));
+    return this;
+  }
+
   /**
    * Add query parameter.
    *
@@ -226,14 +304,34 @@ public class SimpleServiceClient {
    * @return Instance of response class.
    */
   public <C> C getResource(Class<C> responseType) {
-    C returnValue = null;
     LOGGER.trace("Calling getResource().");
     String destinationUri = resourceBaseUrl + ((resourcePath != null) ? resourcePath : "");
     UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(destinationUri).queryParams(queryParams);
-    LOGGER.trace(OBTAINING_RESOURCE, uriBuilder.toUriString());
-    ResponseEntity<C> response = restTemplate.exchange(uriBuilder.toUriString(), HttpMethod.GET, new HttpEntity<>(headers), responseType);
+    String uri = uriBuilder.toUriString();
+    LOGGER.trace(OBTAINING_RESOURCE, uri);
+    if (requestCoalescer != null && requestedResponseHeaders == null) {
+      return requestCoalescer.execute(RequestCoalescer.key(uri, headers, responseType), () -> exchangeResource(uri, responseType));
+    }
+    return exchangeResource(uri, responseType);
+  }
+
+  /**
+   * Send the GET request for a resource, using the response cache if
+   * configured.
+   *
+   * @param <C> Type of response.
+   * @param uri URI of the resource.
+   * @param responseType Class of response.
+   * @return Instance of response class.
+   */
+  private <C> C exchangeResource(String uri, Class<C> responseType) {
+    C returnValue = null;
+    if (responseCache != null) {
+      return getCachedResource(uri, responseType);
+    }
+    ResponseEntity<C> response = restTemplate.exchange(uri, HttpMethod.GET, new HttpEntity<>(headers), responseType);
     HttpStatusCode statusCode = response.getStatusCode();
-    LOGGER.trace("Request to '{}' returned with status {}.", destinationUri, statusCode.value());
+    LOGGER.trace("Request to '{}' returned with status {}.", uri, statusCode.value());
     if (statusCode.is2xxSuccessful()) {
       collectResponseHeaders(response.getHeaders());
       returnValue = response.getBody();
@@ -296,6 +394,49 @@ public class SimpleServiceClient {
     return new ResultPage<>(response.getBody(), contentRange);
   }
 
+  /**
+   * Get multiple resources decoding the JSON array element by element while
+   * the response is received. In contrast to {@link #getResources(Class)}
+   * each element is passed to the consumer as soon as it is read, so large
+   * pages or unpaged exports are never held in memory as a whole.
+   *
+   * @param <C> Type of a single response element.
+   * @param elementType Class of a single response element.
+   * @param consumer Consumer receiving all elements in order.
+   * @return Content range of the page or null if not provided.
+   */
+  public <C> ContentRange getResources(Class<C> elementType, Consumer<? super C> consumer) {
+    LOGGER.trace("Calling getResources(Class, Consumer).");
+    String destinationUri = resourceBaseUrl + ((resourcePath != null) ? resourcePath : "");
+    UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(destinationUri).queryParams(queryParams);
+    LOGGER.trace(OBTAINING_RESOURCE, uriBuilder.toUriString());
+    ResponseEntity<ContentRange> response = readResources(uriBuilder.toUriString(), HttpMethod.GET, null, elementType, consumer);
+    if (response.getStatusCode().is3xxRedirection()) {
+      SimpleServiceClient redirectedClient = cloneRequestForRedirect(response.getHeaders().getLocation());
+      return redirectedClient.getResources(elementType, consumer);
+    }
+    return response.getBody();
+  }
+
+  /**
+   * Find resource using provided example decoding the JSON array element by
+   * element while the response is received.
+   *
+   * @param <C> Type of response.
+   * @param resource Example instance.
+   * @param elementType Class of a single response element.
+   * @param consumer Consumer receiving all elements in order.
+   * @return Content range of the page or null if not provided.
+   * @see #getResources(Class, Consumer)
+   */
+  public <C> ContentRange findResources(C resource, Class<C> elementType, Consumer<? super C> consumer) {
+    LOGGER.trace("Calling findResources(Object, Class, Consumer).");
+    String destinationUri = resourceBaseUrl + "search";
+    UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(destinationUri).queryParams(queryParams);
+    LOGGER.trace(OBTAINING_RESOURCE, uriBuilder.toUriString());
+    return readResources(uriBuilder.toUriString(), HttpMethod.POST, resource, elementType, consumer).getBody();
+  }
+
   /**
    * Get resource.
    *
@@ -316,7 +457,7 @@ public class SimpleServiceClient {
     };
 
     ResponseExtractor<ClientHttpResponse> responseExtractor = response -> {
-      IOUtils.copy(response.getBody(), outputStream);
+      IOUtils.copy(decodeBody(response), outputStream);
 
       return response;
     };
@@ -333,6 +474,44 @@ public class SimpleServiceClient {
     return status;
   }
 
+  /**
+   * Download resource into a file using up to 'parallelSegments' HTTP range
+   * requests in parallel. Each segment is written at its offset into the file
+   * and resumed from the last byte written if the connection fails. If the
+   * server does not support range requests, a single request is used.
+   *
+   * @param destination File to write the resource to.
+   * @param parallelSegments Max. number of segments downloaded in parallel.
+   * @return Number of bytes downloaded.
+   * @throws IOException If the download fails.
+   */
+  public long getResource(File destination, int parallelSegments) throws IOException {
+    return getResource(destination, parallelSegments, null);
+  }
+
+  /**
+   * Download resource into a file using parallel range requests and check
+   * the downloaded content against the expected hash, e.g. the hash of the
+   * ContentInformation of the resource. If the download fails or the hash
+   * does not match, the file is removed.
+   *
+   * @param destination File to write the resource to.
+   * @param parallelSegments Max. number of segments downloaded in parallel.
+   * @param expectedHash Expected hash, e.g. 'sha256:0a1b...', or null.
+   * @return Number of bytes downloaded.
+   * @throws IOException If the download fails or the hash does not match.
+   * @see #getResource(File, int)
+   */
+  public long getResource(File destination, int parallelSegments, String expectedHash) throws IOException {
+    String sourceUri = resourceBaseUrl + ((resourcePath != null) ? resourcePath : "");
+    UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(sourceUri).queryParams(queryParams);
+    LOGGER.trace("Downloading content from source URI {} in up to {} segments.", uriBuilder.toUriString(), parallelSegments);
+    RangedDownload download = new RangedDownload(restTemplate, uriBuilder.toUriString(), headers);
+    long size = download.download(destination, parallelSegments, expectedHash);
+    collectResponseHeaders(download.getResponseHeaders());
+    return size;
+  }
+
   /**
    * Post resource.
    *
@@ -378,6 +557,9 @@ public class SimpleServiceClient {
     UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(destinationUri).queryParams(queryParams);
 
     LOGGER.trace("Uploading content to destination URI {}.", uriBuilder.toUriString());
+    if (MediaType.MULTIPART_FORM_DATA.includes(contentType)) {
+      return postMultipart(uriBuilder.toUriString());
+    }
     ResponseEntity<String> response = restTemplate.postForEntity(uriBuilder.toUriString(), new HttpEntity<>(body, headers), String.class);
     LOGGER.trace("Upload returned with status {}.", response.getStatusCode().value());
     collectResponseHeaders(response.getHeaders());
@@ -398,13 +580,25 @@ public class SimpleServiceClient {
 
     String destinationUri = resourceBaseUrl + ((resourcePath != null) ? resourcePath : "");
     UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(destinationUri).queryParams(queryParams);
-    LOGGER.trace(OBTAINING_RESOURCE, uriBuilder.toUriString());
-    ResponseEntity<C> response = restTemplate.exchange(uriBuilder.toUriString(), HttpMethod.GET, new HttpEntity<>(headers), responseType);
-    LOGGER.trace("Reading ETag from response header.");
-    String etag = response.getHeaders().getFirst("ETag");
+    String etag = getCachedETag(uriBuilder.toUriString());
+    if (etag == null) {
+      LOGGER.trace(OBTAINING_RESOURCE, uriBuilder.toUriString());
+      ResponseEntity<C> response = restTemplate.exchange(uriBuilder.toUriString(), HttpMethod.GET, new HttpEntity<>(headers), responseType);
+      LOGGER.trace("Reading ETag from response header.");
+      etag = response.getHeaders().getFirst("ETag");
+    }
     LOGGER.trace("Sending PUT request for resource with ETag {}.", etag);
     headers.setIfMatch(etag);
-    response = restTemplate.exchange(uriBuilder.toUriString(), HttpMethod.PUT, new HttpEntity<>(resource, headers), responseType);
+    ResponseEntity<C> response;
+    try {
+      response = restTemplate.exchange(uriBuilder.toUriString(), HttpMethod.PUT, new HttpEntity<>(resource, headers), responseType);
+    } catch (HttpClientErrorException ex) {
+      if (!isStaleCachedETag(ex, uriBuilder.toUriString())) {
+        throw ex;
+      }
+      return putResource(resource, responseType);
+    }
+    invalidateCache(uriBuilder.toUriString());
     collectResponseHeaders(response.getHeaders());
     LOGGER.trace("Request returned with status {}. Returning response body.", response.getStatusCode().value());
     return response.getBody();
@@ -418,19 +612,739 @@ public class SimpleServiceClient {
     LOGGER.trace("Calling delete().");
     String destinationUri = resourceBaseUrl + ((resourcePath != null) ? resourcePath : "");
     UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(destinationUri).queryParams(queryParams);
-    LOGGER.trace(OBTAINING_RESOURCE, uriBuilder.toUriString());
-    ResponseEntity<DataResource> response = restTemplate.exchange(uriBuilder.toUriString(), HttpMethod.GET, new HttpEntity<>(headers), DataResource.class);
-    LOGGER.trace("Reading ETag from response header.");
-    String etag = response.getHeaders().getFirst("ETag");
+    String etag = getCachedETag(uriBuilder.toUriString());
+    if (etag == null) {
+      LOGGER.trace(OBTAINING_RESOURCE, uriBuilder.toUriString());
+      ResponseEntity<DataResource> response = restTemplate.exchange(uriBuilder.toUriString(), HttpMethod.GET, new HttpEntity<>(headers), DataResource.class);
+      LOGGER.trace("Reading ETag from response header.");
+      etag = response.getHeaders().getFirst("ETag");
+    }
     LOGGER.trace("Obtained ETag value {}.", etag);
 
     LOGGER.trace("Sending DELETE request for resource with ETag {}.", etag);
     headers.setIfMatch(etag);
-    response = restTemplate.exchange(uriBuilder.toUriString(), HttpMethod.DELETE, new HttpEntity<>(headers), DataResource.class);
+    ResponseEntity<DataResource> response;
+    try {
+      response = restTemplate.exchange(uriBuilder.toUriString(), HttpMethod.DELETE, new HttpEntity<>(headers), DataResource.class);
+    } catch (HttpClientErrorException ex) {
+      if (!isStaleCachedETag(ex, uriBuilder.toUriString())) {
+        throw ex;
+      }
+      deleteResource();
+      return;
+    }
+    invalidateCache(uriBuilder.toUriString());
     collectResponseHeaders(response.getHeaders());
     LOGGER.trace("Request returned with status {}. No response body expected.", response.getStatusCode().value());
   }
 
+  /**
+   * Get resource without blocking the calling thread. The request is sent
+   * via the non-blocking HTTP client of the HTTP engine, so many requests can
+   * be in flight without occupying a thread each. The message converters and
+   * the error handler of the RestTemplate of this client are applied when
+   * the response has been received. Redirects, response headers, the
+   * response cache and the request coalescer are handled as for
+   * {@link #getResource(Class)}. The future completes exceptionally, e.g.
+   * with HttpClientErrorException, if the request fails.
+   *
+   * Headers, query and form parameters are captured at the time of the call.
+   * Interceptors and the request factory of a custom RestTemplate are not
+   * used. Dependent stages without an executor of their own run on an I/O
+   * thread of the engine and must not block.
+   *
+   * @param <C> Type of response.
+   * @param responseType Class of response.
+   * @return Future holding the instance of response class.
+   */
+  public <C> CompletableFuture<C> getResourceAsync(Class<C> responseType) {
+    LOGGER.trace("Calling getResourceAsync().");
+    String destinationUri = resourceBaseUrl + ((resourcePath != null) ? resourcePath : "");
+    UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(destinationUri).queryParams(queryParams);
+    String uri = uriBuilder.toUriString();
+    LOGGER.trace(OBTAINING_RESOURCE, uri);
+    SimpleServiceClient client = copyRequest();
+    if (requestCoalescer != null && requestedResponseHeaders == null) {
+      return requestCoalescer.executeAsync(RequestCoalescer.key(uri, headers, responseType), () -> client.exchangeResourceAsync(uri, responseType));
+    }
+    return client.exchangeResourceAsync(uri, responseType);
+  }
+
+  /**
+   * Send the GET request for a resource without blocking, using the response
+   * cache if configured.
+   *
+   * @param <C> Type of response.
+   * @param uri URI of the resource.
+   * @param responseType Class of response.
+   * @return Future holding the instance of response class.
+   */
+  private <C> CompletableFuture<C> exchangeResourceAsync(String uri, Class<C> responseType) {
+    if (responseCache != null) {
+      return getCachedResourceAsync(uri, responseType);
+    }
+    return exchangeAsync(uri, HttpMethod.GET, new HttpEntity<>(headers), responseType).thenCompose(response -> {
+      HttpStatusCode statusCode = response.getStatusCode();
+      LOGGER.trace("Request to '{}' returned with status {}.", uri, statusCode.value());
+      if (statusCode.is3xxRedirection()) {
+        SimpleServiceClient redirectedClient = cloneRequestForRedirect(response.getHeaders().getLocation());
+        return redirectedClient.getResourceAsync(responseType);
+      }
+      C returnValue = null;
+      if (statusCode.is2xxSuccessful()) {
+        collectResponseHeaders(response.getHeaders());
+        returnValue = response.getBody();
+      }
+      return CompletableFuture.completedFuture(returnValue);
+    });
+  }
+
+  /**
+   * Get multiple resources without blocking the calling thread. The content
+   * range of the result page is obtained from the 'Content-Range' header as
+   * for {@link #getResources(Class)}.
+   *
+   * @param <C> Type of response.
+   * @param responseType Class of response.
+   * @return Future holding the page with all responses.
+   * @see #getResourceAsync(Class)
+   */
+  public <C> CompletableFuture<ResultPage<C>> getResourcesAsync(Class<C[]> responseType) {
+    LOGGER.trace("Calling getResourcesAsync().");
+    String destinationUri = resourceBaseUrl + ((resourcePath != null) ? resourcePath : "");
+    UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(destinationUri).queryParams(queryParams);
+    LOGGER.trace(OBTAINING_RESOURCE, uriBuilder.toUriString());
+    SimpleServiceClient client = copyRequest();
+    return client.exchangeAsync(uriBuilder.toUriString(), HttpMethod.GET, new HttpEntity<>(client.headers), responseType).thenCompose(response -> {
+      HttpStatusCode statusCode = response.getStatusCode();
+      LOGGER.trace("Request to '{}' returned with status {}.", destinationUri, statusCode.value());
+      if (statusCode.is3xxRedirection()) {
+        SimpleServiceClient redirectedClient = client.cloneRequestForRedirect(response.getHeaders().getLocation());
+        return redirectedClient.getResourcesAsync(responseType);
+      }
+      ResultPage<C> returnValue = null;
+      if (statusCode.is2xxSuccessful()) {
+        ContentRange contentRange = ControllerUtils.parseContentRangeHeader(response.getHeaders().getFirst("Content-Range"));
+        client.collectResponseHeaders(response.getHeaders());
+        returnValue = new ResultPage<>(response.getBody(), contentRange);
+      }
+      return CompletableFuture.completedFuture(returnValue);
+    });
+  }
+
+  /**
+   * Find resource using provided example without blocking the calling
+   * thread.
+   *
+   * @param <C> Type of response.
+   * @param resource Example instance.
+   * @param responseType Class of response.
+   * @return Future holding the page with all responses.
+   * @see #getResourceAsync(Class)
+   */
+  public <C> CompletableFuture<ResultPage<C>> findResourcesAsync(C resource, Class<C[]> responseType) {
+    LOGGER.trace("Calling findResourcesAsync().");
+    String destinationUri = resourceBaseUrl + "search";
+    UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(destinationUri).queryParams(queryParams);
+    LOGGER.trace(OBTAINING_RESOURCE, uriBuilder.toUriString());
+    SimpleServiceClient client = copyRequest();
+    return client.exchangeAsync(uriBuilder.toUriString(), HttpMethod.POST, new HttpEntity<>(resource, client.headers), responseType).thenApply(response -> {
+      LOGGER.trace(RETURN_STATUS, response.getStatusCode().value());
+      ContentRange contentRange = ControllerUtils.parseContentRangeHeader(response.getHeaders().getFirst("Content-Range"));
+      client.collectResponseHeaders(response.getHeaders());
+      return new ResultPage<>(response.getBody(), contentRange);
+    });
+  }
+
+  /**
+   * Post resource without blocking the calling thread.
+   *
+   * @param <C> Type of response.
+   * @param resource Instance to post.
+   * @param responseType Class of response.
+   * @return Future holding the posted resource.
+   * @see #getResourceAsync(Class)
+   */
+  public <C> CompletableFuture<C> postResourceAsync(C resource, Class<C> responseType) {
+    LOGGER.trace("Calling postResourceAsync().");
+    String destinationUri = resourceBaseUrl + ((resourcePath != null) ? resourcePath : "");
+    UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(destinationUri).queryParams(queryParams);
+    LOGGER.trace("Sending POST request for resource.");
+    SimpleServiceClient client = copyRequest();
+    return client.exchangeAsync(uriBuilder.toUriString(), HttpMethod.POST, new HttpEntity<>(resource, client.headers), responseType).thenApply(response -> {
+      LOGGER.trace(RETURN_STATUS, response.getStatusCode().value());
+      client.collectResponseHeaders(response.getHeaders());
+      return response.getBody();
+    });
+  }
+
+  /**
+   * Post form without blocking the calling thread.
+   *
+   * @return Future holding the status of post.
+   * @see #postFormAsync(MediaType)
+   */
+  public CompletableFuture<HttpStatus> postFormAsync() {
+    return postFormAsync(MediaType.MULTIPART_FORM_DATA);
+  }
+
+  /**
+   * Post form with given content type without blocking the calling thread.
+   * In contrast to {@link #postForm(MediaType)} the form is buffered in
+   * memory before it is sent, so large streams should be posted by the
+   * blocking method.
+   *
+   * @param contentType Content type.
+   * @return Future holding the status of post.
+   * @see #getResourceAsync(Class)
+   */
+  public CompletableFuture<HttpStatus> postFormAsync(MediaType contentType) {
+    LOGGER.trace("Calling postFormAsync().");
+    SimpleServiceClient client = copyRequest();
+    client.headers.setContentType(contentType);
+    String destinationUri = resourceBaseUrl + ((resourcePath != null) ? resourcePath : "");
+    UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(destinationUri).queryParams(queryParams);
+    LOGGER.trace("Uploading content to destination URI {}.", uriBuilder.toUriString());
+    if (MediaType.MULTIPART_FORM_DATA.includes(contentType)) {
+      RequestCallback requestCallback = client.multipartRequestCallback(client.toMultipartBody());
+      return client.executeAsync(uriBuilder.toUriString(), HttpMethod.POST, requestCallback, response -> {
+        client.collectResponseHeaders(response.getHeaders());
+        return HttpStatus.resolve(response.getStatusCode().value());
+      });
+    }
+    return client.exchangeAsync(uriBuilder.toUriString(), HttpMethod.POST, new HttpEntity<>(client.body, client.headers), String.class).thenApply(response -> {
+      LOGGER.trace("Upload returned with status {}.", response.getStatusCode().value());
+      client.collectResponseHeaders(response.getHeaders());
+      return HttpStatus.resolve(response.getStatusCode().value());
+    });
+  }
+
+  /**
+   * Put resource without blocking the calling thread. As for
+   * {@link #putResource(Object, Class)} the current ETag is obtained first and
+   * sent as 'If-Match' header.
+   *
+   * @param <C> Type of response.
+   * @param resource Instance to put.
+   * @param responseType Class of response.
+   * @return Future holding the updated resource.
+   * @see #getResourceAsync(Class)
+   */
+  public <C> CompletableFuture<C> putResourceAsync(C resource, Class<C> responseType) {
+    LOGGER.trace("Calling putResourceAsync().");
+    return copyRequest().updateResourceAsync(resource, responseType);
+  }
+
+  /**
+   * Send the requests of {@link #putResourceAsync(Object, Class)}. The
+   * 'If-Match' header is set in the headers of this client, which therefore
+   * has to be a copy.
+   *
+   * @param <C> Type of response.
+   * @param resource Instance to put.
+   * @param responseType Class of response.
+   * @return Future holding the updated resource.
+   */
+  private <C> CompletableFuture<C> updateResourceAsync(C resource, Class<C> responseType) {
+    String destinationUri = resourceBaseUrl + ((resourcePath != null) ? resourcePath : "");
+    String uri = UriComponentsBuilder.fromHttpUrl(destinationUri).queryParams(queryParams).toUriString();
+    String cachedETag = getCachedETag(uri);
+    CompletableFuture<String> etag;
+    if (cachedETag != null) {
+      etag = CompletableFuture.completedFuture(cachedETag);
+    } else {
+      LOGGER.trace(OBTAINING_RESOURCE, uri);
+      etag = exchangeAsync(uri, HttpMethod.GET, new HttpEntity<>(headers), responseType).thenApply(response -> response.getHeaders().getFirst("ETag"));
+    }
+    return etag.thenCompose(value -> {
+      LOGGER.trace("Sending PUT request for resource with ETag {}.", value);
+      headers.setIfMatch(value);
+      return exchangeAsync(uri, HttpMethod.PUT, new HttpEntity<>(resource, headers), responseType);
+    }).handle((response, error) -> {
+      if (error != null) {
+        Throwable cause = unwrap(error);
+        if (cause instanceof HttpClientErrorException && isStaleCachedETag((HttpClientErrorException) cause, uri)) {
+          return updateResourceAsync(resource, responseType);
+        }
+        return CompletableFuture.<C>failedFuture(cause);
+      }
+      invalidateCache(uri);
+      collectResponseHeaders(response.getHeaders());
+      LOGGER.trace(RETURN_STATUS, response.getStatusCode().value());
+      return CompletableFuture.completedFuture(response.getBody());
+    }).thenCompose(Function.identity());
+  }
+
+  /**
+   * Delete a resource without blocking the calling thread. As for
+   * {@link #deleteResource()} the current ETag is obtained first and sent as
+   * 'If-Match' header.
+   *
+   * @return Future completing after the resource was deleted.
+   * @see #getResourceAsync(Class)
+   */
+  public CompletableFuture<Void> deleteResourceAsync() {
+    LOGGER.trace("Calling deleteResourceAsync().");
+    return copyRequest().removeResourceAsync();
+  }
+
+  /**
+   * Send the requests of {@link #deleteResourceAsync()}. The 'If-Match'
+   * header is set in the headers of this client, which therefore has to be
+   * a copy.
+   *
+   * @return Future completing after the resource was deleted.
+   */
+  private CompletableFuture<Void> removeResourceAsync() {
+    String destinationUri = resourceBaseUrl + ((resourcePath != null) ? resourcePath : "");
+    String uri = UriComponentsBuilder.fromHttpUrl(destinationUri).queryParams(queryParams).toUriString();
+    String cachedETag = getCachedETag(uri);
+    CompletableFuture<String> etag;
+    if (cachedETag != null) {
+      etag = CompletableFuture.completedFuture(cachedETag);
+    } else {
+      LOGGER.trace(OBTAINING_RESOURCE, uri);
+      etag = exchangeAsync(uri, HttpMethod.GET, new HttpEntity<>(headers), DataResource.class).thenApply(response -> response.getHeaders().getFirst("ETag"));
+    }
+    return etag.thenCompose(value -> {
+      LOGGER.trace("Sending DELETE request for resource with ETag {}.", value);
+      headers.setIfMatch(value);
+      return exchangeAsync(uri, HttpMethod.DELETE, new HttpEntity<>(headers), DataResource.class);
+    }).handle((response, error) -> {
+      if (error != null) {
+        Throwable cause = unwrap(error);
+        if (cause instanceof HttpClientErrorException && isStaleCachedETag((HttpClientErrorException) cause, uri)) {
+          return removeResourceAsync();
+        }
+        return CompletableFuture.<Void>failedFuture(cause);
+      }
+      invalidateCache(uri);
+      collectResponseHeaders(response.getHeaders());
+      LOGGER.trace("Request returned with status {}. No response body expected.", response.getStatusCode().value());
+      return CompletableFuture.<Void>completedFuture(null);
+    }).thenCompose(Function.identity());
+  }
+
+  /**
+   * Send a request without blocking as RestTemplate.exchange would send it.
+   *
+   * @param <T> Type of response body.
+   * @param uri Destination URI.
+   * @param method HTTP method.
+   * @param requestEntity Headers and body of the request.
+   * @param responseType Class of response body.
+   * @return Future holding the response.
+   * @see #executeAsync(String, HttpMethod, RequestCallback, ResponseExtractor)
+   */
+  private <T> CompletableFuture<ResponseEntity<T>> exchangeAsync(String uri, HttpMethod method, HttpEntity<?> requestEntity, Class<T> responseType) {
+    return executeAsync(uri, method, restTemplate.httpEntityCallback(requestEntity, responseType), restTemplate.responseEntityExtractor(responseType));
+  }
+
+  /**
+   * Send a request via the non-blocking HTTP client of the HTTP engine. As
+   * for RestTemplate.execute the request callback writes headers and body
+   * before the request is sent. After the response has been received, the
+   * error handler of the RestTemplate checks the response and the response
+   * extractor reads it on the I/O thread completing the request. I/O errors
+   * are reported as ResourceAccessException.
+   *
+   * @param <T> Type of result.
+   * @param uri Destination URI.
+   * @param method HTTP method.
+   * @param requestCallback Callback writing the request.
+   * @param responseExtractor Extractor reading the response.
+   * @return Future holding the extracted result.
+   */
+  private <T> CompletableFuture<T> executeAsync(String uri, HttpMethod method, RequestCallback requestCallback, ResponseExtractor<T> responseExtractor) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    URI url = restTemplate.getUriTemplateHandler().expand(uri);
+    AsyncClientHttpRequest request = httpEngine.createAsyncRequest(url, method);
+    try {
+      requestCallback.doWithRequest(request);
+    } catch (IOException ex) {
+      result.completeExceptionally(ioError(method, url, ex));
+      return result;
+    } catch (RuntimeException ex) {
+      result.completeExceptionally(ex);
+      return result;
+    }
+    request.executeAsync().whenComplete((response, error) -> {
+      if (error != null) {
+        result.completeExceptionally((error instanceof IOException) ? ioError(method, url, (IOException) error) : error);
+        return;
+      }
+      try {
+        ResponseErrorHandler errorHandler = restTemplate.getErrorHandler();
+        if (errorHandler.hasError(response)) {
+          errorHandler.handleError(url, method, response);
+        }
+        result.complete(responseExtractor.extractData(response));
+      } catch (IOException ex) {
+        result.completeExceptionally(ioError(method, url, ex));
+      } catch (RuntimeException ex) {
+        result.completeExceptionally(ex);
+      } finally {
+        response.close();
+      }
+    });
+    return result;
+  }
+
+  /**
+   * Wrap an I/O error the same way RestTemplate does.
+   *
+   * @param method HTTP method.
+   * @param url Request URI.
+   * @param ex I/O error.
+   * @return Exception to report.
+   */
+  private static ResourceAccessException ioError(HttpMethod method, URI url, IOException ex) {
+    return new ResourceAccessException("I/O error on " + method.name() + " request for \"" + url + "\": " + ex.getMessage(), ex);
+  }
+
+  /**
+   * Get the cause of a failure of a dependent stage.
+   *
+   * @param error Failure.
+   * @return Cause of the failure.
+   */
+  private static Throwable unwrap(Throwable error) {
+    return (error instanceof CompletionException && error.getCause() != null) ? error.getCause() : error;
+  }
+
+  /**
+   * Copy this client with its own headers and query parameters.
+   *
+   * @return new client.
+   */
+  private SimpleServiceClient copyRequest() {
+    SimpleServiceClient copy = create(resourceBaseUrl);
+    copy.body = body;
+    headers.forEach((name, values) -> copy.headers.put(name, new ArrayList<>(values)));
+    copy.queryParams = new LinkedMultiValueMap<>(queryParams);
+    copy.resourcePath = resourcePath;
+    copy.requestedResponseHeaders = requestedResponseHeaders;
+    copy.restTemplate = restTemplate;
+    copy.httpEngine = httpEngine;
+    copy.responseCache = responseCache;
+    copy.requestCoalescer = requestCoalescer;
+    return copy;
+  }
+
+  /**
+   * Post all form parameters as multipart body streaming the content of all
+   * parts directly to the connection.
+   *
+   * @param uri Destination URI.
+   * @return Status of post.
+   */
+  private HttpStatus postMultipart(String uri) {
+    RequestCallback requestCallback = multipartRequestCallback(toMultipartBody());
+    ResponseExtractor<HttpStatusCode> responseExtractor = response -> {
+      collectResponseHeaders(response.getHeaders());
+      return response.getStatusCode();
+    };
+    HttpStatusCode status = restTemplate.execute(uri, HttpMethod.POST, requestCallback, responseExtractor);
+    LOGGER.trace("Upload returned with status {}.", status.value());
+    return HttpStatus.resolve(status.value());
+  }
+
+  /**
+   * Create the callback writing the multipart body. The body is streamed if
+   * the request supports streaming and written to the body of the request
+   * otherwise.
+   *
+   * @param multipartBody Multipart body.
+   * @return Request callback.
+   */
+  private RequestCallback multipartRequestCallback(MultipartBody multipartBody) {
+    long contentLength = multipartBody.getContentLength();
+    LOGGER.trace("Streaming multipart body with {}.", (contentLength < 0) ? "chunked transfer encoding" : contentLength + " bytes");
+    return request -> {
+      request.getHeaders().putAll(headers);
+      request.getHeaders().setContentType(multipartBody.getContentType());
+      if (contentLength >= 0) {
+        request.getHeaders().setContentLength(contentLength);
+      }
+      if (request instanceof StreamingHttpOutputMessage) {
+        ((StreamingHttpOutputMessage) request).setBody(multipartBody::writeTo);
+      } else {
+        multipartBody.writeTo(request.getBody());
+      }
+    };
+  }
+
+  /**
+   * Send a request and decode the JSON array in the response body element
+   * by element. The body of redirects and error responses is not read.
+   *
+   * @param <C> Type of a single response element.
+   * @param uri Destination URI.
+   * @param method HTTP method.
+   * @param requestBody Request body or null.
+   * @param elementType Class of a single response element.
+   * @param consumer Consumer receiving all elements in order.
+   * @return Response holding the content range as body.
+   */
+  @SuppressWarnings("unchecked")
+  private <C> ResponseEntity<ContentRange> readResources(String uri, HttpMethod method, Object requestBody, Class<C> elementType, Consumer<? super C> consumer) {
+    ObjectMapper mapper = getObjectMapper();
+    RequestCallback requestCallback = request -> {
+      request.getHeaders().putAll(headers);
+      if (request.getHeaders().getAccept().isEmpty()) {
+        request.getHeaders().setAccept(Arrays.asList(MediaType.APPLICATION_JSON, new MediaType("application", "*+json")));
+      }
+      if (requestBody != null) {
+        MediaType contentType = request.getHeaders().getContentType();
+        for (HttpMessageConverter<?> converter : restTemplate.getMessageConverters()) {
+          if (converter.canWrite(requestBody.getClass(), contentType)) {
+            ((HttpMessageConverter<Object>) converter).write(requestBody, contentType, request);
+            return;
+          }
+        }
+        throw new RestClientException("No HttpMessageConverter for " + requestBody.getClass().getName() + " and content type " + contentType + ".");
+      }
+    };
+    ResponseExtractor<ResponseEntity<ContentRange>> responseExtractor = response -> {
+      HttpStatusCode statusCode = response.getStatusCode();
+      LOGGER.trace("Request to '{}' returned with status {}.", uri, statusCode.value());
+      ContentRange contentRange = null;
+      if (statusCode.is2xxSuccessful()) {
+        contentRange = ControllerUtils.parseContentRangeHeader(response.getHeaders().getFirst("Content-Range"));
+        collectResponseHeaders(response.getHeaders());
+        long elements = JsonArrayReader.read(decodeBody(response), mapper, elementType, consumer);
+        LOGGER.trace("Decoded {} element(s) from response stream.", elements);
+      }
+      return new ResponseEntity<>(contentRange, response.getHeaders(), statusCode);
+    };
+    return restTemplate.execute(uri, method, requestCallback, responseExtractor);
+  }
+
+  /**
+   * Get the object mapper of the JSON message converter of the rest template
+   * to decode elements consistently with the non-streaming methods.
+   *
+   * @return Object mapper.
+   */
+  private ObjectMapper getObjectMapper() {
+    for (HttpMessageConverter<?> converter : restTemplate.getMessageConverters()) {
+      if (converter instanceof MappingJackson2HttpMessageConverter) {
+        return ((MappingJackson2HttpMessageConverter) converter).getObjectMapper();
+      }
+    }
+    return new ObjectMapper();
+  }
+
+  /**
+   * Get the response body decompressing it on the fly if it is still encoded.
+   * Responses received via the HTTP engine are already decoded by the HTTP
+   * client, which also removes the 'Content-Encoding' header.
+   *
+   * @param response Response.
+   * @return Stream providing the decoded body.
+   * @throws IOException If the body cannot be read.
+   */
+  private static InputStream decodeBody(ClientHttpResponse response) throws IOException {
+    String contentEncoding = response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+    if ("gzip".equalsIgnoreCase(contentEncoding) || "x-gzip".equalsIgnoreCase(contentEncoding)) {
+      LOGGER.trace("Decompressing gzip encoded response body.");
+      return new GZIPInputStream(response.getBody());
+    }
+    if ("deflate".equalsIgnoreCase(contentEncoding)) {
+      LOGGER.trace("Decompressing deflate encoded response body.");
+      return new InflaterInputStream(response.getBody());
+    }
+    return response.getBody();
+  }
+
+  /**
+   * Transform all form parameters to a streaming multipart body.
+   *
+   * @return Multipart body.
+   */
+  private MultipartBody toMultipartBody() {
+    MultipartBody multipartBody = new MultipartBody();
+    for (Entry<String, List<Object>> entry : body.entrySet()) {
+      for (Object value : entry.getValue()) {
+        Resource resource = (Resource) value;
+        String filename = resource.getFilename();
+        MediaType contentType = MediaTypeFactory.getMediaType(filename).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        long contentLength;
+        try {
+          contentLength = resource.contentLength();
+        } catch (IOException ex) {
+          LOGGER.debug("Failed to determine length of form element {}. Using chunked transfer encoding.", entry.getKey());
+          contentLength = -1;
+        }
+        multipartBody.addPart(entry.getKey(), filename, contentType, resource, contentLength);
+      }
+    }
+    return multipartBody;
+  }
+
+  /**
+   * Get resource using the response cache. A cached response is revalidated
+   * via 'If-None-Match' and returned if the server answers with '304 Not
+   * Modified'. If the server answers with '304 Not Modified' to an
+   * 'If-None-Match' header provided by the caller, the request is repeated
+   * once without this header, as there is no cached response to return.
+   *
+   * @param <C> Type of response.
+   * @param uri URI of the resource.
+   * @param responseType Class of response.
+   * @return Instance of response class.
+   */
+  private <C> C getCachedResource(String uri, Class<C> responseType) {
+    String key = ResponseCache.key(uri, headers.getAccept());
+    BufferedClientHttpResponse cached = responseCache.get(key);
+    ResponseEntity<C> response = restTemplate.execute(uri, HttpMethod.GET, request -> {
+      request.getHeaders().putAll(headers);
+      if (cached != null) {
+        request.getHeaders().setIfNoneMatch(cached.getHeaders().getETag());
+      }
+    }, clientResponse -> readCachedResource(uri, key, cached, clientResponse, responseType));
+    if (response == null) {
+      LOGGER.debug("Request to '{}' returned 'Not Modified', but no response is cached. Repeating request without If-None-Match.", uri);
+      response = restTemplate.execute(uri, HttpMethod.GET, request -> {
+        request.getHeaders().putAll(headers);
+        request.getHeaders().remove(HttpHeaders.IF_NONE_MATCH);
+      }, clientResponse -> readCachedResource(uri, key, null, clientResponse, responseType));
+      if (response == null) {
+        throw new RestClientException("Request to '" + uri + "' returned 'Not Modified', but no response is cached.");
+      }
+    }
+    if (response.getStatusCode().is3xxRedirection()) {
+      SimpleServiceClient redirectedClient = cloneRequestForRedirect(response.getHeaders().getLocation());
+      return redirectedClient.getResource(responseType);
+    }
+    return response.getBody();
+  }
+
+  /**
+   * Get resource using the response cache without blocking. Cached
+   * responses are revalidated as for {@link #getCachedResource(String, Class)}.
+   *
+   * @param <C> Type of response.
+   * @param uri URI of the resource.
+   * @param responseType Class of response.
+   * @return Future holding the instance of response class.
+   */
+  private <C> CompletableFuture<C> getCachedResourceAsync(String uri, Class<C> responseType) {
+    String key = ResponseCache.key(uri, headers.getAccept());
+    BufferedClientHttpResponse cached = responseCache.get(key);
+    return executeAsync(uri, HttpMethod.GET, request -> {
+      request.getHeaders().putAll(headers);
+      if (cached != null) {
+        request.getHeaders().setIfNoneMatch(cached.getHeaders().getETag());
+      }
+    }, clientResponse -> readCachedResource(uri, key, cached, clientResponse, responseType)).thenCompose(response -> {
+      if (response != null) {
+        return CompletableFuture.completedFuture(response);
+      }
+      LOGGER.debug("Request to '{}' returned 'Not Modified', but no response is cached. Repeating request without If-None-Match.", uri);
+      return executeAsync(uri, HttpMethod.GET, request -> {
+        request.getHeaders().putAll(headers);
+        request.getHeaders().remove(HttpHeaders.IF_NONE_MATCH);
+      }, clientResponse -> readCachedResource(uri, key, null, clientResponse, responseType)).thenApply(repeated -> {
+        if (repeated == null) {
+          throw new RestClientException("Request to '" + uri + "' returned 'Not Modified', but no response is cached.");
+        }
+        return repeated;
+      });
+    }).thenCompose(response -> {
+      if (response.getStatusCode().is3xxRedirection()) {
+        SimpleServiceClient redirectedClient = cloneRequestForRedirect(response.getHeaders().getLocation());
+        return redirectedClient.getResourceAsync(responseType);
+      }
+      return CompletableFuture.completedFuture(response.getBody());
+    });
+  }
+
+  /**
+   * Read the response of a request sent with the response cache. Successful
+   * responses are cached while reading them, if they are small enough.
+   *
+   * @param <C> Type of response.
+   * @param uri URI of the resource.
+   * @param key Key of the request in the response cache.
+   * @param cached Cached response or null.
+   * @param response Received response.
+   * @param responseType Class of response.
+   * @return Response entity or null if the resource was not modified, but no
+   * response is cached.
+   * @throws IOException If reading the response fails.
+   */
+  private <C> ResponseEntity<C> readCachedResource(String uri, String key, BufferedClientHttpResponse cached, ClientHttpResponse response, Class<C> responseType) throws IOException {
+    HttpStatusCode statusCode = response.getStatusCode();
+    ClientHttpResponse readable;
+    // check for 304 first, as it would be handled as redirect otherwise
+    if (statusCode.value() == HttpStatus.NOT_MODIFIED.value()) {
+      if (cached == null) {
+        return null;
+      }
+      LOGGER.trace("Resource at '{}' not modified. Using cached response.", uri);
+      responseCache.hit();
+      readable = cached;
+    } else {
+      LOGGER.trace("Request to '{}' returned with status {}.", uri, statusCode.value());
+      if (!statusCode.is2xxSuccessful()) {
+        return new ResponseEntity<>(response.getHeaders(), statusCode);
+      }
+      responseCache.miss();
+      readable = responseCache.cache(key, response);
+    }
+    collectResponseHeaders(readable.getHeaders());
+    C body = new HttpMessageConverterExtractor<>(responseType, restTemplate.getMessageConverters()).extractData(readable);
+    return new ResponseEntity<>(body, readable.getHeaders(), readable.getStatusCode());
+  }
+
+  /**
+   * Get the ETag of the cached response for the resource.
+   *
+   * @param uri URI of the resource.
+   * @return ETag or null if no response is cached.
+   */
+  private String getCachedETag(String uri) {
+    if (responseCache == null) {
+      return null;
+    }
+    String etag = responseCache.getETag(ResponseCache.key(uri, headers.getAccept()));
+    if (etag != null) {
+      LOGGER.trace("Using cached ETag {} for {}.", etag, uri);
+    }
+    return etag;
+  }
+
+  /**
+   * Check if the request failed due to an outdated cached ETag. In that case
+   * the cache entry is removed, so the request can be repeated with the
+   * current ETag.
+   *
+   * @param ex Exception of the failed request.
+   * @param uri URI of the resource.
+   * @return TRUE if the request should be repeated.
+   */
+  private boolean isStaleCachedETag(HttpClientErrorException ex, String uri) {
+    if (ex.getStatusCode().value() != HttpStatus.PRECONDITION_FAILED.value() || getCachedETag(uri) == null) {
+      return false;
+    }
+    LOGGER.debug("Cached ETag for {} is outdated. Repeating request with current ETag.", uri);
+    responseCache.invalidate(uri);
+    headers.remove(HttpHeaders.IF_MATCH);
+    return true;
+  }
+
+  /**
+   * Remove cached responses of a modified resource.
+   *
+   * @param uri URI of the resource.
+   */
+  private void invalidateCache(String uri) {
+    if (responseCache != null) {
+      responseCache.invalidate(uri);
+    }
+  }
+
   /**
    * Collect all response headers.
    *
@@ -459,9 +1373,37 @@ public class SimpleServiceClient {
     redirectedService.queryParams = queryParams;
     redirectedService.resourcePath = resourcePath;
     redirectedService.restTemplate = restTemplate;
+    redirectedService.httpEngine = httpEngine;
+    redirectedService.responseCache = responseCache;
+    redirectedService.requestCoalescer = requestCoalescer;
     return redirectedService;
   }
 
+  /**
+   * Resource wrapping a stream of form content, which is read only once
+   * while sending the request.
+   */
+  private static class StreamingResource extends InputStreamResource {
+
+    private final long contentLength;
+    private final String filename = "stream#" + UUID.randomUUID().toString();
+
+    StreamingResource(InputStream stream, long contentLength) {
+      super(CloseShieldInputStream.wrap(stream));
+      this.contentLength = contentLength;
+    }
+
+    @Override
+    public long contentLength() {
+      return contentLength;
+    }
+
+    @Override
+    public String getFilename() {
+      return filename;
+    }
+  }
+
   /**
    * Result page holding instance of type 'C'.
    *
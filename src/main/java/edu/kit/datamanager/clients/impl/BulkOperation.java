@@ -0,0 +1,237 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.clients.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Execution of one operation for many items with a bounded number of
+ * concurrent requests. Items are submitted in order while at most
+ * 'concurrency' requests are in flight, so the requests are pipelined over
+ * the pooled connections of the HTTP engine instead of waiting for each
+ * round trip. Failures are collected per item instead of aborting the
+ * whole operation.
+ *
+ * @author hartmann-v
+ */
+public final class BulkOperation{
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(BulkOperation.class);
+  private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+  private BulkOperation(){
+    //utility class
+  }
+
+  /**
+   * Apply the operation to all items and wait until all of them have
+   * finished.
+   *
+   * @param <T> Type of the items.
+   * @param <R> Type of the results.
+   * @param pItems Items to process.
+   * @param pKeyFunction Function providing the key of an item, e.g. its id.
+   * @param pOperation Operation applied to each item.
+   * @param pConcurrency Max. number of concurrent operations.
+   * @return Outcomes of all items in the order of the items.
+   */
+  @SuppressWarnings("unchecked")
+  static <T, R> Result<R> run(Collection<T> pItems, Function<T, String> pKeyFunction, Function<T, R> pOperation, int pConcurrency){
+    if(pConcurrency < 1){
+      throw new IllegalArgumentException("Concurrency must be at least 1.");
+    }
+    Outcome<R>[] outcomes = (Outcome<R>[]) new Outcome<?>[pItems.size()];
+    ExecutorService executor = Executors.newFixedThreadPool(pConcurrency, runnable -> {
+      Thread thread = new Thread(runnable, "bulk-operation-" + THREAD_COUNTER.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    Semaphore inFlight = new Semaphore(pConcurrency);
+    try{
+      int index = 0;
+      for(T item : pItems){
+        int position = index++;
+        String key = pKeyFunction.apply(item);
+        inFlight.acquireUninterruptibly();
+        executor.execute(() -> {
+          try{
+            outcomes[position] = new Outcome<>(position, key, pOperation.apply(item), null);
+          } catch(Throwable ex){
+            //record errors as well, otherwise the outcome of the item would be missing
+            LOGGER.debug("Bulk operation failed for item {} ({}).", position, key, ex);
+            outcomes[position] = new Outcome<>(position, key, null, ex);
+          } finally{
+            inFlight.release();
+          }
+        });
+      }
+      // all permits are available again once the last operation has finished
+      inFlight.acquireUninterruptibly(pConcurrency);
+    } finally{
+      executor.shutdown();
+    }
+    Result<R> result = new Result<>(Arrays.asList(outcomes));
+    LOGGER.trace("Bulk operation finished: {}.", result);
+    return result;
+  }
+
+  /**
+   * Outcome of the operation for a single item.
+   *
+   * @param <R> Type of the result.
+   */
+  public static final class Outcome<R>{
+
+    private final int index;
+    private final String key;
+    private final R value;
+    private final Throwable error;
+
+    Outcome(int index, String key, R value, Throwable error){
+      this.index = index;
+      this.key = key;
+      this.value = value;
+      this.error = error;
+    }
+
+    /**
+     * Get the position of the item in the provided collection.
+     * @return Index of the item.
+     */
+    public int getIndex(){
+      return index;
+    }
+
+    /**
+     * Get the key of the item, e.g. the resource id.
+     * @return Key of the item or null if not available.
+     */
+    public String getKey(){
+      return key;
+    }
+
+    /**
+     * Get the result of the operation.
+     * @return Result or null if the operation failed or has no result.
+     */
+    public R getValue(){
+      return value;
+    }
+
+    /**
+     * Get the exception if the operation failed.
+     * @return Exception or null if the operation succeeded.
+     */
+    public Throwable getError(){
+      return error;
+    }
+
+    /**
+     * Check if the operation succeeded.
+     * @return TRUE if no exception occurred.
+     */
+    public boolean isSuccess(){
+      return error == null;
+    }
+
+    @Override
+    public String toString(){
+      return "#" + index + " (" + key + "): " + (isSuccess() ? "success" : "failed with " + error.getMessage());
+    }
+  }
+
+  /**
+   * Outcomes of a bulk operation.
+   *
+   * @param <R> Type of the results.
+   */
+  public static final class Result<R>{
+
+    private final List<Outcome<R>> outcomes;
+
+    Result(List<Outcome<R>> outcomes){
+      this.outcomes = Collections.unmodifiableList(outcomes);
+    }
+
+    /**
+     * Get the outcomes of all items in the order of the items.
+     * @return List of outcomes.
+     */
+    public List<Outcome<R>> getOutcomes(){
+      return outcomes;
+    }
+
+    /**
+     * Get the outcomes of all failed items.
+     * @return List of failed outcomes.
+     */
+    public List<Outcome<R>> getFailures(){
+      List<Outcome<R>> failures = new ArrayList<>();
+      for(Outcome<R> outcome : outcomes){
+        if(!outcome.isSuccess()){
+          failures.add(outcome);
+        }
+      }
+      return failures;
+    }
+
+    /**
+     * Get the number of successful items.
+     * @return Number of items.
+     */
+    public int getSuccessCount(){
+      return outcomes.size() - getFailureCount();
+    }
+
+    /**
+     * Get the number of failed items.
+     * @return Number of items.
+     */
+    public int getFailureCount(){
+      int failures = 0;
+      for(Outcome<R> outcome : outcomes){
+        if(!outcome.isSuccess()){
+          failures++;
+        }
+      }
+      return failures;
+    }
+
+    /**
+     * Check if the operation succeeded for all items.
+     * @return TRUE if no item failed.
+     */
+    public boolean isSuccess(){
+      return getFailureCount() == 0;
+    }
+
+    @Override
+    public String toString(){
+      return outcomes.size() + " item(s), " + getFailureCount() + " failed";
+    }
+  }
+}
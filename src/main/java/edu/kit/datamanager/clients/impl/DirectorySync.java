@@ -0,0 +1,317 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.clients.impl;
+
+import edu.kit.datamanager.entities.repo.ContentInformation;
+import edu.kit.datamanager.util.archive.DigestAlgorithm;
+import edu.kit.datamanager.util.archive.FileTreeWalker;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Incremental synchronization between a local directory and a folder of a
+ * data resource. Remote files are listed via their content information and
+ * compared with the local files by size and hash, which is computed locally
+ * using the algorithm of the remote hash. Only new or modified files are
+ * transferred using a bounded pool of parallel transfers. Files missing on
+ * the other side are not deleted.
+ *
+ * @author hartmann-v
+ */
+public final class DirectorySync{
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DirectorySync.class);
+  /**
+   * Number of content information elements requested per page.
+   */
+  static final int PAGE_SIZE = 100;
+  private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+  private final SimpleRepositoryClient client;
+  private final String resourceId;
+  private final String remotePath;
+  private final int threads;
+
+  DirectorySync(SimpleRepositoryClient client, String resourceId, String remotePath, int threads){
+    this.client = client;
+    this.resourceId = resourceId;
+    String path = (remotePath != null) ? remotePath : "";
+    while(path.startsWith("/")){
+      path = path.substring(1);
+    }
+    this.remotePath = (path.isEmpty() || path.endsWith("/")) ? path : path + "/";
+    this.threads = Math.max(1, threads);
+  }
+
+  /**
+   * Upload all new or modified files of the local directory.
+   * @param directory Local directory.
+   * @return Result of the synchronization.
+   * @throws IOException If the local directory cannot be read.
+   */
+  Result upload(File directory) throws IOException{
+    Map<String, ContentInformation> remote = listRemote();
+    Result result = new Result();
+    try(TransferPool pool = new TransferPool()){
+      FileTreeWalker.of(directory).forEach(entry -> {
+        if(!entry.isDirectory()){
+          ContentInformation info = remote.get(entry.getName());
+          pool.submit(() -> upload(entry.toFile(), entry.getName(), info, result));
+        }
+      });
+      pool.await();
+    }
+    LOGGER.debug("Uploaded directory {} to resource {}: {}", directory, resourceId, result);
+    return result;
+  }
+
+  /**
+   * Download all remote files missing or modified in the local directory.
+   * @param directory Local directory.
+   * @return Result of the synchronization.
+   * @throws IOException If the local directory cannot be created.
+   */
+  Result download(File directory) throws IOException{
+    Map<String, ContentInformation> remote = listRemote();
+    Result result = new Result();
+    File root = directory.getCanonicalFile();
+    Files.createDirectories(root.toPath());
+    try(TransferPool pool = new TransferPool()){
+      for(Map.Entry<String, ContentInformation> entry : remote.entrySet()){
+        File target = new File(root, entry.getKey()).getCanonicalFile();
+        if(!target.toPath().startsWith(root.toPath())){
+          LOGGER.warn("Skipping remote file {} located outside of {}.", entry.getKey(), root);
+          result.failed(entry.getKey());
+          continue;
+        }
+        pool.submit(() -> download(target, entry.getKey(), entry.getValue(), result));
+      }
+      pool.await();
+    }
+    LOGGER.debug("Downloaded resource {} to directory {}: {}", resourceId, directory, result);
+    return result;
+  }
+
+  /**
+   * List the content information of all remote files by their path relative
+   * to the remote folder.
+   * @return Map of remote files.
+   */
+  private Map<String, ContentInformation> listRemote(){
+    Map<String, ContentInformation> remote = new HashMap<>();
+    try(Stream<ContentInformation> stream = client.streamContentInformation(resourceId, remotePath, PAGE_SIZE, 2)){
+      stream.forEach(info -> {
+        String path = info.getRelativePath();
+        if(path != null && path.startsWith(remotePath) && !path.endsWith("/")){
+          remote.put(path.substring(remotePath.length()), info);
+        }
+      });
+    }
+    LOGGER.trace("Found {} remote file(s) in {}/{}.", remote.size(), resourceId, remotePath);
+    return remote;
+  }
+
+  private void upload(File file, String name, ContentInformation info, Result result){
+    try{
+      if(info != null && isUnchanged(file, info)){
+        result.unchanged();
+        return;
+      }
+      LOGGER.trace("Uploading {} to {}.", file, remotePath + name);
+      client.uploadData(resourceId, remotePath + name, file, null, true);
+      result.transferred(file.length());
+    } catch(IOException | RuntimeException ex){
+      LOGGER.warn("Failed to upload {}.", file, ex);
+      result.failed(name);
+    }
+  }
+
+  private void download(File target, String name, ContentInformation info, Result result){
+    try{
+      if(target.isFile() && isUnchanged(target, info)){
+        result.unchanged();
+        return;
+      }
+      LOGGER.trace("Downloading {} to {}.", remotePath + name, target);
+      Files.createDirectories(target.getParentFile().toPath());
+      result.transferred(client.downloadData(resourceId, remotePath + name, target, info.getHash()));
+    } catch(IOException | RuntimeException ex){
+      LOGGER.warn("Failed to download {}.", remotePath + name, ex);
+      result.failed(name);
+    }
+  }
+
+  /**
+   * Compare a local file with the remote content information. Without remote
+   * hash or with unsupported hash algorithm, the file is treated as modified.
+   * @param file Local file.
+   * @param info Remote content information.
+   * @return TRUE if size and hash are equal.
+   * @throws IOException If the file cannot be read.
+   */
+  static boolean isUnchanged(File file, ContentInformation info) throws IOException{
+    if(file.length() != info.getSize()){
+      return false;
+    }
+    String remoteHash = info.getHash();
+    DigestAlgorithm algorithm = DigestAlgorithm.forHash(remoteHash);
+    if(algorithm == null){
+      return false;
+    }
+    String localHash;
+    try(InputStream in = Files.newInputStream(file.toPath())){
+      localHash = algorithm.digest(in);
+    }
+    String expected = (remoteHash.indexOf(':') > 0) ? remoteHash : algorithm.getLabel() + ":" + remoteHash;
+    return localHash.equalsIgnoreCase(expected);
+  }
+
+  /**
+   * Pool running transfers with a bounded number of pending tasks.
+   */
+  private final class TransferPool implements AutoCloseable{
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "directory-sync-" + THREAD_COUNTER.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    private final Semaphore pending = new Semaphore(2 * threads);
+    private final List<Future<?>> futures = new ArrayList<>();
+
+    void submit(Runnable transfer) throws IOException{
+      try{
+        pending.acquire();
+      } catch(InterruptedException ex){
+        Thread.currentThread().interrupt();
+        throw new IOException("Synchronization was interrupted.", ex);
+      }
+      futures.add(executor.submit(() -> {
+        try{
+          transfer.run();
+        } finally{
+          pending.release();
+        }
+      }));
+    }
+
+    void await() throws IOException{
+      for(Future<?> future : futures){
+        try{
+          future.get();
+        } catch(InterruptedException ex){
+          Thread.currentThread().interrupt();
+          throw new IOException("Synchronization was interrupted.", ex);
+        } catch(ExecutionException ex){
+          throw new IOException("Transfer failed unexpectedly.", ex.getCause());
+        }
+      }
+    }
+
+    @Override
+    public void close(){
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Result of a synchronization.
+   */
+  public static final class Result{
+
+    private final AtomicInteger transferredFiles = new AtomicInteger();
+    private final AtomicInteger unchangedFiles = new AtomicInteger();
+    private final AtomicLong transferredBytes = new AtomicLong();
+    private final List<String> failedFiles = Collections.synchronizedList(new ArrayList<>());
+
+    void transferred(long bytes){
+      transferredFiles.incrementAndGet();
+      transferredBytes.addAndGet(bytes);
+    }
+
+    void unchanged(){
+      unchangedFiles.incrementAndGet();
+    }
+
+    void failed(String name){
+      failedFiles.add(name);
+    }
+
+    /**
+     * Get the number of transferred files.
+     * @return Number of files.
+     */
+    public int getTransferredFiles(){
+      return transferredFiles.get();
+    }
+
+    /**
+     * Get the number of unchanged files, which were not transferred.
+     * @return Number of files.
+     */
+    public int getUnchangedFiles(){
+      return unchangedFiles.get();
+    }
+
+    /**
+     * Get the number of transferred bytes.
+     * @return Number of bytes.
+     */
+    public long getTransferredBytes(){
+      return transferredBytes.get();
+    }
+
+    /**
+     * Get the relative paths of all files which failed to transfer.
+     * @return List of relative paths.
+     */
+    public List<String> getFailedFiles(){
+      synchronized(failedFiles){
+        return new ArrayList<>(failedFiles);
+      }
+    }
+
+    /**
+     * Check if all files were synchronized.
+     * @return TRUE if no transfer failed.
+     */
+    public boolean isSuccess(){
+      return failedFiles.isEmpty();
+    }
+
+    @Override
+    public String toString(){
+      return transferredFiles + " file(s) with " + transferredBytes + " bytes transferred, " + unchangedFiles + " unchanged, " + failedFiles.size() + " failed";
+    }
+  }
+}
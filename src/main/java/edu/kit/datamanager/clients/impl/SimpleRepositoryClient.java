@@ -15,6 +15,8 @@
  */
 package edu.kit.datamanager.clients.impl;
 
+import edu.kit.datamanager.clients.HttpEngine;
+import edu.kit.datamanager.clients.PageSpliterator;
 import edu.kit.datamanager.clients.SimpleServiceClient;
 import edu.kit.datamanager.clients.SimpleServiceClient.ResultPage;
 import edu.kit.datamanager.entities.repo.ContentInformation;
@@ -25,7 +27,10 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Collection;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Stream;
 import lombok.Data;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,10 +46,16 @@ public class SimpleRepositoryClient{
   private static final Logger LOGGER = LoggerFactory.getLogger(SimpleRepositoryClient.class);
   private final String resourceBaseUrl;
   private final String bearerToken;
+  private final HttpEngine httpEngine;
 
   SimpleRepositoryClient(String resourceBaseUrl, String bearerToken){
+    this(resourceBaseUrl, bearerToken, null);
+  }
+
+  SimpleRepositoryClient(String resourceBaseUrl, String bearerToken, HttpEngine httpEngine){
     this.resourceBaseUrl = resourceBaseUrl;
     this.bearerToken = bearerToken;
+    this.httpEngine = httpEngine;
   }
 
   /**
@@ -66,13 +77,37 @@ public class SimpleRepositoryClient{
     return new SimpleRepositoryClient(resourceBaseUrl, bearerToken);
   }
 
+  /**
+   * Create repository client using a dedicated HTTP engine.
+   * @param resourceBaseUrl Base URL of repo.
+   * @param bearerToken Bearer token.
+   * @param httpEngine HTTP engine providing pooled connections.
+   * @return Repository client.
+   */
+  public static SimpleRepositoryClient create(String resourceBaseUrl, String bearerToken, HttpEngine httpEngine){
+    return new SimpleRepositoryClient(resourceBaseUrl, bearerToken, httpEngine);
+  }
+
+  /**
+   * Create a service client for the base URL of the repository using the
+   * configured HTTP engine or the shared default engine.
+   * @return Service client.
+   */
+  private SimpleServiceClient client(){
+    SimpleServiceClient client = SimpleServiceClient.create(resourceBaseUrl);
+    if(httpEngine != null){
+      client.withHttpEngine(httpEngine);
+    }
+    return client;
+  }
+
   /**
    * Get resource.
    * @param resourceId Id of resource.
    * @return Resource.
    */
   public DataResource getResource(String resourceId){
-    return SimpleServiceClient.create(resourceBaseUrl).withResourcePath(resourceId).accept(MediaType.APPLICATION_JSON).withBearerToken(bearerToken).getResource(DataResource.class);
+    return client().withResourcePath(resourceId).accept(MediaType.APPLICATION_JSON).withBearerToken(bearerToken).getResource(DataResource.class);
   }
 
   /**
@@ -95,8 +130,56 @@ public class SimpleRepositoryClient{
    * @return Page holding resources.
    */
   public ResultPage<DataResource> getResources(DataResource example, int page, int elementsPerPage, SimpleServiceClient.SortField... fields){
-    SimpleServiceClient client = SimpleServiceClient.
-            create(resourceBaseUrl).
+    SimpleServiceClient client = pageClient(page, elementsPerPage, fields);
+    if(example == null){
+      return client.getResources(DataResource[].class);
+    }
+    return client.findResources(example, DataResource[].class);
+  }
+
+  /**
+   * Stream all resources. The total number of resources is taken from the
+   * Content-Range header of the first page. While the stream is consumed, up
+   * to 'prefetchPages' following pages are already requested. Close the
+   * stream if it is not consumed completely. Page requests not yet sent are
+   * skipped then, requests already in flight complete and are discarded.
+   * @param elementsPerPage Elements per page.
+   * @param prefetchPages Max. number of pages requested in advance.
+   * @param fields Sorting fields.
+   * @return Stream of resources.
+   */
+  public Stream<DataResource> streamResources(int elementsPerPage, int prefetchPages, SimpleServiceClient.SortField... fields){
+    return streamResources(null, elementsPerPage, prefetchPages, fields);
+  }
+
+  /**
+   * Stream all resources matching the example.
+   * @param example Example.
+   * @param elementsPerPage Elements per page.
+   * @param prefetchPages Max. number of pages requested in advance.
+   * @param fields Sorting fields.
+   * @return Stream of resources.
+   * @see #streamResources(int, int, SimpleServiceClient.SortField...)
+   */
+  public Stream<DataResource> streamResources(DataResource example, int elementsPerPage, int prefetchPages, SimpleServiceClient.SortField... fields){
+    return PageSpliterator.stream(page -> {
+      SimpleServiceClient client = pageClient(page, elementsPerPage, fields);
+      if(example == null){
+        return client.getResourcesAsync(DataResource[].class);
+      }
+      return client.findResourcesAsync(example, DataResource[].class);
+    }, prefetchPages);
+  }
+
+  /**
+   * Create a service client requesting one page of resources.
+   * @param page Page number.
+   * @param elementsPerPage Elements per page.
+   * @param fields Sorting fields.
+   * @return Service client.
+   */
+  private SimpleServiceClient pageClient(int page, int elementsPerPage, SimpleServiceClient.SortField... fields){
+    SimpleServiceClient client = client().
             accept(MediaType.APPLICATION_JSON).
             withBearerToken(bearerToken).
             withQueryParam("page", Integer.toString(page)).
@@ -107,11 +190,7 @@ public class SimpleRepositoryClient{
         client = client.withQueryParam("sort", field.toQueryParam());
       }
     }
-
-    if(example == null){
-      return client.getResources(DataResource[].class);
-    }
-    return client.findResources(example, DataResource[].class);
+    return client;
   }
 
   /**
@@ -122,7 +201,27 @@ public class SimpleRepositoryClient{
    * @return Status.
    */
   public int getData(String resourceId, String relativePath, OutputStream stream){
-    return SimpleServiceClient.create(resourceBaseUrl).withResourcePath(resourceId + "/data/" + relativePath).accept(MediaType.APPLICATION_OCTET_STREAM).withBearerToken(bearerToken).getResource(stream);
+    return client().withResourcePath(resourceId + "/data/" + relativePath).accept(MediaType.APPLICATION_OCTET_STREAM).withBearerToken(bearerToken).getResource(stream);
+  }
+
+  /**
+   * Download data from repository into a file using parallel range requests.
+   * The downloaded content is checked against the hash of the content
+   * information, if available.
+   * @param resourceId Id of resource.
+   * @param relativePath Path of resource.
+   * @param destination File to write data to.
+   * @param parallelSegments Max. number of segments downloaded in parallel.
+   * @return Number of bytes downloaded.
+   * @throws IOException If the download fails or the hash does not match.
+   */
+  public long downloadData(String resourceId, String relativePath, File destination, int parallelSegments) throws IOException{
+    String expectedHash = null;
+    ContentInformation[] contentInformation = getContentInformation(resourceId, relativePath);
+    if(contentInformation != null && contentInformation.length == 1 && contentInformation[0] != null){
+      expectedHash = contentInformation[0].getHash();
+    }
+    return client().withResourcePath(resourceId + "/data/" + relativePath).accept(MediaType.APPLICATION_OCTET_STREAM).withBearerToken(bearerToken).getResource(destination, parallelSegments, expectedHash);
   }
 
   /**
@@ -150,7 +249,24 @@ public class SimpleRepositoryClient{
    * @throws IOException Error while writing data.
    */
   public HttpStatus uploadData(String resourceId, String relativePath, InputStream stream, ContentInformation metadata, boolean force) throws IOException{
-    return SimpleServiceClient.create(resourceBaseUrl).withResourcePath(resourceId + "/data/" + relativePath).withBearerToken(bearerToken).withQueryParam("force", Boolean.toString(force)).withFormParam("file", stream).withFormParam("metadata", metadata).postForm();
+    return withMetadata(client().withResourcePath(resourceId + "/data/" + relativePath).withBearerToken(bearerToken).withQueryParam("force", Boolean.toString(force)).withFormParam("file", stream), metadata).postForm();
+  }
+
+  /**
+   *
+   * Upload data of known length to repository. The data is streamed with
+   * constant memory and sent with a 'Content-Length' header.
+   * @param resourceId Id of resource.
+   * @param relativePath Path of resource.
+   * @param stream Stream holding data.
+   * @param contentLength Length of data in bytes or -1 if unknown.
+   * @param metadata Metadata describing data.
+   * @param force Overwrite existing data.
+   * @return HTTP status.
+   * @throws IOException Error while writing data.
+   */
+  public HttpStatus uploadData(String resourceId, String relativePath, InputStream stream, long contentLength, ContentInformation metadata, boolean force) throws IOException{
+    return withMetadata(client().withResourcePath(resourceId + "/data/" + relativePath).withBearerToken(bearerToken).withQueryParam("force", Boolean.toString(force)).withFormParam("file", stream, contentLength), metadata).postForm();
   }
 
   /**
@@ -179,7 +295,7 @@ public class SimpleRepositoryClient{
    * @throws IOException Error while writing data.
    */
   public HttpStatus uploadData(String resourceId, String relativePath, File file, ContentInformation metadata, boolean force) throws IOException{
-    return SimpleServiceClient.create(resourceBaseUrl).withResourcePath(resourceId + "/data/" + relativePath).withQueryParam("force", Boolean.toString(force)).withBearerToken(bearerToken).withFormParam("file", file).withFormParam("metadata", metadata).postForm();
+    return withMetadata(client().withResourcePath(resourceId + "/data/" + relativePath).withQueryParam("force", Boolean.toString(force)).withBearerToken(bearerToken).withFormParam("file", file), metadata).postForm();
   }
 
   /**
@@ -190,9 +306,86 @@ public class SimpleRepositoryClient{
    */
   public ContentInformation[] getContentInformation(String resourceId, String relativePath){
     if(relativePath == null || relativePath.endsWith("/")){
-      return SimpleServiceClient.create(resourceBaseUrl).withResourcePath(resourceId + "/data/" + relativePath).accept(ContentInformation.CONTENT_INFORMATION_MEDIA_TYPE).withBearerToken(bearerToken).getResource(ContentInformation[].class);
+      return client().withResourcePath(resourceId + "/data/" + relativePath).accept(ContentInformation.CONTENT_INFORMATION_MEDIA_TYPE).withBearerToken(bearerToken).getResource(ContentInformation[].class);
+    }
+    return new ContentInformation[]{client().withResourcePath(resourceId + "/data/" + relativePath).accept(ContentInformation.CONTENT_INFORMATION_MEDIA_TYPE).withBearerToken(bearerToken).getResource(ContentInformation.class)};
+  }
+
+  /**
+   * Stream content information of all data located at the provided path.
+   * Pages are fetched lazily with up to 'prefetchPages' pages requested in
+   * advance.
+   * @param resourceId Id of resource
+   * @param relativePath Relative path of a folder, e.g. '' or 'folder/'.
+   * @param elementsPerPage Elements per page.
+   * @param prefetchPages Max. number of pages requested in advance.
+   * @return Stream of content information.
+   */
+  public Stream<ContentInformation> streamContentInformation(String resourceId, String relativePath, int elementsPerPage, int prefetchPages){
+    String path = (relativePath != null) ? relativePath : "";
+    return PageSpliterator.stream(page -> client().
+            withResourcePath(resourceId + "/data/" + path).
+            accept(ContentInformation.CONTENT_INFORMATION_MEDIA_TYPE).
+            withBearerToken(bearerToken).
+            withQueryParam("page", Integer.toString(page)).
+            withQueryParam("size", Integer.toString(elementsPerPage)).
+            getResourcesAsync(ContentInformation[].class), prefetchPages);
+  }
+
+  /**
+   * Upload all new or modified files of a local directory. Files are
+   * compared with the remote content information by size and hash, so only
+   * differences are transferred.
+   * @param resourceId Id of resource.
+   * @param directory Local directory.
+   * @param remotePath Relative path of the remote folder, e.g. '' or 'folder/'.
+   * @param threads Max. number of parallel transfers.
+   * @return Result of the synchronization.
+   * @throws IOException If the local directory cannot be read.
+   */
+  public DirectorySync.Result uploadDirectory(String resourceId, File directory, String remotePath, int threads) throws IOException{
+    return new DirectorySync(this, resourceId, remotePath, threads).upload(directory);
+  }
+
+  /**
+   * Download all remote files missing or modified in a local directory.
+   * @param resourceId Id of resource.
+   * @param remotePath Relative path of the remote folder, e.g. '' or 'folder/'.
+   * @param directory Local directory.
+   * @param threads Max. number of parallel transfers.
+   * @return Result of the synchronization.
+   * @throws IOException If the local directory cannot be written.
+   * @see #uploadDirectory(String, File, String, int)
+   */
+  public DirectorySync.Result downloadDirectory(String resourceId, String remotePath, File directory, int threads) throws IOException{
+    return new DirectorySync(this, resourceId, remotePath, threads).download(directory);
+  }
+
+  /**
+   * Download data into a file and check it against the provided hash.
+   * @param resourceId Id of resource.
+   * @param relativePath Path of resource.
+   * @param destination File to write data to.
+   * @param expectedHash Expected hash or null.
+   * @return Number of bytes downloaded.
+   * @throws IOException If the download fails or the hash does not match.
+   */
+  long downloadData(String resourceId, String relativePath, File destination, String expectedHash) throws IOException{
+    return client().withResourcePath(resourceId + "/data/" + relativePath).accept(MediaType.APPLICATION_OCTET_STREAM).withBearerToken(bearerToken).getResource(destination, 1, expectedHash);
+  }
+
+  /**
+   * Add metadata as form parameter, if provided.
+   * @param client Service client.
+   * @param metadata Metadata or null.
+   * @return Service client.
+   * @throws IOException Error while serializing metadata.
+   */
+  private static SimpleServiceClient withMetadata(SimpleServiceClient client, ContentInformation metadata) throws IOException{
+    if(metadata == null){
+      return client;
     }
-    return new ContentInformation[]{SimpleServiceClient.create(resourceBaseUrl).withResourcePath(resourceId + "/data/" + relativePath).accept(ContentInformation.CONTENT_INFORMATION_MEDIA_TYPE).withBearerToken(bearerToken).getResource(ContentInformation.class)};
+    return client.withFormParam("metadata", metadata);
   }
 
   /**
@@ -201,7 +394,7 @@ public class SimpleRepositoryClient{
    * @return Created resource.
    */
   public DataResource createResource(DataResource resource){
-    return SimpleServiceClient.create(resourceBaseUrl).withContentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON).withBearerToken(bearerToken).postResource(resource, DataResource.class);
+    return client().withContentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON).withBearerToken(bearerToken).postResource(resource, DataResource.class);
   }
 
   /**
@@ -210,7 +403,7 @@ public class SimpleRepositoryClient{
    * @return Updated resource.
    */
   public DataResource updateResource(DataResource resource){
-    return SimpleServiceClient.create(resourceBaseUrl).withContentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON).withBearerToken(bearerToken).withResourcePath(resource.getId()).putResource(resource, DataResource.class);
+    return client().withContentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON).withBearerToken(bearerToken).withResourcePath(resource.getId()).putResource(resource, DataResource.class);
   }
 
   /**
@@ -218,7 +411,45 @@ public class SimpleRepositoryClient{
    * @param resourceId Id of resource.
    */
   public void deleteResource(String resourceId){
-    SimpleServiceClient.create(resourceBaseUrl).withResourcePath(resourceId).withContentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON).withBearerToken(bearerToken).deleteResource();
+    client().withResourcePath(resourceId).withContentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON).withBearerToken(bearerToken).deleteResource();
+  }
+
+  /**
+   * Create multiple resources sending up to 'concurrency' requests at once.
+   * Failures are collected per resource instead of aborting.
+   * @param resources Resources to create.
+   * @param concurrency Max. number of concurrent requests.
+   * @return Outcomes holding the created resources in the order of the input.
+   */
+  public BulkOperation.Result<DataResource> createResources(Collection<DataResource> resources, int concurrency){
+    return BulkOperation.run(resources, DataResource::getId, this::createResource, concurrency);
+  }
+
+  /**
+   * Update multiple resources sending up to 'concurrency' requests at once.
+   * Failures are collected per resource instead of aborting. The GET for
+   * obtaining the current ETag of each resource is skipped if the HTTP engine
+   * provides a response cache holding the ETag.
+   * @param resources Resources to update.
+   * @param concurrency Max. number of concurrent requests.
+   * @return Outcomes holding the updated resources in the order of the input.
+   */
+  public BulkOperation.Result<DataResource> updateResources(Collection<DataResource> resources, int concurrency){
+    return BulkOperation.run(resources, DataResource::getId, this::updateResource, concurrency);
+  }
+
+  /**
+   * Delete multiple resources sending up to 'concurrency' requests at once.
+   * Failures are collected per resource instead of aborting.
+   * @param resourceIds Ids of the resources to delete.
+   * @param concurrency Max. number of concurrent requests.
+   * @return Outcomes of all deletions in the order of the input.
+   */
+  public BulkOperation.Result<Void> deleteResources(Collection<String> resourceIds, int concurrency){
+    return BulkOperation.run(resourceIds, Function.identity(), resourceId -> {
+      deleteResource(resourceId);
+      return null;
+    }, concurrency);
   }
   
 //  public static void main(String[] args) throws Exception{
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.configuration;
+
+import edu.kit.datamanager.controller.SearchCacheInvalidationListener;
+import edu.kit.datamanager.controller.SearchController;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Invalidation of search results cached by the SearchController via
+ * RabbitMQ. If search, search result caching and messaging are enabled, each
+ * service instance binds an exclusive, auto-delete queue to the exchange
+ * configured in RabbitMQConfiguration and receives all DataResourceMessages
+ * sent by any instance. Thus, stale search results are removed as soon as a
+ * resource was created, updated or deleted and not only after their time to
+ * live.
+ *
+ * @author hartmann-v
+ */
+@Configuration
+@ConditionalOnExpression("${repo.search.enabled:false} and ${repo.search.cache.enabled:false} and ${repo.messaging.enabled:false}")
+public class SearchCacheInvalidationConfiguration {
+
+  private final Logger logger = LoggerFactory.getLogger(SearchCacheInvalidationConfiguration.class);
+
+  private final Queue queue = new AnonymousQueue();
+
+  @Bean
+  public Declarables searchCacheInvalidationDeclarables(@Qualifier("rabbitMQExchange") TopicExchange exchange) {
+    logger.trace("Binding queue '{}' to exchange '{}' for invalidating cached search results.", queue.getName(), exchange.getName());
+    return new Declarables(queue, BindingBuilder.bind(queue).to(exchange).with(SearchCacheInvalidationListener.ROUTING_KEY));
+  }
+
+  @Bean
+  public SimpleMessageListenerContainer searchCacheInvalidationContainer(@Qualifier("rabbitMQConnectionFactory") ConnectionFactory connectionFactory,
+          SearchController searchController,
+          ApplicationContext applicationContext) {
+    // The admin (re-)declares queue and binding on start and after a reconnect.
+    RabbitAdmin admin = new RabbitAdmin(connectionFactory);
+    admin.setApplicationContext(applicationContext);
+    SimpleMessageListenerContainer container = new SimpleMessageListenerContainer(connectionFactory);
+    container.setAmqpAdmin(admin);
+    container.setQueues(queue);
+    container.setMessageListener(new SearchCacheInvalidationListener(searchController));
+    return container;
+  }
+}
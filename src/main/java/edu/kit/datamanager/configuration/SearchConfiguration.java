@@ -45,6 +45,9 @@ import java.util.List;
  *  Default: (/[^/]+)?/api/v\d+/_?search$</li>
  *  <li>repo.search.dedupHeaders - A list of headers to be deduplicated in the search response.
  *  Default: Transfer-Encoding</li>
+ *  <li>repo.search.cache.enabled - TRUE/FALSE, determines whether search results are cached by the SearchController. Default: FALSE</li>
+ *  <li>repo.search.cache.ttl - Time to live of a cached search result in milliseconds. Default: 60000</li>
+ *  <li>repo.search.cache.maxEntries - Max. number of cached search results. Default: 1000</li>
  * </ul>
  * <p>
  * To ensure a proper configuration,
@@ -139,6 +142,30 @@ public class SearchConfiguration {
   @Value("${repo.search.dedupHeaders:" + DEDUP_HEADERS + "}")
   private List<String> dedupHeaders;
 
+  /**
+   * Property defining whether search results are cached by the
+   * SearchController. Cached results are invalidated after their time to
+   * live or as soon as a DataResourceMessage for the searched index is
+   * received via RabbitMQ or as application event. By default, the cache
+   * is disabled.
+   */
+  @Value("${repo.search.cache.enabled:FALSE}")
+  private boolean cacheEnabled;
+
+  /**
+   * Time to live of a cached search result in milliseconds.
+   * By default, results are cached for 60 seconds.
+   */
+  @Value("${repo.search.cache.ttl:60000}")
+  private long cacheTtl;
+
+  /**
+   * Max. number of cached search results. If exceeded, the least recently
+   * used result is removed. By default, 1000 results are cached.
+   */
+  @Value("${repo.search.cache.maxEntries:1000}")
+  private int cacheMaxEntries;
+
   /**
    * List of deduplicated headers in lowercase.
    */
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.kit.datamanager.entities.messaging.DataResourceMessage;
+import java.io.IOException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageListener;
+
+/**
+ * Listener receiving DataResourceMessages from RabbitMQ and invalidating the
+ * cached search results of a SearchController. Messages which cannot be read
+ * invalidate all cached search results.
+ *
+ * @author hartmann-v
+ */
+public class SearchCacheInvalidationListener implements MessageListener {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SearchCacheInvalidationListener.class);
+
+  /**
+   * Routing key of all messages describing changes of resources.
+   */
+  public static final String ROUTING_KEY = "dataresource.#";
+
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  private final SearchController searchController;
+
+  /**
+   * Create a listener invalidating the search results of the provided
+   * controller.
+   *
+   * @param searchController The controller holding the cached search results.
+   */
+  public SearchCacheInvalidationListener(SearchController searchController) {
+    this.searchController = searchController;
+  }
+
+  @Override
+  public void onMessage(Message message) {
+    DataResourceMessage dataResourceMessage;
+    try {
+      dataResourceMessage = mapper.readValue(message.getBody(), DataResourceMessage.class);
+    } catch (IOException ex) {
+      LOG.warn("Failed to read DataResourceMessage. Invalidating all cached search results.", ex);
+      searchController.invalidateSearchResults(null);
+      return;
+    }
+    searchController.onDataResourceMessage(dataResourceMessage);
+  }
+}
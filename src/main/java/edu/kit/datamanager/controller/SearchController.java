@@ -18,7 +18,10 @@ package edu.kit.datamanager.controller;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import edu.kit.datamanager.configuration.SearchConfiguration;
+import edu.kit.datamanager.entities.messaging.DataResourceMessage;
+import edu.kit.datamanager.util.AuthenticationHelper;
 import edu.kit.datamanager.util.ElasticSearchUtil;
+import edu.kit.datamanager.util.SearchResultCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -29,6 +32,7 @@ import org.springdoc.core.converters.models.PageableAsQueryParam;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.cloud.gateway.mvc.ProxyExchange;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -42,7 +46,13 @@ import org.springframework.web.bind.annotation.RestController;
  * Controller proxying the access to an Elastic search backend via an endpoint
  * at /api/v1/search. This endpoint is only available, if property
  * &lt;i&gt;repo.search.enabled&lt;/i&gt; is set 'true' in the service's
- * application.properties. Otherwise, this endpoint is not offered.
+ * application.properties. Otherwise, this endpoint is not offered. If
+ * property &lt;i&gt;repo.search.cache.enabled&lt;/i&gt; is set 'true',
+ * search results are cached until they expire or a DataResourceMessage for
+ * the searched index is received. If messaging is enabled, too, messages are
+ * received via RabbitMQ (see SearchCacheInvalidationConfiguration).
+ * Otherwise, the service has to publish each DataResourceMessage as Spring
+ * application event, e.g. via ApplicationEventPublisher.
  *
  * @author jejkal
  */
@@ -59,6 +69,8 @@ public class SearchController {
 
   public static final String POST_FILTER = "post_filter";
 
+  private volatile SearchResultCache<ResponseEntity<JsonNode>> searchResultCache;
+
   @Operation(operationId = "search",
           summary = "Search for resources.",
           description = "Search for resources using the configured Elastic backend. This endpoint serves as direct proxy to the RESTful endpoint of Elastic. "
@@ -83,8 +95,67 @@ public class SearchController {
     ElasticSearchUtil.addPaginationInformation(on, pgbl.getPageNumber(), pgbl.getPageSize());
       ElasticSearchUtil.buildPostFilter(on);
 
+    SearchResultCache<ResponseEntity<JsonNode>> cache = getSearchResultCache();
+    if (cache == null) {
+      LOG.trace("Forwarding Elastic query to {}.", searchConfiguration.getUrl() + "/" + index + "/_search");
+      return proxy.uri(searchConfiguration.getUrl() + "/" + index + "/_search").post();
+    }
+    String key = SearchResultCache.key(index, pgbl.getPageNumber(), pgbl.getPageSize(), AuthenticationHelper.getAuthorizationIdentities(), on);
+    ResponseEntity<JsonNode> result = cache.get(key);
+    if (result != null) {
+      LOG.trace("Returning cached search result.");
+      return result;
+    }
+    long generation = cache.getGeneration();
     LOG.trace("Forwarding Elastic query to {}.", searchConfiguration.getUrl() + "/" + index + "/_search");
-    return proxy.uri(searchConfiguration.getUrl() + "/" + index + "/_search").post();
+    result = proxy.uri(searchConfiguration.getUrl() + "/" + index + "/_search").post();
+    if (result.getStatusCode().is2xxSuccessful()) {
+      cache.put(key, index, result, generation);
+    }
+    return result;
+  }
+
+  /**
+   * Invalidate cached search results as soon as a resource was created,
+   * updated or deleted. If the message provides the affected index via
+   * metadata property 'index', only results of searches covering this index
+   * are removed. Otherwise, all cached results are removed.
+   *
+   * @param message Message describing the change of a resource.
+   */
+  @EventListener
+  public void onDataResourceMessage(DataResourceMessage message) {
+    String index = (message.getMetadata() != null) ? message.getMetadata().get(SearchResultCache.INDEX_PROPERTY) : null;
+    LOG.trace("Invalidating cached search results after '{}' of resource {}.", message.getAction(), message.getEntityId());
+    invalidateSearchResults(index);
+  }
+
+  /**
+   * Invalidate cached search results covering the provided index.
+   *
+   * @param index The affected index or null to remove all cached results.
+   */
+  public void invalidateSearchResults(String index) {
+    SearchResultCache<ResponseEntity<JsonNode>> cache = getSearchResultCache();
+    if (cache != null) {
+      cache.invalidate(index);
+    }
+  }
+
+  /**
+   * Get the search result cache, which is created on first access.
+   *
+   * @return Search result cache or null if caching is disabled.
+   */
+  public SearchResultCache<ResponseEntity<JsonNode>> getSearchResultCache() {
+    if (searchResultCache == null && searchConfiguration.isCacheEnabled()) {
+      synchronized (this) {
+        if (searchResultCache == null) {
+          searchResultCache = new SearchResultCache<>(searchConfiguration.getCacheMaxEntries(), searchConfiguration.getCacheTtl());
+        }
+      }
+    }
+    return searchResultCache;
   }
 
   @Operation(operationId = "search",
@@ -47,6 +47,7 @@ public class ElasticSearchUtil {
   public static final String RESULTS_FROM = "from";
   public static final String RESULTS_SIZE = "size";
   static final String SID_READ = "read";
+  private static final PostFilterCompiler POST_FILTER_COMPILER = new PostFilterCompiler(SID_READ, PostFilterCompiler.DEFAULT_MAX_ENTRIES);
 
   private static final int NO_OF_RETRIES = 3;
 
@@ -138,27 +139,16 @@ public class ElasticSearchUtil {
         havePostFilter = true;
       }
 
-      JsonNode postFilter;
-      /* Post filter may look like this: 
+      /* Post filter looks like this: 
      {
-       "bool" : {
-         "should" : [
-           { "match" : { "read" : "me" } },
-           { "match" : { "read" : "everybody" } }
-         ],
-         "minimum_should_match" : 1
+       "terms" : {
+         "read" : [ "everybody", "me" ]
        }
      } 
+       The compiled filter is cached and shared, so it must not be modified.
        */
       LOGGER.trace("Adding PostFilter to elastic query.");
-      ArrayNode arrayNode = factory.arrayNode();
-      for (String sid : AuthenticationHelper.getAuthorizationIdentities()) {
-        JsonNode match = factory.objectNode().set("match", factory.objectNode().put(SID_READ, sid));
-        arrayNode.add(match);
-      }
-      ObjectNode should = factory.objectNode().set("should", arrayNode);
-      should.put("minimum_should_match", 1);
-      postFilter = factory.objectNode().set("bool", should);
+      JsonNode postFilter = POST_FILTER_COMPILER.compile(AuthenticationHelper.getAuthorizationIdentities());
       if (havePostFilter) {
         ArrayNode mustNode = (ArrayNode) queryNode.get(POST_FILTER).get("bool").get("must");
         mustNode.add(postFilter);
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compiler for the authorization post filter of Elastic queries. The filter
+ * consists of a single 'terms' query on the field holding the read
+ * permissions, e.g.
+ * <pre>
+ * { "terms" : { "read" : [ "anonymousUser", "me", "my_group" ] } }
+ * </pre>
+ * The identities are sorted and deduplicated, so the same set of identities
+ * always results in the same filter, which is cached in a bounded LRU map
+ * and shared by all requests. Compiled filters therefore must not be
+ * modified.
+ *
+ * @author hartmann-v
+ */
+public final class PostFilterCompiler {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PostFilterCompiler.class);
+  /**
+   * Default max. number of cached filters.
+   */
+  public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+  private final String field;
+  private final Map<List<String>, JsonNode> cache;
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  /**
+   * Create compiler.
+   *
+   * @param field Field holding the identities allowed to read a document.
+   * @param maxEntries Max. number of cached filters.
+   */
+  public PostFilterCompiler(String field, int maxEntries) {
+    if (maxEntries < 1) {
+      throw new IllegalArgumentException("Max. number of entries must be at least 1.");
+    }
+    this.field = field;
+    cache = new LinkedHashMap<>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<List<String>, JsonNode> eldest) {
+        return size() > maxEntries;
+      }
+    };
+  }
+
+  /**
+   * Get the filter for the provided identities.
+   *
+   * @param identities Authorization identities of the caller.
+   * @return Cached or newly compiled filter, which must not be modified.
+   */
+  public JsonNode compile(Collection<String> identities) {
+    List<String> key = new ArrayList<>(new TreeSet<>(identities));
+    synchronized (cache) {
+      JsonNode filter = cache.get(key);
+      if (filter != null) {
+        hits.incrementAndGet();
+        return filter;
+      }
+    }
+    misses.incrementAndGet();
+    JsonNodeFactory factory = JsonNodeFactory.instance;
+    ArrayNode values = factory.arrayNode(key.size());
+    key.forEach(values::add);
+    ObjectNode filter = factory.objectNode();
+    filter.set("terms", factory.objectNode().set(field, values));
+    LOGGER.trace("Compiled post filter '{}'.", filter);
+    synchronized (cache) {
+      // keep the first filter if another thread compiled it concurrently
+      JsonNode cached = cache.putIfAbsent(key, filter);
+      return (cached != null) ? cached : filter;
+    }
+  }
+
+  /**
+   * Remove all cached filters.
+   */
+  public void clear() {
+    synchronized (cache) {
+      cache.clear();
+    }
+  }
+
+  /**
+   * Get the number of cached filters.
+   *
+   * @return Number of cached filters.
+   */
+  public int size() {
+    synchronized (cache) {
+      return cache.size();
+    }
+  }
+
+  /**
+   * Get the number of filters served from the cache.
+   *
+   * @return Number of cache hits.
+   */
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  /**
+   * Get the number of compiled filters.
+   *
+   * @return Number of cache misses.
+   */
+  public long getMissCount() {
+    return misses.get();
+  }
+}
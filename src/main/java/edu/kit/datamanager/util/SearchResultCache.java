@@ -0,0 +1,284 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded cache of search results. Entries are keyed by the index, the
+ * pagination, the authorization identities of the caller and the normalized
+ * query, expire after a configurable time to live and are evicted in least
+ * recently used order. Entries can be invalidated per index, e.g. if a
+ * resource in the index was created, updated or deleted.
+ *
+ * @param <V> Type of the cached results.
+ * @author hartmann-v
+ */
+public final class SearchResultCache<V> {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SearchResultCache.class);
+  /**
+   * Default max. number of entries.
+   */
+  public static final int DEFAULT_MAX_ENTRIES = 1000;
+  /**
+   * Default time to live of an entry in milliseconds.
+   */
+  public static final long DEFAULT_TTL = 60000;
+  /**
+   * Metadata property of messages holding the affected index.
+   */
+  public static final String INDEX_PROPERTY = "index";
+
+  private final long ttl;
+  private final Map<String, Entry<V>> entries;
+  private final AtomicLong generation = new AtomicLong();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  /**
+   * Cached result.
+   */
+  private static final class Entry<V> {
+
+    private final String index;
+    private final V value;
+    private final long expiresAt;
+
+    Entry(String index, V value, long expiresAt) {
+      this.index = index;
+      this.value = value;
+      this.expiresAt = expiresAt;
+    }
+  }
+
+  /**
+   * Create cache.
+   *
+   * @param maxEntries Max. number of cached results.
+   * @param ttl Time to live of a cached result in milliseconds.
+   */
+  public SearchResultCache(int maxEntries, long ttl) {
+    if (maxEntries < 1) {
+      throw new IllegalArgumentException("Max. number of entries must be at least 1.");
+    }
+    if (ttl < 1) {
+      throw new IllegalArgumentException("Time to live must be at least 1 ms.");
+    }
+    this.ttl = ttl;
+    entries = new LinkedHashMap<>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry<V>> eldest) {
+        return size() > maxEntries;
+      }
+    };
+  }
+
+  /**
+   * Create the key of a search request.
+   *
+   * @param index Index (expression) of the search.
+   * @param page Number of the page.
+   * @param size Size of the page.
+   * @param identities Authorization identities of the caller.
+   * @param query Query document.
+   * @return Key.
+   */
+  public static String key(String index, int page, int size, Collection<String> identities, JsonNode query) {
+    return index + "\n" + page + "/" + size + "\n" + new TreeSet<>(identities) + "\n" + normalize(query);
+  }
+
+  /**
+   * Normalize a query document by sorting the fields of all objects, so
+   * equal queries result in the same string regardless of field order.
+   *
+   * @param query Query document.
+   * @return Normalized query.
+   */
+  public static String normalize(JsonNode query) {
+    return sortFields(query).toString();
+  }
+
+  private static JsonNode sortFields(JsonNode node) {
+    if (node == null) {
+      return null;
+    }
+    if (node.isObject()) {
+      Map<String, JsonNode> sorted = new TreeMap<>();
+      node.fields().forEachRemaining(field -> sorted.put(field.getKey(), sortFields(field.getValue())));
+      ObjectNode result = JsonNodeFactory.instance.objectNode();
+      result.setAll(sorted);
+      return result;
+    }
+    if (node.isArray()) {
+      List<JsonNode> elements = new ArrayList<>(node.size());
+      node.elements().forEachRemaining(element -> elements.add(sortFields(element)));
+      return JsonNodeFactory.instance.arrayNode(elements.size()).addAll(elements);
+    }
+    return node;
+  }
+
+  /**
+   * Test whether an index expression as used for searching, e.g.
+   * 'index1,index2' or 'index*', covers the provided index.
+   *
+   * @param expression Index expression.
+   * @param index Name of the index.
+   * @return TRUE if the index is covered by the expression.
+   */
+  public static boolean matches(String expression, String index) {
+    for (String part : expression.split(",")) {
+      String pattern = part.trim();
+      if (pattern.equals("_all") || pattern.equals("*")) {
+        return true;
+      }
+      String[] literals = pattern.split("\\*", -1);
+      StringBuilder regex = new StringBuilder(Pattern.quote(literals[0]));
+      for (int i = 1; i < literals.length; i++) {
+        regex.append(".*").append(Pattern.quote(literals[i]));
+      }
+      if (Pattern.matches(regex.toString(), index)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Get a cached result.
+   *
+   * @param key Key of the search request.
+   * @return Cached result or null if no valid result is cached.
+   */
+  public V get(String key) {
+    synchronized (entries) {
+      Entry<V> entry = entries.get(key);
+      if (entry != null) {
+        if (entry.expiresAt - System.currentTimeMillis() > 0) {
+          hits.incrementAndGet();
+          return entry.value;
+        }
+        entries.remove(key);
+      }
+    }
+    misses.incrementAndGet();
+    return null;
+  }
+
+  /**
+   * Get the current generation of the cache, which is increased by each
+   * invalidation. It has to be obtained before searching and provided to
+   * {@link #put(String, String, Object, long)} in order to avoid caching
+   * results which were invalidated while searching.
+   *
+   * @return Current generation.
+   */
+  public long getGeneration() {
+    return generation.get();
+  }
+
+  /**
+   * Cache a result unless the cache was invalidated in the meantime.
+   *
+   * @param key Key of the search request.
+   * @param index Index (expression) of the search.
+   * @param value Result to cache.
+   * @param generation Generation obtained before searching.
+   */
+  public void put(String key, String index, V value, long generation) {
+    synchronized (entries) {
+      if (this.generation.get() != generation) {
+        LOGGER.trace("Cache was invalidated while searching. Result is not cached.");
+        return;
+      }
+      entries.put(key, new Entry<>(index, value, System.currentTimeMillis() + ttl));
+    }
+  }
+
+  /**
+   * Remove all cached results covering the provided index.
+   *
+   * @param index Name of the index or null to remove all cached results.
+   */
+  public void invalidate(String index) {
+    synchronized (entries) {
+      generation.incrementAndGet();
+      if (index == null) {
+        entries.clear();
+      } else {
+        Iterator<Entry<V>> values = entries.values().iterator();
+        while (values.hasNext()) {
+          if (matches(values.next().index, index)) {
+            values.remove();
+          }
+        }
+      }
+    }
+    LOGGER.trace("Invalidated cached search results of index '{}'.", index);
+  }
+
+  /**
+   * Remove all cached results.
+   */
+  public void clear() {
+    invalidate(null);
+  }
+
+  /**
+   * Get the number of cached results.
+   *
+   * @return Number of cached results.
+   */
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  /**
+   * Get the number of searches answered from the cache.
+   *
+   * @return Number of cache hits.
+   */
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  /**
+   * Get the number of searches which had to be forwarded.
+   *
+   * @return Number of cache misses.
+   */
+  public long getMissCount() {
+    return misses.get();
+  }
+}
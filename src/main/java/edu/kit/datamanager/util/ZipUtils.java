@@ -15,18 +15,63 @@
  */
 package edu.kit.datamanager.util;
 
+import edu.kit.datamanager.util.archive.ArchiveFormat;
+import edu.kit.datamanager.util.archive.ArchiveManifest;
+import edu.kit.datamanager.util.archive.ArchiveProgress;
+import edu.kit.datamanager.util.archive.ChangeDetection;
+import edu.kit.datamanager.util.archive.CompressionPolicy;
+import edu.kit.datamanager.util.archive.DigestAlgorithm;
+import edu.kit.datamanager.util.archive.EntryDigester;
+import edu.kit.datamanager.util.archive.FileTreeWalker;
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Enumeration;
-import java.util.regex.Pattern;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import java.util.zip.ZipOutputStream;
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.ArchiveInputStream;
+import org.apache.commons.compress.archivers.ArchiveOutputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ParallelScatterZipCreator;
+import org.apache.commons.compress.archivers.zip.Zip64Mode;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.input.CloseShieldInputStream;
+import org.apache.commons.io.input.NullInputStream;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.apache.commons.io.output.NullOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,6 +85,27 @@ public final class ZipUtils{
    */
   private static final Logger LOGGER = LoggerFactory.getLogger(ZipUtils.class);
 
+  /**
+   * Size of the buffer used for copying streamed content.
+   */
+  private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * Number of bytes after which a streamed zip output is flushed.
+   */
+  private static final int STREAM_FLUSH_THRESHOLD = 64 * 1024;
+
+  /**
+   * Max. number of file tree entries read in advance while zipping.
+   */
+  private static final int WALKER_READ_AHEAD = 1024;
+
+  /**
+   * Size from which on extracted entries are written via pre-sized file
+   * channels.
+   */
+  private static final long LARGE_ENTRY_THRESHOLD = 1024 * 1024;
+
   /**
    * Hidden constuctor.
    */
@@ -95,22 +161,7 @@ public final class ZipUtils{
    * problems with reading the input files or writing into the output file
    */
   public static void zip(File[] pFiles, String pBasePath, File pZipOut) throws IOException{
-    StringBuilder errorMessage = new StringBuilder();
-    if(pFiles == null){
-      errorMessage.append("Argument pFiles must not be null.\n");
-    }
-
-    if(pBasePath == null){
-      errorMessage.append("Argument pBasePath must not be null.\n");
-    }
-
-    if(pZipOut == null){
-      errorMessage.append("Argument pZipOut must not be null.\n");
-    }
-    if (errorMessage.length() > 0) {
-      LOGGER.warn(errorMessage.toString());
-      throw new IllegalArgumentException(errorMessage.toString());
-    }
+    checkArguments(pFiles, pBasePath, pZipOut);
 
     ZipOutputStream zipOut = null;
     try{
@@ -129,6 +180,734 @@ public final class ZipUtils{
     }
   }
 
+  /**
+   * Write all files located in pDirectory into a zip file specified by pZipOut
+   * using multiple threads. All entries within the zip file will be structured
+   * relative to pDirectory.
+   *
+   * @param pDirectory The directory containing the input files
+   * @param pZipOut The zip output file
+   * @param pThreads The number of threads used for compression. If pThreads is
+   * smaller than 1, the number of available processors is used.
+   * @throws IOException If something goes wrong, in most cases if there are
+   * problems with reading the input files or writing into the output file
+   */
+  public static void zip(File pDirectory, File pZipOut, int pThreads) throws IOException{
+    LOGGER.info("Zipping directory '{}' using up to {} threads", pDirectory.getPath(), pThreads);
+    zip(pDirectory.listFiles(), pDirectory.getCanonicalPath(), pZipOut, pThreads);
+  }
+
+  /**
+   * Write a list of files into a zip file specified by pZipOut using multiple
+   * threads. Each entry is deflated by one of the worker threads into a
+   * per-thread scatter file. Afterwards, all scatter files are stitched
+   * together into the final zip file without compressing the data again.
+   * Zip64 extensions are used as soon as they are needed, e.g. for archives
+   * larger than 4 GB or with more than 65535 entries.
+   *
+   * The order of entries in the resulting zip file may differ from the order
+   * obtained by {@link #zip(java.io.File[], java.lang.String, java.io.File)},
+   * the content is identical.
+   *
+   * @param pFiles The list of input files
+   * @param pBasePath The base path the will be removed from all file paths
+   * before creating a new zip entry
+   * @param pZipOut The zip output file
+   * @param pThreads The number of threads used for compression. If pThreads is
+   * smaller than 1, the number of available processors is used.
+   * @throws IOException If something goes wrong, in most cases if there are
+   * problems with reading the input files or writing into the output file
+   */
+  public static void zip(File[] pFiles, String pBasePath, File pZipOut, int pThreads) throws IOException{
+    zip(pFiles, pBasePath, pZipOut, pThreads, CompressionPolicy.DEFLATE_ALL);
+  }
+
+  /**
+   * Write a list of files into a zip file specified by pZipOut using multiple
+   * threads. The compression method of each entry is selected by the provided
+   * compression policy.
+   *
+   * @param pFiles The list of input files
+   * @param pBasePath The base path the will be removed from all file paths
+   * before creating a new zip entry
+   * @param pZipOut The zip output file
+   * @param pThreads The number of threads used for compression. If pThreads is
+   * smaller than 1, the number of available processors is used.
+   * @param pPolicy The policy selecting the compression method per entry. If
+   * null, all entries are deflated.
+   * @throws IOException If something goes wrong, in most cases if there are
+   * problems with reading the input files or writing into the output file
+   * @see #zip(java.io.File[], java.lang.String, java.io.File, int)
+   */
+  public static void zip(File[] pFiles, String pBasePath, File pZipOut, int pThreads, CompressionPolicy pPolicy) throws IOException{
+    checkArguments(pFiles, pBasePath, pZipOut);
+    CompressionPolicy policy = (pPolicy != null) ? pPolicy : CompressionPolicy.DEFLATE_ALL;
+
+    int threads = (pThreads > 0) ? pThreads : Runtime.getRuntime().availableProcessors();
+    LOGGER.debug("Adding {} files to archive using {} threads", pFiles.length, threads);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    ParallelScatterZipCreator creator = new ParallelScatterZipCreator(executor);
+    boolean writing = false;
+    try(ZipArchiveOutputStream zipOut = new ZipArchiveOutputStream(pZipOut)){
+      zipOut.setUseZip64(Zip64Mode.AsNeeded);
+      addEntries(pFiles, new File(pBasePath).getCanonicalPath(), creator, policy);
+      //writeTo() waits for all compression tasks before stitching the scatter files
+      //and closes all scatter files, even if it fails
+      writing = true;
+      creator.writeTo(zipOut);
+      zipOut.finish();
+      LOGGER.debug("Parallel compression finished: {}", creator.getStatisticsMessage());
+    } catch(InterruptedException ex){
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for compression threads", ex);
+    } catch(ExecutionException ex){
+      LOGGER.error("Aborting parallel zip process due to a failed compression task", ex.getCause());
+      if(ex.getCause() instanceof UncheckedIOException){
+        throw ((UncheckedIOException) ex.getCause()).getCause();
+      }
+      throw new IOException("Unexpected exception during parallel zip operation", ex.getCause());
+    } finally{
+      if(!writing){
+        discard(creator, executor);
+      }
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Discard all entries submitted to the provided creator, e.g. if walking
+   * the file tree failed. Queued compression tasks are cancelled and the
+   * scatter files of all started tasks are closed and deleted.
+   *
+   * @param pCreator The creator holding the scatter files
+   * @param pExecutor The executor running the compression tasks
+   */
+  private static void discard(ParallelScatterZipCreator pCreator, ExecutorService pExecutor){
+    for(Runnable pending : pExecutor.shutdownNow()){
+      //queued tasks are only removed from the queue, writeTo() would wait for them forever
+      if(pending instanceof Future){
+        ((Future<?>) pending).cancel(false);
+      }
+    }
+    try{
+      pExecutor.awaitTermination(1, TimeUnit.MINUTES);
+      //writeTo() is the only way to close the scatter files, cancelled tasks let it fail early
+      pCreator.writeTo(new ZipArchiveOutputStream(NullOutputStream.INSTANCE));
+    } catch(InterruptedException ex){
+      Thread.currentThread().interrupt();
+    } catch(IOException | ExecutionException | RuntimeException ex){
+      LOGGER.trace("Discarded scatter files of failed zip process.", ex);
+    }
+  }
+
+  /**
+   * Recursively submit all files and directories to the provided scatter
+   * creator. Directories are added as empty entries to keep empty folders.
+   *
+   * @param pFileList The list of input files
+   * @param pBasePath The canonical base path removed from all file paths
+   * @param pCreator The creator compressing all submitted entries
+   * @param pPolicy The policy selecting the compression method per entry
+   * @throws IOException If walking the file tree fails
+   */
+  private static void addEntries(File[] pFileList, String pBasePath, ParallelScatterZipCreator pCreator, CompressionPolicy pPolicy) throws IOException{
+    FileTreeWalker.of(pFileList, pBasePath).forEach(walkerEntry -> {
+      File file = walkerEntry.toFile();
+      long lastModified = walkerEntry.getAttributes().lastModifiedTime().toMillis();
+      if(walkerEntry.isDirectory()){
+        LOGGER.trace("Submitting directory {}.", file);
+        ZipArchiveEntry entry = new ZipArchiveEntry(walkerEntry.getName() + "/");
+        entry.setTime(lastModified);
+        entry.setMethod(ZipEntry.DEFLATED);
+        pCreator.addArchiveEntry(entry, () -> new NullInputStream(0));
+      } else{
+        LOGGER.trace("Submitting file {}.", file);
+        ZipArchiveEntry entry = new ZipArchiveEntry(walkerEntry.getName());
+        entry.setTime(lastModified);
+        entry.setMethod(pPolicy.selectMethod(walkerEntry.getPath()));
+        pCreator.addArchiveEntry(entry, () -> {
+          try{
+            return new FileInputStream(file);
+          } catch(IOException ex){
+            throw new UncheckedIOException(ex);
+          }
+        });
+      }
+    });
+  }
+
+  /**
+   * Write all files located in pDirectory into a zip file specified by pZipOut.
+   * The compression method of each entry is selected by the provided
+   * compression policy, e.g. for storing already compressed content without
+   * deflating it again.
+   *
+   * @param pDirectory The directory containing the input files
+   * @param pZipOut The zip output file
+   * @param pPolicy The policy selecting the compression method per entry. If
+   * null, all entries are deflated.
+   * @throws IOException If something goes wrong, in most cases if there are
+   * problems with reading the input files or writing into the output file
+   * @see edu.kit.datamanager.util.archive.ContentAwareCompressionPolicy
+   */
+  public static void zip(File pDirectory, File pZipOut, CompressionPolicy pPolicy) throws IOException{
+    zip(FileTreeWalker.of(pDirectory), pZipOut, pPolicy);
+  }
+
+  /**
+   * Write all files and directories visited by pWalker into a zip file
+   * specified by pZipOut. The file tree is walked lazily by a background
+   * thread feeding a bounded read-ahead queue, i.e., the memory consumption
+   * does not depend on the number of files and the directory traversal
+   * overlaps with the compression. Filters of the walker, e.g. glob patterns
+   * or file extensions, are applied while walking the file tree.
+   *
+   * @param pWalker The walker providing all files and directories to add
+   * @param pZipOut The zip output file
+   * @param pPolicy The policy selecting the compression method per entry. If
+   * null, all entries are deflated.
+   * @throws IOException If something goes wrong, in most cases if there are
+   * problems with reading the input files or writing into the output file
+   */
+  public static void zip(FileTreeWalker pWalker, File pZipOut, CompressionPolicy pPolicy) throws IOException{
+    zip(pWalker, pZipOut, pPolicy, null, null);
+  }
+
+  /**
+   * Write a list of files into a zip file specified by pZipOut. The
+   * compression method of each entry is selected by the provided compression
+   * policy. Entries selected to be stored are copied without compression. As
+   * the output is a file, the CRC and sizes of stored entries are computed
+   * while copying and written into the entry headers afterwards, i.e. each
+   * input file is read only once.
+   *
+   * @param pFiles The list of input files
+   * @param pBasePath The base path the will be removed from all file paths
+   * before creating a new zip entry
+   * @param pZipOut The zip output file
+   * @param pPolicy The policy selecting the compression method per entry. If
+   * null, all entries are deflated.
+   * @throws IOException If something goes wrong, in most cases if there are
+   * problems with reading the input files or writing into the output file
+   */
+  public static void zip(File[] pFiles, String pBasePath, File pZipOut, CompressionPolicy pPolicy) throws IOException{
+    zip(pFiles, pBasePath, pZipOut, pPolicy, null, null);
+  }
+
+  /**
+   * Write a list of files into a zip file specified by pZipOut and report the
+   * progress to pProgress. The operation can be cancelled cooperatively via
+   * {@link ArchiveProgress#cancel()}. In that case, the operation fails with
+   * an InterruptedIOException and the zip file remains incomplete.
+   *
+   * @param pFiles The list of input files
+   * @param pBasePath The base path the will be removed from all file paths
+   * before creating a new zip entry
+   * @param pZipOut The zip output file
+   * @param pPolicy The policy selecting the compression method per entry. If
+   * null, all entries are deflated.
+   * @param pProgress The progress to report to
+   * @throws IOException If something goes wrong, in most cases if there are
+   * problems with reading the input files or writing into the output file
+   * @see edu.kit.datamanager.util.archive.ArchiveJobExecutor
+   */
+  public static void zip(File[] pFiles, String pBasePath, File pZipOut, CompressionPolicy pPolicy, ArchiveProgress pProgress) throws IOException{
+    zip(pFiles, pBasePath, pZipOut, pPolicy, null, pProgress);
+  }
+
+  /**
+   * Write all files located in pDirectory into a zip file specified by pZipOut
+   * and compute the digests of all files while they are compressed. The
+   * returned manifest maps the entry names to sizes and digests and can be
+   * used to populate ContentInformation objects without reading the files a
+   * second time.
+   *
+   * @param pDirectory The directory containing the input files
+   * @param pZipOut The zip output file
+   * @param pAlgorithms The digest algorithms to compute. If none is provided,
+   * SHA-256 is used.
+   * @return The manifest of all file entries
+   * @throws IOException If something goes wrong, in most cases if there are
+   * problems with reading the input files or writing into the output file
+   */
+  public static ArchiveManifest zipWithManifest(File pDirectory, File pZipOut, DigestAlgorithm... pAlgorithms) throws IOException{
+    ArchiveManifest manifest = new ArchiveManifest(pAlgorithms);
+    zip(FileTreeWalker.of(pDirectory), pZipOut, CompressionPolicy.DEFLATE_ALL, manifest, null);
+    return manifest;
+  }
+
+  /**
+   * Write a list of files into a zip file specified by pZipOut and compute the
+   * digests of all files while they are compressed.
+   *
+   * @param pFiles The list of input files
+   * @param pBasePath The base path the will be removed from all file paths
+   * before creating a new zip entry
+   * @param pZipOut The zip output file
+   * @param pPolicy The policy selecting the compression method per entry. If
+   * null, all entries are deflated.
+   * @param pAlgorithms The digest algorithms to compute. If none is provided,
+   * SHA-256 is used.
+   * @return The manifest of all file entries
+   * @throws IOException If something goes wrong, in most cases if there are
+   * problems with reading the input files or writing into the output file
+   * @see #zipWithManifest(java.io.File, java.io.File,
+   * edu.kit.datamanager.util.archive.DigestAlgorithm...)
+   */
+  public static ArchiveManifest zipWithManifest(File[] pFiles, String pBasePath, File pZipOut, CompressionPolicy pPolicy, DigestAlgorithm... pAlgorithms) throws IOException{
+    ArchiveManifest manifest = new ArchiveManifest(pAlgorithms);
+    zip(pFiles, pBasePath, pZipOut, pPolicy, manifest, null);
+    return manifest;
+  }
+
+  /**
+   * Write a list of files into a zip file using the compression method
+   * selected by pPolicy, optionally record all file entries in pManifest and
+   * report the progress to pProgress.
+   *
+   * @param pFiles The list of input files
+   * @param pBasePath The base path removed from all file paths
+   * @param pZipOut The zip output file
+   * @param pPolicy The policy selecting the compression method per entry
+   * @param pManifest The manifest to add all file entries to or null
+   * @param pProgress The progress to report to or null
+   * @throws IOException If reading a file or writing the zip file fails
+   */
+  private static void zip(File[] pFiles, String pBasePath, File pZipOut, CompressionPolicy pPolicy, ArchiveManifest pManifest, ArchiveProgress pProgress) throws IOException{
+    checkArguments(pFiles, pBasePath, pZipOut);
+    zip(FileTreeWalker.of(pFiles, pBasePath), pZipOut, pPolicy, pManifest, pProgress);
+  }
+
+  /**
+   * Write all entries of a file tree walker into a zip file using the
+   * compression method selected by pPolicy, optionally record all file
+   * entries in pManifest and report the progress to pProgress. The entries
+   * are read ahead by a background thread.
+   *
+   * @param pWalker The walker providing all files and directories to add
+   * @param pZipOut The zip output file
+   * @param pPolicy The policy selecting the compression method per entry
+   * @param pManifest The manifest to add all file entries to or null
+   * @param pProgress The progress to report to or null
+   * @throws IOException If reading a file or writing the zip file fails
+   */
+  private static void zip(FileTreeWalker pWalker, File pZipOut, CompressionPolicy pPolicy, ArchiveManifest pManifest, ArchiveProgress pProgress) throws IOException{
+    if(pWalker == null || pZipOut == null){
+      throw new IllegalArgumentException("Arguments pWalker and pZipOut must not be null.");
+    }
+    CompressionPolicy policy = (pPolicy != null) ? pPolicy : CompressionPolicy.DEFLATE_ALL;
+    try(ZipArchiveOutputStream zipOut = new ZipArchiveOutputStream(pZipOut);
+            FileTreeWalker.EntryIterator entries = pWalker.iterator(WALKER_READ_AHEAD)){
+      zipOut.setUseZip64(Zip64Mode.AsNeeded);
+      byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+      while(entries.hasNext()){
+        FileTreeWalker.Entry entry = entries.next();
+        addEntry(zipOut, entry.toFile(), entry.getName(), policy, buffer, pManifest, pProgress);
+      }
+      zipOut.finish();
+    } catch(UncheckedIOException ex){
+      LOGGER.error("Aborting zip process due to an IOException while walking the file tree", ex.getCause());
+      throw ex.getCause();
+    } catch(IOException ioe){
+      LOGGER.error("Aborting zip process due to an IOException caused by any zip stream (FileInput or ZipOutput)", ioe);
+      throw ioe;
+    } catch(RuntimeException e){
+      LOGGER.error("Aborting zip process due to an unexpected exception", e);
+      throw new IOException("Unexpected exception during zip operation", e);
+    }
+  }
+
+  /**
+   * Recursively add all files and directories to the provided zip output
+   * stream using the compression method selected by pPolicy.
+   *
+   * @param pFileList The list of input files
+   * @param pBasePath The canonical base path removed from all file paths
+   * @param pZipOut The zip output stream
+   * @param pPolicy The policy selecting the compression method per entry
+   * @param pBuffer The buffer used for copying
+   * @throws IOException If reading a file or writing the zip file fails
+   */
+  private static void addEntries(File[] pFileList, String pBasePath, ZipArchiveOutputStream pZipOut, CompressionPolicy pPolicy, byte[] pBuffer) throws IOException{
+    walk(pFileList, pBasePath, (file, entryName) -> addEntry(pZipOut, file, entryName, pPolicy, pBuffer, null, null));
+  }
+
+  /**
+   * Add a single file or directory to the provided zip output stream using
+   * the compression method selected by pPolicy.
+   *
+   * @param pZipOut The zip output stream
+   * @param pFile The file or directory to add
+   * @param pEntryName The name of the entry
+   * @param pPolicy The policy selecting the compression method
+   * @param pBuffer The buffer used for copying
+   * @param pManifest The manifest to add file entries to or null
+   * @param pProgress The progress to report to or null
+   * @throws IOException If reading the file or writing the zip file fails
+   */
+  private static void addEntry(ZipArchiveOutputStream pZipOut, File pFile, String pEntryName, CompressionPolicy pPolicy, byte[] pBuffer, ArchiveManifest pManifest, ArchiveProgress pProgress) throws IOException{
+    ZipArchiveEntry entry = new ZipArchiveEntry(pFile, pEntryName);
+    if(pFile.isDirectory()){
+      LOGGER.trace("Adding directory {}.", pFile);
+      pZipOut.putArchiveEntry(entry);
+      pZipOut.closeArchiveEntry();
+    } else{
+      int method = pPolicy.selectMethod(pFile.toPath());
+      LOGGER.trace("Adding file {} using method {}.", pFile, method);
+      entry.setMethod(method);
+      EntryDigester digester = (pManifest != null) ? pManifest.newDigester() : null;
+      try(InputStream in = Files.newInputStream(pFile.toPath())){
+        pZipOut.putArchiveEntry(entry);
+        int len;
+        while((len = in.read(pBuffer)) > 0){
+          pZipOut.write(pBuffer, 0, len);
+          if(digester != null){
+            digester.update(pBuffer, 0, len);
+          }
+          if(pProgress != null){
+            pProgress.addBytes(len);
+          }
+        }
+        pZipOut.closeArchiveEntry();
+      }
+      if(digester != null){
+        pManifest.add(pEntryName, digester);
+      }
+      if(pProgress != null){
+        pProgress.entryDone();
+      }
+    }
+  }
+
+  /**
+   * Write all files located in pDirectory into a zip file specified by pZipOut
+   * reusing the entries of a previously created zip file. Unchanged files are
+   * copied from pPreviousZip as raw compressed data without inflating and
+   * deflating them again. Only new or modified files are compressed. Files
+   * which do not exist anymore are not contained in the new zip file. Thus,
+   * the compression effort depends on the amount of changes and not on the
+   * size of the dataset.
+   *
+   * pPreviousZip and pZipOut may point to the same file. In any case, the new
+   * zip file is written to a temporary file first, which replaces pZipOut
+   * afterwards.
+   *
+   * @param pDirectory The directory containing the input files
+   * @param pPreviousZip The previous version of the zip file. If it does not
+   * exist, all files are compressed.
+   * @param pZipOut The zip output file
+   * @param pDetection The strategy for detecting changed files
+   * @return The number of compressed, i.e. new or modified, files
+   * @throws IOException If something goes wrong, in most cases if there are
+   * problems with reading the input files or writing into the output file
+   */
+  public static int zipIncremental(File pDirectory, File pPreviousZip, File pZipOut, ChangeDetection pDetection) throws IOException{
+    return zipIncremental(pDirectory.listFiles(), pDirectory.getCanonicalPath(), pPreviousZip, pZipOut, pDetection, CompressionPolicy.DEFLATE_ALL);
+  }
+
+  /**
+   * Write a list of files into a zip file specified by pZipOut reusing the
+   * entries of a previously created zip file.
+   *
+   * @param pFiles The list of input files
+   * @param pBasePath The base path the will be removed from all file paths
+   * before creating a new zip entry
+   * @param pPreviousZip The previous version of the zip file. If it does not
+   * exist, all files are compressed.
+   * @param pZipOut The zip output file
+   * @param pDetection The strategy for detecting changed files
+   * @param pPolicy The policy selecting the compression method for new or
+   * modified files. If null, all files are deflated.
+   * @return The number of compressed, i.e. new or modified, files
+   * @throws IOException If something goes wrong, in most cases if there are
+   * problems with reading the input files or writing into the output file
+   * @see #zipIncremental(java.io.File, java.io.File, java.io.File,
+   * edu.kit.datamanager.util.archive.ChangeDetection)
+   */
+  public static int zipIncremental(File[] pFiles, String pBasePath, File pPreviousZip, File pZipOut, ChangeDetection pDetection, CompressionPolicy pPolicy) throws IOException{
+    checkArguments(pFiles, pBasePath, pZipOut);
+    ChangeDetection detection = (pDetection != null) ? pDetection : ChangeDetection.SIZE_AND_MTIME;
+    CompressionPolicy policy = (pPolicy != null) ? pPolicy : CompressionPolicy.DEFLATE_ALL;
+    String basePath = new File(pBasePath).getCanonicalPath();
+    int[] compressed = {0};
+    int[] copied = {0};
+    writeAndReplace(pZipOut, tmpFile -> {
+      try(org.apache.commons.compress.archivers.zip.ZipFile previous = (pPreviousZip != null && pPreviousZip.isFile()) ? org.apache.commons.compress.archivers.zip.ZipFile.builder().setFile(pPreviousZip).get() : null;
+              ZipArchiveOutputStream zipOut = new ZipArchiveOutputStream(tmpFile)){
+        zipOut.setUseZip64(Zip64Mode.AsNeeded);
+        byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+        walk(pFiles, basePath, (file, entryName) -> {
+          ZipArchiveEntry previousEntry = (previous != null) ? previous.getEntry(file.isDirectory() ? entryName + "/" : entryName) : null;
+          if(previousEntry != null && isUnchanged(previousEntry, file, detection, buffer)){
+            LOGGER.trace("Copying unchanged entry {}.", entryName);
+            try(InputStream raw = previous.getRawInputStream(previousEntry)){
+              zipOut.addRawArchiveEntry(previousEntry, raw);
+            }
+            copied[0]++;
+          } else{
+            addEntry(zipOut, file, entryName, policy, buffer, null, null);
+            if(!file.isDirectory()){
+              compressed[0]++;
+            }
+          }
+        });
+        zipOut.finish();
+      }
+    });
+    LOGGER.debug("Incremental zip finished. {} entries copied, {} files compressed.", copied[0], compressed[0]);
+    return compressed[0];
+  }
+
+  /**
+   * Append a list of files to an existing zip file. Existing entries are
+   * copied as raw compressed data, i.e., they are not inflated and deflated
+   * again. Existing entries with the same name as one of the appended files
+   * are replaced. If pZipFile does not exist, it is created.
+   *
+   * @param pZipFile The zip file to append the files to
+   * @param pFiles The list of input files
+   * @param pBasePath The base path the will be removed from all file paths
+   * before creating a new zip entry
+   * @throws IOException If something goes wrong, in most cases if there are
+   * problems with reading the input files or writing into the zip file
+   */
+  public static void appendToZip(File pZipFile, File[] pFiles, String pBasePath) throws IOException{
+    checkArguments(pFiles, pBasePath, pZipFile);
+    String basePath = new File(pBasePath).getCanonicalPath();
+    Set<String> appendedEntries = new HashSet<>();
+    walk(pFiles, basePath, (file, entryName) -> appendedEntries.add(file.isDirectory() ? entryName + "/" : entryName));
+    writeAndReplace(pZipFile, tmpFile -> {
+      try(ZipArchiveOutputStream zipOut = new ZipArchiveOutputStream(tmpFile)){
+        zipOut.setUseZip64(Zip64Mode.AsNeeded);
+        if(pZipFile.isFile()){
+          try(org.apache.commons.compress.archivers.zip.ZipFile existing = org.apache.commons.compress.archivers.zip.ZipFile.builder().setFile(pZipFile).get()){
+            existing.copyRawEntries(zipOut, entry -> !appendedEntries.contains(entry.getName()));
+          }
+        }
+        addEntries(pFiles, basePath, zipOut, CompressionPolicy.DEFLATE_ALL, new byte[STREAM_BUFFER_SIZE]);
+        zipOut.finish();
+      }
+    });
+  }
+
+  /**
+   * Check whether a file is unchanged compared to an entry of an existing zip
+   * file.
+   *
+   * @param pEntry The existing entry
+   * @param pFile The file
+   * @param pDetection The strategy for detecting changes
+   * @param pBuffer The buffer used for reading the file if needed
+   * @return TRUE if pFile is unchanged
+   * @throws IOException If reading the file fails
+   */
+  private static boolean isUnchanged(ZipArchiveEntry pEntry, File pFile, ChangeDetection pDetection, byte[] pBuffer) throws IOException{
+    if(pFile.isDirectory() || pEntry.isDirectory()){
+      return pFile.isDirectory() && pEntry.isDirectory();
+    }
+    if(pEntry.getSize() != pFile.length()){
+      return false;
+    }
+    if(pDetection == ChangeDetection.CRC32){
+      CRC32 crc = new CRC32();
+      try(InputStream in = Files.newInputStream(pFile.toPath())){
+        int len;
+        while((len = in.read(pBuffer)) > 0){
+          crc.update(pBuffer, 0, len);
+        }
+      }
+      return crc.getValue() == pEntry.getCrc();
+    }
+    //zip files store the modification time with a resolution of two seconds
+    return Math.abs(pEntry.getTime() - pFile.lastModified()) < 2000;
+  }
+
+  /**
+   * Write a zip file into a temporary file located next to pTarget, which
+   * replaces pTarget afterwards. Thus, pTarget may also be read while writing
+   * the new zip file.
+   *
+   * @param pTarget The target file
+   * @param pWriter The writer creating the zip file
+   * @throws IOException If writing or replacing the target fails
+   */
+  private static void writeAndReplace(File pTarget, ZipFileWriter pWriter) throws IOException{
+    File tmpFile = File.createTempFile(pTarget.getName(), ".tmp", pTarget.getAbsoluteFile().getParentFile());
+    try{
+      pWriter.write(tmpFile);
+      Files.move(tmpFile.toPath(), pTarget.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    } finally{
+      FileUtils.deleteQuietly(tmpFile);
+    }
+  }
+
+  /**
+   * Recursively visit all files and directories of the provided list.
+   * Directories are visited before their content.
+   *
+   * @param pFileList The list of input files
+   * @param pBasePath The canonical base path removed from all file paths
+   * @param pVisitor The visitor called for each file and directory
+   * @throws IOException If the visitor fails
+   */
+  private static void walk(File[] pFileList, String pBasePath, EntryVisitor pVisitor) throws IOException{
+    FileTreeWalker.of(pFileList, pBasePath).forEach(entry -> pVisitor.visit(entry.toFile(), entry.getName()));
+  }
+
+  /**
+   * Write all files located in pDirectory as zip archive into the provided
+   * output stream, e.g. the output stream of an HTTP response. All entries
+   * will be structured relative to pDirectory.
+   *
+   * @param pDirectory The directory containing the input files
+   * @param pOutputStream The stream receiving the zip archive
+   * @throws IOException If something goes wrong, in most cases if there are
+   * problems with reading the input files or writing into the output stream
+   * @see #zipToStream(java.io.File, java.lang.String, java.io.OutputStream)
+   */
+  public static void zipToStream(File pDirectory, OutputStream pOutputStream) throws IOException{
+    zipToStream(pDirectory, pDirectory.getCanonicalPath(), pOutputStream);
+  }
+
+  /**
+   * Write all files located in pDirectory as zip archive into the provided
+   * output stream without creating a temporary zip file. The directory tree is
+   * walked lazily and each entry is written as soon as it is reached. The
+   * output stream is flushed regularly, i.e., the first bytes are sent to the
+   * receiver immediately, independent of the size of the archive. The
+   * provided output stream is flushed but not closed at the end.
+   *
+   * Due to the fact, that we have only one single base path, pDirectory must
+   * start with pBasePath to avoid unexpected zip file entries.
+   *
+   * @param pDirectory The directory containing the input files
+   * @param pBasePath The base path the will be removed from all file paths
+   * before creating a new zip entry
+   * @param pOutputStream The stream receiving the zip archive
+   * @throws IOException If something goes wrong, in most cases if there are
+   * problems with reading the input files or writing into the output stream
+   */
+  public static void zipToStream(File pDirectory, String pBasePath, OutputStream pOutputStream) throws IOException{
+    if(pDirectory == null || pBasePath == null || pOutputStream == null){
+      throw new IllegalArgumentException("Arguments pDirectory, pBasePath and pOutputStream must not be null.");
+    }
+    LOGGER.info("Streaming directory '{}' as zip archive", pDirectory.getPath());
+    byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+    try(ZipOutputStream zipOut = new ZipOutputStream(new PeriodicFlushOutputStream(CloseShieldOutputStream.wrap(pOutputStream), STREAM_FLUSH_THRESHOLD))){
+      FileTreeWalker.of(pDirectory, pBasePath).forEach(walkerEntry -> {
+        LOGGER.trace("Adding {}.", walkerEntry.getPath());
+        ZipEntry entry = new ZipEntry(walkerEntry.isDirectory() ? walkerEntry.getName() + "/" : walkerEntry.getName());
+        entry.setTime(walkerEntry.getAttributes().lastModifiedTime().toMillis());
+        if(walkerEntry.isDirectory()){
+          zipOut.putNextEntry(entry);
+          zipOut.closeEntry();
+          return;
+        }
+        try(InputStream in = Files.newInputStream(walkerEntry.getPath())){
+          zipOut.putNextEntry(entry);
+          int len;
+          while((len = in.read(buffer)) > 0){
+            zipOut.write(buffer, 0, len);
+          }
+          zipOut.closeEntry();
+        }
+      });
+      zipOut.finish();
+      zipOut.flush();
+    } catch(IOException ioe){
+      LOGGER.error("Aborting zip streaming process due to an IOException", ioe);
+      throw ioe;
+    }
+  }
+
+  /**
+   * Write all files located in pDirectory as archive of the provided format
+   * into the provided output stream without creating a temporary file. All
+   * formats are written fully sequentially, i.e., the archive can be
+   * consumed while it is written. The provided output stream is flushed but
+   * not closed at the end.
+   *
+   * @param pDirectory The directory containing the input files
+   * @param pBasePath The base path the will be removed from all file paths
+   * before creating a new archive entry
+   * @param pOutputStream The stream receiving the archive
+   * @param pFormat The archive format. If null, ZIP is used.
+   * @throws IOException If something goes wrong, in most cases if there are
+   * problems with reading the input files or writing into the output stream
+   * @see #zipToStream(java.io.File, java.lang.String, java.io.OutputStream)
+   */
+  public static void zipToStream(File pDirectory, String pBasePath, OutputStream pOutputStream, ArchiveFormat pFormat) throws IOException{
+    if(pFormat == null || ArchiveFormat.ZIP.equals(pFormat)){
+      zipToStream(pDirectory, pBasePath, pOutputStream);
+      return;
+    }
+    if(pDirectory == null || pBasePath == null || pOutputStream == null){
+      throw new IllegalArgumentException("Arguments pDirectory, pBasePath and pOutputStream must not be null.");
+    }
+    LOGGER.info("Streaming directory '{}' as {} archive", pDirectory.getPath(), pFormat);
+    try(ArchiveOutputStream<? extends ArchiveEntry> archiveOut = pFormat.createOutputStream(CloseShieldOutputStream.wrap(pOutputStream))){
+      writeArchive(FileTreeWalker.of(pDirectory, pBasePath), archiveOut);
+    } catch(IOException ioe){
+      LOGGER.error("Aborting archive streaming process due to an IOException", ioe);
+      throw ioe;
+    }
+    pOutputStream.flush();
+  }
+
+  /**
+   * Write all files located in pDirectory into an archive file of the
+   * provided format. All entries will be structured relative to pDirectory.
+   *
+   * @param pDirectory The directory containing the input files
+   * @param pArchiveOut The archive output file
+   * @param pFormat The archive format. If null, ZIP is used.
+   * @throws IOException If something goes wrong, in most cases if there are
+   * problems with reading the input files or writing into the output file
+   * @see ArchiveFormat#fromFileName(java.lang.String)
+   */
+  public static void zip(File pDirectory, File pArchiveOut, ArchiveFormat pFormat) throws IOException{
+    if(pFormat == null || ArchiveFormat.ZIP.equals(pFormat)){
+      zip(pDirectory, pArchiveOut, CompressionPolicy.DEFLATE_ALL);
+      return;
+    }
+    try(OutputStream out = new FileOutputStream(pArchiveOut)){
+      zipToStream(pDirectory, pDirectory.getCanonicalPath(), out, pFormat);
+    }
+  }
+
+  /**
+   * Write all entries of a file tree walker into the provided archive output
+   * stream and finish the archive.
+   *
+   * @param <E> The type of archive entries
+   * @param pWalker The walker providing all files and directories to add
+   * @param pArchiveOut The archive output stream
+   * @throws IOException If reading a file or writing the archive fails
+   */
+  private static <E extends ArchiveEntry> void writeArchive(FileTreeWalker pWalker, ArchiveOutputStream<E> pArchiveOut) throws IOException{
+    byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+    try(FileTreeWalker.EntryIterator entries = pWalker.iterator(WALKER_READ_AHEAD)){
+      while(entries.hasNext()){
+        FileTreeWalker.Entry entry = entries.next();
+        LOGGER.trace("Adding {}.", entry.getPath());
+        pArchiveOut.putArchiveEntry(pArchiveOut.createArchiveEntry(entry.toFile(), entry.getName()));
+        if(!entry.isDirectory()){
+          try(InputStream in = Files.newInputStream(entry.getPath())){
+            int len;
+            while((len = in.read(buffer)) > 0){
+              pArchiveOut.write(buffer, 0, len);
+            }
+          }
+        }
+        pArchiveOut.closeArchiveEntry();
+      }
+    } catch(UncheckedIOException ex){
+      throw ex.getCause();
+    }
+    pArchiveOut.finish();
+  }
+
+
   /**
    * Compress all files of one directory with given extensions to a single zip
    * file.
@@ -140,34 +919,14 @@ public final class ZipUtils{
    */
   public static boolean zipDirectory(final File pDirectory, final File pZipFile, final String... pExtension){
     boolean success = false;
-    File[] files = pDirectory.listFiles((File dir, String name) -> {
-      boolean accept = false;
-      String lowerCase = name.toLowerCase();
+    LOGGER.debug("Zip files to {}", pZipFile.getName());
+    try{
+      FileTreeWalker walker = FileTreeWalker.of(pDirectory);
       if(pExtension != null){
-        for(String extension : pExtension){
-          if(lowerCase.endsWith(extension.toLowerCase())){
-            accept = true;
-            break;
-          }
-        }
-      } else{
-        accept = true;
+        //only files located directly in pDirectory are filtered by extension
+        walker.withExtensions(pExtension).withMaxDepth(1);
       }
-      return accept;
-    });
-    if(LOGGER.isDebugEnabled()){
-      String fileSeparator = ", ";
-      LOGGER.debug("Zip files to " + pZipFile.getName());
-      StringBuilder sb = new StringBuilder("Selected files: ");
-      for(File file : files){
-        sb.append(file.getName()).append(fileSeparator);
-      }
-      int lastIndex = sb.lastIndexOf(fileSeparator);
-      sb.delete(lastIndex, lastIndex + fileSeparator.length());
-      LOGGER.debug(sb.toString());
-    }
-    try{
-      zip(files, pDirectory.getPath(), pZipFile);
+      zip(walker, pZipFile, CompressionPolicy.DEFLATE_ALL);
       success = true;
     } catch(IOException ex){
       LOGGER.error("Error while zipping files!", ex);
@@ -205,50 +964,34 @@ public final class ZipUtils{
    * problems with reading the input files or writing into the output file
    */
   public static void zip(File[] pFileList, String pBasePath, ZipOutputStream pZipOut) throws IOException{
-    String basePath = new File(pBasePath).getCanonicalPath();
     // Create a buffer for reading the files
     byte[] buf = new byte[1024];
     try{
       // Compress the files
       LOGGER.debug("Adding {} files to archive", pFileList.length);
 
-      for(File pFileList1 : pFileList){
-        String entryName = pFileList1.getCanonicalPath().replaceAll(Pattern.quote(basePath), "");
-        if(entryName.startsWith(File.separator)){
-          entryName = entryName.substring(1);
-        }
-
-        if(pFileList1.isDirectory()){
-          LOGGER.debug("Start adding directory {}.", pFileList1);
+      FileTreeWalker.of(pFileList, pBasePath).forEach(entry -> {
+        if(entry.isDirectory()){
+          LOGGER.debug("Adding directory {}.", entry.getPath());
           //add empty folders, too
-          pZipOut.putNextEntry(new ZipEntry((entryName + File.separator).replaceAll("\\\\", "/")));
+          pZipOut.putNextEntry(new ZipEntry(entry.getName() + "/"));
           pZipOut.closeEntry();
-          File[] fileList = pFileList1.listFiles();
-          if(fileList.length != 0){
-            LOGGER.debug("Start adding {} sub-elements of directory {}.", fileList.length, pFileList1);
-            zip(fileList, pBasePath, pZipOut);
-            LOGGER.debug("Finished adding sub-elements of directory {}.", pFileList1);
-          } else{
-            LOGGER.debug("Finished adding directory {} as it is empty.", pFileList1);
-          }
-          //should we close the entry here??
-          //pZipOut.closeEntry();
         } else{
-          LOGGER.debug("Start adding file {}.", pFileList1);
-          try(final FileInputStream in = new FileInputStream(pFileList1)){
+          LOGGER.debug("Start adding file {}.", entry.getPath());
+          try(final InputStream in = Files.newInputStream(entry.getPath())){
             // Add ZIP entry to output stream.
-            pZipOut.putNextEntry(new ZipEntry(entryName.replaceAll("\\\\", "/")));
+            pZipOut.putNextEntry(new ZipEntry(entry.getName()));
             // Transfer bytes from the file to the ZIP file
             int len;
             while((len = in.read(buf)) > 0){
               pZipOut.write(buf, 0, len);
             }
             // Complete the entry
-            LOGGER.debug("Finishing adding file {}.", pFileList1);
+            LOGGER.debug("Finishing adding file {}.", entry.getPath());
             pZipOut.closeEntry();
           }
         }
-      }
+      });
     } catch(IOException ioe){
       LOGGER.error("Aborting zip process due to an IOException caused by any zip stream (FileInput or ZipOutput)", ioe);
       throw ioe;
@@ -258,6 +1001,33 @@ public final class ZipUtils{
     }
   }
 
+  /**
+   * Check the arguments provided for creating a zip file.
+   *
+   * @param pFiles The list of input files
+   * @param pBasePath The base path
+   * @param pZipOut The zip output file
+   * @throws IllegalArgumentException If at least one argument is null
+   */
+  private static void checkArguments(File[] pFiles, String pBasePath, File pZipOut){
+    StringBuilder errorMessage = new StringBuilder();
+    if(pFiles == null){
+      errorMessage.append("Argument pFiles must not be null.\n");
+    }
+
+    if(pBasePath == null){
+      errorMessage.append("Argument pBasePath must not be null.\n");
+    }
+
+    if(pZipOut == null){
+      errorMessage.append("Argument pZipOut must not be null.\n");
+    }
+    if (errorMessage.length() > 0) {
+      LOGGER.warn(errorMessage.toString());
+      throw new IllegalArgumentException(errorMessage.toString());
+    }
+  }
+
   /**
    * Unzip file in 'fSourceZip' parent directory and delete zip file.
    *
@@ -336,6 +1106,316 @@ public final class ZipUtils{
 
   }
 
+  /**
+   * Extract an archive file of the provided format into the provided
+   * destination directory. ZIP files are extracted using random access to
+   * their entries, all other formats are read sequentially. In contrast to
+   * {@link #unzip(java.io.File, java.io.File, boolean)} errors are not
+   * swallowed but reported to the caller.
+   *
+   * @param pArchive The archive file to extract
+   * @param pDestination The destination directory
+   * @param pFormat The archive format. If null, ZIP is used.
+   * @throws IOException If something goes wrong, in most cases if pArchive
+   * does not exist or the destination directory is not writeable
+   * @see ArchiveFormat#fromFileName(java.lang.String)
+   */
+  public static void unzip(File pArchive, File pDestination, ArchiveFormat pFormat) throws IOException{
+    if(pFormat == null || ArchiveFormat.ZIP.equals(pFormat)){
+      unzip(pArchive, pDestination, 1);
+      return;
+    }
+    try(InputStream in = Files.newInputStream(pArchive.toPath())){
+      unzip(in, pDestination, pFormat);
+    }
+  }
+
+  /**
+   * Extract an archive of the provided format read sequentially from the
+   * provided input stream, e.g. the body of an HTTP request, into the
+   * provided destination directory. Entries pointing outside of the
+   * destination directory are rejected, special tar entries like links are
+   * skipped. The provided input stream is not closed.
+   *
+   * @param pArchiveIn The stream providing the archive
+   * @param pDestination The destination directory
+   * @param pFormat The archive format. If null, ZIP is used.
+   * @throws IOException If something goes wrong, in most cases if the stream
+   * does not contain a valid archive or the destination directory is not
+   * writeable
+   */
+  public static void unzip(InputStream pArchiveIn, File pDestination, ArchiveFormat pFormat) throws IOException{
+    if(pArchiveIn == null || pDestination == null){
+      throw new IllegalArgumentException("Arguments pArchiveIn and pDestination must not be null.");
+    }
+    ArchiveFormat format = (pFormat != null) ? pFormat : ArchiveFormat.ZIP;
+    Path destination = pDestination.getCanonicalFile().toPath();
+    Files.createDirectories(destination);
+    try(ArchiveInputStream<? extends ArchiveEntry> archiveIn = format.createInputStream(CloseShieldInputStream.wrap(pArchiveIn))){
+      ArchiveEntry entry;
+      while((entry = archiveIn.getNextEntry()) != null){
+        Path target = resolveEntry(destination, entry.getName());
+        if(entry.isDirectory()){
+          Files.createDirectories(target);
+        } else if(entry instanceof TarArchiveEntry && !((TarArchiveEntry) entry).isFile()){
+          LOGGER.warn("Skipping special archive entry '{}'.", entry.getName());
+        } else{
+          if(!archiveIn.canReadEntryData(entry)){
+            throw new IOException("Unsupported compression or encryption of archive entry '" + entry.getName() + "'.");
+          }
+          LOGGER.trace("Extracting {}", target);
+          Files.createDirectories(target.getParent());
+          Files.copy(archiveIn, target, StandardCopyOption.REPLACE_EXISTING);
+          Files.setLastModifiedTime(target, FileTime.fromMillis(entry.getLastModifiedDate().getTime()));
+        }
+      }
+    }
+  }
+
+  /**
+   * Extract a zipped file into the provided destination directory using
+   * multiple threads. All directories are created up front. Afterwards, the
+   * file entries are distributed among pThreads workers reading the archive
+   * concurrently. Large entries are written via pre-sized file channels, small
+   * entries are copied directly. This is especially beneficial for archives
+   * containing many small files where the latency per entry dominates.
+   *
+   * In contrast to {@link #unzip(java.io.File, java.io.File, boolean)} errors
+   * are not swallowed but reported to the caller. Entries pointing outside of
+   * the destination directory are rejected.
+   *
+   * @param pZipFile The zip file to extract
+   * @param pDestination The destination directory
+   * @param pThreads The number of threads used for extraction. If pThreads is
+   * smaller than 1, the number of available processors is used.
+   * @throws IOException If something goes wrong, in most cases if pZipFile does
+   * not exist or the destination directory is not writeable
+   */
+  public static void unzip(File pZipFile, File pDestination, int pThreads) throws IOException{
+    unzip(pZipFile, pDestination, pThreads, null, null);
+  }
+
+  /**
+   * Extract a zipped file into the provided destination directory using
+   * multiple threads and report the progress to pProgress. The total number
+   * of entries and bytes is set before the extraction starts. The operation
+   * can be cancelled cooperatively via {@link ArchiveProgress#cancel()}. In
+   * that case, the operation fails with an InterruptedIOException and the
+   * destination directory contains only some of the entries.
+   *
+   * @param pZipFile The zip file to extract
+   * @param pDestination The destination directory
+   * @param pThreads The number of threads used for extraction. If pThreads is
+   * smaller than 1, the number of available processors is used.
+   * @param pProgress The progress to report to
+   * @throws IOException If something goes wrong, in most cases if pZipFile does
+   * not exist or the destination directory is not writeable
+   * @see edu.kit.datamanager.util.archive.ArchiveJobExecutor
+   */
+  public static void unzip(File pZipFile, File pDestination, int pThreads, ArchiveProgress pProgress) throws IOException{
+    unzip(pZipFile, pDestination, pThreads, null, pProgress);
+  }
+
+  /**
+   * Extract a zipped file into the provided destination directory using
+   * multiple threads and compute the digests of all extracted files while
+   * they are written. The returned manifest maps the entry names to sizes and
+   * digests and can be used to populate ContentInformation objects without
+   * reading the extracted files a second time.
+   *
+   * @param pZipFile The zip file to extract
+   * @param pDestination The destination directory
+   * @param pThreads The number of threads used for extraction. If pThreads is
+   * smaller than 1, the number of available processors is used.
+   * @param pAlgorithms The digest algorithms to compute. If none is provided,
+   * SHA-256 is used.
+   * @return The manifest of all file entries
+   * @throws IOException If something goes wrong, in most cases if pZipFile does
+   * not exist or the destination directory is not writeable
+   * @see #unzip(java.io.File, java.io.File, int)
+   */
+  public static ArchiveManifest unzipWithManifest(File pZipFile, File pDestination, int pThreads, DigestAlgorithm... pAlgorithms) throws IOException{
+    ArchiveManifest manifest = new ArchiveManifest(pAlgorithms);
+    unzip(pZipFile, pDestination, pThreads, manifest, null);
+    return manifest;
+  }
+
+  /**
+   * Extract a zipped file using multiple threads, optionally record all file
+   * entries in pManifest and report the progress to pProgress.
+   *
+   * @param pZipFile The zip file to extract
+   * @param pDestination The destination directory
+   * @param pThreads The number of threads used for extraction
+   * @param pManifest The manifest to add all file entries to or null
+   * @param pProgress The progress to report to or null
+   * @throws IOException If reading the zip file or writing a file fails
+   */
+  private static void unzip(File pZipFile, File pDestination, int pThreads, ArchiveManifest pManifest, ArchiveProgress pProgress) throws IOException{
+    int threads = (pThreads > 0) ? pThreads : Runtime.getRuntime().availableProcessors();
+    Path destination = pDestination.getCanonicalFile().toPath();
+    try(org.apache.commons.compress.archivers.zip.ZipFile zipFile = org.apache.commons.compress.archivers.zip.ZipFile.builder().setFile(pZipFile).get()){
+      List<ZipArchiveEntry> fileEntries = new ArrayList<>();
+      //sorted set to create parent directories before their children
+      TreeSet<Path> directories = new TreeSet<>();
+      directories.add(destination);
+      for(ZipArchiveEntry entry : Collections.list(zipFile.getEntries())){
+        Path target = resolveEntry(destination, entry.getName());
+        if(entry.isDirectory()){
+          directories.add(target);
+        } else{
+          directories.add(target.getParent());
+          fileEntries.add(entry);
+        }
+      }
+      LOGGER.debug("Creating {} directories for extracting {} files using {} threads.", directories.size(), fileEntries.size(), threads);
+      if(pProgress != null){
+        pProgress.setTotals(fileEntries.size(), fileEntries.stream().mapToLong(ZipArchiveEntry::getSize).filter(size -> size > 0).sum());
+      }
+      for(Path directory : directories){
+        Files.createDirectories(directory);
+      }
+
+      //distribute entries round-robin sorted by size for balancing the load of all workers
+      fileEntries.sort(Comparator.comparingLong(ZipArchiveEntry::getSize).reversed());
+      List<List<ZipArchiveEntry>> shards = new ArrayList<>();
+      for(int i = 0; i < Math.min(threads, fileEntries.size()); i++){
+        shards.add(new ArrayList<>());
+      }
+      for(int i = 0; i < fileEntries.size(); i++){
+        shards.get(i % shards.size()).add(fileEntries.get(i));
+      }
+
+      List<Callable<Void>> tasks = new ArrayList<>();
+      for(List<ZipArchiveEntry> shard : shards){
+        tasks.add(() -> {
+          for(ZipArchiveEntry entry : shard){
+            extractEntry(zipFile, entry, resolveEntry(destination, entry.getName()), pManifest, pProgress);
+          }
+          return null;
+        });
+      }
+      runAll(tasks, threads);
+    }
+  }
+
+  /**
+   * Run all tasks using a fixed thread pool and wait for their completion. If
+   * one task fails, all remaining tasks are cancelled.
+   *
+   * @param pTasks The tasks to run
+   * @param pThreads The number of threads
+   * @throws IOException If at least one task failed
+   */
+  private static void runAll(List<Callable<Void>> pTasks, int pThreads) throws IOException{
+    if(pTasks.isEmpty()){
+      return;
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(Math.min(pThreads, pTasks.size()));
+    try{
+      List<Future<Void>> futures = new ArrayList<>();
+      for(Callable<Void> task : pTasks){
+        futures.add(executor.submit(task));
+      }
+      for(Future<Void> future : futures){
+        future.get();
+      }
+    } catch(InterruptedException ex){
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for worker threads", ex);
+    } catch(ExecutionException ex){
+      LOGGER.error("Aborting parallel operation due to a failed task", ex.getCause());
+      if(ex.getCause() instanceof IOException){
+        throw (IOException) ex.getCause();
+      }
+      throw new IOException("Unexpected exception during parallel operation", ex.getCause());
+    } finally{
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Resolve the destination of a zip entry and make sure that it is located
+   * within the destination directory.
+   *
+   * @param pDestination The canonical destination directory
+   * @param pEntryName The name of the zip entry
+   * @return The destination path of the entry
+   * @throws IOException If the entry points outside of pDestination
+   */
+  private static Path resolveEntry(Path pDestination, String pEntryName) throws IOException{
+    Path target = pDestination.resolve(pEntryName).normalize();
+    if(!target.startsWith(pDestination)){
+      throw new IOException("Zip entry '" + pEntryName + "' is located outside of the destination directory.");
+    }
+    return target;
+  }
+
+  /**
+   * Extract a single file entry of a zip file to the provided target and
+   * optionally add it to the provided manifest.
+   *
+   * @param pZipFile The zip file
+   * @param pEntry The entry to extract
+   * @param pTarget The target file
+   * @param pManifest The manifest to add the entry to or null
+   * @param pProgress The progress to report to or null
+   * @throws IOException If reading the entry or writing the target fails
+   */
+  private static void extractEntry(org.apache.commons.compress.archivers.zip.ZipFile pZipFile, ZipArchiveEntry pEntry, Path pTarget, ArchiveManifest pManifest, ArchiveProgress pProgress) throws IOException{
+    LOGGER.trace("Extracting {}", pTarget);
+    EntryDigester digester = (pManifest != null) ? pManifest.newDigester() : null;
+    InputStream in = pZipFile.getInputStream(pEntry);
+    if(digester != null){
+      in = digester.wrap(in);
+    }
+    if(pProgress != null){
+      in = pProgress.wrap(in);
+    }
+    try{
+      writeEntry(in, pEntry, pTarget);
+    } finally{
+      in.close();
+    }
+    if(digester != null){
+      pManifest.add(pEntry.getName(), digester);
+    }
+    if(pProgress != null){
+      pProgress.entryDone();
+    }
+  }
+
+  /**
+   * Write the content of a single zip entry to the provided target. Entries
+   * larger than {@link #LARGE_ENTRY_THRESHOLD} are written via a file channel
+   * pre-sized to the uncompressed entry size.
+   *
+   * @param pIn The stream providing the uncompressed entry content
+   * @param pEntry The entry
+   * @param pTarget The target file
+   * @throws IOException If reading the entry or writing the target fails
+   */
+  private static void writeEntry(InputStream pIn, ZipArchiveEntry pEntry, Path pTarget) throws IOException{
+    long size = pEntry.getSize();
+    if(size < LARGE_ENTRY_THRESHOLD){
+      Files.copy(pIn, pTarget, StandardCopyOption.REPLACE_EXISTING);
+      return;
+    }
+    try(RandomAccessFile file = new RandomAccessFile(pTarget.toFile(), "rw");
+            FileChannel channel = file.getChannel();
+            ReadableByteChannel source = Channels.newChannel(pIn)){
+      file.setLength(size);
+      long position = 0;
+      long transferred;
+      while((transferred = channel.transferFrom(source, position, size - position)) > 0){
+        position += transferred;
+      }
+      if(position != size){
+        throw new IOException("Zip entry '" + pEntry.getName() + "' is truncated. Expected " + size + " bytes, got " + position + ".");
+      }
+    }
+  }
+
   /**
    * Extract single entry of zip file.
    *
@@ -386,4 +1466,62 @@ public final class ZipUtils{
       }
     }
   }
+
+  /**
+   * Visitor called for each file or directory added to a zip file.
+   */
+  @FunctionalInterface
+  private interface EntryVisitor{
+
+    void visit(File file, String entryName) throws IOException;
+  }
+
+  /**
+   * Writer creating a zip file at the provided location.
+   */
+  @FunctionalInterface
+  private interface ZipFileWriter{
+
+    void write(File target) throws IOException;
+  }
+
+  /**
+   * Output stream flushing the underlying stream each time a certain amount of
+   * bytes has been written since the last flush.
+   */
+  private static final class PeriodicFlushOutputStream extends FilterOutputStream{
+
+    private final long threshold;
+    private long unflushed = 0;
+
+    PeriodicFlushOutputStream(OutputStream out, long threshold){
+      super(out);
+      this.threshold = threshold;
+    }
+
+    @Override
+    public void write(int b) throws IOException{
+      out.write(b);
+      written(1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException{
+      out.write(b, off, len);
+      written(len);
+    }
+
+    @Override
+    public void flush() throws IOException{
+      out.flush();
+      unflushed = 0;
+    }
+
+    private void written(int len) throws IOException{
+      unflushed += len;
+      if(unflushed >= threshold){
+        flush();
+      }
+    }
+  }
 }
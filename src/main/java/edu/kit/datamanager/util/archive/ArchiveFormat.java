@@ -0,0 +1,177 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.util.archive;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.ArchiveInputStream;
+import org.apache.commons.compress.archivers.ArchiveOutputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.Zip64Mode;
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorInputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorOutputStream;
+
+/**
+ * Archive formats supported by {@link edu.kit.datamanager.util.ZipUtils}. ZIP
+ * is the default format. TAR and TAR_ZSTD can be written and read fully
+ * sequentially as they have no central directory, which makes them suitable
+ * for streaming, e.g. to HPC consumers. Zstandard compression offers a
+ * considerably better speed per compression ratio than deflate.
+ *
+ * @author hartmann-v
+ */
+public enum ArchiveFormat{
+
+  /**
+   * Zip archive with deflated entries.
+   */
+  ZIP("zip", "application/zip"){
+    @Override
+    public ArchiveOutputStream<? extends ArchiveEntry> createOutputStream(OutputStream pOut){
+      ZipArchiveOutputStream zipOut = new ZipArchiveOutputStream(pOut);
+      zipOut.setUseZip64(Zip64Mode.AsNeeded);
+      return zipOut;
+    }
+
+    @Override
+    public ArchiveInputStream<? extends ArchiveEntry> createInputStream(InputStream pIn){
+      return new ZipArchiveInputStream(pIn, StandardCharsets.UTF_8.name(), true, true);
+    }
+  },
+  /**
+   * Uncompressed POSIX tar archive.
+   */
+  TAR("tar", "application/x-tar"){
+    @Override
+    public ArchiveOutputStream<? extends ArchiveEntry> createOutputStream(OutputStream pOut){
+      TarArchiveOutputStream tarOut = new TarArchiveOutputStream(pOut, StandardCharsets.UTF_8.name());
+      tarOut.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+      tarOut.setBigNumberMode(TarArchiveOutputStream.BIGNUMBER_POSIX);
+      tarOut.setAddPaxHeadersForNonAsciiNames(true);
+      return tarOut;
+    }
+
+    @Override
+    public ArchiveInputStream<? extends ArchiveEntry> createInputStream(InputStream pIn){
+      return new TarArchiveInputStream(pIn, StandardCharsets.UTF_8.name());
+    }
+  },
+  /**
+   * POSIX tar archive compressed with Zstandard.
+   */
+  TAR_ZSTD("tar.zst", "application/zstd"){
+    @Override
+    public ArchiveOutputStream<? extends ArchiveEntry> createOutputStream(OutputStream pOut) throws IOException{
+      return TAR.createOutputStream(new ZstdCompressorOutputStream(pOut, ZSTD_COMPRESSION_LEVEL));
+    }
+
+    @Override
+    public ArchiveInputStream<? extends ArchiveEntry> createInputStream(InputStream pIn) throws IOException{
+      return TAR.createInputStream(new ZstdCompressorInputStream(pIn));
+    }
+  };
+
+  /**
+   * Zstandard compression level used for TAR_ZSTD. Level 3 is the default of
+   * the zstd command line tool.
+   */
+  private static final int ZSTD_COMPRESSION_LEVEL = 3;
+
+  private final String extension;
+  private final String mediaType;
+
+  ArchiveFormat(String extension, String mediaType){
+    this.extension = extension;
+    this.mediaType = mediaType;
+  }
+
+  /**
+   * Get the file extension of this format without leading dot.
+   *
+   * @return The extension, e.g. 'tar.zst'.
+   */
+  public String getExtension(){
+    return extension;
+  }
+
+  /**
+   * Get the media type of this format, e.g. for setting the content type of
+   * an HTTP response.
+   *
+   * @return The media type.
+   */
+  public String getMediaType(){
+    return mediaType;
+  }
+
+  /**
+   * Create an archive output stream writing into pOut. Closing the returned
+   * stream also closes pOut.
+   *
+   * @param pOut The stream receiving the archive.
+   *
+   * @return The archive output stream.
+   *
+   * @throws IOException If the stream cannot be created.
+   */
+  public abstract ArchiveOutputStream<? extends ArchiveEntry> createOutputStream(OutputStream pOut) throws IOException;
+
+  /**
+   * Create an archive input stream reading from pIn. Closing the returned
+   * stream also closes pIn.
+   *
+   * @param pIn The stream providing the archive.
+   *
+   * @return The archive input stream.
+   *
+   * @throws IOException If the stream cannot be created.
+   */
+  public abstract ArchiveInputStream<? extends ArchiveEntry> createInputStream(InputStream pIn) throws IOException;
+
+  /**
+   * Determine the archive format by the extension of the provided file name.
+   * The comparison is case insensitive. Besides the extensions of all
+   * formats, 'tzst' is accepted for TAR_ZSTD.
+   *
+   * @param pFileName The file name.
+   *
+   * @return The format or null if the extension is unknown.
+   */
+  public static ArchiveFormat fromFileName(String pFileName){
+    if(pFileName == null){
+      return null;
+    }
+    String name = pFileName.toLowerCase(Locale.ROOT);
+    if(name.endsWith(".tzst")){
+      return TAR_ZSTD;
+    }
+    ArchiveFormat result = null;
+    for(ArchiveFormat format : values()){
+      //prefer the longest matching extension, e.g. 'tar.zst' over 'zst'
+      if(name.endsWith("." + format.extension) && (result == null || format.extension.length() > result.extension.length())){
+        result = format;
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.util.archive;
+
+import java.io.File;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Handle of an asynchronous archive operation submitted to an
+ * {@link ArchiveJobExecutor}. The handle provides the progress of the
+ * operation and a future completed with the resulting file (the zip file or
+ * the destination directory) or with the exception the operation failed
+ * with.
+ *
+ * @author hartmann-v
+ */
+public final class ArchiveJob{
+
+  /**
+   * Type of the archive operation.
+   */
+  public enum TYPE{
+    ZIP,
+    UNZIP;
+  }
+
+  private final String id;
+  private final TYPE type;
+  private final File source;
+  private final File target;
+  private final ArchiveProgress progress;
+  private final CompletableFuture<File> future;
+
+  ArchiveJob(String id, TYPE type, File source, File target, ArchiveProgress progress, CompletableFuture<File> future){
+    this.id = id;
+    this.type = type;
+    this.source = source;
+    this.target = target;
+    this.progress = progress;
+    this.future = future;
+  }
+
+  /**
+   * Get the unique identifier of this job.
+   *
+   * @return The identifier.
+   */
+  public String getId(){
+    return id;
+  }
+
+  /**
+   * Get the type of this job.
+   *
+   * @return The type.
+   */
+  public TYPE getType(){
+    return type;
+  }
+
+  /**
+   * Get the source of the operation, i.e., the zip file for unzip jobs or the
+   * base directory for zip jobs.
+   *
+   * @return The source.
+   */
+  public File getSource(){
+    return source;
+  }
+
+  /**
+   * Get the target of the operation, i.e., the zip file for zip jobs or the
+   * destination directory for unzip jobs.
+   *
+   * @return The target.
+   */
+  public File getTarget(){
+    return target;
+  }
+
+  /**
+   * Get the current progress of the operation.
+   *
+   * @return The progress.
+   */
+  public ArchiveProgress getProgress(){
+    return progress;
+  }
+
+  /**
+   * Get the future completed with the target of the operation.
+   *
+   * @return The future.
+   */
+  public CompletableFuture<File> getFuture(){
+    return future;
+  }
+
+  /**
+   * Check whether the operation has finished, either successfully,
+   * exceptionally or by cancellation.
+   *
+   * @return TRUE if the operation has finished.
+   */
+  public boolean isDone(){
+    return future.isDone();
+  }
+
+  /**
+   * Request cancellation of the operation. The operation stops at its next
+   * progress update. As soon as partially written zip files are removed, the
+   * future is completed with a CancellationException. An operation which
+   * already finished writing its result completes normally.
+   *
+   * @return TRUE if cancellation has been requested, FALSE if the job has
+   * finished before.
+   */
+  public boolean cancel(){
+    if(future.isDone()){
+      return false;
+    }
+    progress.cancel();
+    return true;
+  }
+
+  @Override
+  public String toString(){
+    return type + " job " + id + " (" + source + " -> " + target + "): " + progress;
+  }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.util.archive;
+
+import edu.kit.datamanager.util.ZipUtils;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executor running zip and unzip operations asynchronously on a dedicated
+ * thread pool outside of request threads. Each submitted operation is
+ * represented by an {@link ArchiveJob} providing its progress, a future and
+ * cooperative cancellation. In contrast to
+ * {@link ZipUtils#unzip(java.io.File, java.io.File, boolean)} all errors are
+ * reported via the future of the job.
+ *
+ * Running jobs can be listed, e.g. for exposing their status, finished jobs
+ * are removed automatically.
+ *
+ * @author hartmann-v
+ */
+public class ArchiveJobExecutor implements Closeable{
+
+  /**
+   * Logger.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(ArchiveJobExecutor.class);
+
+  /**
+   * Default number of concurrently running jobs.
+   */
+  public static final int DEFAULT_MAX_CONCURRENT_JOBS = 2;
+
+  private final ExecutorService executor;
+  private final Map<String, ArchiveJob> jobs = new ConcurrentHashMap<>();
+
+  /**
+   * Create an executor running up to {@link #DEFAULT_MAX_CONCURRENT_JOBS}
+   * jobs concurrently.
+   */
+  public ArchiveJobExecutor(){
+    this(DEFAULT_MAX_CONCURRENT_JOBS);
+  }
+
+  /**
+   * Create an executor running up to pMaxConcurrentJobs jobs concurrently.
+   * Additional jobs are queued.
+   *
+   * @param pMaxConcurrentJobs The max. number of concurrently running jobs.
+   */
+  public ArchiveJobExecutor(int pMaxConcurrentJobs){
+    if(pMaxConcurrentJobs < 1){
+      throw new IllegalArgumentException("Argument pMaxConcurrentJobs must be at least 1.");
+    }
+    AtomicInteger threadCount = new AtomicInteger();
+    ThreadFactory factory = runnable -> {
+      Thread thread = new Thread(runnable, "archive-job-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+    executor = Executors.newFixedThreadPool(pMaxConcurrentJobs, factory);
+  }
+
+  /**
+   * Submit a job writing all files located in pDirectory into the zip file
+   * pZipOut.
+   *
+   * @param pDirectory The directory containing the input files.
+   * @param pZipOut The zip output file.
+   *
+   * @return The job handle.
+   */
+  public ArchiveJob submitZip(File pDirectory, File pZipOut){
+    return submitZip(pDirectory, pZipOut, CompressionPolicy.DEFLATE_ALL);
+  }
+
+  /**
+   * Submit a job writing all files located in pDirectory into the zip file
+   * pZipOut using the provided compression policy. The zip file is written
+   * to a temporary file next to pZipOut, which replaces pZipOut as soon as
+   * the job has succeeded. If the job fails or is cancelled, only the
+   * temporary file is removed.
+   *
+   * @param pDirectory The directory containing the input files.
+   * @param pZipOut The zip output file.
+   * @param pPolicy The policy selecting the compression method per entry.
+   *
+   * @return The job handle.
+   */
+  public ArchiveJob submitZip(File pDirectory, File pZipOut, CompressionPolicy pPolicy){
+    File[] files = pDirectory.listFiles();
+    if(files == null){
+      throw new IllegalArgumentException("Argument pDirectory must be an existing directory.");
+    }
+    File parent = pZipOut.getAbsoluteFile().getParentFile();
+    if(pZipOut.isDirectory() || parent == null || !parent.isDirectory()){
+      throw new IllegalArgumentException("Argument pZipOut must be a file in an existing directory.");
+    }
+    return submit(ArchiveJob.TYPE.ZIP, pDirectory, pZipOut, progress -> {
+      File partial = File.createTempFile(pZipOut.getName() + ".", ".part", parent);
+      try{
+        ZipUtils.zip(files, pDirectory.getCanonicalPath(), partial, pPolicy, progress);
+        progress.checkCancelled();
+        Files.move(partial.toPath(), pZipOut.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      } catch(Throwable ex){
+        FileUtils.deleteQuietly(partial);
+        throw ex;
+      }
+    });
+  }
+
+  /**
+   * Submit a job extracting the zip file pZipFile into pDestination.
+   *
+   * @param pZipFile The zip file to extract.
+   * @param pDestination The destination directory.
+   * @param pThreads The number of threads used for extraction. If pThreads is
+   * smaller than 1, the number of available processors is used.
+   *
+   * @return The job handle.
+   */
+  public ArchiveJob submitUnzip(File pZipFile, File pDestination, int pThreads){
+    return submit(ArchiveJob.TYPE.UNZIP, pZipFile, pDestination, progress -> ZipUtils.unzip(pZipFile, pDestination, pThreads, progress));
+  }
+
+  /**
+   * Get all jobs which are queued or running.
+   *
+   * @return The list of jobs.
+   */
+  public List<ArchiveJob> getJobs(){
+    return new ArrayList<>(jobs.values());
+  }
+
+  /**
+   * Get a queued or running job by its id.
+   *
+   * @param pId The job id.
+   *
+   * @return The job or null if no such job is queued or running.
+   */
+  public ArchiveJob getJob(String pId){
+    return jobs.get(pId);
+  }
+
+  /**
+   * Cancel all jobs and shut down the executor.
+   */
+  @Override
+  public void close(){
+    for(ArchiveJob job : getJobs()){
+      job.cancel();
+    }
+    //queued jobs are cancelled already, running them only completes their futures
+    for(Runnable pending : executor.shutdownNow()){
+      pending.run();
+    }
+  }
+
+  private ArchiveJob submit(ArchiveJob.TYPE pType, File pSource, File pTarget, ArchiveOperation pOperation){
+    ArchiveProgress progress = new ArchiveProgress();
+    CompletableFuture<File> future = new CompletableFuture<>();
+    ArchiveJob job = new ArchiveJob(UUID.randomUUID().toString(), pType, pSource, pTarget, progress, future);
+    jobs.put(job.getId(), job);
+    future.whenComplete((result, error) -> jobs.remove(job.getId()));
+    LOGGER.debug("Submitting {}.", job);
+    try{
+      executor.execute(() -> {
+        try{
+          progress.start();
+          progress.checkCancelled();
+          pOperation.run(progress);
+          progress.finish();
+          LOGGER.debug("Finished {}.", job);
+          future.complete(pTarget);
+        } catch(Throwable ex){
+          //errors complete the future as well, otherwise waiting callers would block forever
+          progress.finish();
+          if(progress.isCancelled()){
+            LOGGER.debug("Cancelled {}.", job);
+            CancellationException cancelled = new CancellationException("Archive job " + job.getId() + " has been cancelled.");
+            cancelled.initCause(ex);
+            future.completeExceptionally(cancelled);
+          } else{
+            LOGGER.error("Failed to execute " + job, ex);
+            future.completeExceptionally(ex);
+          }
+          if(ex instanceof Error){
+            throw (Error) ex;
+          }
+        }
+      });
+    } catch(RejectedExecutionException ex){
+      future.completeExceptionally(ex);
+    }
+    return job;
+  }
+
+  /**
+   * Archive operation reporting to the provided progress.
+   */
+  @FunctionalInterface
+  private interface ArchiveOperation{
+
+    void run(ArchiveProgress progress) throws IOException;
+  }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.util.archive;
+
+import edu.kit.datamanager.entities.repo.ContentInformation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Manifest of an archive mapping the paths of all file entries to their size
+ * and digests. The digests are computed while zipping or unzipping, i.e.,
+ * there is no need to read the files a second time, e.g., for populating
+ * {@link ContentInformation} objects. Hash values are formatted as
+ * 'label:hex', e.g. 'sha256:0a1b...'. The first algorithm provided at
+ * creation time is the primary algorithm used for
+ * {@link ContentInformation#setHash(java.lang.String)}.
+ *
+ * Entries can be added concurrently, e.g. by parallel extraction.
+ *
+ * @author hartmann-v
+ */
+public final class ArchiveManifest{
+
+  private final List<DigestAlgorithm> algorithms;
+  private final Map<String, Entry> entries = new TreeMap<>();
+
+  /**
+   * Create a new manifest computing the provided digest algorithms. If no
+   * algorithm is provided, SHA-256 is used.
+   *
+   * @param pAlgorithms The digest algorithms.
+   */
+  public ArchiveManifest(DigestAlgorithm... pAlgorithms){
+    if(pAlgorithms == null || pAlgorithms.length == 0){
+      algorithms = Collections.singletonList(DigestAlgorithm.SHA_256);
+    } else{
+      algorithms = Collections.unmodifiableList(new ArrayList<>(new LinkedHashSet<>(Arrays.asList(pAlgorithms))));
+    }
+  }
+
+  /**
+   * Get the digest algorithms computed for each entry. The first algorithm is
+   * the primary one.
+   *
+   * @return The algorithms.
+   */
+  public List<DigestAlgorithm> getAlgorithms(){
+    return algorithms;
+  }
+
+  /**
+   * Create a new digester for a single entry computing all algorithms of this
+   * manifest.
+   *
+   * @return The digester.
+   */
+  public EntryDigester newDigester(){
+    return new EntryDigester(algorithms);
+  }
+
+  /**
+   * Add an entry to this manifest. The size and digests of the entry are
+   * taken from pDigester, which must not be used afterwards.
+   *
+   * @param pPath The path of the entry within the archive.
+   * @param pDigester The digester which has processed the entry content.
+   */
+  public void add(String pPath, EntryDigester pDigester){
+    Entry entry = new Entry(pPath, pDigester.getSize(), pDigester.finish());
+    synchronized(entries){
+      entries.put(pPath, entry);
+    }
+  }
+
+  /**
+   * Get the entry for the provided path.
+   *
+   * @param pPath The path of the entry within the archive.
+   *
+   * @return The entry or null if no entry exists for pPath.
+   */
+  public Entry getEntry(String pPath){
+    synchronized(entries){
+      return entries.get(pPath);
+    }
+  }
+
+  /**
+   * Get all entries sorted by path.
+   *
+   * @return The entries.
+   */
+  public List<Entry> getEntries(){
+    synchronized(entries){
+      return new ArrayList<>(entries.values());
+    }
+  }
+
+  /**
+   * Get the number of entries.
+   *
+   * @return The number of entries.
+   */
+  public int size(){
+    synchronized(entries){
+      return entries.size();
+    }
+  }
+
+  /**
+   * Create one content information object per entry with relative path, size
+   * and primary hash set.
+   *
+   * @return The list of content information objects sorted by path.
+   */
+  public List<ContentInformation> toContentInformation(){
+    List<ContentInformation> result = new ArrayList<>();
+    for(Entry entry : getEntries()){
+      ContentInformation info = new ContentInformation();
+      info.setRelativePath(entry.getPath());
+      populate(info, entry);
+      result.add(info);
+    }
+    return result;
+  }
+
+  /**
+   * Set size and primary hash of the provided content information using the
+   * entry with the same relative path. If no such entry exists, pInfo remains
+   * unchanged.
+   *
+   * @param pInfo The content information to populate.
+   *
+   * @return TRUE if an entry for the relative path of pInfo exists.
+   */
+  public boolean populate(ContentInformation pInfo){
+    Entry entry = getEntry(pInfo.getRelativePath());
+    if(entry == null){
+      return false;
+    }
+    populate(pInfo, entry);
+    return true;
+  }
+
+  private void populate(ContentInformation pInfo, Entry pEntry){
+    pInfo.setSize(pEntry.getSize());
+    pInfo.setHash(pEntry.getHash(algorithms.get(0)));
+  }
+
+  /**
+   * Single file entry of a manifest.
+   */
+  public static final class Entry{
+
+    private final String path;
+    private final long size;
+    private final Map<DigestAlgorithm, String> hashes;
+
+    Entry(String path, long size, Map<DigestAlgorithm, String> hashes){
+      this.path = path;
+      this.size = size;
+      this.hashes = new EnumMap<>(hashes);
+    }
+
+    /**
+     * Get the path of the entry within the archive.
+     *
+     * @return The path.
+     */
+    public String getPath(){
+      return path;
+    }
+
+    /**
+     * Get the uncompressed size of the entry.
+     *
+     * @return The size in bytes.
+     */
+    public long getSize(){
+      return size;
+    }
+
+    /**
+     * Get the hash of the entry for the provided algorithm formatted as
+     * 'label:hex'.
+     *
+     * @param pAlgorithm The algorithm.
+     *
+     * @return The hash or null if pAlgorithm was not computed.
+     */
+    public String getHash(DigestAlgorithm pAlgorithm){
+      String value = hashes.get(pAlgorithm);
+      return (value != null) ? pAlgorithm.getLabel() + ":" + value : null;
+    }
+
+    @Override
+    public String toString(){
+      return path + " (" + size + " bytes) " + hashes;
+    }
+  }
+}
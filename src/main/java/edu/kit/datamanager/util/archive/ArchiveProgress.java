@@ -0,0 +1,227 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.util.archive;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe progress of a single archive operation. The archive operation
+ * reports processed bytes and entries, observers may read the current state
+ * at any time. Cancellation is cooperative: after {@link #cancel()} has been
+ * called, the next progress update of the archive operation fails with an
+ * {@link InterruptedIOException}.
+ *
+ * @author hartmann-v
+ */
+public final class ArchiveProgress{
+
+  private final AtomicLong bytesDone = new AtomicLong();
+  private final AtomicLong entriesDone = new AtomicLong();
+  private volatile long totalBytes = -1;
+  private volatile long totalEntries = -1;
+  private volatile long startTime = System.nanoTime();
+  private volatile long endTime = -1;
+  private volatile boolean cancelled = false;
+
+  /**
+   * Mark the start of the operation. Calling this method is only required if
+   * the progress object is created before the operation actually starts.
+   */
+  public void start(){
+    startTime = System.nanoTime();
+  }
+
+  /**
+   * Mark the end of the operation. Afterwards, the throughput is not changing
+   * anymore.
+   */
+  public void finish(){
+    endTime = System.nanoTime();
+  }
+
+  /**
+   * Set the total number of file entries and bytes if known in advance.
+   *
+   * @param pTotalEntries The total number of file entries or -1 if unknown.
+   * @param pTotalBytes The total number of uncompressed bytes or -1 if
+   * unknown.
+   */
+  public void setTotals(long pTotalEntries, long pTotalBytes){
+    totalEntries = pTotalEntries;
+    totalBytes = pTotalBytes;
+  }
+
+  /**
+   * Report processed bytes.
+   *
+   * @param pBytes The number of bytes processed since the last update.
+   *
+   * @throws InterruptedIOException If the operation has been cancelled.
+   */
+  public void addBytes(long pBytes) throws InterruptedIOException{
+    checkCancelled();
+    bytesDone.addAndGet(pBytes);
+  }
+
+  /**
+   * Report a completely processed file entry.
+   *
+   * @throws InterruptedIOException If the operation has been cancelled.
+   */
+  public void entryDone() throws InterruptedIOException{
+    checkCancelled();
+    entriesDone.incrementAndGet();
+  }
+
+  /**
+   * Check whether the operation has been cancelled.
+   *
+   * @throws InterruptedIOException If the operation has been cancelled.
+   */
+  public void checkCancelled() throws InterruptedIOException{
+    if(cancelled){
+      throw new InterruptedIOException("Archive operation has been cancelled.");
+    }
+  }
+
+  /**
+   * Request cancellation of the operation. The operation stops at its next
+   * progress update.
+   */
+  public void cancel(){
+    cancelled = true;
+  }
+
+  /**
+   * Check if cancellation has been requested.
+   *
+   * @return TRUE if cancellation has been requested.
+   */
+  public boolean isCancelled(){
+    return cancelled;
+  }
+
+  /**
+   * Wrap the provided input stream in order to report all bytes read from the
+   * returned stream.
+   *
+   * @param pIn The input stream.
+   *
+   * @return The wrapped input stream.
+   */
+  public InputStream wrap(InputStream pIn){
+    return new FilterInputStream(pIn){
+      @Override
+      public int read() throws IOException{
+        int b = super.read();
+        if(b >= 0){
+          addBytes(1);
+        }
+        return b;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException{
+        int read = super.read(b, off, len);
+        if(read > 0){
+          addBytes(read);
+        }
+        return read;
+      }
+    };
+  }
+
+  /**
+   * Get the number of processed bytes.
+   *
+   * @return The number of uncompressed bytes processed so far.
+   */
+  public long getBytesDone(){
+    return bytesDone.get();
+  }
+
+  /**
+   * Get the number of processed file entries.
+   *
+   * @return The number of file entries processed so far.
+   */
+  public long getEntriesDone(){
+    return entriesDone.get();
+  }
+
+  /**
+   * Get the total number of bytes.
+   *
+   * @return The total number of uncompressed bytes or -1 if unknown.
+   */
+  public long getTotalBytes(){
+    return totalBytes;
+  }
+
+  /**
+   * Get the total number of file entries.
+   *
+   * @return The total number of file entries or -1 if unknown.
+   */
+  public long getTotalEntries(){
+    return totalEntries;
+  }
+
+  /**
+   * Get the elapsed time since the start of the operation until now or until
+   * the operation has finished.
+   *
+   * @return The elapsed time in milliseconds.
+   */
+  public long getElapsedMillis(){
+    long end = (endTime >= 0) ? endTime : System.nanoTime();
+    return TimeUnit.NANOSECONDS.toMillis(end - startTime);
+  }
+
+  /**
+   * Get the average throughput since the start of the operation.
+   *
+   * @return The throughput in bytes per second.
+   */
+  public double getThroughput(){
+    long elapsed = getElapsedMillis();
+    return (elapsed > 0) ? getBytesDone() * 1000.0 / elapsed : 0.0;
+  }
+
+  /**
+   * Get the completion ratio based on the processed bytes.
+   *
+   * @return A value between 0.0 and 1.0 or -1.0 if the total number of bytes
+   * is unknown.
+   */
+  public double getCompletion(){
+    long total = totalBytes;
+    if(total < 0){
+      return -1.0;
+    }
+    return (total == 0) ? 1.0 : Math.min(1.0, getBytesDone() / (double) total);
+  }
+
+  @Override
+  public String toString(){
+    return getEntriesDone() + "/" + getTotalEntries() + " entries, " + getBytesDone() + "/" + getTotalBytes() + " bytes, " + Math.round(getThroughput()) + " bytes/s" + (cancelled ? " (cancelled)" : "");
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.util.archive;
+
+/**
+ * Strategies for detecting whether a file has changed compared to an entry of
+ * an existing archive.
+ *
+ * @author hartmann-v
+ */
+public enum ChangeDetection{
+
+  /**
+   * A file is regarded as unchanged if size and modification time are equal
+   * to the archive entry. Due to the zip format, the modification time is
+   * compared with a resolution of two seconds. This strategy requires no read
+   * access to the file content.
+   */
+  SIZE_AND_MTIME,
+  /**
+   * A file is regarded as unchanged if size and CRC-32 checksum are equal to
+   * the archive entry. This strategy reads each file once but needs no
+   * compression for unchanged files.
+   */
+  CRC32;
+}
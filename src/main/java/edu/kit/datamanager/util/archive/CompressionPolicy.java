@@ -0,0 +1,45 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.util.archive;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+
+/**
+ * Policy deciding per archive entry whether its content should be deflated or
+ * stored without compression.
+ *
+ * @author hartmann-v
+ */
+@FunctionalInterface
+public interface CompressionPolicy{
+
+  /**
+   * Policy deflating all entries. This is the behavior of ZipUtils if no
+   * policy is provided.
+   */
+  CompressionPolicy DEFLATE_ALL = file -> ZipEntry.DEFLATED;
+
+  /**
+   * Select the compression method for the provided file.
+   *
+   * @param file The file to add to the archive.
+   * @return Either {@link ZipEntry#STORED} or {@link ZipEntry#DEFLATED}.
+   * @throws IOException If the file could not be inspected.
+   */
+  int selectMethod(Path file) throws IOException;
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.util.archive;
+
+import edu.kit.datamanager.entities.repo.ContentInformation;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.zip.ZipEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compression policy storing content which is already compressed, e.g.
+ * images, videos or nested archives, without deflating it again. Deflating
+ * such content costs CPU time without reducing the size of the archive.
+ *
+ * The decision is made in the following order:
+ * <ul>
+ * <li>the media type of the file, if a media type resolver is configured</li>
+ * <li>the file extension</li>
+ * <li>the magic bytes at the beginning of the file</li>
+ * </ul>
+ * All other files are deflated.
+ *
+ * @author hartmann-v
+ */
+public class ContentAwareCompressionPolicy implements CompressionPolicy{
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ContentAwareCompressionPolicy.class);
+
+  /**
+   * Extensions of file formats which are compressed already.
+   */
+  private static final Set<String> COMPRESSED_EXTENSIONS = Set.of(
+          // images
+          "jpg", "jpeg", "png", "gif", "webp", "heic", "jp2",
+          // audio and video
+          "mp3", "aac", "ogg", "oga", "flac", "m4a", "opus", "mp4", "m4v", "mkv", "mov", "avi", "webm",
+          // archives and compressed streams
+          "zip", "gz", "tgz", "bz2", "xz", "zst", "lz4", "7z", "rar", "jar", "war",
+          // container formats using zip or internal compression
+          "docx", "xlsx", "pptx", "odt", "ods", "odp", "epub", "parquet", "orc", "avro");
+
+  /**
+   * Media types (without parameters) of formats which are compressed already.
+   * In addition, all image/*, audio/* and video/* types except the ones listed
+   * in {@link #UNCOMPRESSED_MEDIA_TYPES} are treated as compressed.
+   */
+  private static final Set<String> COMPRESSED_MEDIA_TYPES = Set.of(
+          "application/zip", "application/gzip", "application/x-gzip", "application/x-bzip2",
+          "application/x-xz", "application/zstd", "application/x-7z-compressed", "application/vnd.rar",
+          "application/java-archive", "application/epub+zip", "application/vnd.apache.parquet",
+          "application/vnd.openxmlformats-officedocument.wordprocessingml.document",
+          "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
+          "application/vnd.openxmlformats-officedocument.presentationml.presentation");
+
+  /**
+   * Image, audio and video media types which are usually not compressed.
+   */
+  private static final Set<String> UNCOMPRESSED_MEDIA_TYPES = Set.of(
+          "image/bmp", "image/tiff", "image/svg+xml", "image/x-portable-pixmap", "audio/wav", "audio/x-wav");
+
+  /**
+   * Magic bytes of compressed formats.
+   */
+  private static final byte[][] MAGIC_BYTES = {
+    {0x50, 0x4B, 0x03, 0x04}, // zip and zip based formats
+    {0x1F, (byte) 0x8B}, // gzip
+    {0x42, 0x5A, 0x68}, // bzip2
+    {(byte) 0xFD, 0x37, 0x7A, 0x58, 0x5A, 0x00}, // xz
+    {0x28, (byte) 0xB5, 0x2F, (byte) 0xFD}, // zstd
+    {0x37, 0x7A, (byte) 0xBC, (byte) 0xAF, 0x27, 0x1C}, // 7z
+    {0x52, 0x61, 0x72, 0x21}, // rar
+    {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF}, // jpeg
+    {(byte) 0x89, 0x50, 0x4E, 0x47}, // png
+    {0x47, 0x49, 0x46, 0x38}, // gif
+    {0x50, 0x41, 0x52, 0x31} // parquet
+  };
+
+  /**
+   * Magic bytes of ISO base media files (mp4, mov, m4a) located at offset 4.
+   */
+  private static final byte[] FTYP = {0x66, 0x74, 0x79, 0x70};
+
+  private static final int MAGIC_LENGTH = 8;
+
+  private final Function<Path, String> mediaTypeResolver;
+
+  /**
+   * Create a policy deciding by file extension and magic bytes.
+   */
+  public ContentAwareCompressionPolicy(){
+    this(null);
+  }
+
+  /**
+   * Create a policy deciding by media type, file extension and magic bytes.
+   *
+   * @param mediaTypeResolver Function returning the media type of a file or
+   * null if the media type is unknown. May be null.
+   */
+  public ContentAwareCompressionPolicy(Function<Path, String> mediaTypeResolver){
+    this.mediaTypeResolver = mediaTypeResolver;
+  }
+
+  /**
+   * Create a policy using the media types of the provided content information.
+   * The relative path of each content information is resolved against
+   * baseDirectory in order to match the files added to the archive.
+   *
+   * @param baseDirectory The directory the relative paths are relative to.
+   * @param contentInformation The content information providing media types.
+   * @return The policy.
+   */
+  public static ContentAwareCompressionPolicy fromContentInformation(File baseDirectory, Collection<ContentInformation> contentInformation){
+    Path basePath = baseDirectory.toPath().toAbsolutePath().normalize();
+    Map<Path, String> mediaTypes = new HashMap<>();
+    for(ContentInformation info : contentInformation){
+      if(info.getRelativePath() != null && info.getMediaType() != null){
+        mediaTypes.put(basePath.resolve(info.getRelativePath()).normalize(), info.getMediaType());
+      }
+    }
+    return new ContentAwareCompressionPolicy(file -> mediaTypes.get(file.toAbsolutePath().normalize()));
+  }
+
+  @Override
+  public int selectMethod(Path file) throws IOException{
+    if(isCompressed(file)){
+      LOGGER.trace("Content of {} is compressed already. Storing entry without compression.", file);
+      return ZipEntry.STORED;
+    }
+    return ZipEntry.DEFLATED;
+  }
+
+  /**
+   * Check whether the content of the provided file is compressed already.
+   *
+   * @param file The file to check.
+   * @return TRUE if the file content is compressed already.
+   * @throws IOException If the file could not be read.
+   */
+  public boolean isCompressed(Path file) throws IOException{
+    if(mediaTypeResolver != null){
+      String mediaType = mediaTypeResolver.apply(file);
+      if(mediaType != null){
+        return isCompressedMediaType(mediaType);
+      }
+    }
+    String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+    int dot = name.lastIndexOf('.');
+    if(dot >= 0 && COMPRESSED_EXTENSIONS.contains(name.substring(dot + 1))){
+      return true;
+    }
+    return hasCompressedMagicBytes(file);
+  }
+
+  /**
+   * Check whether the provided media type denotes compressed content.
+   *
+   * @param mediaType The media type, optionally with parameters.
+   * @return TRUE if the media type denotes compressed content.
+   */
+  public static boolean isCompressedMediaType(String mediaType){
+    String type = mediaType.split(";")[0].trim().toLowerCase(Locale.ROOT);
+    if(COMPRESSED_MEDIA_TYPES.contains(type) || type.endsWith("+zip") || type.endsWith("+gzip")){
+      return true;
+    }
+    if(UNCOMPRESSED_MEDIA_TYPES.contains(type)){
+      return false;
+    }
+    return type.startsWith("image/") || type.startsWith("audio/") || type.startsWith("video/");
+  }
+
+  /**
+   * Check the first bytes of the provided file for known signatures of
+   * compressed formats.
+   *
+   * @param file The file to check.
+   * @return TRUE if a known signature was found.
+   * @throws IOException If the file could not be read.
+   */
+  private static boolean hasCompressedMagicBytes(Path file) throws IOException{
+    byte[] header;
+    try(InputStream in = Files.newInputStream(file)){
+      header = in.readNBytes(MAGIC_LENGTH);
+    }
+    for(byte[] magic : MAGIC_BYTES){
+      if(startsWith(header, 0, magic)){
+        return true;
+      }
+    }
+    return startsWith(header, 4, FTYP);
+  }
+
+  private static boolean startsWith(byte[] data, int offset, byte[] prefix){
+    if(data.length < offset + prefix.length){
+      return false;
+    }
+    for(int i = 0; i < prefix.length; i++){
+      if(data[offset + i] != prefix[i]){
+        return false;
+      }
+    }
+    return true;
+  }
+}
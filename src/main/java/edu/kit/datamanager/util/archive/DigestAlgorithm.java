@@ -0,0 +1,199 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.util.archive;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.Checksum;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.XXHash32;
+
+/**
+ * Digest algorithms which can be computed while content is written into or
+ * extracted from an archive. Each algorithm has a label which is used as
+ * prefix of the hash values, e.g. 'sha256:0a1b...'.
+ *
+ * @author hartmann-v
+ */
+public enum DigestAlgorithm{
+
+  MD5("md5", "MD5"),
+  SHA_1("sha1", "SHA-1"),
+  SHA_256("sha256", "SHA-256"),
+  SHA_512("sha512", "SHA-512"),
+  /**
+   * Non-cryptographic 32 bit xxHash, which is considerably faster than all
+   * other algorithms and therefore suitable for detecting changes or transfer
+   * errors.
+   */
+  XXHASH32("xxh32", null);
+
+  private final String label;
+  private final String jcaName;
+
+  DigestAlgorithm(String label, String jcaName){
+    this.label = label;
+    this.jcaName = jcaName;
+  }
+
+  /**
+   * Get the label of this algorithm used as prefix of hash values.
+   *
+   * @return The label, e.g. 'sha256'.
+   */
+  public String getLabel(){
+    return label;
+  }
+
+  /**
+   * Get the algorithm for the provided label.
+   *
+   * @param pLabel The label, e.g. 'sha256'.
+   * @return The algorithm or null if the label is unknown.
+   */
+  public static DigestAlgorithm fromLabel(String pLabel){
+    for(DigestAlgorithm algorithm : values()){
+      if(algorithm.label.equalsIgnoreCase(pLabel)){
+        return algorithm;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Determine the algorithm of a hash value. The algorithm is obtained from the
+   * label prefix, e.g. 'sha256:0a1b...', or for values without label from the
+   * length of the hex value.
+   *
+   * @param pHash The hash value.
+   * @return The algorithm or null if it cannot be determined.
+   */
+  public static DigestAlgorithm forHash(String pHash){
+    if(pHash == null){
+      return null;
+    }
+    int separator = pHash.indexOf(':');
+    if(separator > 0){
+      return fromLabel(pHash.substring(0, separator));
+    }
+    switch(pHash.length()){
+      case 8:
+        return XXHASH32;
+      case 32:
+        return MD5;
+      case 40:
+        return SHA_1;
+      case 64:
+        return SHA_256;
+      case 128:
+        return SHA_512;
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Compute the hash of the provided stream. The stream is read completely but
+   * not closed.
+   *
+   * @param pIn The stream to read.
+   * @return The hash value prefixed by the label, e.g. 'sha256:0a1b...'.
+   * @throws IOException If something goes wrong, in most cases if reading the
+   * stream fails.
+   */
+  public String digest(InputStream pIn) throws IOException{
+    Digest digest = newDigest();
+    byte[] buffer = new byte[64 * 1024];
+    int read;
+    while((read = pIn.read(buffer)) > 0){
+      digest.update(buffer, 0, read);
+    }
+    return label + ":" + digest.getHexValue();
+  }
+
+  /**
+   * Create a new and empty digest for this algorithm.
+   *
+   * @return The digest.
+   */
+  Digest newDigest(){
+    if(jcaName == null){
+      return new ChecksumDigest(new XXHash32());
+    }
+    try{
+      return new MessageDigestDigest(MessageDigest.getInstance(jcaName));
+    } catch(NoSuchAlgorithmException ex){
+      //all algorithms are mandatory for every Java platform
+      throw new IllegalStateException("Digest algorithm " + jcaName + " is not supported.", ex);
+    }
+  }
+
+  /**
+   * Common view on message digests and checksums.
+   */
+  interface Digest{
+
+    void update(byte[] buffer, int offset, int length);
+
+    String getHexValue();
+  }
+
+  /**
+   * Digest backed by a {@link MessageDigest}.
+   */
+  private static final class MessageDigestDigest implements Digest{
+
+    private final MessageDigest digest;
+
+    MessageDigestDigest(MessageDigest digest){
+      this.digest = digest;
+    }
+
+    @Override
+    public void update(byte[] buffer, int offset, int length){
+      digest.update(buffer, offset, length);
+    }
+
+    @Override
+    public String getHexValue(){
+      return Hex.encodeHexString(digest.digest());
+    }
+  }
+
+  /**
+   * Digest backed by a {@link Checksum}.
+   */
+  private static final class ChecksumDigest implements Digest{
+
+    private final Checksum checksum;
+
+    ChecksumDigest(Checksum checksum){
+      this.checksum = checksum;
+    }
+
+    @Override
+    public void update(byte[] buffer, int offset, int length){
+      checksum.update(buffer, offset, length);
+    }
+
+    @Override
+    public String getHexValue(){
+      return String.format("%08x", checksum.getValue());
+    }
+  }
+}
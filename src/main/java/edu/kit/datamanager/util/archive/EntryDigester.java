@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.util.archive;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Computes the digests of a single archive entry while its content is
+ * copied. Instances are obtained via {@link ArchiveManifest#newDigester()}
+ * and are not thread-safe.
+ *
+ * @author hartmann-v
+ */
+public final class EntryDigester{
+
+  private final Map<DigestAlgorithm, DigestAlgorithm.Digest> digests = new EnumMap<>(DigestAlgorithm.class);
+  private long size = 0;
+
+  /**
+   * Create a new digester computing the provided algorithms.
+   *
+   * @param pAlgorithms The algorithms to compute.
+   */
+  EntryDigester(Collection<DigestAlgorithm> pAlgorithms){
+    for(DigestAlgorithm algorithm : pAlgorithms){
+      digests.put(algorithm, algorithm.newDigest());
+    }
+  }
+
+  /**
+   * Update all digests with the provided bytes.
+   *
+   * @param pBuffer The buffer.
+   * @param pOffset The offset of the first byte in pBuffer.
+   * @param pLength The number of bytes.
+   */
+  public void update(byte[] pBuffer, int pOffset, int pLength){
+    for(DigestAlgorithm.Digest digest : digests.values()){
+      digest.update(pBuffer, pOffset, pLength);
+    }
+    size += pLength;
+  }
+
+  /**
+   * Get the number of bytes processed so far.
+   *
+   * @return The number of bytes.
+   */
+  public long getSize(){
+    return size;
+  }
+
+  /**
+   * Wrap the provided input stream in order to update this digester with all
+   * bytes read from the returned stream.
+   *
+   * @param pIn The input stream.
+   *
+   * @return The wrapped input stream.
+   */
+  public InputStream wrap(InputStream pIn){
+    return new FilterInputStream(pIn){
+      @Override
+      public int read() throws IOException{
+        int b = super.read();
+        if(b >= 0){
+          update(new byte[]{(byte) b}, 0, 1);
+        }
+        return b;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException{
+        int read = super.read(b, off, len);
+        if(read > 0){
+          update(b, off, read);
+        }
+        return read;
+      }
+
+      @Override
+      public long skip(long n) throws IOException{
+        //skipped bytes must be part of the digest
+        byte[] buffer = new byte[(int) Math.min(n, 8192)];
+        long skipped = 0;
+        int read;
+        while(skipped < n && (read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped))) > 0){
+          skipped += read;
+        }
+        return skipped;
+      }
+
+      @Override
+      public boolean markSupported(){
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Finish all digests and return their hex encoded values.
+   *
+   * @return The digest values by algorithm.
+   */
+  Map<DigestAlgorithm, String> finish(){
+    Map<DigestAlgorithm, String> result = new EnumMap<>(DigestAlgorithm.class);
+    for(Map.Entry<DigestAlgorithm, DigestAlgorithm.Digest> entry : digests.entrySet()){
+      result.put(entry.getKey(), entry.getValue().getHexValue());
+    }
+    return result;
+  }
+}
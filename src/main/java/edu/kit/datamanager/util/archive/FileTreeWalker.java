@@ -0,0 +1,533 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.util.archive;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Lazy walker over one or more file trees. In contrast to recursive
+ * {@link File#listFiles()} calls, the content of a directory is never held in
+ * memory completely. Instead, one open {@link DirectoryStream} per directory
+ * level is iterated, i.e., the memory consumption depends on the depth of the
+ * file tree but not on the number of files. The attributes of each entry are
+ * read exactly once.
+ *
+ * Directories are visited before their content. Symbolic links are followed,
+ * links pointing to one of their parent directories are not descended into.
+ * Optionally, a bounded read-ahead queue filled by a background thread can be
+ * used in order to overlap the directory traversal with the processing of
+ * the entries, e.g. their compression.
+ *
+ * @author hartmann-v
+ */
+public final class FileTreeWalker{
+
+  /**
+   * Logger.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(FileTreeWalker.class);
+
+  private final List<Path> roots;
+  private final Path basePath;
+  private final boolean includeRoots;
+  private int maxDepth = Integer.MAX_VALUE;
+  private PathMatcher globMatcher = null;
+  private String[] extensions = null;
+
+  private FileTreeWalker(List<Path> roots, Path basePath, boolean includeRoots){
+    this.roots = roots;
+    this.basePath = basePath;
+    this.includeRoots = includeRoots;
+  }
+
+  /**
+   * Create a walker visiting all files and directories located in
+   * pDirectory. The directory itself is not visited and all entry names are
+   * relative to pDirectory.
+   *
+   * @param pDirectory The directory to walk.
+   *
+   * @return The walker.
+   *
+   * @throws IOException If the canonical path of pDirectory cannot be
+   * determined.
+   */
+  public static FileTreeWalker of(File pDirectory) throws IOException{
+    Objects.requireNonNull(pDirectory, "Argument pDirectory must not be null.");
+    Path directory = pDirectory.getCanonicalFile().toPath();
+    return new FileTreeWalker(Arrays.asList(directory), directory, false);
+  }
+
+  /**
+   * Create a walker visiting all files and directories located in
+   * pDirectory. The directory itself is not visited and all entry names are
+   * relative to pBasePath, which should be pDirectory or one of its parents.
+   *
+   * @param pDirectory The directory to walk.
+   * @param pBasePath The base path removed from all file paths.
+   *
+   * @return The walker.
+   *
+   * @throws IOException If the canonical path of pDirectory or of pBasePath
+   * cannot be determined.
+   */
+  public static FileTreeWalker of(File pDirectory, String pBasePath) throws IOException{
+    Objects.requireNonNull(pDirectory, "Argument pDirectory must not be null.");
+    Objects.requireNonNull(pBasePath, "Argument pBasePath must not be null.");
+    return new FileTreeWalker(Arrays.asList(pDirectory.getCanonicalFile().toPath()), new File(pBasePath).getCanonicalFile().toPath(), false);
+  }
+
+  /**
+   * Create a walker visiting all provided files and directories including
+   * their content. All entry names are relative to pBasePath.
+   *
+   * @param pFiles The files and directories to walk.
+   * @param pBasePath The base path removed from all file paths.
+   *
+   * @return The walker.
+   *
+   * @throws IOException If the canonical path of any file or of pBasePath
+   * cannot be determined.
+   */
+  public static FileTreeWalker of(File[] pFiles, String pBasePath) throws IOException{
+    Objects.requireNonNull(pFiles, "Argument pFiles must not be null.");
+    Objects.requireNonNull(pBasePath, "Argument pBasePath must not be null.");
+    List<Path> roots = new ArrayList<>(pFiles.length);
+    for(File file : pFiles){
+      roots.add(file.getCanonicalFile().toPath());
+    }
+    return new FileTreeWalker(roots, new File(pBasePath).getCanonicalFile().toPath(), true);
+  }
+
+  /**
+   * Only visit files whose path relative to the base path matches the
+   * provided glob pattern, e.g. '**&#47;*.txt'. If a filter is set,
+   * directories are traversed but not visited.
+   *
+   * @param pGlob The glob pattern or null for accepting all files.
+   *
+   * @return This walker.
+   *
+   * @see java.nio.file.FileSystem#getPathMatcher(java.lang.String)
+   */
+  public FileTreeWalker withGlob(String pGlob){
+    globMatcher = (pGlob != null) ? FileSystems.getDefault().getPathMatcher("glob:" + pGlob) : null;
+    return this;
+  }
+
+  /**
+   * Only visit files whose name ends with one of the provided extensions.
+   * The comparison is case insensitive. If a filter is set, directories are
+   * traversed but not visited.
+   *
+   * @param pExtensions The extensions or null for accepting all files.
+   *
+   * @return This walker.
+   */
+  public FileTreeWalker withExtensions(String... pExtensions){
+    if(pExtensions == null){
+      extensions = null;
+    } else{
+      extensions = new String[pExtensions.length];
+      for(int i = 0; i < pExtensions.length; i++){
+        extensions[i] = pExtensions[i].toLowerCase(Locale.ROOT);
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Limit the depth of visited entries. Entries directly located in the
+   * directory provided to {@link #of(java.io.File)} or provided to
+   * {@link #of(java.io.File[], java.lang.String)} have depth 1.
+   *
+   * @param pMaxDepth The max. depth.
+   *
+   * @return This walker.
+   */
+  public FileTreeWalker withMaxDepth(int pMaxDepth){
+    if(pMaxDepth < 1){
+      throw new IllegalArgumentException("Argument pMaxDepth must be at least 1.");
+    }
+    maxDepth = pMaxDepth;
+    return this;
+  }
+
+  /**
+   * Visit all entries in the current thread.
+   *
+   * @param pVisitor The visitor called for each entry.
+   *
+   * @throws IOException If walking the file tree or the visitor fails.
+   */
+  public void forEach(EntryVisitor pVisitor) throws IOException{
+    try(EntryIterator iterator = iterator()){
+      while(iterator.hasNext()){
+        pVisitor.visit(iterator.next());
+      }
+    } catch(UncheckedIOException ex){
+      throw ex.getCause();
+    }
+  }
+
+  /**
+   * Get a lazy iterator over all entries. The iterator must be closed in
+   * order to release all open directory streams. Errors while walking the
+   * file tree are reported as {@link UncheckedIOException}.
+   *
+   * @return The iterator.
+   */
+  public EntryIterator iterator(){
+    return new TreeIterator();
+  }
+
+  /**
+   * Get a lazy iterator over all entries. If pReadAhead is larger than 0,
+   * the file tree is walked by a background thread filling a queue of up to
+   * pReadAhead entries. The iterator must be closed in order to stop the
+   * background thread and to release all open directory streams. Errors
+   * while walking the file tree are reported as {@link UncheckedIOException}.
+   *
+   * @param pReadAhead The max. number of entries read in advance.
+   *
+   * @return The iterator.
+   */
+  public EntryIterator iterator(int pReadAhead){
+    if(pReadAhead < 1){
+      return iterator();
+    }
+    return new ReadAheadIterator(new TreeIterator(), pReadAhead);
+  }
+
+  private boolean accept(Entry pEntry){
+    if(globMatcher == null && extensions == null){
+      return true;
+    }
+    if(pEntry.isDirectory()){
+      return false;
+    }
+    if(globMatcher != null && !globMatcher.matches(pEntry.getPath().getFileSystem().getPath(pEntry.getName()))){
+      return false;
+    }
+    if(extensions != null){
+      String fileName = pEntry.getPath().getFileName().toString().toLowerCase(Locale.ROOT);
+      for(String extension : extensions){
+        if(fileName.endsWith(extension)){
+          return true;
+        }
+      }
+      return false;
+    }
+    return true;
+  }
+
+  private String getName(Path pPath){
+    String name;
+    if(pPath.startsWith(basePath)){
+      name = basePath.relativize(pPath).toString();
+    } else{
+      name = pPath.toString();
+    }
+    name = name.replace(File.separatorChar, '/');
+    while(name.startsWith("/")){
+      name = name.substring(1);
+    }
+    return name;
+  }
+
+  /**
+   * Single file or directory visited by a walker.
+   */
+  public static final class Entry{
+
+    private final Path path;
+    private final String name;
+    private final BasicFileAttributes attributes;
+
+    Entry(Path path, String name, BasicFileAttributes attributes){
+      this.path = path;
+      this.name = name;
+      this.attributes = attributes;
+    }
+
+    /**
+     * Get the path of the file or directory.
+     *
+     * @return The path.
+     */
+    public Path getPath(){
+      return path;
+    }
+
+    /**
+     * Get the file or directory.
+     *
+     * @return The file.
+     */
+    public File toFile(){
+      return path.toFile();
+    }
+
+    /**
+     * Get the name of the entry relative to the base path using '/' as
+     * separator. Directory names have no trailing slash.
+     *
+     * @return The name.
+     */
+    public String getName(){
+      return name;
+    }
+
+    /**
+     * Get the attributes read while walking the file tree.
+     *
+     * @return The attributes.
+     */
+    public BasicFileAttributes getAttributes(){
+      return attributes;
+    }
+
+    /**
+     * Check if this entry is a directory.
+     *
+     * @return TRUE if this entry is a directory.
+     */
+    public boolean isDirectory(){
+      return attributes.isDirectory();
+    }
+
+    @Override
+    public String toString(){
+      return name;
+    }
+  }
+
+  /**
+   * Visitor called for each entry of a walker.
+   */
+  @FunctionalInterface
+  public interface EntryVisitor{
+
+    void visit(Entry entry) throws IOException;
+  }
+
+  /**
+   * Iterator over the entries of a walker which has to be closed after
+   * usage.
+   */
+  public interface EntryIterator extends Iterator<Entry>, Closeable{
+
+    @Override
+    void close();
+  }
+
+  /**
+   * Open directory stream of one directory level.
+   */
+  private static final class Level{
+
+    private final DirectoryStream<Path> stream;
+    private final Iterator<Path> iterator;
+    private final Object fileKey;
+    private final int depth;
+
+    Level(DirectoryStream<Path> stream, Object fileKey, int depth){
+      this.stream = stream;
+      this.iterator = stream.iterator();
+      this.fileKey = fileKey;
+      this.depth = depth;
+    }
+  }
+
+  /**
+   * Depth-first iterator keeping one open directory stream per level.
+   */
+  private final class TreeIterator implements EntryIterator{
+
+    private final Iterator<Path> rootIterator = roots.iterator();
+    private final Deque<Level> levels = new ArrayDeque<>();
+    private Entry next = null;
+
+    @Override
+    public boolean hasNext(){
+      if(next == null){
+        try{
+          next = advance();
+        } catch(IOException ex){
+          close();
+          throw new UncheckedIOException(ex);
+        }
+      }
+      return next != null;
+    }
+
+    @Override
+    public Entry next(){
+      if(!hasNext()){
+        throw new NoSuchElementException();
+      }
+      Entry result = next;
+      next = null;
+      return result;
+    }
+
+    private Entry advance() throws IOException{
+      while(true){
+        Path path;
+        int depth;
+        if(!levels.isEmpty()){
+          Level level = levels.peek();
+          if(!level.iterator.hasNext()){
+            levels.pop().stream.close();
+            continue;
+          }
+          path = level.iterator.next();
+          depth = level.depth + 1;
+        } else if(rootIterator.hasNext()){
+          path = rootIterator.next();
+          depth = includeRoots ? 1 : 0;
+        } else{
+          return null;
+        }
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        if(attributes.isDirectory() && depth < maxDepth){
+          if(isLoop(attributes.fileKey())){
+            LOGGER.warn("Skipping content of directory {} as it links to one of its parents.", path);
+          } else{
+            levels.push(new Level(Files.newDirectoryStream(path), attributes.fileKey(), depth));
+          }
+        }
+        if(depth == 0){
+          continue;
+        }
+        Entry entry = new Entry(path, getName(path), attributes);
+        if(accept(entry)){
+          return entry;
+        }
+      }
+    }
+
+    private boolean isLoop(Object pFileKey){
+      if(pFileKey == null){
+        return false;
+      }
+      for(Level level : levels){
+        if(pFileKey.equals(level.fileKey)){
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public void close(){
+      while(!levels.isEmpty()){
+        try{
+          levels.pop().stream.close();
+        } catch(IOException ex){
+          LOGGER.trace("Failed to close directory stream. Error will be ignored.", ex);
+        }
+      }
+    }
+  }
+
+  /**
+   * Iterator reading entries in advance using a background thread and a
+   * bounded queue.
+   */
+  private static final class ReadAheadIterator implements EntryIterator{
+
+    private static final Object END = new Object();
+
+    private final BlockingQueue<Object> queue;
+    private final Thread producer;
+    private Object next = null;
+
+    ReadAheadIterator(TreeIterator source, int capacity){
+      queue = new ArrayBlockingQueue<>(capacity);
+      producer = new Thread(() -> {
+        try{
+          while(source.hasNext()){
+            queue.put(source.next());
+          }
+          queue.put(END);
+        } catch(RuntimeException ex){
+          queue.clear();
+          queue.offer(ex);
+        } catch(InterruptedException ex){
+          Thread.currentThread().interrupt();
+        } finally{
+          source.close();
+        }
+      }, "file-tree-read-ahead");
+      producer.setDaemon(true);
+      producer.start();
+    }
+
+    @Override
+    public boolean hasNext(){
+      if(next == null){
+        try{
+          next = queue.take();
+        } catch(InterruptedException ex){
+          Thread.currentThread().interrupt();
+          throw new UncheckedIOException(new java.io.InterruptedIOException("Interrupted while waiting for file tree entries."));
+        }
+      }
+      if(next instanceof RuntimeException){
+        throw (RuntimeException) next;
+      }
+      return next != END;
+    }
+
+    @Override
+    public Entry next(){
+      if(!hasNext()){
+        throw new NoSuchElementException();
+      }
+      Entry result = (Entry) next;
+      next = null;
+      return result;
+    }
+
+    @Override
+    public void close(){
+      producer.interrupt();
+    }
+  }
+}
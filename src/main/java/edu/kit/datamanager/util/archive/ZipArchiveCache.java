@@ -0,0 +1,430 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.util.archive;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of open zip archives allowing random access to single entries. Each
+ * archive is opened once and its central directory is kept in memory as long
+ * as the archive stays in the cache. The number of open archives is bounded,
+ * the least recently used archive is closed as soon as the limit is exceeded.
+ * If an archive is modified on disk, it is opened again on next access.
+ *
+ * Streams returned by this cache must be closed by the caller. An archive
+ * evicted from the cache is closed as soon as all of its streams are closed.
+ * This class is thread-safe, i.e., one instance can be shared, e.g., as
+ * Spring bean, by all requests serving content from archives.
+ *
+ * @author hartmann-v
+ */
+public class ZipArchiveCache implements Closeable{
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ZipArchiveCache.class);
+
+  /**
+   * Default number of archives kept open.
+   */
+  public static final int DEFAULT_MAX_OPEN_ARCHIVES = 32;
+
+  private final int maxOpenArchives;
+  private final Map<String, CachedArchive> archives;
+
+  /**
+   * Create a cache keeping up to {@link #DEFAULT_MAX_OPEN_ARCHIVES} archives
+   * open.
+   */
+  public ZipArchiveCache(){
+    this(DEFAULT_MAX_OPEN_ARCHIVES);
+  }
+
+  /**
+   * Create a cache keeping up to maxOpenArchives archives open.
+   *
+   * @param maxOpenArchives The max. number of open archives.
+   */
+  public ZipArchiveCache(int maxOpenArchives){
+    if(maxOpenArchives < 1){
+      throw new IllegalArgumentException("Argument maxOpenArchives must be larger than 0.");
+    }
+    this.maxOpenArchives = maxOpenArchives;
+    archives = new LinkedHashMap<>(16, 0.75f, true);
+  }
+
+  /**
+   * Get the entry with the provided name from the provided archive.
+   *
+   * @param archive The zip archive.
+   * @param entryName The name of the entry.
+   * @return The entry, e.g. for obtaining its size or modification time.
+   * @throws FileNotFoundException If the archive contains no such entry.
+   * @throws IOException If the archive could not be opened.
+   */
+  public ZipEntry getEntry(File archive, String entryName) throws IOException{
+    CachedArchive cached = acquire(archive);
+    try{
+      return cached.getEntry(entryName);
+    } finally{
+      release(cached);
+    }
+  }
+
+  /**
+   * Open a stream for reading the uncompressed content of a single entry.
+   *
+   * @param archive The zip archive.
+   * @param entryName The name of the entry.
+   * @return The stream, which has to be closed by the caller.
+   * @throws FileNotFoundException If the archive contains no such entry.
+   * @throws IOException If the archive could not be opened.
+   */
+  public InputStream getInputStream(File archive, String entryName) throws IOException{
+    return getInputStream(archive, entryName, 0, -1);
+  }
+
+  /**
+   * Open a stream for reading a byte range of the uncompressed content of a
+   * single entry, e.g. for serving HTTP range requests. For entries stored
+   * without compression, the range is read directly from the archive. For
+   * deflated entries, all bytes before the range have to be inflated and
+   * skipped.
+   *
+   * @param archive The zip archive.
+   * @param entryName The name of the entry.
+   * @param offset The offset of the first byte to read.
+   * @param length The max. number of bytes to read or -1 for reading until
+   * the end of the entry.
+   * @return The stream, which has to be closed by the caller.
+   * @throws FileNotFoundException If the archive contains no such entry.
+   * @throws IOException If the archive could not be opened or the offset is
+   * invalid.
+   */
+  public InputStream getInputStream(File archive, String entryName, long offset, long length) throws IOException{
+    if(offset < 0){
+      throw new IllegalArgumentException("Argument offset must not be negative.");
+    }
+    CachedArchive cached = acquire(archive);
+    try{
+      ZipArchiveEntry entry = cached.getEntry(entryName);
+      long available = Math.max(entry.getSize() - offset, 0);
+      long limit = (length < 0) ? available : Math.min(length, available);
+      InputStream in;
+      if(entry.getMethod() == ZipEntry.STORED){
+        if(entry.getDataOffset() < 0){
+          //make sure that the data offset is resolved from the local file header
+          cached.zipFile.getRawInputStream(entry).close();
+        }
+        in = new ChannelRangeInputStream(cached.channel, entry.getDataOffset() + offset);
+      } else{
+        in = cached.zipFile.getInputStream(entry);
+        in.skipNBytes(Math.min(offset, entry.getSize()));
+      }
+      return new EntryInputStream(in, limit, cached);
+    } catch(IOException | RuntimeException ex){
+      release(cached);
+      throw ex;
+    }
+  }
+
+  /**
+   * Remove the provided archive from the cache, e.g. after it was deleted.
+   *
+   * @param archive The zip archive.
+   * @throws IOException If the absolute path of the archive cannot be
+   * obtained.
+   */
+  public void invalidate(File archive) throws IOException{
+    CachedArchive removed;
+    synchronized(this){
+      removed = archives.remove(archive.getCanonicalPath());
+    }
+    if(removed != null){
+      evict(removed);
+    }
+  }
+
+  /**
+   * Close all archives which are not in use and remove all archives from the
+   * cache. Archives still in use are closed as soon as all of their streams
+   * are closed.
+   */
+  @Override
+  public void close(){
+    List<CachedArchive> removed;
+    synchronized(this){
+      removed = new ArrayList<>(archives.values());
+      archives.clear();
+    }
+    removed.forEach(this::evict);
+  }
+
+  /**
+   * Get the number of currently cached archives.
+   *
+   * @return The number of cached archives.
+   */
+  public synchronized int size(){
+    return archives.size();
+  }
+
+  /**
+   * Obtain the cached archive for the provided file or open it, if it is not
+   * cached or was modified since it has been opened. The returned archive
+   * has to be released after use.
+   */
+  private CachedArchive acquire(File archive) throws IOException{
+    String key = archive.getCanonicalPath();
+    long lastModified = archive.lastModified();
+    long length = archive.length();
+    List<CachedArchive> evicted = new ArrayList<>();
+    CachedArchive opened = null;
+    try{
+      synchronized(this){
+        CachedArchive cached = lookup(key, lastModified, length, evicted);
+        if(cached != null){
+          cached.users++;
+          return cached;
+        }
+      }
+      //open archive outside of the lock as reading the central directory may take a while
+      LOGGER.trace("Opening archive {}.", key);
+      opened = new CachedArchive(archive, lastModified, length);
+      synchronized(this){
+        CachedArchive cached = lookup(key, lastModified, length, evicted);
+        if(cached == null){
+          cached = opened;
+          opened = null;
+          archives.put(key, cached);
+          while(archives.size() > maxOpenArchives){
+            String eldest = archives.keySet().iterator().next();
+            evicted.add(archives.remove(eldest));
+          }
+        }
+        cached.users++;
+        return cached;
+      }
+    } finally{
+      if(opened != null){
+        LOGGER.trace("Archive {} was opened concurrently. Closing duplicate.", key);
+        opened.close();
+      }
+      evicted.forEach(this::evict);
+    }
+  }
+
+  /**
+   * Get the cached archive for the provided key, if it is still up to date.
+   * Outdated archives are removed from the cache and added to evicted. Must
+   * be called while holding the lock.
+   */
+  private CachedArchive lookup(String key, long lastModified, long length, List<CachedArchive> evicted){
+    CachedArchive cached = archives.get(key);
+    if(cached != null && (cached.lastModified != lastModified || cached.length != length)){
+      LOGGER.trace("Archive {} was modified. Re-opening archive.", key);
+      archives.remove(key);
+      evicted.add(cached);
+      cached = null;
+    }
+    return cached;
+  }
+
+  /**
+   * Release an archive obtained via acquire() and close it, if it was evicted
+   * and is not used anymore.
+   */
+  private void release(CachedArchive cached){
+    boolean close;
+    synchronized(this){
+      cached.users--;
+      close = cached.evicted && cached.users == 0;
+    }
+    if(close){
+      cached.close();
+    }
+  }
+
+  /**
+   * Mark an archive removed from the cache as evicted and close it, if it is
+   * not used anymore.
+   */
+  private void evict(CachedArchive cached){
+    boolean close;
+    synchronized(this){
+      cached.evicted = true;
+      close = cached.users == 0;
+    }
+    if(close){
+      cached.close();
+    }
+  }
+
+  /**
+   * Open archive together with its central directory.
+   */
+  private static final class CachedArchive{
+
+    private final File file;
+    private final long lastModified;
+    private final long length;
+    private final FileChannel channel;
+    private final ZipFile zipFile;
+    private int users = 0;
+    private boolean evicted = false;
+
+    CachedArchive(File file, long lastModified, long length) throws IOException{
+      this.file = file;
+      this.lastModified = lastModified;
+      this.length = length;
+      channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+      try{
+        zipFile = ZipFile.builder().setSeekableByteChannel(channel).get();
+      } catch(IOException ex){
+        channel.close();
+        throw ex;
+      }
+    }
+
+    ZipArchiveEntry getEntry(String entryName) throws FileNotFoundException{
+      ZipArchiveEntry entry = zipFile.getEntry(entryName);
+      if(entry == null || entry.isDirectory()){
+        throw new FileNotFoundException("No entry '" + entryName + "' found in archive " + file + ".");
+      }
+      return entry;
+    }
+
+    void close(){
+      LOGGER.trace("Closing archive {}.", file);
+      try{
+        zipFile.close();
+      } catch(IOException ex){
+        LOGGER.trace("Failed to close archive. Error will be ignored.", ex);
+      }
+    }
+  }
+
+  /**
+   * Stream reading from a file channel starting at a certain position using
+   * positional reads, i.e., multiple streams can read from the same channel
+   * concurrently.
+   */
+  private static final class ChannelRangeInputStream extends InputStream{
+
+    private final FileChannel channel;
+    private long position;
+
+    ChannelRangeInputStream(FileChannel channel, long position){
+      this.channel = channel;
+      this.position = position;
+    }
+
+    @Override
+    public int read() throws IOException{
+      byte[] single = new byte[1];
+      return (read(single, 0, 1) < 0) ? -1 : (single[0] & 0xFF);
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException{
+      int read = channel.read(ByteBuffer.wrap(b, off, len), position);
+      if(read > 0){
+        position += read;
+      }
+      return read;
+    }
+  }
+
+  /**
+   * Stream limited to a certain number of bytes, which releases the archive
+   * it is reading from on close.
+   */
+  private final class EntryInputStream extends FilterInputStream{
+
+    private final CachedArchive archive;
+    private long remaining;
+    private boolean closed = false;
+
+    EntryInputStream(InputStream in, long limit, CachedArchive archive){
+      super(in);
+      this.remaining = limit;
+      this.archive = archive;
+    }
+
+    @Override
+    public int read() throws IOException{
+      if(remaining <= 0){
+        return -1;
+      }
+      int result = super.read();
+      if(result >= 0){
+        remaining--;
+      }
+      return result;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException{
+      if(remaining <= 0){
+        return -1;
+      }
+      int read = super.read(b, off, (int) Math.min(len, remaining));
+      if(read > 0){
+        remaining -= read;
+      }
+      return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException{
+      long skipped = super.skip(Math.min(n, remaining));
+      remaining -= skipped;
+      return skipped;
+    }
+
+    @Override
+    public int available() throws IOException{
+      return (int) Math.min(super.available(), remaining);
+    }
+
+    @Override
+    public void close() throws IOException{
+      if(!closed){
+        closed = true;
+        try{
+          super.close();
+        } finally{
+          release(archive);
+        }
+      }
+    }
+  }
+}
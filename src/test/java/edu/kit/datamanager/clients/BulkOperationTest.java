@@ -0,0 +1,157 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.clients;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import edu.kit.datamanager.clients.impl.BulkOperation;
+import edu.kit.datamanager.clients.impl.SimpleRepositoryClient;
+import edu.kit.datamanager.entities.repo.DataResource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.AfterClass;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.HttpClientErrorException;
+
+/**
+ *
+ * @author hartmann-v
+ */
+public class BulkOperationTest {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final String CONFLICT = "conflict";
+  private static final int CONCURRENCY = 4;
+  private static final AtomicInteger ACTIVE = new AtomicInteger();
+  private static final AtomicInteger MAX_ACTIVE = new AtomicInteger();
+  private static TestServer server;
+  private static String baseUrl;
+
+  @BeforeClass
+  public static void setUpClass() throws IOException {
+    server = TestServer.startConcurrent("/api/v1/dataresources/", BulkOperationTest::handle);
+    baseUrl = server.getBaseUrl();
+  }
+
+  @AfterClass
+  public static void tearDownClass() {
+    server.close();
+  }
+
+  @Before
+  public void setUp() {
+    ACTIVE.set(0);
+    MAX_ACTIVE.set(0);
+  }
+
+  private static void handle(HttpExchange exchange) throws IOException {
+    MAX_ACTIVE.accumulateAndGet(ACTIVE.incrementAndGet(), Math::max);
+    try {
+      Thread.sleep(20);
+      String id = exchange.getRequestURI().getPath().substring("/api/v1/dataresources/".length());
+      byte[] requestBody = exchange.getRequestBody().readAllBytes();
+      switch (exchange.getRequestMethod()) {
+        case "POST":
+          DataResource created = MAPPER.readValue(requestBody, DataResource.class);
+          send(exchange, CONFLICT.equals(created.getId()) ? 409 : 201, created);
+          break;
+        case "GET":
+          DataResource resource = new DataResource();
+          resource.setId(id);
+          exchange.getResponseHeaders().add("ETag", "\"1\"");
+          send(exchange, CONFLICT.equals(id) ? 404 : 200, resource);
+          break;
+        case "PUT":
+          send(exchange, 200, MAPPER.readValue(requestBody, DataResource.class));
+          break;
+        default:
+          exchange.sendResponseHeaders(204, -1);
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    } finally {
+      ACTIVE.decrementAndGet();
+      exchange.close();
+    }
+  }
+
+  private static void send(HttpExchange exchange, int status, DataResource resource) throws IOException {
+    byte[] body = MAPPER.writeValueAsBytes(resource);
+    exchange.getResponseHeaders().add("Content-Type", MediaType.APPLICATION_JSON_VALUE);
+    exchange.sendResponseHeaders(status, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  private static List<DataResource> resources(int count) {
+    List<DataResource> resources = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      DataResource resource = new DataResource();
+      resource.setId((i == count / 2) ? CONFLICT : "resource_" + i);
+      resources.add(resource);
+    }
+    return resources;
+  }
+
+  @Test
+  public void testCreateResources() {
+    BulkOperation.Result<DataResource> result = SimpleRepositoryClient.create(baseUrl).createResources(resources(20), CONCURRENCY);
+    assertFalse(result.isSuccess());
+    assertEquals(19, result.getSuccessCount());
+    assertEquals(1, result.getFailureCount());
+    BulkOperation.Outcome<DataResource> failure = result.getFailures().get(0);
+    assertEquals(10, failure.getIndex());
+    assertEquals(CONFLICT, failure.getKey());
+    assertTrue(failure.getError() instanceof HttpClientErrorException);
+    assertEquals("resource_19", result.getOutcomes().get(19).getValue().getId());
+    assertTrue(MAX_ACTIVE.get() <= CONCURRENCY);
+  }
+
+  @Test
+  public void testUpdateResources() {
+    BulkOperation.Result<DataResource> result = SimpleRepositoryClient.create(baseUrl).updateResources(resources(20), CONCURRENCY);
+    assertEquals(19, result.getSuccessCount());
+    assertEquals(CONFLICT, result.getFailures().get(0).getKey());
+    assertEquals("resource_0", result.getOutcomes().get(0).getValue().getId());
+    assertTrue(MAX_ACTIVE.get() <= CONCURRENCY);
+  }
+
+  @Test
+  public void testDeleteResources() {
+    List<String> ids = new ArrayList<>();
+    for (DataResource resource : resources(20)) {
+      ids.add(resource.getId());
+    }
+    BulkOperation.Result<Void> result = SimpleRepositoryClient.create(baseUrl).deleteResources(ids, CONCURRENCY);
+    assertEquals(19, result.getSuccessCount());
+    assertEquals(10, result.getFailures().get(0).getIndex());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidConcurrency() {
+    SimpleRepositoryClient.create(baseUrl).deleteResources(List.of("resource_0"), 0);
+  }
+}
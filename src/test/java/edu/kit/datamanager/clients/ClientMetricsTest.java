@@ -0,0 +1,126 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.clients;
+
+import com.sun.net.httpserver.HttpExchange;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import org.junit.AfterClass;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.HttpClientErrorException;
+
+/**
+ *
+ * @author hartmann-v
+ */
+public class ClientMetricsTest {
+
+  private static final String CONTENT = "\"0123456789\"";
+  private static TestServer server;
+  private static String baseUrl;
+
+  @BeforeClass
+  public static void setUpClass() throws IOException {
+    server = TestServer.start("/api/v1/dataresources/", ClientMetricsTest::handle);
+    baseUrl = server.getBaseUrl();
+  }
+
+  @AfterClass
+  public static void tearDownClass() {
+    server.close();
+  }
+
+  private static void handle(HttpExchange exchange) throws IOException {
+    exchange.getRequestBody().readAllBytes();
+    String path = exchange.getRequestURI().getPath();
+    if (path.endsWith("/moved1")) {
+      exchange.getResponseHeaders().add("Location", baseUrl + "test123");
+      exchange.sendResponseHeaders(302, -1);
+      exchange.close();
+      return;
+    }
+    byte[] body = CONTENT.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", MediaType.APPLICATION_JSON_VALUE);
+    exchange.sendResponseHeaders(path.endsWith("/missing") ? 404 : 200, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  @Test
+  public void testUriTemplate() {
+    assertEquals("/api/v1/dataresources/", ClientMetrics.toUriTemplate(URI.create("http://localhost/api/v1/dataresources/?page=1")));
+    assertEquals("/api/v1/dataresources/{id}", ClientMetrics.toUriTemplate(URI.create("http://localhost/api/v1/dataresources/test123")));
+    assertEquals("/api/v1/dataresources/{id}/data/{path}", ClientMetrics.toUriTemplate(URI.create("http://localhost/api/v1/dataresources/35dd5dcc-9b98-4c0d-a964-e353b0395411/data/folder/file.txt")));
+    assertEquals("/api/v1/dataresources/search", ClientMetrics.toUriTemplate(URI.create("http://localhost/api/v1/dataresources/search")));
+    assertEquals("/", ClientMetrics.toUriTemplate(URI.create("http://localhost")));
+  }
+
+  @Test
+  public void testMaxUriTags() {
+    ClientMetrics metrics = new ClientMetrics(new SimpleMeterRegistry(), 2);
+    assertEquals("/a", metrics.uriTag(URI.create("http://localhost/a")));
+    assertEquals("/b", metrics.uriTag(URI.create("http://localhost/b")));
+    assertEquals(ClientMetrics.OTHER_URI, metrics.uriTag(URI.create("http://localhost/c")));
+    assertEquals("/a", metrics.uriTag(URI.create("http://localhost/a")));
+  }
+
+  @Test
+  public void testRequestMetrics() throws IOException {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    try (HttpEngine engine = HttpEngine.builder().withMeterRegistry(registry).build()) {
+      SimpleServiceClient.create(baseUrl).withHttpEngine(engine).withResourcePath("test123").accept(MediaType.APPLICATION_JSON).getResource(String.class);
+      SimpleServiceClient.create(baseUrl).withHttpEngine(engine).withResourcePath("moved1").accept(MediaType.APPLICATION_JSON).getResource(String.class);
+      try {
+        SimpleServiceClient.create(baseUrl).withHttpEngine(engine).withResourcePath("missing").accept(MediaType.APPLICATION_JSON).getResource(String.class);
+        fail("HttpClientErrorException expected.");
+      } catch (HttpClientErrorException ex) {
+        assertEquals(404, ex.getStatusCode().value());
+      }
+
+      Timer success = registry.get(ClientMetrics.REQUESTS).tags("method", "GET", "uri", "/api/v1/dataresources/{id}", "status", "200", "outcome", "SUCCESS").timer();
+      assertEquals(2, success.count());
+      Timer notFound = registry.get(ClientMetrics.REQUESTS).tags("status", "404", "outcome", "CLIENT_ERROR").timer();
+      assertEquals(1, notFound.count());
+      DistributionSummary received = registry.get(ClientMetrics.RESPONSE_SIZE).tags("method", "GET", "uri", "/api/v1/dataresources/{id}").summary();
+      assertEquals(2L * CONTENT.length(), (long) received.totalAmount());
+      assertEquals(1.0, registry.get(ClientMetrics.REDIRECTS).tags("method", "GET").counter().count(), 0.0);
+      assertTrue(registry.get(ClientMetrics.CONNECTION_ACQUIRE).timer().count() >= 3);
+      assertNotNull(registry.get(ClientMetrics.POOL).tags("state", "max").gauge());
+    }
+  }
+
+  @Test
+  public void testRequestSize() throws IOException {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    try (HttpEngine engine = HttpEngine.builder().withMeterRegistry(registry).build()) {
+      SimpleServiceClient.create(baseUrl).withHttpEngine(engine).withContentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON).postResource(CONTENT, String.class);
+      DistributionSummary sent = registry.get(ClientMetrics.REQUEST_SIZE).tags("method", "POST").summary();
+      assertEquals(CONTENT.length(), (long) sent.totalAmount());
+    }
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.clients;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import edu.kit.datamanager.entities.repo.DataResource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.junit.AfterClass;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ *
+ * @author hartmann-v
+ */
+public class CompressionTest {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final String CONTENT = "0123456789".repeat(1000);
+  private static TestServer server;
+  private static String baseUrl;
+  private static volatile String receivedContentEncoding;
+  private static volatile String receivedBody;
+
+  @BeforeClass
+  public static void setUpClass() throws IOException {
+    server = TestServer.start("/api/", CompressionTest::handle);
+    baseUrl = server.getBaseUrl();
+  }
+
+  @AfterClass
+  public static void tearDownClass() {
+    server.close();
+  }
+
+  private static void handle(HttpExchange exchange) throws IOException {
+    receivedContentEncoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+    InputStream requestBody = exchange.getRequestBody();
+    if ("gzip".equals(receivedContentEncoding)) {
+      requestBody = new GZIPInputStream(requestBody);
+    }
+    receivedBody = new String(requestBody.readAllBytes(), StandardCharsets.UTF_8);
+    String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+    byte[] body = "POST".equals(exchange.getRequestMethod()) ? receivedBody.getBytes(StandardCharsets.UTF_8) : CONTENT.getBytes(StandardCharsets.UTF_8);
+    if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+      ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+      try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+        gzip.write(body);
+      }
+      body = compressed.toByteArray();
+      exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+    }
+    exchange.getResponseHeaders().add("Content-Type", "POST".equals(exchange.getRequestMethod()) ? MediaType.APPLICATION_JSON_VALUE : MediaType.TEXT_PLAIN_VALUE);
+    exchange.sendResponseHeaders(200, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  @Test
+  public void testCompressedResponse() throws IOException {
+    try (HttpEngine engine = HttpEngine.builder().build()) {
+      assertEquals(CONTENT, SimpleServiceClient.create(baseUrl).withHttpEngine(engine).withResourcePath("data").getResource(String.class));
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      assertEquals(200, SimpleServiceClient.create(baseUrl).withHttpEngine(engine).withResourcePath("data").getResource(out));
+      assertEquals(CONTENT, out.toString(StandardCharsets.UTF_8));
+    }
+  }
+
+  @Test
+  public void testEncodedResponseWithoutHttpEngine() {
+    // the JDK based request factory does not decode the response on its own
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    SimpleServiceClient client = SimpleServiceClient.create(baseUrl).withResourcePath("data").withHeader("Accept-Encoding", "gzip");
+    client.setRestTemplate(new RestTemplate());
+    assertEquals(200, client.getResource(out));
+    assertEquals(CONTENT, out.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testCompressedRequest() throws IOException {
+    DataResource resource = new DataResource();
+    resource.setId("test123");
+    try (HttpEngine engine = HttpEngine.builder().withRequestCompression(2048).build()) {
+      resource.setPublisher(CONTENT);
+      DataResource result = SimpleServiceClient.create(baseUrl).withHttpEngine(engine).withContentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON).postResource(resource, DataResource.class);
+      assertEquals("gzip", receivedContentEncoding);
+      assertEquals(MAPPER.readTree(MAPPER.writeValueAsString(resource)), MAPPER.readTree(receivedBody));
+      assertEquals(CONTENT, result.getPublisher());
+
+      resource.setPublisher("small");
+      SimpleServiceClient.create(baseUrl).withHttpEngine(engine).withContentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON).postResource(resource, DataResource.class);
+      assertNull(receivedContentEncoding);
+    }
+  }
+}
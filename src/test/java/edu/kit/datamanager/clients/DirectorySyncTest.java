@@ -0,0 +1,162 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.clients;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import edu.kit.datamanager.clients.impl.DirectorySync;
+import edu.kit.datamanager.clients.impl.SimpleRepositoryClient;
+import edu.kit.datamanager.entities.repo.ContentInformation;
+import edu.kit.datamanager.util.archive.DigestAlgorithm;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.apache.commons.io.FileUtils;
+import org.junit.AfterClass;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ *
+ * @author hartmann-v
+ */
+public class DirectorySyncTest {
+
+  private static final File TMP_DIR = new File(FileUtils.getTempDirectory(), "directory_sync_test");
+  private static final String DATA_PATH = "/api/v1/dataresources/res1/data/";
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final Map<String, byte[]> REMOTE = Collections.synchronizedMap(new TreeMap<>());
+  private static final List<String> TRANSFERS = Collections.synchronizedList(new ArrayList<>());
+  private static TestServer server;
+  private static String baseUrl;
+
+  @BeforeClass
+  public static void setUpClass() throws IOException {
+    FileUtils.forceMkdir(TMP_DIR);
+    server = TestServer.start(DATA_PATH, DirectorySyncTest::handle);
+    baseUrl = server.getUrl("/api/v1/dataresources/");
+  }
+
+  @AfterClass
+  public static void tearDownClass() throws IOException {
+    server.close();
+    FileUtils.deleteDirectory(TMP_DIR);
+  }
+
+  @Before
+  public void setUp() throws IOException {
+    FileUtils.cleanDirectory(TMP_DIR);
+    REMOTE.clear();
+    TRANSFERS.clear();
+  }
+
+  private static void handle(HttpExchange exchange) throws IOException {
+    String path = exchange.getRequestURI().getPath().substring(DATA_PATH.length());
+    String method = exchange.getRequestMethod();
+    if ("POST".equals(method)) {
+      TRANSFERS.add(path);
+      // store the uploaded size only, the content itself is not parsed
+      exchange.getRequestBody().readAllBytes();
+      REMOTE.put(path, new byte[0]);
+      exchange.sendResponseHeaders(201, -1);
+    } else if (path.isEmpty()) {
+      List<ContentInformation> infos = new ArrayList<>();
+      if (exchange.getRequestURI().getQuery().contains("page=0")) {
+        for (Map.Entry<String, byte[]> entry : REMOTE.entrySet()) {
+          ContentInformation info = new ContentInformation();
+          info.setRelativePath(entry.getKey());
+          info.setSize(entry.getValue().length);
+          info.setHash(DigestAlgorithm.SHA_256.digest(new ByteArrayInputStream(entry.getValue())));
+          infos.add(info);
+        }
+        exchange.getResponseHeaders().add("Content-Range", "0-" + Math.max(0, infos.size() - 1) + "/" + infos.size());
+      }
+      sendBody(exchange, MAPPER.writeValueAsBytes(infos), ContentInformation.CONTENT_INFORMATION_MEDIA_TYPE.toString());
+    } else if (REMOTE.containsKey(path)) {
+      byte[] content = REMOTE.get(path);
+      if ("HEAD".equals(method)) {
+        exchange.getResponseHeaders().add("Content-Length", Integer.toString(content.length));
+        exchange.sendResponseHeaders(200, -1);
+      } else {
+        TRANSFERS.add(path);
+        sendBody(exchange, content, "application/octet-stream");
+      }
+    } else {
+      exchange.sendResponseHeaders(404, -1);
+    }
+    exchange.close();
+  }
+
+  private static void sendBody(HttpExchange exchange, byte[] body, String contentType) throws IOException {
+    exchange.getResponseHeaders().add("Content-Type", contentType);
+    exchange.sendResponseHeaders(200, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  private static byte[] bytes(String content) {
+    return content.getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testUploadOnlyChanges() throws IOException {
+    File local = new File(TMP_DIR, "upload");
+    FileUtils.writeByteArrayToFile(new File(local, "unchanged.txt"), bytes("unchanged"));
+    FileUtils.writeByteArrayToFile(new File(local, "modified.txt"), bytes("modified locally"));
+    FileUtils.writeByteArrayToFile(new File(local, "sub/new.txt"), bytes("new"));
+    REMOTE.put("unchanged.txt", bytes("unchanged"));
+    REMOTE.put("modified.txt", bytes("original"));
+
+    DirectorySync.Result result = SimpleRepositoryClient.create(baseUrl).uploadDirectory("res1", local, "", 2);
+
+    assertTrue(result.isSuccess());
+    assertEquals(2, result.getTransferredFiles());
+    assertEquals(1, result.getUnchangedFiles());
+    Collections.sort(TRANSFERS);
+    assertEquals(List.of("modified.txt", "sub/new.txt"), TRANSFERS);
+  }
+
+  @Test
+  public void testDownloadOnlyChanges() throws IOException {
+    File local = new File(TMP_DIR, "download");
+    FileUtils.writeByteArrayToFile(new File(local, "unchanged.txt"), bytes("unchanged"));
+    FileUtils.writeByteArrayToFile(new File(local, "modified.txt"), bytes("modified locally"));
+    REMOTE.put("unchanged.txt", bytes("unchanged"));
+    REMOTE.put("modified.txt", bytes("original"));
+    REMOTE.put("sub/new.txt", bytes("new"));
+
+    DirectorySync.Result result = SimpleRepositoryClient.create(baseUrl).downloadDirectory("res1", "", local, 2);
+
+    assertTrue(result.isSuccess());
+    assertEquals(2, result.getTransferredFiles());
+    assertEquals(1, result.getUnchangedFiles());
+    assertEquals("original", FileUtils.readFileToString(new File(local, "modified.txt"), StandardCharsets.UTF_8));
+    assertEquals("new", FileUtils.readFileToString(new File(local, "sub/new.txt"), StandardCharsets.UTF_8));
+    Collections.sort(TRANSFERS);
+    assertEquals(List.of("modified.txt", "sub/new.txt"), TRANSFERS);
+  }
+}
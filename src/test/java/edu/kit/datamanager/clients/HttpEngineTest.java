@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.clients;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.kit.datamanager.entities.repo.DataResource;
+import java.time.Duration;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import org.springframework.test.web.client.MockRestServiceServer;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ *
+ * @author hartmann-v
+ */
+public class HttpEngineTest {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  @Test
+  public void testDefaultEngineIsShared() throws Exception {
+    HttpEngine engine = HttpEngine.getDefault();
+    assertSame(engine, HttpEngine.getDefault());
+    assertSame(engine.getRestTemplate(), HttpEngine.getDefault().getRestTemplate());
+    assertNotNull(engine.getHttpClient());
+    assertEquals(0, engine.getPoolStats().getLeased());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidPoolSize() {
+    HttpEngine.builder().withMaxConnectionsPerRoute(0).build();
+  }
+
+  @Test
+  public void testClientWithEngine() throws Exception {
+    try (HttpEngine engine = HttpEngine.builder().
+            withMaxConnectionsTotal(10).
+            withMaxConnectionsPerRoute(5).
+            withConnectTimeout(Duration.ofSeconds(1)).
+            build()) {
+      MockRestServiceServer mockServer = MockRestServiceServer.createServer(engine.getRestTemplate());
+      DataResource res = new DataResource();
+      res.setId("test123");
+      mockServer.expect(once(), requestTo("http://localhost:8080/api/v1/dataresources/test123"))
+              .andRespond(withSuccess(mapper.writeValueAsString(res), MediaType.APPLICATION_JSON));
+
+      DataResource result = SimpleServiceClient.create("http://localhost:8080/api/v1/dataresources/").
+              withHttpEngine(engine).
+              withResourcePath("test123").
+              accept(MediaType.APPLICATION_JSON).
+              getResource(DataResource.class);
+
+      mockServer.verify();
+      assertEquals("test123", result.getId());
+    }
+  }
+}
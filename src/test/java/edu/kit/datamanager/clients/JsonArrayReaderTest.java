@@ -0,0 +1,140 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.clients;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import edu.kit.datamanager.entities.repo.DataResource;
+import edu.kit.datamanager.util.ControllerUtils.ContentRange;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.AfterClass;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+/**
+ *
+ * @author hartmann-v
+ */
+public class JsonArrayReaderTest {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final int ELEMENTS = 1000;
+  private static TestServer server;
+  private static String baseUrl;
+  private static volatile CountDownLatch firstElementConsumed;
+  private static volatile boolean streamed;
+
+  @BeforeClass
+  public static void setUpClass() throws IOException {
+    server = TestServer.start("/api/v1/dataresources/", JsonArrayReaderTest::handle);
+    baseUrl = server.getBaseUrl();
+  }
+
+  @AfterClass
+  public static void tearDownClass() {
+    server.close();
+  }
+
+  private static void handle(HttpExchange exchange) throws IOException {
+    exchange.getRequestBody().readAllBytes();
+    exchange.getResponseHeaders().add("Content-Type", MediaType.APPLICATION_JSON_VALUE);
+    exchange.getResponseHeaders().add("Content-Range", "0-" + (ELEMENTS - 1) + "/" + ELEMENTS);
+    exchange.sendResponseHeaders(200, 0);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(("[" + MAPPER.writeValueAsString(resource(0))).getBytes(StandardCharsets.UTF_8));
+      out.flush();
+      // send the remaining elements only after the first one was consumed
+      try {
+        streamed = firstElementConsumed.await(10, TimeUnit.SECONDS);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+      for (int i = 1; i < ELEMENTS; i++) {
+        out.write(("," + MAPPER.writeValueAsString(resource(i))).getBytes(StandardCharsets.UTF_8));
+      }
+      out.write(']');
+    }
+  }
+
+  private static DataResource resource(int index) {
+    DataResource resource = new DataResource();
+    resource.setId("resource_" + index);
+    return resource;
+  }
+
+  @Test
+  public void testReadArray() throws IOException {
+    List<DataResource> result = new ArrayList<>();
+    byte[] json = MAPPER.writeValueAsBytes(List.of(resource(0), resource(1)));
+    assertEquals(2, JsonArrayReader.read(new ByteArrayInputStream(json), MAPPER, DataResource.class, result::add));
+    assertEquals("resource_1", result.get(1).getId());
+  }
+
+  @Test
+  public void testReadEmptyBody() throws IOException {
+    assertEquals(0, JsonArrayReader.read(new ByteArrayInputStream(new byte[0]), MAPPER, DataResource.class, element -> {
+    }));
+    assertEquals(0, JsonArrayReader.read(new ByteArrayInputStream("null".getBytes(StandardCharsets.UTF_8)), MAPPER, DataResource.class, element -> {
+    }));
+  }
+
+  @Test(expected = IOException.class)
+  public void testReadNoArray() throws IOException {
+    JsonArrayReader.read(new ByteArrayInputStream("{}".getBytes(StandardCharsets.UTF_8)), MAPPER, DataResource.class, element -> {
+    });
+  }
+
+  @Test(expected = IOException.class)
+  public void testReadTruncatedArray() throws IOException {
+    JsonArrayReader.read(new ByteArrayInputStream("[{\"id\":\"1\"},".getBytes(StandardCharsets.UTF_8)), MAPPER, DataResource.class, element -> {
+    });
+  }
+
+  @Test
+  public void testGetResourcesStreaming() {
+    firstElementConsumed = new CountDownLatch(1);
+    List<String> ids = new ArrayList<>();
+    ContentRange range = SimpleServiceClient.create(baseUrl).
+            accept(MediaType.APPLICATION_JSON).
+            getResources(DataResource.class, resource -> {
+              ids.add(resource.getId());
+              firstElementConsumed.countDown();
+            });
+    assertTrue("First element was not available before the response was complete.", streamed);
+    assertEquals(ELEMENTS, ids.size());
+    assertEquals("resource_" + (ELEMENTS - 1), ids.get(ELEMENTS - 1));
+    assertEquals(ELEMENTS, range.getTotalElements());
+  }
+
+  @Test
+  public void testFindResourcesStreaming() {
+    firstElementConsumed = new CountDownLatch(0);
+    List<String> ids = new ArrayList<>();
+    SimpleServiceClient.create(baseUrl).
+            findResources(resource(0), DataResource.class, resource -> ids.add(resource.getId()));
+    assertEquals(ELEMENTS, ids.size());
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.clients;
+
+import edu.kit.datamanager.clients.SimpleServiceClient.ResultPage;
+import edu.kit.datamanager.util.ControllerUtils;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+
+/**
+ *
+ * @author hartmann-v
+ */
+public class PageSpliteratorTest {
+
+  private static final int PAGE_SIZE = 20;
+
+  private final AtomicInteger requestedPages = new AtomicInteger();
+  private final AtomicInteger pendingPages = new AtomicInteger();
+  private final AtomicInteger maxPendingPages = new AtomicInteger();
+
+  private CompletableFuture<ResultPage<Integer>> fetch(int page, int total, boolean withContentRange) {
+    requestedPages.incrementAndGet();
+    maxPendingPages.accumulateAndGet(pendingPages.incrementAndGet(), Math::max);
+    return CompletableFuture.supplyAsync(() -> {
+      int start = page * PAGE_SIZE;
+      int end = Math.min(total, start + PAGE_SIZE);
+      Integer[] elements = new Integer[Math.max(0, end - start)];
+      for (int i = 0; i < elements.length; i++) {
+        elements[i] = start + i;
+      }
+      String contentRange = (withContentRange && total > 0) ? start + "-" + (end - 1) + "/" + total : null;
+      pendingPages.decrementAndGet();
+      return new ResultPage<>(elements, ControllerUtils.parseContentRangeHeader(contentRange));
+    });
+  }
+
+  private void assertSequence(List<Integer> elements, int total) {
+    assertEquals(total, elements.size());
+    for (int i = 0; i < total; i++) {
+      assertEquals(i, elements.get(i).intValue());
+    }
+  }
+
+  @Test
+  public void testAllPages() {
+    for (int total : new int[]{0, 1, 19, 20, 21, 1000}) {
+      requestedPages.set(0);
+      try (Stream<Integer> stream = PageSpliterator.stream(page -> fetch(page, total, true), 4)) {
+        assertSequence(stream.collect(Collectors.toList()), total);
+      }
+      assertEquals(Math.max(1, (total + PAGE_SIZE - 1) / PAGE_SIZE), requestedPages.get());
+    }
+  }
+
+  @Test
+  public void testWithoutContentRange() {
+    for (int total : new int[]{0, 1, 20, 21, 1000}) {
+      try (Stream<Integer> stream = PageSpliterator.stream(page -> fetch(page, total, false), 4)) {
+        assertSequence(stream.collect(Collectors.toList()), total);
+      }
+    }
+  }
+
+  @Test
+  public void testEarlyTermination() {
+    try (Stream<Integer> stream = PageSpliterator.stream(page -> fetch(page, 100000, true), 4)) {
+      assertSequence(stream.limit(50).collect(Collectors.toList()), 50);
+    }
+    // 3 consumed pages and at most 4 pages ahead
+    assertTrue(requestedPages.get() <= 7);
+    assertTrue(maxPendingPages.get() <= 4);
+  }
+
+  @Test(expected = HttpServerErrorException.class)
+  public void testFailingPage() {
+    try (Stream<Integer> stream = PageSpliterator.stream(page -> {
+      if (page == 2) {
+        return CompletableFuture.failedFuture(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+      }
+      return fetch(page, 1000, true);
+    }, 4)) {
+      stream.count();
+    }
+  }
+}
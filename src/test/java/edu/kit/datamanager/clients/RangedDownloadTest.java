@@ -0,0 +1,215 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.clients;
+
+import com.sun.net.httpserver.HttpExchange;
+import edu.kit.datamanager.util.archive.DigestAlgorithm;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.io.FileUtils;
+import org.junit.AfterClass;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ *
+ * @author hartmann-v
+ */
+public class RangedDownloadTest {
+
+  private static final File TMP_DIR = new File(FileUtils.getTempDirectory(), "ranged_download_test");
+  private static final byte[] CONTENT = new byte[(int) (5 * RangedDownload.MIN_SEGMENT_SIZE)];
+  private static TestServer server;
+  private static String baseUrl;
+  private static final AtomicInteger FAILURES_TO_INJECT = new AtomicInteger();
+  private static final List<String> RANGES = Collections.synchronizedList(new ArrayList<>());
+  private static final List<String> IF_RANGES = Collections.synchronizedList(new ArrayList<>());
+  private static final AtomicInteger VERSION = new AtomicInteger();
+  private static final AtomicInteger PROBES = new AtomicInteger();
+  private static final AtomicBoolean CHANGE_AFTER_PROBE = new AtomicBoolean();
+
+  @BeforeClass
+  public static void setUpClass() throws IOException {
+    new Random(42).nextBytes(CONTENT);
+    FileUtils.forceMkdir(TMP_DIR);
+    server = TestServer.start("/ranged", exchange -> handle(exchange, true)).withContext("/plain", exchange -> handle(exchange, false));
+    baseUrl = server.getUrl("/");
+  }
+
+  @AfterClass
+  public static void tearDownClass() throws IOException {
+    server.close();
+    FileUtils.deleteDirectory(TMP_DIR);
+  }
+
+  @Before
+  public void setUp() {
+    FAILURES_TO_INJECT.set(0);
+    RANGES.clear();
+    IF_RANGES.clear();
+    PROBES.set(0);
+    CHANGE_AFTER_PROBE.set(false);
+  }
+
+  private static void handle(HttpExchange exchange, boolean supportRanges) throws IOException {
+    String etag = "\"v" + VERSION.get() + "\"";
+    if (supportRanges) {
+      exchange.getResponseHeaders().add("Accept-Ranges", "bytes");
+      exchange.getResponseHeaders().add("ETag", etag);
+    }
+    if ("HEAD".equals(exchange.getRequestMethod())) {
+      PROBES.incrementAndGet();
+      exchange.getResponseHeaders().add("Content-Length", Integer.toString(CONTENT.length));
+      exchange.sendResponseHeaders(200, -1);
+      exchange.close();
+      if (CHANGE_AFTER_PROBE.getAndSet(false)) {
+        VERSION.incrementAndGet();
+      }
+      return;
+    }
+    int start = 0;
+    int end = CONTENT.length - 1;
+    String range = exchange.getRequestHeaders().getFirst("Range");
+    String ifRange = exchange.getRequestHeaders().getFirst("If-Range");
+    if (range != null) {
+      IF_RANGES.add(String.valueOf(ifRange));
+    }
+    if (ifRange != null && !ifRange.equals(etag)) {
+      // modified resource, send the whole content
+      range = null;
+    }
+    if (supportRanges && range != null) {
+      RANGES.add(range);
+      String[] bounds = range.substring("bytes=".length()).split("-");
+      start = Integer.parseInt(bounds[0]);
+      end = Integer.parseInt(bounds[1]);
+      exchange.getResponseHeaders().add("Content-Range", "bytes " + start + "-" + end + "/" + CONTENT.length);
+    }
+    int length = end - start + 1;
+    exchange.sendResponseHeaders((supportRanges && range != null) ? 206 : 200, length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      if (FAILURES_TO_INJECT.getAndDecrement() > 0) {
+        // drop the connection after half of the requested bytes
+        out.write(CONTENT, start, length / 2);
+        out.flush();
+        throw new IOException("Injected failure");
+      }
+      out.write(CONTENT, start, length);
+    }
+  }
+
+  private static String sha256() throws IOException {
+    return DigestAlgorithm.SHA_256.digest(new ByteArrayInputStream(CONTENT));
+  }
+
+  @Test
+  public void testSplit() {
+    List<RangedDownload.Segment> segments = RangedDownload.split(CONTENT.length, 4);
+    assertEquals(4, segments.size());
+    long next = 0;
+    for (RangedDownload.Segment segment : segments) {
+      assertEquals(next, segment.getStart());
+      next = segment.getEnd() + 1;
+    }
+    assertEquals(CONTENT.length, next);
+    assertEquals(1, RangedDownload.split(1000, 4).size());
+    assertFalse(RangedDownload.split(-1, 4).get(0).isRanged());
+    assertFalse(RangedDownload.split(0, 4).get(0).isRanged());
+  }
+
+  @Test
+  public void testParallelDownload() throws IOException {
+    File destination = new File(TMP_DIR, "parallel.bin");
+    long size = SimpleServiceClient.create(baseUrl).withResourcePath("ranged").getResource(destination, 4, sha256());
+    assertEquals(CONTENT.length, size);
+    assertArrayEquals(CONTENT, Files.readAllBytes(destination.toPath()));
+    assertEquals(4, RANGES.size());
+  }
+
+  @Test
+  public void testResumeAfterFailure() throws IOException {
+    FAILURES_TO_INJECT.set(2);
+    File destination = new File(TMP_DIR, "resumed.bin");
+    long size = SimpleServiceClient.create(baseUrl).withResourcePath("ranged").getResource(destination, 4, sha256());
+    assertEquals(CONTENT.length, size);
+    assertArrayEquals(CONTENT, Files.readAllBytes(destination.toPath()));
+    // four initial ranges and two resumed ranges
+    assertEquals(6, RANGES.size());
+    List<Long> segmentStarts = new ArrayList<>();
+    for (RangedDownload.Segment segment : RangedDownload.split(CONTENT.length, 4)) {
+      segmentStarts.add(segment.getStart());
+    }
+    long resumedRanges = RANGES.stream().
+            map(range -> Long.parseLong(range.substring("bytes=".length()).split("-")[0])).
+            filter(start -> !segmentStarts.contains(start)).
+            count();
+    assertTrue(resumedRanges > 0);
+  }
+
+  @Test
+  public void testResourceChangedAfterProbe() throws IOException {
+    CHANGE_AFTER_PROBE.set(true);
+    File destination = new File(TMP_DIR, "changed.bin");
+    long size = SimpleServiceClient.create(baseUrl).withResourcePath("ranged").getResource(destination, 4, null);
+    assertEquals(CONTENT.length, size);
+    assertArrayEquals(CONTENT, Files.readAllBytes(destination.toPath()));
+    // the download was restarted after the first range request was answered with the new version
+    assertEquals(2, PROBES.get());
+    assertEquals(4, RANGES.size());
+    for (String ifRange : IF_RANGES) {
+      assertTrue(ifRange.startsWith("\"v"));
+    }
+  }
+
+  @Test
+  public void testDownloadWithoutRangeSupport() throws IOException {
+    File destination = new File(TMP_DIR, "plain.bin");
+    long size = SimpleServiceClient.create(baseUrl).withResourcePath("plain").getResource(destination, 4, sha256());
+    assertEquals(CONTENT.length, size);
+    assertArrayEquals(CONTENT, Files.readAllBytes(destination.toPath()));
+    assertTrue(RANGES.isEmpty());
+  }
+
+  @Test
+  public void testHashMismatch() throws IOException {
+    File destination = new File(TMP_DIR, "mismatch.bin");
+    char[] wrongHash = new char[64];
+    Arrays.fill(wrongHash, '0');
+    try {
+      SimpleServiceClient.create(baseUrl).withResourcePath("ranged").getResource(destination, 4, new String(wrongHash));
+      fail("IOException expected.");
+    } catch (IOException ex) {
+      assertTrue(ex.getMessage().contains("Hash mismatch"));
+    }
+    assertFalse(destination.exists());
+  }
+}
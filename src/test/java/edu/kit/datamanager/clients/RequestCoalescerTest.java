@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.clients;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import edu.kit.datamanager.entities.repo.DataResource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.AfterClass;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+/**
+ *
+ * @author hartmann-v
+ */
+public class RequestCoalescerTest {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final int THREADS = 8;
+  private static final AtomicInteger GET_REQUESTS = new AtomicInteger();
+  private static TestServer server;
+  private static String baseUrl;
+
+  @BeforeClass
+  public static void setUpClass() throws IOException {
+    server = TestServer.startConcurrent("/api/v1/dataresources/", RequestCoalescerTest::handle);
+    baseUrl = server.getBaseUrl();
+  }
+
+  @AfterClass
+  public static void tearDownClass() {
+    server.close();
+  }
+
+  private static void handle(HttpExchange exchange) throws IOException {
+    GET_REQUESTS.incrementAndGet();
+    try {
+      // keep the request in flight until all callers have arrived
+      Thread.sleep(500);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+    DataResource resource = new DataResource();
+    resource.setId("test123");
+    byte[] body = MAPPER.writeValueAsBytes(resource);
+    exchange.getResponseHeaders().add("Content-Type", MediaType.APPLICATION_JSON_VALUE);
+    exchange.sendResponseHeaders(200, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  @Test
+  public void testConcurrentGetsShareRequest() throws Exception {
+    RequestCoalescer coalescer = new RequestCoalescer();
+    GET_REQUESTS.set(0);
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<DataResource>> results = new ArrayList<>();
+    for (int i = 0; i < THREADS; i++) {
+      results.add(executor.submit(() -> {
+        start.await();
+        return SimpleServiceClient.create(baseUrl).
+                withRequestCoalescer(coalescer).
+                withResourcePath("test123").
+                accept(MediaType.APPLICATION_JSON).
+                getResource(DataResource.class);
+      }));
+    }
+    start.countDown();
+    DataResource first = results.get(0).get(10, TimeUnit.SECONDS);
+    for (Future<DataResource> result : results) {
+      assertSame(first, result.get(10, TimeUnit.SECONDS));
+    }
+    executor.shutdown();
+    assertEquals("test123", first.getId());
+    assertTrue(GET_REQUESTS.get() < THREADS);
+    assertEquals(GET_REQUESTS.get(), coalescer.getRequestCount());
+    assertEquals(THREADS, coalescer.getRequestCount() + coalescer.getCoalescedCount());
+    assertEquals(0, coalescer.getInFlightCount());
+  }
+
+  @Test
+  public void testSequentialGetsAreNotShared() {
+    RequestCoalescer coalescer = new RequestCoalescer();
+    SimpleServiceClient.create(baseUrl).withRequestCoalescer(coalescer).withResourcePath("test123").accept(MediaType.APPLICATION_JSON).getResource(DataResource.class);
+    SimpleServiceClient.create(baseUrl).withRequestCoalescer(coalescer).withResourcePath("test123").accept(MediaType.APPLICATION_JSON).getResource(DataResource.class);
+    assertEquals(2, coalescer.getRequestCount());
+    assertEquals(0, coalescer.getCoalescedCount());
+  }
+
+  @Test
+  public void testFailureIsSharedAndReleased() throws Exception {
+    RequestCoalescer coalescer = new RequestCoalescer();
+    CountDownLatch leaderStarted = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    Future<Object> leader = executor.submit(() -> coalescer.execute("key", () -> {
+      leaderStarted.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+      throw new IllegalStateException("failed");
+    }));
+    leaderStarted.await();
+    AtomicReference<Object> followerResult = new AtomicReference<>();
+    Thread follower = new Thread(() -> {
+      try {
+        followerResult.set(coalescer.execute("key", () -> "unexpected"));
+      } catch (IllegalStateException ex) {
+        followerResult.set(ex);
+      }
+    });
+    follower.start();
+    while (coalescer.getCoalescedCount() == 0) {
+      Thread.sleep(10);
+    }
+    release.countDown();
+    follower.join(10000);
+    assertTrue(followerResult.get() instanceof IllegalStateException);
+    try {
+      leader.get(10, TimeUnit.SECONDS);
+      fail("Exception of the request expected.");
+    } catch (ExecutionException ex) {
+      assertTrue(ex.getCause() instanceof IllegalStateException);
+    }
+    executor.shutdown();
+    assertEquals(0, coalescer.getInFlightCount());
+    assertEquals("next", coalescer.execute("key", () -> "next"));
+  }
+
+  @Test
+  public void testKeyDependsOnAuthorization() {
+    String uri = "http://localhost/api/v1/dataresources/test123";
+    String anonymous = RequestCoalescer.key(uri, Map.of("Accept", List.of("application/json")), DataResource.class);
+    String authorized = RequestCoalescer.key(uri, Map.of("Accept", List.of("application/json"), "Authorization", List.of("Bearer abc")), DataResource.class);
+    assertNotEquals(anonymous, authorized);
+    assertEquals(anonymous, RequestCoalescer.key(uri, Map.of("accept", List.of("application/json")), DataResource.class));
+  }
+}
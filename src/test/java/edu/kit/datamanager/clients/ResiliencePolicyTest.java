@@ -0,0 +1,213 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.clients;
+
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.AfterClass;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ *
+ * @author hartmann-v
+ */
+public class ResiliencePolicyTest {
+
+  private static final AtomicInteger REQUESTS = new AtomicInteger();
+  private static TestServer server;
+  private static String baseUrl;
+  private static String host;
+
+  @BeforeClass
+  public static void setUpClass() throws IOException {
+    server = TestServer.startConcurrent("/api/", ResiliencePolicyTest::handle);
+    host = server.getHost();
+    baseUrl = server.getBaseUrl();
+  }
+
+  @AfterClass
+  public static void tearDownClass() {
+    server.close();
+  }
+
+  @Before
+  public void setUp() {
+    REQUESTS.set(0);
+  }
+
+  private static void handle(HttpExchange exchange) throws IOException {
+    int request = REQUESTS.incrementAndGet();
+    exchange.getRequestBody().readAllBytes();
+    String path = exchange.getRequestURI().getPath();
+    int status = 200;
+    if (path.endsWith("/flaky") && request <= 2) {
+      status = 503;
+    } else if (path.endsWith("/down")) {
+      status = 500;
+    } else if (path.endsWith("/slow") && request == 1) {
+      sleep(3000);
+    }
+    byte[] body = "\"ok\"".getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", MediaType.APPLICATION_JSON_VALUE);
+    exchange.sendResponseHeaders(status, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static SimpleServiceClient client(HttpEngine engine, String path) {
+    return SimpleServiceClient.create(baseUrl).withHttpEngine(engine).withResourcePath(path).accept(MediaType.APPLICATION_JSON);
+  }
+
+  @Test
+  public void testRetryIdempotentRequest() throws IOException {
+    ResiliencePolicy policy = ResiliencePolicy.builder().withMaxRetries(3).withBackoff(Duration.ofMillis(1), Duration.ofMillis(10)).build();
+    try (HttpEngine engine = HttpEngine.builder().withResiliencePolicy(policy).build()) {
+      assertEquals("ok", client(engine, "flaky").getResource(String.class));
+      assertEquals(3, REQUESTS.get());
+      assertEquals(2, policy.getRetryCount());
+    }
+  }
+
+  @Test
+  public void testRetryIdempotentRequestAsync() throws Exception {
+    ResiliencePolicy policy = ResiliencePolicy.builder().withMaxRetries(3).withBackoff(Duration.ofMillis(1), Duration.ofMillis(10)).build();
+    try (HttpEngine engine = HttpEngine.builder().withResiliencePolicy(policy).build()) {
+      assertEquals("ok", client(engine, "flaky").getResourceAsync(String.class).get(10, TimeUnit.SECONDS));
+      assertEquals(3, REQUESTS.get());
+      assertEquals(2, policy.getRetryCount());
+    }
+  }
+
+  @Test
+  public void testNoRetryOfPost() throws IOException {
+    ResiliencePolicy policy = ResiliencePolicy.builder().withMaxRetries(3).withBackoff(Duration.ofMillis(1), Duration.ofMillis(10)).build();
+    try (HttpEngine engine = HttpEngine.builder().withResiliencePolicy(policy).build()) {
+      client(engine, "flaky").withContentType(MediaType.APPLICATION_JSON).postResource("test", String.class);
+      fail("HttpServerErrorException expected.");
+    } catch (HttpServerErrorException ex) {
+      assertEquals(503, ex.getStatusCode().value());
+      assertEquals(1, REQUESTS.get());
+    }
+  }
+
+  @Test
+  public void testCircuitBreaker() throws IOException {
+    ResiliencePolicy policy = ResiliencePolicy.builder().withMaxRetries(0).withCircuitBreaker(2, Duration.ofMinutes(1)).build();
+    try (HttpEngine engine = HttpEngine.builder().withResiliencePolicy(policy).build()) {
+      for (int i = 0; i < 2; i++) {
+        try {
+          client(engine, "down").getResource(String.class);
+          fail("HttpServerErrorException expected.");
+        } catch (HttpServerErrorException ex) {
+          assertEquals(500, ex.getStatusCode().value());
+        }
+      }
+      assertEquals(ResiliencePolicy.CircuitState.OPEN, policy.getCircuitState(host));
+      try {
+        client(engine, "down").getResource(String.class);
+        fail("ResourceAccessException expected.");
+      } catch (ResourceAccessException ex) {
+        assertTrue(ex.getCause() instanceof CircuitOpenException);
+      }
+      assertEquals(2, REQUESTS.get());
+      assertEquals(1, policy.getRejectedRequestCount());
+    }
+  }
+
+  @Test
+  public void testHedgedRead() throws IOException {
+    ResiliencePolicy policy = ResiliencePolicy.builder().withHedging(0.9, Duration.ofMillis(50)).build();
+    try (HttpEngine engine = HttpEngine.builder().withResiliencePolicy(policy).build()) {
+      // collect latencies of fast responses
+      for (int i = 0; i < ResiliencePolicy.MIN_LATENCY_SAMPLES; i++) {
+        client(engine, "fast").getResource(String.class);
+      }
+      REQUESTS.set(0);
+      long start = System.nanoTime();
+      assertEquals("ok", client(engine, "slow").getResource(String.class));
+      assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 2000);
+      assertEquals(1, policy.getHedgedRequestCount());
+    }
+  }
+
+  @Test
+  public void testCircuitBreakerTrialWithRuntimeException() throws Exception {
+    ResiliencePolicy policy = ResiliencePolicy.builder().withMaxRetries(0).withCircuitBreaker(1, Duration.ofMillis(20)).build();
+    AtomicInteger calls = new AtomicInteger();
+    ResilientRequestFactory factory = new ResilientRequestFactory((uri, method) -> {
+      switch (calls.incrementAndGet()) {
+        case 1:
+          throw new IOException("Connection refused");
+        case 2:
+          throw new IllegalStateException("Unexpected failure");
+        default:
+          MockClientHttpRequest request = new MockClientHttpRequest(method, uri);
+          request.setResponse(new MockClientHttpResponse(new byte[0], HttpStatus.OK));
+          return request;
+      }
+    }, policy);
+    URI uri = URI.create("http://example.org/api/test");
+    String exampleHost = "example.org:-1";
+    try {
+      factory.createRequest(uri, HttpMethod.GET).execute();
+      fail("IOException expected.");
+    } catch (IOException ex) {
+      assertEquals(ResiliencePolicy.CircuitState.OPEN, policy.getCircuitState(exampleHost));
+    }
+    Thread.sleep(50);
+    try {
+      // trial request of the half open circuit
+      factory.createRequest(uri, HttpMethod.GET).execute();
+      fail("IllegalStateException expected.");
+    } catch (IllegalStateException ex) {
+      assertEquals(ResiliencePolicy.CircuitState.OPEN, policy.getCircuitState(exampleHost));
+    }
+    Thread.sleep(50);
+    try (ClientHttpResponse response = factory.createRequest(uri, HttpMethod.GET).execute()) {
+      assertEquals(200, response.getStatusCode().value());
+    }
+    assertEquals(ResiliencePolicy.CircuitState.CLOSED, policy.getCircuitState(exampleHost));
+    factory.close();
+  }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.clients;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import edu.kit.datamanager.entities.repo.DataResource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.AfterClass;
+import static org.junit.Assert.assertEquals;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+/**
+ *
+ * @author hartmann-v
+ */
+public class ResponseCacheTest {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static TestServer server;
+  private static String baseUrl;
+  private static final AtomicInteger VERSION = new AtomicInteger();
+  private static final AtomicInteger GET_REQUESTS = new AtomicInteger();
+  private static final AtomicInteger FULL_RESPONSES = new AtomicInteger();
+  private static final AtomicInteger PRECONDITION_FAILURES = new AtomicInteger();
+
+  @BeforeClass
+  public static void setUpClass() throws IOException {
+    server = TestServer.start("/api/v1/dataresources/", ResponseCacheTest::handle);
+    baseUrl = server.getBaseUrl();
+  }
+
+  @AfterClass
+  public static void tearDownClass() {
+    server.close();
+  }
+
+  @Before
+  public void setUp() {
+    VERSION.set(1);
+    GET_REQUESTS.set(0);
+    FULL_RESPONSES.set(0);
+    PRECONDITION_FAILURES.set(0);
+  }
+
+  private static void handle(HttpExchange exchange) throws IOException {
+    String etag = "\"" + VERSION.get() + "\"";
+    String method = exchange.getRequestMethod();
+    if ("GET".equals(method)) {
+      GET_REQUESTS.incrementAndGet();
+      if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+        exchange.getResponseHeaders().add("ETag", etag);
+        exchange.sendResponseHeaders(304, -1);
+        exchange.close();
+        return;
+      }
+    } else if (!etag.equals(exchange.getRequestHeaders().getFirst("If-Match"))) {
+      PRECONDITION_FAILURES.incrementAndGet();
+      exchange.sendResponseHeaders(412, -1);
+      exchange.close();
+      return;
+    } else {
+      exchange.getRequestBody().readAllBytes();
+      etag = "\"" + VERSION.incrementAndGet() + "\"";
+    }
+    if ("DELETE".equals(method)) {
+      exchange.sendResponseHeaders(204, -1);
+      exchange.close();
+      return;
+    }
+    FULL_RESPONSES.incrementAndGet();
+    DataResource res = new DataResource();
+    res.setId("test123");
+    byte[] body = MAPPER.writeValueAsString(res).getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("ETag", etag);
+    exchange.getResponseHeaders().add("Content-Type", MediaType.APPLICATION_JSON_VALUE);
+    exchange.sendResponseHeaders(200, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  private SimpleServiceClient client(ResponseCache cache) {
+    return SimpleServiceClient.create(baseUrl).
+            withResponseCache(cache).
+            withResourcePath("test123").
+            accept(MediaType.APPLICATION_JSON);
+  }
+
+  @Test
+  public void testConditionalGet() {
+    ResponseCache cache = new ResponseCache();
+    for (int i = 0; i < 3; i++) {
+      DataResource result = client(cache).getResource(DataResource.class);
+      assertEquals("test123", result.getId());
+    }
+    assertEquals(3, GET_REQUESTS.get());
+    assertEquals(1, FULL_RESPONSES.get());
+    assertEquals(2, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+  }
+
+  @Test
+  public void testPutWithCachedETag() {
+    ResponseCache cache = new ResponseCache();
+    DataResource resource = client(cache).getResource(DataResource.class);
+    client(cache).withContentType(MediaType.APPLICATION_JSON).putResource(resource, DataResource.class);
+    // no additional GET for obtaining the ETag
+    assertEquals(1, GET_REQUESTS.get());
+    assertEquals(2, VERSION.get());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testPutWithStaleCachedETag() {
+    ResponseCache cache = new ResponseCache();
+    DataResource resource = client(cache).getResource(DataResource.class);
+    // modified by someone else
+    VERSION.incrementAndGet();
+    client(cache).withContentType(MediaType.APPLICATION_JSON).putResource(resource, DataResource.class);
+    assertEquals(1, PRECONDITION_FAILURES.get());
+    assertEquals(3, VERSION.get());
+  }
+
+  @Test
+  public void testDeleteWithCachedETag() {
+    ResponseCache cache = new ResponseCache();
+    client(cache).getResource(DataResource.class);
+    client(cache).deleteResource();
+    assertEquals(1, GET_REQUESTS.get());
+    assertEquals(2, VERSION.get());
+  }
+
+  @Test
+  public void testNotModifiedWithoutCachedResponse() {
+    ResponseCache cache = new ResponseCache();
+    // If-None-Match provided by the caller matches the current version
+    DataResource result = client(cache).withHeader("If-None-Match", "\"1\"").getResource(DataResource.class);
+    assertEquals("test123", result.getId());
+    assertEquals(2, GET_REQUESTS.get());
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void testLargeBodyNotCached() {
+    ResponseCache cache = new ResponseCache(ResponseCache.DEFAULT_MAX_ENTRIES, 10);
+    DataResource result = client(cache).getResource(DataResource.class);
+    assertEquals("test123", result.getId());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testEviction() {
+    ResponseCache cache = new ResponseCache(2, ResponseCache.DEFAULT_MAX_BODY_SIZE);
+    for (String path : new String[]{"test1", "test2", "test3"}) {
+      SimpleServiceClient.create(baseUrl).withResponseCache(cache).withResourcePath(path).accept(MediaType.APPLICATION_JSON).getResource(DataResource.class);
+    }
+    assertEquals(2, cache.size());
+    cache.invalidate(baseUrl + "test3");
+    assertEquals(1, cache.size());
+  }
+}
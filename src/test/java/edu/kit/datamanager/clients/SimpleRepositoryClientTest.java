@@ -19,12 +19,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.kit.datamanager.SpringTestConfig;
 import edu.kit.datamanager.entities.repo.ContentInformation;
 import edu.kit.datamanager.entities.repo.DataResource;
+import java.io.ByteArrayInputStream;
 import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import org.junit.Assert;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -32,6 +34,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.mock.http.client.MockClientHttpRequest;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringRunner;
 import static org.springframework.test.web.client.ExpectedCount.once;
@@ -269,4 +272,28 @@ public class SimpleRepositoryClientTest{
       }
     }
   }
+
+  @Test
+  public void testUploadStreamWithKnownLength() throws Exception{
+    byte[] content = "This is a streamed test".getBytes();
+    SimpleServiceClient client = new SimpleServiceClient("http://localhost:8080/api/v1/dataresources/");
+    client = client.withResourcePath("test123/data/testFile.txt").withFormParam("file", new ByteArrayInputStream(content), content.length);
+    client.setRestTemplate(restTemplate);
+
+    mockServer.expect(once(), requestTo("http://localhost:8080/api/v1/dataresources/test123/data/testFile.txt"))
+            .andExpect(request -> {
+              MockClientHttpRequest mockRequest = (MockClientHttpRequest) request;
+              String body = mockRequest.getBodyAsString();
+              assertEquals(body.length(), mockRequest.getHeaders().getContentLength());
+              assertTrue(mockRequest.getHeaders().getContentType().toString().startsWith("multipart/form-data;boundary="));
+              assertTrue(body.contains("name=\"file\""));
+              assertTrue(body.contains("This is a streamed test"));
+            })
+            .andRespond(MockRestResponseCreators.withCreatedEntity(URI.create("http://localhost:8080/api/v1/dataresources/test123/data/testFile.txt")));
+
+    HttpStatus status = client.postForm();
+
+    mockServer.verify();
+    assertEquals(HttpStatus.CREATED, status);
+  }
 }
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.clients;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import edu.kit.datamanager.clients.SimpleServiceClient.ResultPage;
+import edu.kit.datamanager.entities.repo.DataResource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.AfterClass;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ *
+ * @author hartmann-v
+ */
+public class SimpleServiceClientAsyncTest {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static TestServer server;
+  private static String baseUrl;
+  private static final List<String> REQUESTS = new ArrayList<>();
+
+  @BeforeClass
+  public static void setUpClass() throws IOException {
+    server = TestServer.start("/api/v1/dataresources/", SimpleServiceClientAsyncTest::handle);
+    baseUrl = server.getBaseUrl();
+  }
+
+  @AfterClass
+  public static void tearDownClass() {
+    server.close();
+  }
+
+  private static void handle(HttpExchange exchange) throws IOException {
+    String path = exchange.getRequestURI().getPath().substring("/api/v1/dataresources/".length());
+    String method = exchange.getRequestMethod();
+    synchronized (REQUESTS) {
+      REQUESTS.add(method + " " + path + " " + exchange.getRequestHeaders().getFirst("If-Match"));
+    }
+    if (path.equals("moved")) {
+      exchange.getResponseHeaders().add("Location", baseUrl + "test123");
+      exchange.sendResponseHeaders(302, -1);
+    } else if (path.isEmpty() && method.equals("GET")) {
+      DataResource res = new DataResource();
+      res.setId("test123");
+      exchange.getResponseHeaders().add("Content-Range", "0-0/1");
+      sendJson(exchange, new DataResource[]{res});
+    } else if (path.startsWith("test") && method.equals("GET")) {
+      DataResource res = new DataResource();
+      res.setId(path);
+      exchange.getResponseHeaders().add("ETag", "\"1\"");
+      sendJson(exchange, res);
+    } else if (path.startsWith("test") && method.equals("PUT")) {
+      // echo the updated resource
+      byte[] body = exchange.getRequestBody().readAllBytes();
+      exchange.getResponseHeaders().add("Content-Type", MediaType.APPLICATION_JSON_VALUE);
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    } else if (path.startsWith("test") && method.equals("DELETE")) {
+      exchange.sendResponseHeaders(204, -1);
+    } else {
+      exchange.sendResponseHeaders(404, -1);
+    }
+    exchange.close();
+  }
+
+  private static void sendJson(HttpExchange exchange, Object value) throws IOException {
+    byte[] body = MAPPER.writeValueAsString(value).getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", MediaType.APPLICATION_JSON_VALUE);
+    exchange.sendResponseHeaders(200, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  @Test
+  public void testGetResourceAsync() throws Exception {
+    Map<String, String> responseHeaders = new HashMap<>();
+    responseHeaders.put("ETag", null);
+    DataResource result = SimpleServiceClient.create(baseUrl).
+            withResourcePath("test123").
+            accept(MediaType.APPLICATION_JSON).
+            collectResponseHeader(responseHeaders).
+            getResourceAsync(DataResource.class).get(10, TimeUnit.SECONDS);
+    assertEquals("test123", result.getId());
+    assertEquals("\"1\"", responseHeaders.get("ETag"));
+  }
+
+  @Test
+  public void testGetResourceAsyncWithRedirect() throws Exception {
+    DataResource result = SimpleServiceClient.create(baseUrl).
+            withResourcePath("moved").
+            accept(MediaType.APPLICATION_JSON).
+            getResourceAsync(DataResource.class).get(10, TimeUnit.SECONDS);
+    assertEquals("test123", result.getId());
+  }
+
+  @Test
+  public void testGetResourcesAsync() throws Exception {
+    ResultPage<DataResource> page = SimpleServiceClient.create(baseUrl).
+            accept(MediaType.APPLICATION_JSON).
+            getResourcesAsync(DataResource[].class).get(10, TimeUnit.SECONDS);
+    assertEquals(1, page.getResources().length);
+    assertEquals("test123", page.getResources()[0].getId());
+    assertEquals(1, page.getContentRange().getTotalElements());
+  }
+
+  @Test
+  public void testManyRequestsInFlight() throws Exception {
+    List<CompletableFuture<DataResource>> futures = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      futures.add(SimpleServiceClient.create(baseUrl).
+              withResourcePath("test" + i).
+              accept(MediaType.APPLICATION_JSON).
+              getResourceAsync(DataResource.class));
+    }
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+    for (int i = 0; i < 100; i++) {
+      assertEquals("test" + i, futures.get(i).get().getId());
+    }
+  }
+
+  @Test
+  public void testDeleteResourceAsync() throws Exception {
+    SimpleServiceClient.create(baseUrl).
+            withResourcePath("test42").
+            accept(MediaType.APPLICATION_JSON).
+            deleteResourceAsync().get(10, TimeUnit.SECONDS);
+    synchronized (REQUESTS) {
+      assertTrue(REQUESTS.contains("DELETE test42 \"1\""));
+    }
+  }
+
+  @Test
+  public void testNotFoundAsync() throws Exception {
+    try {
+      SimpleServiceClient.create(baseUrl).
+              withResourcePath("unknown").
+              accept(MediaType.APPLICATION_JSON).
+              getResourceAsync(DataResource.class).get(10, TimeUnit.SECONDS);
+      fail("HttpClientErrorException expected.");
+    } catch (ExecutionException ex) {
+      assertTrue(ex.getCause() instanceof HttpClientErrorException);
+    }
+  }
+
+  @Test
+  public void testRequestsInFlightAtOnce() throws Exception {
+    // the server answers only after all requests have arrived, which requires
+    // more requests in flight than the engine has I/O threads
+    int requests = Math.max(64, 4 * Runtime.getRuntime().availableProcessors());
+    CountDownLatch arrived = new CountDownLatch(requests);
+    try (TestServer latchServer = TestServer.startConcurrent("/api/v1/dataresources/", exchange -> {
+      arrived.countDown();
+      try {
+        if (!arrived.await(20, TimeUnit.SECONDS)) {
+          exchange.sendResponseHeaders(503, -1);
+          exchange.close();
+          return;
+        }
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        exchange.close();
+        return;
+      }
+      DataResource res = new DataResource();
+      res.setId(exchange.getRequestURI().getPath().substring("/api/v1/dataresources/".length()));
+      sendJson(exchange, res);
+      exchange.close();
+    }); HttpEngine engine = HttpEngine.builder().
+            withMaxConnectionsTotal(requests).
+            withMaxConnectionsPerRoute(requests).
+            withMeterRegistry(null).
+            build()) {
+      List<CompletableFuture<DataResource>> futures = new ArrayList<>();
+      for (int i = 0; i < requests; i++) {
+        futures.add(SimpleServiceClient.create(latchServer.getBaseUrl()).
+                withHttpEngine(engine).
+                withResourcePath("test" + i).
+                accept(MediaType.APPLICATION_JSON).
+                getResourceAsync(DataResource.class));
+      }
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+      assertEquals(0, arrived.getCount());
+      for (int i = 0; i < requests; i++) {
+        assertEquals("test" + i, futures.get(i).get().getId());
+      }
+    }
+  }
+
+  @Test
+  public void testCustomRestTemplateAsync() throws Exception {
+    // the error handler of the RestTemplate of the client is applied
+    RestTemplate restTemplate = new RestTemplate();
+    restTemplate.setErrorHandler(new DefaultResponseErrorHandler() {
+      @Override
+      public boolean hasError(ClientHttpResponse response) {
+        return false;
+      }
+    });
+    SimpleServiceClient client = SimpleServiceClient.create(baseUrl).
+            withResourcePath("unknown").
+            accept(MediaType.APPLICATION_JSON);
+    client.setRestTemplate(restTemplate);
+    assertNull(client.getResourceAsync(DataResource.class).get(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testPutResourceAsyncKeepsClientHeaders() throws Exception {
+    SimpleServiceClient client = SimpleServiceClient.create(baseUrl).
+            withResourcePath("test7").
+            accept(MediaType.APPLICATION_JSON);
+    DataResource resource = new DataResource();
+    resource.setId("test7");
+    assertEquals("test7", client.putResourceAsync(resource, DataResource.class).get(10, TimeUnit.SECONDS).getId());
+    // the 'If-Match' header of the update must not leak into further requests
+    assertEquals("test7", client.getResource(DataResource.class).getId());
+    synchronized (REQUESTS) {
+      assertTrue(REQUESTS.contains("PUT test7 \"1\""));
+      assertFalse(REQUESTS.contains("GET test7 \"1\""));
+    }
+  }
+}
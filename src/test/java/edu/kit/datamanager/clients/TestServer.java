@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.clients;
+
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded HTTP server shared by the client tests. The server listens on a
+ * random local port and is stopped together with its executor on close.
+ *
+ * @author hartmann-v
+ */
+final class TestServer implements AutoCloseable {
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+  private final String path;
+
+  private TestServer(String path, HttpHandler handler, boolean concurrent) throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    executor = concurrent ? Executors.newCachedThreadPool() : null;
+    if (executor != null) {
+      server.setExecutor(executor);
+    }
+    server.createContext(path, handler);
+    this.path = path;
+    server.start();
+  }
+
+  /**
+   * Start a server handling all requests sequentially.
+   *
+   * @param path The path of the first context, e.g. /api/v1/dataresources/.
+   * @param handler The handler of the first context.
+   *
+   * @return The started server.
+   *
+   * @throws IOException If the server could not be created.
+   */
+  static TestServer start(String path, HttpHandler handler) throws IOException {
+    return new TestServer(path, handler, false);
+  }
+
+  /**
+   * Start a server handling requests concurrently.
+   *
+   * @param path The path of the first context, e.g. /api/v1/dataresources/.
+   * @param handler The handler of the first context.
+   *
+   * @return The started server.
+   *
+   * @throws IOException If the server could not be created.
+   */
+  static TestServer startConcurrent(String path, HttpHandler handler) throws IOException {
+    return new TestServer(path, handler, true);
+  }
+
+  /**
+   * Add another context to this server.
+   *
+   * @param contextPath The path of the context.
+   * @param handler The handler of the context.
+   *
+   * @return This server.
+   */
+  TestServer withContext(String contextPath, HttpHandler handler) {
+    server.createContext(contextPath, handler);
+    return this;
+  }
+
+  /**
+   * Get host and port of this server, e.g. localhost:12345.
+   *
+   * @return Host and port.
+   */
+  String getHost() {
+    return "localhost:" + server.getAddress().getPort();
+  }
+
+  /**
+   * Get the URL of the provided path at this server.
+   *
+   * @param urlPath The path, which has to start with '/'.
+   *
+   * @return The URL.
+   */
+  String getUrl(String urlPath) {
+    return "http://" + getHost() + urlPath;
+  }
+
+  /**
+   * Get the URL of the first context of this server.
+   *
+   * @return The URL.
+   */
+  String getBaseUrl() {
+    return getUrl(path);
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.test;
+
+import edu.kit.datamanager.util.ZipUtils;
+import edu.kit.datamanager.util.archive.ArchiveFormat;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.io.FileUtils;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ *
+ * @author hartmann-v
+ */
+public class ArchiveFormatTest{
+
+  private final static File TMP_DIR = new File(FileUtils.getTempDirectory(), "ArchiveFormatTest/");
+  private final static File CONTENT_DIR = new File(TMP_DIR, "content");
+  private final static String CONTENT = "0123456789abcdefghij";
+
+  @BeforeClass
+  public static void prepareTest() throws IOException{
+    FileUtils.deleteQuietly(TMP_DIR);
+    FileUtils.write(new File(CONTENT_DIR, "file.txt"), CONTENT, StandardCharsets.UTF_8);
+    FileUtils.write(new File(CONTENT_DIR, "sub/other.txt"), "other content", StandardCharsets.UTF_8);
+    //longer than the 100 characters supported by plain tar headers
+    FileUtils.write(new File(CONTENT_DIR, "sub/" + "a".repeat(120) + ".txt"), "long name", StandardCharsets.UTF_8);
+    new File(CONTENT_DIR, "emptyFolder").mkdirs();
+  }
+
+  @AfterClass
+  public static void cleanupTest(){
+    FileUtils.deleteQuietly(TMP_DIR);
+  }
+
+  @Test
+  public void testStreamingRoundTrip() throws IOException{
+    for(ArchiveFormat format : ArchiveFormat.values()){
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      ZipUtils.zipToStream(CONTENT_DIR, CONTENT_DIR.getAbsolutePath(), out, format);
+      File destination = new File(TMP_DIR, "stream_" + format);
+      ZipUtils.unzip(new ByteArrayInputStream(out.toByteArray()), destination, format);
+      checkContent(destination);
+    }
+  }
+
+  @Test
+  public void testFileRoundTrip() throws IOException{
+    for(ArchiveFormat format : ArchiveFormat.values()){
+      File archive = new File(TMP_DIR, "archive." + format.getExtension());
+      ZipUtils.zip(CONTENT_DIR, archive, format);
+      Assert.assertEquals(format, ArchiveFormat.fromFileName(archive.getName()));
+      File destination = new File(TMP_DIR, "file_" + format);
+      ZipUtils.unzip(archive, destination, ArchiveFormat.fromFileName(archive.getName()));
+      checkContent(destination);
+    }
+  }
+
+  @Test
+  public void testFromFileName(){
+    Assert.assertEquals(ArchiveFormat.ZIP, ArchiveFormat.fromFileName("data.ZIP"));
+    Assert.assertEquals(ArchiveFormat.TAR, ArchiveFormat.fromFileName("data.tar"));
+    Assert.assertEquals(ArchiveFormat.TAR_ZSTD, ArchiveFormat.fromFileName("data.tar.zst"));
+    Assert.assertEquals(ArchiveFormat.TAR_ZSTD, ArchiveFormat.fromFileName("data.tzst"));
+    Assert.assertNull(ArchiveFormat.fromFileName("data.txt"));
+    Assert.assertNull(ArchiveFormat.fromFileName(null));
+  }
+
+  @Test(expected = IOException.class)
+  public void testRejectEntryOutsideOfDestination() throws IOException{
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try(TarArchiveOutputStream tarOut = new TarArchiveOutputStream(out)){
+      TarArchiveEntry entry = new TarArchiveEntry("../evil.txt");
+      entry.setSize(1);
+      tarOut.putArchiveEntry(entry);
+      tarOut.write('x');
+      tarOut.closeArchiveEntry();
+    }
+    ZipUtils.unzip(new ByteArrayInputStream(out.toByteArray()), new File(TMP_DIR, "evil"), ArchiveFormat.TAR);
+  }
+
+  private static void checkContent(File pDestination) throws IOException{
+    Assert.assertEquals(CONTENT, FileUtils.readFileToString(new File(pDestination, "file.txt"), StandardCharsets.UTF_8));
+    Assert.assertEquals("other content", FileUtils.readFileToString(new File(pDestination, "sub/other.txt"), StandardCharsets.UTF_8));
+    Assert.assertEquals("long name", FileUtils.readFileToString(new File(pDestination, "sub/" + "a".repeat(120) + ".txt"), StandardCharsets.UTF_8));
+    Assert.assertTrue(new File(pDestination, "emptyFolder").isDirectory());
+  }
+}
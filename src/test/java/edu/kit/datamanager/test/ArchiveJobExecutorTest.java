@@ -0,0 +1,163 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.test;
+
+import edu.kit.datamanager.util.ZipUtils;
+import edu.kit.datamanager.util.archive.ArchiveJob;
+import edu.kit.datamanager.util.archive.ArchiveJobExecutor;
+import edu.kit.datamanager.util.archive.ArchiveProgress;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.apache.commons.io.FileUtils;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ *
+ * @author hartmann-v
+ */
+public class ArchiveJobExecutorTest{
+
+  private final static File TMP_DIR = new File(FileUtils.getTempDirectory(), "ArchiveJobExecutorTest/");
+  private final static File CONTENT_DIR = new File(TMP_DIR, "content");
+  private final static String CONTENT = "0123456789abcdefghij";
+
+  @BeforeClass
+  public static void prepareTest() throws IOException{
+    FileUtils.deleteQuietly(TMP_DIR);
+    FileUtils.write(new File(CONTENT_DIR, "file.txt"), CONTENT, StandardCharsets.UTF_8);
+    FileUtils.write(new File(CONTENT_DIR, "sub/other.txt"), "other content", StandardCharsets.UTF_8);
+  }
+
+  @AfterClass
+  public static void cleanupTest(){
+    FileUtils.deleteQuietly(TMP_DIR);
+  }
+
+  @Test
+  public void testZipAndUnzipJob() throws InterruptedException, ExecutionException, TimeoutException, IOException{
+    File zip = new File(TMP_DIR, "job.zip");
+    File destination = new File(TMP_DIR, "job");
+    try(ArchiveJobExecutor executor = new ArchiveJobExecutor()){
+      ArchiveJob zipJob = executor.submitZip(CONTENT_DIR, zip);
+      Assert.assertEquals(ArchiveJob.TYPE.ZIP, zipJob.getType());
+      Assert.assertEquals(zip, zipJob.getFuture().get(10, TimeUnit.SECONDS));
+      Assert.assertEquals(2, zipJob.getProgress().getEntriesDone());
+      Assert.assertEquals(CONTENT.length() + "other content".length(), zipJob.getProgress().getBytesDone());
+      //finished jobs are not listed anymore and cannot be cancelled
+      Assert.assertNull(executor.getJob(zipJob.getId()));
+      Assert.assertFalse(zipJob.cancel());
+
+      ArchiveJob unzipJob = executor.submitUnzip(zip, destination, 2);
+      Assert.assertEquals(destination, unzipJob.getFuture().get(10, TimeUnit.SECONDS));
+      Assert.assertEquals(2, unzipJob.getProgress().getTotalEntries());
+      Assert.assertEquals(1.0, unzipJob.getProgress().getCompletion(), 0.0);
+      Assert.assertEquals(CONTENT, FileUtils.readFileToString(new File(destination, "file.txt"), StandardCharsets.UTF_8));
+    }
+  }
+
+  @Test
+  public void testFailedJob() throws InterruptedException, TimeoutException{
+    try(ArchiveJobExecutor executor = new ArchiveJobExecutor()){
+      ArchiveJob job = executor.submitUnzip(new File(TMP_DIR, "notExisting.zip"), new File(TMP_DIR, "failed"), 1);
+      try{
+        job.getFuture().get(10, TimeUnit.SECONDS);
+        Assert.fail("Extracting a not existing zip file should fail.");
+      } catch(ExecutionException ex){
+        Assert.assertTrue(ex.getCause() instanceof IOException);
+      }
+    }
+  }
+
+  @Test
+  public void testCancelledJobs() throws InterruptedException, ExecutionException, TimeoutException, IOException{
+    File outDir = new File(TMP_DIR, "cancelled");
+    List<ArchiveJob> jobs = new ArrayList<>();
+    try(ArchiveJobExecutor executor = new ArchiveJobExecutor(1)){
+      for(int i = 0; i < 4; i++){
+        File zip = new File(outDir, "job" + i + ".zip");
+        FileUtils.write(zip, "existing", StandardCharsets.UTF_8);
+        jobs.add(executor.submitZip(CONTENT_DIR, zip));
+      }
+      //cancels running and queued jobs
+    }
+    for(ArchiveJob job : jobs){
+      try{
+        Assert.assertEquals(job.getTarget(), job.getFuture().get(10, TimeUnit.SECONDS));
+      } catch(CancellationException ex){
+        //the existing zip file is only replaced by successful jobs
+        Assert.assertEquals("existing", FileUtils.readFileToString(job.getTarget(), StandardCharsets.UTF_8));
+      }
+    }
+    Assert.assertEquals(4, outDir.list().length);
+  }
+
+  @Test
+  public void testJobFailingWithError() throws InterruptedException, TimeoutException{
+    File outDir = new File(TMP_DIR, "error");
+    outDir.mkdirs();
+    try(ArchiveJobExecutor executor = new ArchiveJobExecutor()){
+      ArchiveJob job = executor.submitZip(CONTENT_DIR, new File(outDir, "error.zip"), file -> {
+        throw new Error("Policy failed.");
+      });
+      try{
+        job.getFuture().get(10, TimeUnit.SECONDS);
+        Assert.fail("A job failing with an error should complete exceptionally.");
+      } catch(ExecutionException ex){
+        Assert.assertTrue(ex.getCause() instanceof Error);
+      }
+    }
+    //the partial zip file is removed
+    Assert.assertEquals(0, outDir.list().length);
+  }
+
+  @Test
+  public void testInvalidZipJob() throws IOException{
+    File zip = new File(TMP_DIR, "invalid.zip");
+    FileUtils.write(zip, "existing", StandardCharsets.UTF_8);
+    try(ArchiveJobExecutor executor = new ArchiveJobExecutor()){
+      executor.submitZip(new File(TMP_DIR, "notExisting"), zip);
+      Assert.fail("Zipping a not existing directory should fail.");
+    } catch(IllegalArgumentException ex){
+      //expected
+    }
+    Assert.assertEquals("existing", FileUtils.readFileToString(zip, StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testCancelledOperation() throws IOException{
+    ArchiveProgress progress = new ArchiveProgress();
+    progress.cancel();
+    File zip = new File(TMP_DIR, "cancelled.zip");
+    try{
+      ZipUtils.zip(CONTENT_DIR.listFiles(), CONTENT_DIR.getAbsolutePath(), zip, null, progress);
+      Assert.fail("Cancelled operation should fail.");
+    } catch(InterruptedIOException ex){
+      //expected
+    }
+    Assert.assertEquals(0, progress.getEntriesDone());
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.test;
+
+import edu.kit.datamanager.util.ZipUtils;
+import edu.kit.datamanager.util.archive.FileTreeWalker;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipFile;
+import org.apache.commons.io.FileUtils;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ *
+ * @author hartmann-v
+ */
+public class FileTreeWalkerTest{
+
+  private final static File TMP_DIR = new File(FileUtils.getTempDirectory(), "FileTreeWalkerTest/");
+  private final static File CONTENT_DIR = new File(TMP_DIR, "content");
+
+  @BeforeClass
+  public static void prepareTest() throws IOException{
+    FileUtils.deleteQuietly(TMP_DIR);
+    FileUtils.write(new File(CONTENT_DIR, "a.txt"), "a", StandardCharsets.UTF_8);
+    FileUtils.write(new File(CONTENT_DIR, "b.bin"), "b", StandardCharsets.UTF_8);
+    FileUtils.write(new File(CONTENT_DIR, "sub/c.TXT"), "c", StandardCharsets.UTF_8);
+    FileUtils.write(new File(CONTENT_DIR, "sub/deep/d.txt"), "d", StandardCharsets.UTF_8);
+    new File(CONTENT_DIR, "empty").mkdirs();
+  }
+
+  @AfterClass
+  public static void cleanupTest(){
+    FileUtils.deleteQuietly(TMP_DIR);
+  }
+
+  @Test
+  public void testWalkDirectory() throws IOException{
+    Assert.assertEquals(Arrays.asList("a.txt", "b.bin", "empty", "sub", "sub/c.TXT", "sub/deep", "sub/deep/d.txt"), walk(FileTreeWalker.of(CONTENT_DIR)));
+  }
+
+  @Test
+  public void testWalkFilesWithBasePath() throws IOException{
+    File[] files = {new File(CONTENT_DIR, "sub"), new File(CONTENT_DIR, "a.txt")};
+    Assert.assertEquals(Arrays.asList("content/a.txt", "content/sub", "content/sub/c.TXT", "content/sub/deep", "content/sub/deep/d.txt"), walk(FileTreeWalker.of(files, TMP_DIR.getPath())));
+  }
+
+  @Test
+  public void testWalkWithFilters() throws IOException{
+    Assert.assertEquals(Arrays.asList("a.txt", "sub/c.TXT", "sub/deep/d.txt"), walk(FileTreeWalker.of(CONTENT_DIR).withExtensions("txt")));
+    Assert.assertEquals(Arrays.asList("a.txt"), walk(FileTreeWalker.of(CONTENT_DIR).withExtensions("txt").withMaxDepth(1)));
+    Assert.assertEquals(Arrays.asList("sub/deep/d.txt"), walk(FileTreeWalker.of(CONTENT_DIR).withGlob("sub/**/*.txt")));
+  }
+
+  @Test
+  public void testReadAhead() throws IOException{
+    List<String> names = new ArrayList<>();
+    try(FileTreeWalker.EntryIterator iterator = FileTreeWalker.of(CONTENT_DIR).iterator(2)){
+      while(iterator.hasNext()){
+        names.add(iterator.next().getName());
+      }
+    }
+    Collections.sort(names);
+    Assert.assertEquals(walk(FileTreeWalker.of(CONTENT_DIR)), names);
+  }
+
+  @Test
+  public void testZipWithWalker() throws IOException{
+    File out = new File(TMP_DIR, "walker.zip");
+    ZipUtils.zip(FileTreeWalker.of(CONTENT_DIR).withExtensions(".txt"), out, null);
+    try(ZipFile zipFile = new ZipFile(out)){
+      Assert.assertEquals(3, zipFile.size());
+      Assert.assertNotNull(zipFile.getEntry("sub/deep/d.txt"));
+      Assert.assertNull(zipFile.getEntry("b.bin"));
+    }
+  }
+
+  private static List<String> walk(FileTreeWalker pWalker) throws IOException{
+    List<String> names = new ArrayList<>();
+    pWalker.forEach(entry -> names.add(entry.getName()));
+    Collections.sort(names);
+    return names;
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.kit.datamanager.util.PostFilterCompiler;
+import java.util.Arrays;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author hartmann-v
+ */
+public class PostFilterCompilerTest {
+
+  @Test
+  public void testCompileTermsFilter() throws Exception {
+    PostFilterCompiler compiler = new PostFilterCompiler("read", 10);
+    JsonNode filter = compiler.compile(Arrays.asList("me", "anonymousUser", "group", "me"));
+    Assert.assertEquals("{\"terms\":{\"read\":[\"anonymousUser\",\"group\",\"me\"]}}", new ObjectMapper().writeValueAsString(filter));
+  }
+
+  @Test
+  public void testReuseForSameIdentities() {
+    PostFilterCompiler compiler = new PostFilterCompiler("read", 10);
+    JsonNode first = compiler.compile(Arrays.asList("a", "b", "c"));
+    JsonNode second = compiler.compile(Arrays.asList("c", "a", "b", "a"));
+    Assert.assertSame(first, second);
+    Assert.assertEquals(1, compiler.size());
+    Assert.assertEquals(1, compiler.getMissCount());
+    Assert.assertEquals(1, compiler.getHitCount());
+    Assert.assertNotSame(first, compiler.compile(Arrays.asList("a", "b")));
+  }
+
+  @Test
+  public void testLeastRecentlyUsedEviction() {
+    PostFilterCompiler compiler = new PostFilterCompiler("read", 2);
+    JsonNode a = compiler.compile(Arrays.asList("a"));
+    JsonNode b = compiler.compile(Arrays.asList("b"));
+    // access 'a' so 'b' becomes eldest
+    Assert.assertSame(a, compiler.compile(Arrays.asList("a")));
+    compiler.compile(Arrays.asList("c"));
+    Assert.assertEquals(2, compiler.size());
+    Assert.assertSame(a, compiler.compile(Arrays.asList("a")));
+    JsonNode newB = compiler.compile(Arrays.asList("b"));
+    Assert.assertNotSame(b, newB);
+    Assert.assertEquals(b, newB);
+    compiler.clear();
+    Assert.assertEquals(0, compiler.size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidMaxEntries() {
+    new PostFilterCompiler("read", 0);
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import edu.kit.datamanager.configuration.SearchConfiguration;
+import edu.kit.datamanager.controller.SearchCacheInvalidationListener;
+import edu.kit.datamanager.controller.SearchController;
+import edu.kit.datamanager.entities.messaging.DataResourceMessage;
+import edu.kit.datamanager.util.SearchResultCache;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.http.ResponseEntity;
+
+/**
+ *
+ * @author hartmann-v
+ */
+public class SearchControllerTest {
+
+  private AnnotationConfigApplicationContext context;
+  private SearchController controller;
+
+  @Before
+  public void setUp() {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put("repo.search.enabled", "true");
+    properties.put("repo.search.cache.enabled", "true");
+    context = new AnnotationConfigApplicationContext();
+    context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", properties));
+    context.getBeanFactory().setConversionService(new DefaultConversionService());
+    context.register(SearchConfiguration.class, SearchController.class);
+    context.refresh();
+    controller = context.getBean(SearchController.class);
+  }
+
+  @After
+  public void tearDown() {
+    context.close();
+  }
+
+  @Test
+  public void testPublishedEventInvalidatesCache() {
+    SearchResultCache<ResponseEntity<JsonNode>> cache = controller.getSearchResultCache();
+    cache.put("a", "index1", ResponseEntity.ok().build(), cache.getGeneration());
+    cache.put("b", "other", ResponseEntity.ok().build(), cache.getGeneration());
+
+    context.publishEvent(message("index1"));
+    Assert.assertNull(cache.get("a"));
+    Assert.assertNotNull(cache.get("b"));
+
+    context.publishEvent(message(null));
+    Assert.assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testReceivedMessageInvalidatesCache() throws Exception {
+    SearchResultCache<ResponseEntity<JsonNode>> cache = controller.getSearchResultCache();
+    SearchCacheInvalidationListener listener = new SearchCacheInvalidationListener(controller);
+    cache.put("a", "index1", ResponseEntity.ok().build(), cache.getGeneration());
+    cache.put("b", "other", ResponseEntity.ok().build(), cache.getGeneration());
+
+    listener.onMessage(new Message(message("index1").toJson().getBytes(StandardCharsets.UTF_8), new MessageProperties()));
+    Assert.assertNull(cache.get("a"));
+    Assert.assertNotNull(cache.get("b"));
+
+    listener.onMessage(new Message("no json".getBytes(StandardCharsets.UTF_8), new MessageProperties()));
+    Assert.assertEquals(0, cache.size());
+  }
+
+  private DataResourceMessage message(String index) {
+    DataResourceMessage message = DataResourceMessage.factoryUpdateMessage("1", "me", "test");
+    if (index != null) {
+      message.getMetadata().put(SearchResultCache.INDEX_PROPERTY, index);
+    }
+    return message;
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.kit.datamanager.util.SearchResultCache;
+import java.util.Arrays;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author hartmann-v
+ */
+public class SearchResultCacheTest {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  @Test
+  public void testKeyIgnoresFieldAndIdentityOrder() throws Exception {
+    String first = SearchResultCache.key("index", 0, 20, Arrays.asList("me", "anonymousUser"),
+            mapper.readTree("{\"query\":{\"match\":{\"title\":\"test\",\"boost\":1}},\"size\":20}"));
+    String second = SearchResultCache.key("index", 0, 20, Arrays.asList("anonymousUser", "me"),
+            mapper.readTree("{\"size\":20,\"query\":{\"match\":{\"boost\":1,\"title\":\"test\"}}}"));
+    Assert.assertEquals(first, second);
+    Assert.assertNotEquals(first, SearchResultCache.key("index", 1, 20, Arrays.asList("me", "anonymousUser"),
+            mapper.readTree("{\"query\":{\"match\":{\"title\":\"test\",\"boost\":1}},\"size\":20}")));
+    Assert.assertNotEquals(first, SearchResultCache.key("index", 0, 20, Arrays.asList("anonymousUser"),
+            mapper.readTree("{\"query\":{\"match\":{\"title\":\"test\",\"boost\":1}},\"size\":20}")));
+  }
+
+  @Test
+  public void testIndexMatching() {
+    Assert.assertTrue(SearchResultCache.matches("*", "index"));
+    Assert.assertTrue(SearchResultCache.matches("index*", "index1"));
+    Assert.assertTrue(SearchResultCache.matches("other,index1", "index1"));
+    Assert.assertFalse(SearchResultCache.matches("other,index2", "index1"));
+    Assert.assertFalse(SearchResultCache.matches("index.1", "indexX1"));
+  }
+
+  @Test
+  public void testInvalidation() {
+    SearchResultCache<String> cache = new SearchResultCache<>(10, 60000);
+    cache.put("a", "index1", "resultA", cache.getGeneration());
+    cache.put("b", "index*", "resultB", cache.getGeneration());
+    cache.put("c", "other", "resultC", cache.getGeneration());
+    Assert.assertEquals("resultA", cache.get("a"));
+    cache.invalidate("index1");
+    Assert.assertNull(cache.get("a"));
+    Assert.assertNull(cache.get("b"));
+    Assert.assertEquals("resultC", cache.get("c"));
+    cache.invalidate(null);
+    Assert.assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testNoCachingAfterConcurrentInvalidation() {
+    SearchResultCache<String> cache = new SearchResultCache<>(10, 60000);
+    long generation = cache.getGeneration();
+    cache.invalidate("index");
+    cache.put("a", "index", "stale", generation);
+    Assert.assertNull(cache.get("a"));
+  }
+
+  @Test
+  public void testExpirationAndEviction() throws Exception {
+    SearchResultCache<String> cache = new SearchResultCache<>(2, 50);
+    cache.put("a", "index", "resultA", cache.getGeneration());
+    cache.put("b", "index", "resultB", cache.getGeneration());
+    // access 'a' so 'b' becomes eldest
+    Assert.assertEquals("resultA", cache.get("a"));
+    cache.put("c", "index", "resultC", cache.getGeneration());
+    Assert.assertNull(cache.get("b"));
+    Assert.assertEquals(2, cache.size());
+    Thread.sleep(100);
+    Assert.assertNull(cache.get("a"));
+    Assert.assertNull(cache.get("c"));
+    Assert.assertEquals(0, cache.size());
+    Assert.assertEquals(1, cache.getHitCount());
+    Assert.assertEquals(3, cache.getMissCount());
+  }
+}
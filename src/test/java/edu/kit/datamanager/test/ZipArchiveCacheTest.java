@@ -0,0 +1,137 @@
+/*
+ * Copyright 2026 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.test;
+
+import edu.kit.datamanager.util.ZipUtils;
+import edu.kit.datamanager.util.archive.ZipArchiveCache;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import org.apache.commons.io.FileUtils;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ *
+ * @author hartmann-v
+ */
+public class ZipArchiveCacheTest{
+
+  private final static File TMP_DIR = new File(FileUtils.getTempDirectory(), "ZipArchiveCacheTest/");
+  private final static File CONTENT_DIR = new File(TMP_DIR, "content");
+  private final static File STORED_ZIP = new File(TMP_DIR, "stored.zip");
+  private final static File DEFLATED_ZIP = new File(TMP_DIR, "deflated.zip");
+  private final static String CONTENT = "0123456789abcdefghij";
+
+  @BeforeClass
+  public static void prepareTest() throws IOException{
+    FileUtils.deleteQuietly(TMP_DIR);
+    FileUtils.write(new File(CONTENT_DIR, "file.txt"), CONTENT, StandardCharsets.UTF_8);
+    FileUtils.write(new File(CONTENT_DIR, "sub/other.txt"), "other content", StandardCharsets.UTF_8);
+    ZipUtils.zip(CONTENT_DIR, STORED_ZIP, file -> ZipEntry.STORED);
+    ZipUtils.zip(CONTENT_DIR, DEFLATED_ZIP);
+  }
+
+  @AfterClass
+  public static void cleanupTest(){
+    FileUtils.deleteQuietly(TMP_DIR);
+  }
+
+  @Test
+  public void testReadEntry() throws IOException{
+    try(ZipArchiveCache cache = new ZipArchiveCache()){
+      for(File archive : new File[]{STORED_ZIP, DEFLATED_ZIP}){
+        try(InputStream in = cache.getInputStream(archive, "file.txt")){
+          Assert.assertEquals(CONTENT, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        try(InputStream in = cache.getInputStream(archive, "sub/other.txt")){
+          Assert.assertEquals("other content", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        Assert.assertEquals(CONTENT.length(), cache.getEntry(archive, "file.txt").getSize());
+      }
+      Assert.assertEquals(2, cache.size());
+    }
+  }
+
+  @Test
+  public void testReadByteRange() throws IOException{
+    try(ZipArchiveCache cache = new ZipArchiveCache()){
+      for(File archive : new File[]{STORED_ZIP, DEFLATED_ZIP}){
+        try(InputStream in = cache.getInputStream(archive, "file.txt", 5, 4)){
+          Assert.assertEquals("5678", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        try(InputStream in = cache.getInputStream(archive, "file.txt", 18, 100)){
+          Assert.assertEquals("ij", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testEvictionKeepsOpenStreamsReadable() throws IOException{
+    try(ZipArchiveCache cache = new ZipArchiveCache(1)){
+      try(InputStream in = cache.getInputStream(STORED_ZIP, "file.txt")){
+        //evicts the stored archive while the stream is still open
+        try(InputStream other = cache.getInputStream(DEFLATED_ZIP, "file.txt")){
+          Assert.assertEquals(CONTENT, new String(other.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals(CONTENT, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+      }
+    }
+  }
+
+  @Test
+  public void testConcurrentOpening() throws Exception{
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try(ZipArchiveCache cache = new ZipArchiveCache()){
+      List<Callable<String>> readers = new ArrayList<>();
+      for(int i = 0; i < 32; i++){
+        File archive = (i % 2 == 0) ? STORED_ZIP : DEFLATED_ZIP;
+        readers.add(() -> {
+          try(InputStream in = cache.getInputStream(archive, "file.txt")){
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+          }
+        });
+      }
+      for(Future<String> result : executor.invokeAll(readers)){
+        Assert.assertEquals(CONTENT, result.get());
+      }
+      //archives opened concurrently by multiple threads are cached only once
+      Assert.assertEquals(2, cache.size());
+    } finally{
+      executor.shutdownNow();
+    }
+  }
+
+  @Test(expected = FileNotFoundException.class)
+  public void testReadMissingEntry() throws IOException{
+    try(ZipArchiveCache cache = new ZipArchiveCache()){
+      cache.getInputStream(STORED_ZIP, "missing.txt");
+    }
+  }
+}
@@ -15,11 +15,20 @@
  */
 package edu.kit.datamanager.test;
 
+import edu.kit.datamanager.entities.repo.ContentInformation;
 import edu.kit.datamanager.util.ZipUtils;
+import edu.kit.datamanager.util.archive.ArchiveManifest;
+import edu.kit.datamanager.util.archive.ChangeDetection;
+import edu.kit.datamanager.util.archive.ContentAwareCompressionPolicy;
+import edu.kit.datamanager.util.archive.DigestAlgorithm;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipOutputStream;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FileUtils;
 import org.junit.AfterClass;
 import org.junit.Assert;
@@ -149,6 +158,200 @@ public class ZipUtilTest{
     FileUtils.deleteQuietly(destination);
   }
 
+  @Test
+  public void testParallelZip() throws IOException{
+    File out = new File(FileUtils.getTempDirectory(), "testParallelZip.zip");
+    ZipUtils.zip(TMP_DIR, out, 4);
+    Assert.assertTrue(out.exists());
+    File destination = new File("out_parallel");
+    destination.mkdirs();
+
+    ZipUtils.unzip(out, destination);
+
+    checkDirectoryStructure(destination);
+    Assert.assertEquals("Simple content in subFolder/testFile.txt", FileUtils.readFileToString(new File(destination, SUB_FOLDER_NAME + "/" + TEST_FILE_NAME), "UTF-8"));
+
+    FileUtils.deleteQuietly(out);
+    FileUtils.deleteQuietly(destination);
+  }
+
+  @Test
+  public void testParallelZipWithDefaultThreads() throws IOException{
+    File out = new File(FileUtils.getTempDirectory(), "testParallelZipWithDefaultThreads.zip");
+    ZipUtils.zip(new File[]{TEST_FILE,
+      UNICODE_FILE,
+      EMPTY_FILE,
+      EMPTY_FOLDER,
+      SUB_FOLDER}, TMP_DIR.getAbsolutePath(), out, 0);
+    Assert.assertTrue(out.exists());
+    File destination = new File("out_parallel_default");
+    destination.mkdirs();
+
+    ZipUtils.unzip(out, destination);
+
+    checkDirectoryStructure(destination);
+
+    FileUtils.deleteQuietly(out);
+    FileUtils.deleteQuietly(destination);
+  }
+
+  @Test
+  public void testZipToStream() throws IOException{
+    File out = new File(FileUtils.getTempDirectory(), "testZipToStream.zip");
+    try(FileOutputStream fout = new FileOutputStream(out)){
+      ZipUtils.zipToStream(TMP_DIR, fout);
+      //stream must still be open after zipping
+      fout.flush();
+    }
+    Assert.assertTrue(out.exists());
+    File destination = new File("out_stream");
+    destination.mkdirs();
+
+    ZipUtils.unzip(out, destination);
+
+    checkDirectoryStructure(destination);
+
+    FileUtils.deleteQuietly(out);
+    FileUtils.deleteQuietly(destination);
+  }
+
+  @Test
+  public void testZipWithCompressionPolicy() throws IOException{
+    File out = new File(FileUtils.getTempDirectory(), "testZipWithCompressionPolicy.zip");
+    //store text files, deflate everything else
+    ZipUtils.zip(TMP_DIR, out, file -> file.toString().endsWith(".txt") ? ZipEntry.STORED : ZipEntry.DEFLATED);
+    Assert.assertTrue(out.exists());
+    try(ZipFile zipFile = new ZipFile(out)){
+      Assert.assertEquals(ZipEntry.STORED, zipFile.getEntry(TEST_FILE_NAME).getMethod());
+      Assert.assertEquals(ZipEntry.STORED, zipFile.getEntry(SUB_FOLDER_NAME + "/" + TEST_FILE_NAME).getMethod());
+      Assert.assertEquals(ZipEntry.DEFLATED, zipFile.getEntry(UNICODE_FILE_NAME).getMethod());
+    }
+    File destination = new File("out_policy");
+    destination.mkdirs();
+
+    ZipUtils.unzip(out, destination);
+
+    checkDirectoryStructure(destination);
+    Assert.assertEquals("Simple content in testFile.txt", FileUtils.readFileToString(new File(destination, TEST_FILE_NAME), "UTF-8"));
+
+    FileUtils.deleteQuietly(out);
+    FileUtils.deleteQuietly(destination);
+  }
+
+  @Test
+  public void testContentAwareCompressionPolicy() throws IOException{
+    ContentAwareCompressionPolicy policy = new ContentAwareCompressionPolicy();
+    Assert.assertEquals(ZipEntry.DEFLATED, policy.selectMethod(TEST_FILE.toPath()));
+    //nested zip file detected by magic bytes
+    File nested = new File(FileUtils.getTempDirectory(), "nestedZip.bin");
+    ZipUtils.zip(new File[]{TEST_FILE}, TMP_DIR.getAbsolutePath(), nested);
+    Assert.assertEquals(ZipEntry.STORED, policy.selectMethod(nested.toPath()));
+    FileUtils.deleteQuietly(nested);
+
+    Assert.assertTrue(ContentAwareCompressionPolicy.isCompressedMediaType("image/jpeg"));
+    Assert.assertTrue(ContentAwareCompressionPolicy.isCompressedMediaType("application/zip"));
+    Assert.assertFalse(ContentAwareCompressionPolicy.isCompressedMediaType("application/json; charset=UTF-8"));
+    Assert.assertFalse(ContentAwareCompressionPolicy.isCompressedMediaType("image/tiff"));
+  }
+
+  @Test
+  public void testParallelUnzip() throws IOException{
+    File out = new File(FileUtils.getTempDirectory(), "testParallelUnzip.zip");
+    ZipUtils.zip(TMP_DIR, out);
+    Assert.assertTrue(out.exists());
+    File destination = new File("out_parallel_unzip");
+
+    ZipUtils.unzip(out, destination, 3);
+
+    checkDirectoryStructure(destination);
+    Assert.assertEquals("Simple content in Ūnîcødę.txt", FileUtils.readFileToString(new File(destination, UNICODE_FILE_NAME), "UTF-8"));
+    Assert.assertEquals(0, new File(destination, EMPTY_FILE_NAME).length());
+
+    FileUtils.deleteQuietly(out);
+    FileUtils.deleteQuietly(destination);
+  }
+
+  @Test(expected = IOException.class)
+  public void testParallelUnzipWithInvalidArchive() throws IOException{
+    ZipUtils.unzip(TEST_FILE, new File("out_invalid_archive"), 2);
+  }
+
+  @Test
+  public void testZipIncremental() throws IOException{
+    File source = new File(FileUtils.getTempDirectory(), "testZipIncremental");
+    FileUtils.copyDirectory(TMP_DIR, source);
+    File out = new File(FileUtils.getTempDirectory(), "testZipIncremental.zip");
+    FileUtils.deleteQuietly(out);
+    File destination = new File("out_incremental");
+    try{
+      //initial run compresses all three non-empty files and the empty file
+      Assert.assertEquals(4, ZipUtils.zipIncremental(source, out, out, ChangeDetection.SIZE_AND_MTIME));
+      //nothing changed
+      Assert.assertEquals(0, ZipUtils.zipIncremental(source, out, out, ChangeDetection.SIZE_AND_MTIME));
+      //modify one file and delete another one
+      FileUtils.write(new File(source, TEST_FILE_NAME), "Modified content", "UTF-8");
+      FileUtils.deleteQuietly(new File(source, EMPTY_FILE_NAME));
+      Assert.assertEquals(1, ZipUtils.zipIncremental(source, out, out, ChangeDetection.CRC32));
+
+      ZipUtils.unzip(out, destination);
+      Assert.assertEquals("Modified content", FileUtils.readFileToString(new File(destination, TEST_FILE_NAME), "UTF-8"));
+      Assert.assertEquals("Simple content in subFolder/testFile.txt", FileUtils.readFileToString(new File(destination, SUB_FOLDER_NAME + "/" + TEST_FILE_NAME), "UTF-8"));
+      Assert.assertFalse(new File(destination, EMPTY_FILE_NAME).exists());
+      Assert.assertTrue(new File(destination, EMPTY_FOLDER_NAME).exists());
+    } finally{
+      FileUtils.deleteQuietly(source);
+      FileUtils.deleteQuietly(out);
+      FileUtils.deleteQuietly(destination);
+    }
+  }
+
+  @Test
+  public void testAppendToZip() throws IOException{
+    File out = new File(FileUtils.getTempDirectory(), "testAppendToZip.zip");
+    ZipUtils.zip(new File[]{TEST_FILE, EMPTY_FOLDER}, TMP_DIR.getAbsolutePath(), out);
+    ZipUtils.appendToZip(out, new File[]{UNICODE_FILE, EMPTY_FILE, SUB_FOLDER}, TMP_DIR.getAbsolutePath());
+    File destination = new File("out_append");
+
+    ZipUtils.unzip(out, destination);
+
+    checkDirectoryStructure(destination);
+
+    FileUtils.deleteQuietly(out);
+    FileUtils.deleteQuietly(destination);
+  }
+
+  @Test
+  public void testZipWithManifest() throws IOException{
+    File out = new File(FileUtils.getTempDirectory(), "testZipWithManifest.zip");
+    ArchiveManifest manifest = ZipUtils.zipWithManifest(TMP_DIR, out, DigestAlgorithm.SHA_256, DigestAlgorithm.MD5, DigestAlgorithm.XXHASH32);
+    Assert.assertEquals(4, manifest.size());
+    ArchiveManifest.Entry entry = manifest.getEntry(TEST_FILE_NAME);
+    Assert.assertEquals(TEST_FILE.length(), entry.getSize());
+    Assert.assertEquals("sha256:" + DigestUtils.sha256Hex(FileUtils.readFileToByteArray(TEST_FILE)), entry.getHash(DigestAlgorithm.SHA_256));
+    Assert.assertEquals("md5:" + DigestUtils.md5Hex(FileUtils.readFileToByteArray(TEST_FILE)), entry.getHash(DigestAlgorithm.MD5));
+    Assert.assertTrue(entry.getHash(DigestAlgorithm.XXHASH32).matches("xxh32:[0-9a-f]{8}"));
+    Assert.assertNull(entry.getHash(DigestAlgorithm.SHA_1));
+    Assert.assertEquals("sha256:" + DigestUtils.sha256Hex(new byte[0]), manifest.getEntry(EMPTY_FILE_NAME).getHash(DigestAlgorithm.SHA_256));
+
+    File destination = new File("out_manifest");
+    ArchiveManifest extracted = ZipUtils.unzipWithManifest(out, destination, 2, DigestAlgorithm.SHA_256);
+    checkDirectoryStructure(destination);
+    List<ContentInformation> contentInformation = extracted.toContentInformation();
+    Assert.assertEquals(4, contentInformation.size());
+    for(ContentInformation info : contentInformation){
+      ArchiveManifest.Entry original = manifest.getEntry(info.getRelativePath());
+      Assert.assertEquals(original.getSize(), info.getSize());
+      Assert.assertEquals(original.getHash(DigestAlgorithm.SHA_256), info.getHash());
+    }
+
+    ContentInformation unknown = new ContentInformation();
+    unknown.setRelativePath("unknown.txt");
+    Assert.assertFalse(extracted.populate(unknown));
+
+    FileUtils.deleteQuietly(out);
+    FileUtils.deleteQuietly(destination);
+  }
+
   @Test
   public void testZipWithBasePath() throws IOException{
     File out = new File(FileUtils.getTempDirectory(), "testZipWithBasePath.zip");